@@ -0,0 +1,96 @@
+package com.myskoolclub.backend.security;
+
+import com.myskoolclub.backend.model.Member;
+import com.myskoolclub.backend.model.UserClubRole;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-check cost of the security helper decisions before and after compiling them into MemberCapabilities:
+ * role-name comparisons and a scan of the club roles against bit tests and a binary search, and what a
+ * request pays to build its capabilities with and without a club check.
+ * Run with mvn -Pbenchmark test-compile exec:exec; JMH's generated code subclasses this class from another
+ * package, so unlike the tests it has to be public.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemberCapabilitiesBenchmark {
+
+    private static final int CLUB_ROLES = 20;
+
+    private Member member;
+    private List<UserClubRole> clubRoles;
+    private MemberCapabilities capabilities;
+    private String clubId;
+
+    @Setup
+    public void setUp() {
+        member = new Member();
+        member.setRole("SCHOOL_ADMIN");
+        member.setSchoolId("school-1");
+
+        clubRoles = new ArrayList<>();
+        for (int i = 0; i < CLUB_ROLES; i++) {
+            clubRoles.add(new UserClubRole("member-1", "club-" + i, "school-1", i % 2 == 0 ? "CLUB_ADMIN" : "CLUB_USER"));
+        }
+        clubId = "club-" + (CLUB_ROLES - 2);
+
+        capabilities = MemberCapabilities.of(member, clubRoles);
+        capabilities.isClubAdmin(clubId);
+    }
+
+    // Before: what canAccessSchool and canAccessFinancialFeatures compared on every call
+    @Benchmark
+    public boolean roleCheckByName() {
+        String role = member.getRole();
+        return "APP_ADMIN".equals(role) || ("SCHOOL_ADMIN".equals(role) && "school-1".equals(member.getSchoolId()));
+    }
+
+    @Benchmark
+    public boolean roleCheckByCapabilities() {
+        return capabilities.isAppAdmin() || (capabilities.isSchoolAdmin() && capabilities.belongsToSchool("school-1"));
+    }
+
+    // Before: scanning the member's club roles for an admin role in the club
+    @Benchmark
+    public boolean clubCheckByScan() {
+        for (UserClubRole role : clubRoles) {
+            if ("CLUB_ADMIN".equals(role.getClubRole()) && clubId.equals(role.getClubId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean clubCheckByCapabilities() {
+        return capabilities.isClubAdmin(clubId);
+    }
+
+    // Once per request: a request making only role checks never compiles the club IDs
+    @Benchmark
+    public boolean compileForRoleCheck() {
+        return MemberCapabilities.lazy(member, () -> clubRoles).hasAnyRole(MemberCapabilities.SCHOOL_ADMIN);
+    }
+
+    @Benchmark
+    public boolean compileForClubCheck() {
+        return MemberCapabilities.lazy(member, () -> clubRoles).isClubAdmin(clubId);
+    }
+}
@@ -0,0 +1,83 @@
+package com.myskoolclub.backend.config;
+
+import com.myskoolclub.backend.model.Checkout;
+import com.myskoolclub.backend.model.Invoice;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Converts monetary fields written as strings (before BigDecimal was mapped to Decimal128) in place.
+ * Each step is a server-side pipeline update that only matches documents still holding a string,
+ * so an interrupted run simply continues where it stopped on the next start. Strings that are not numbers
+ * are left as they are, and a step that fails (e.g. Mongo unreachable) is logged without stopping startup.
+ */
+@Component
+@Order(1)
+public class DecimalAmountMigration implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(DecimalAmountMigration.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(String... args) {
+        for (String field : List.of("subtotal", "taxAmount", "totalAmount")) {
+            convertField(Invoice.class, field);
+        }
+        convertArrayFields(Invoice.class, "lineItems", "unitPrice", "totalPrice");
+        convertField(Checkout.class, "totalEstimatedValue");
+        convertArrayFields(Checkout.class, "checkoutItems", "estimatedValue");
+    }
+
+    private void convertField(Class<?> entityClass, String field) {
+        Document filter = new Document(field, new Document("$type", "string"));
+        Document set = new Document("$set", new Document(field, toDecimal("$" + field)));
+        update(entityClass, field, filter, set);
+    }
+
+    private void convertArrayFields(Class<?> entityClass, String arrayField, String... fields) {
+        List<Document> stringElements = Arrays.stream(fields)
+                .map(field -> new Document(arrayField + "." + field, new Document("$type", "string")))
+                .toList();
+        Document converted = new Document();
+        for (String field : fields) {
+            converted.append(field, toDecimal("$$item." + field));
+        }
+        Document mapped = new Document("$map", new Document("input", "$" + arrayField)
+                .append("as", "item")
+                .append("in", new Document("$mergeObjects", List.of("$$item", converted))));
+        Document set = new Document("$set", new Document(arrayField, mapped));
+        update(entityClass, arrayField, new Document("$or", stringElements), set);
+    }
+
+    // Null, missing and non-numeric values are kept as they are instead of failing the whole update
+    private static Document toDecimal(String path) {
+        return new Document("$convert", new Document("input", path).append("to", "decimal")
+                .append("onNull", path).append("onError", path));
+    }
+
+    // Runs through MongoTemplate#execute so driver errors surface as DataAccessException
+    private void update(Class<?> entityClass, String field, Document filter, Document set) {
+        try {
+            long modified = mongoTemplate.execute(entityClass,
+                    collection -> collection.updateMany(filter, List.of(set)).getModifiedCount());
+            if (modified > 0) {
+                logger.info("Converted {} on {} {} documents to Decimal128", field, modified, entityClass.getSimpleName());
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Could not convert {} on {} documents, retrying on next start: {}",
+                    field, entityClass.getSimpleName(), e.getMessage());
+        }
+    }
+}
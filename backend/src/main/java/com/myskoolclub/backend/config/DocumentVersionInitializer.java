@@ -0,0 +1,49 @@
+package com.myskoolclub.backend.config;
+
+import com.myskoolclub.backend.model.Checkout;
+import com.myskoolclub.backend.model.Invoice;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gives documents written before optimistic locking was introduced an initial version.
+ * Without it Spring Data treats a loaded document with a null version as new and save() would try to insert it again.
+ * A failed run, e.g. with Mongo unreachable, is logged and does not stop startup; it is retried on the next start.
+ */
+@Component
+@Order(0)
+public class DocumentVersionInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentVersionInitializer.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(String... args) {
+        backfill(Checkout.class);
+        backfill(Invoice.class);
+    }
+
+    private void backfill(Class<?> entityClass) {
+        try {
+            long updated = mongoTemplate.updateMulti(new Query(Criteria.where("version").exists(false)),
+                    new Update().set("version", 0L), entityClass).getModifiedCount();
+            if (updated > 0) {
+                logger.info("Initialized version on {} {} documents", updated, entityClass.getSimpleName());
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Could not initialize versions on {} documents, retrying on next start: {}",
+                    entityClass.getSimpleName(), e.getMessage());
+        }
+    }
+}
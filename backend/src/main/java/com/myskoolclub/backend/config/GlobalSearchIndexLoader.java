@@ -0,0 +1,44 @@
+package com.myskoolclub.backend.config;
+
+import com.myskoolclub.backend.service.GlobalSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Builds the global search index of every school off the startup thread. A school searched before
+ * its turn is built on that first search instead.
+ */
+@Component
+@Order(3)
+public class GlobalSearchIndexLoader implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(GlobalSearchIndexLoader.class);
+
+    @Autowired
+    private GlobalSearchIndex globalSearchIndex;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
+
+    @Override
+    public void run(String... args) {
+        taskExecutor.execute(() -> {
+            try {
+                long start = System.currentTimeMillis();
+                long documents = globalSearchIndex.rebuildAll();
+                logger.info("Indexed {} documents of {} schools for global search in {} ms", documents,
+                        globalSearchIndex.getLoadedSchoolCount(), System.currentTimeMillis() - start);
+            } catch (RuntimeException e) {
+                logger.error("Global search index build failed: {}", e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,335 @@
+package com.myskoolclub.backend.config;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.IndexOptions;
+import com.myskoolclub.backend.model.Announcement;
+import com.myskoolclub.backend.model.Checkout;
+import com.myskoolclub.backend.model.Club;
+import com.myskoolclub.backend.model.Invoice;
+import com.myskoolclub.backend.model.Member;
+import com.myskoolclub.backend.model.School;
+import com.myskoolclub.backend.model.User;
+import com.myskoolclub.backend.model.UserClubRole;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * Every index the application relies on, declared per collection next to the query shapes it serves.
+ * Missing indexes are built off the startup thread. Indexes found on the server that are not declared here,
+ * or that have the declared keys but a different uniqueness, are reported as drift and left in place.
+ */
+@Component
+public class IndexCatalog implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexCatalog.class);
+
+    // weights is only set for text indexes, whose fields all map to "text" in keys
+    public record CatalogIndex(Class<?> entityClass, String name, Document keys, boolean unique, Document weights) {
+        public boolean isText() {
+            return weights != null;
+        }
+    }
+
+    public record Drift(String collection, List<String> missing, List<String> undeclared, List<String> conflicting) {
+        public boolean isEmpty() {
+            return missing.isEmpty() && undeclared.isEmpty() && conflicting.isEmpty();
+        }
+    }
+
+    private static final List<CatalogIndex> INDEXES = List.of(
+            // checkouts
+            unique(Checkout.class, "checkoutNumber_unique", "checkoutNumber", 1),
+            // findByClubId (default sort), countByClubId, club cascade
+            index(Checkout.class, "club_number", "clubId", 1, "checkoutNumber", 1),
+            // findByClubIdOrderByCheckoutDateDesc
+            index(Checkout.class, "club_checkoutDate", "clubId", 1, "checkoutDate", -1),
+            // findByStatusOrderByCheckoutDateDesc, findActiveCheckouts, findReturnedCheckouts, countByStatus
+            index(Checkout.class, "status_checkoutDate", "status", 1, "checkoutDate", -1),
+            // findByStatus (default sort)
+            index(Checkout.class, "status_number", "status", 1, "checkoutNumber", 1),
+            // findOverdueCheckouts, countOverdueCheckouts: equality on status before the dueDate range
+            index(Checkout.class, "status_dueDate", "status", 1, "dueDate", 1),
+            // approved queue, all clubs / scoped to clubs
+            index(Checkout.class, "status_created", "status", 1, "createdAt", -1, "_id", -1),
+            index(Checkout.class, "status_club_created_id", "status", 1, "clubId", 1, "createdAt", -1, "_id", -1),
+            // pending approval queue, all clubs / scoped to clubs
+            index(Checkout.class, "approval_created", "approvalStatus", 1, "createdAt", -1, "_id", -1),
+            index(Checkout.class, "approval_club_created_id", "approvalStatus", 1, "clubId", 1, "createdAt", -1, "_id", -1),
+            // findByCheckoutDateBetween
+            index(Checkout.class, "checkoutDate", "checkoutDate", 1),
+            // estimated value range filters
+            index(Checkout.class, "totalEstimatedValue", "totalEstimatedValue", 1),
+            // keyword prefix search, all clubs / scoped to a club
+            index(Checkout.class, "searchTokens", "searchTokens", 1),
+            index(Checkout.class, "clubNameTokens", "clubNameTokens", 1),
+            index(Checkout.class, "club_searchTokens", "clubId", 1, "searchTokens", 1),
+            // $text keyword search, ranked by relevance
+            text(Checkout.class, "checkout_text", "checkoutNumber", 10, "borrowerName", 5, "borrowerEmail", 5,
+                    "checkoutItems.itemName", 3, "checkoutItems.itemType", 2, "clubName", 2, "notes", 1),
+
+            // invoices
+            unique(Invoice.class, "invoiceNumber_unique", "invoiceNumber", 1),
+            // findByClubId (default sort), countByClubId, club cascade
+            index(Invoice.class, "club_number", "clubId", 1, "invoiceNumber", 1),
+            // findByClubIdOrderByCreatedAtDesc
+            index(Invoice.class, "club_created", "clubId", 1, "createdAt", -1),
+            // findByStatus (default sort), countByStatus
+            index(Invoice.class, "status_number", "status", 1, "invoiceNumber", 1),
+            // findOverdueInvoices
+            index(Invoice.class, "status_dueDate", "status", 1, "dueDate", 1),
+            // pending approval queue, all clubs / scoped to clubs (also findByApprovalStatusAndClubId)
+            index(Invoice.class, "approval_created", "approvalStatus", 1, "createdAt", -1, "_id", -1),
+            index(Invoice.class, "approval_club_created_id", "approvalStatus", 1, "clubId", 1, "createdAt", -1, "_id", -1),
+            // findByIssueDateBetween
+            index(Invoice.class, "issueDate", "issueDate", 1),
+            // amount range filters
+            index(Invoice.class, "totalAmount", "totalAmount", 1),
+            // keyword prefix search, all clubs / scoped to a club
+            index(Invoice.class, "searchTokens", "searchTokens", 1),
+            index(Invoice.class, "clubNameTokens", "clubNameTokens", 1),
+            index(Invoice.class, "club_searchTokens", "clubId", 1, "searchTokens", 1),
+            // $text keyword search, ranked by relevance
+            text(Invoice.class, "invoice_text", "invoiceNumber", 10, "billToName", 5, "clubName", 2, "notes", 1),
+
+            // clubs
+            // findBySchoolId (default sort), findByNameAndSchoolId, existsByNameAndSchoolId, countBySchoolId
+            index(Club.class, "school_name", "schoolId", 1, "name", 1),
+            // findBySchoolIdAndActive, countBySchoolIdAndActive
+            index(Club.class, "school_active_name", "schoolId", 1, "active", 1, "name", 1),
+            // findByCategoryAndSchoolId
+            index(Club.class, "school_category_name", "schoolId", 1, "category", 1, "name", 1),
+            // findByActive
+            index(Club.class, "active_name", "active", 1, "name", 1),
+            // findByCategory, countByCategory
+            index(Club.class, "category_name", "category", 1, "name", 1),
+            // findByMeetingDay
+            index(Club.class, "meetingDay", "meetingDay", 1),
+            // findByTagsIn
+            index(Club.class, "tags", "tags", 1),
+            // keyword prefix search, all schools / scoped to a school
+            index(Club.class, "searchTokens", "searchTokens", 1),
+            index(Club.class, "schoolNameTokens", "schoolNameTokens", 1),
+            index(Club.class, "school_searchTokens", "schoolId", 1, "searchTokens", 1),
+
+            // members
+            unique(Member.class, "email_unique", "email", 1),
+            // findBySchoolIdAndIsActive, countBySchoolIdAndIsActive, member directory
+            index(Member.class, "school_active_role_lastname", "schoolId", 1, "isActive", 1, "role", 1, "lastName", 1),
+            // findByIsActive
+            index(Member.class, "active_lastname", "isActive", 1, "lastName", 1),
+            // findByMemberTypeAndIsActive, countByMemberTypeAndIsActive
+            index(Member.class, "memberType_active", "memberType", 1, "isActive", 1),
+            // findByGradeLevelAndIsActive, countByGradeLevelAndIsActive
+            index(Member.class, "gradeLevel_active", "gradeLevel", 1, "isActive", 1),
+            // keyword prefix search over active members, all schools / scoped to a school (also suggestions)
+            index(Member.class, "active_searchTokens", "isActive", 1, "searchTokens", 1),
+            index(Member.class, "school_active_searchTokens", "schoolId", 1, "isActive", 1, "searchTokens", 1),
+            index(Member.class, "schoolNameTokens", "schoolNameTokens", 1),
+
+            // schools
+            unique(School.class, "name_unique", "name", 1),
+            // findByIsActiveTrueOrderByName, countByIsActive
+            index(School.class, "active_name", "isActive", 1, "name", 1),
+            index(School.class, "city", "city", 1),
+            index(School.class, "state", "state", 1),
+            index(School.class, "type", "type", 1),
+            // searchSchoolsByName
+            index(School.class, "searchTokens", "searchTokens", 1),
+
+            // user_club_roles
+            // findByMemberIdAndClubIdAndActiveTrue and every other memberId-prefixed lookup, member cascade
+            unique(UserClubRole.class, "member_club_unique", "memberId", 1, "clubId", 1),
+            // findByClubIdAndActiveTrue, findByClubIdAndClubRoleAndActiveTrue, findByClubIdInAndActiveTrue, club cascade
+            index(UserClubRole.class, "club_role_active", "clubId", 1, "clubRole", 1, "active", 1),
+            // findBySchoolIdAndActiveTrue, findBySchoolIdAndClubRoleAndActiveTrue, school cascade
+            index(UserClubRole.class, "school_role_active", "schoolId", 1, "clubRole", 1, "active", 1),
+            // findByMemberEmailAndActiveTrue
+            index(UserClubRole.class, "memberEmail", "memberEmail", 1),
+
+            // announcements
+            // findBySchoolIdAndActiveOrderByCreatedAtDesc, school cascade
+            index(Announcement.class, "school_active_created", "schoolId", 1, "active", 1, "createdAt", -1),
+
+            // users
+            unique(User.class, "username_unique", "username", 1),
+            unique(User.class, "email_unique", "email", 1),
+            // findByRole, countByRole
+            index(User.class, "role_active", "role", 1, "active", 1),
+            // findBySchoolIdAndRole, findBySchoolIdAndRoleAndActiveTrue
+            index(User.class, "school_role_active", "schoolId", 1, "role", 1, "active", 1),
+            // findByActiveTrue, countByActiveTrue
+            index(User.class, "active", "active", 1));
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
+
+    @Override
+    public void run(String... args) {
+        taskExecutor.execute(() -> {
+            try {
+                ensureIndexes();
+            } catch (RuntimeException e) {
+                logger.error("Index catalog verification failed: {}", e.getMessage());
+            }
+        });
+    }
+
+    public List<CatalogIndex> getIndexes() {
+        return INDEXES;
+    }
+
+    /**
+     * Create every declared index that does not exist yet and return the remaining drift per collection
+     */
+    public List<Drift> ensureIndexes() {
+        return reconcile(true);
+    }
+
+    /**
+     * Compare the declared indexes with the server without creating anything
+     */
+    public List<Drift> verify() {
+        return reconcile(false);
+    }
+
+    private List<Drift> reconcile(boolean create) {
+        Map<String, List<CatalogIndex>> byCollection = INDEXES.stream().collect(Collectors.groupingBy(
+                index -> mongoTemplate.getCollectionName(index.entityClass()), LinkedHashMap::new, Collectors.toList()));
+
+        List<Drift> drifts = new ArrayList<>();
+        byCollection.forEach((collectionName, declared) -> {
+            MongoCollection<Document> collection = mongoTemplate.getCollection(collectionName);
+            List<Document> existing = collection.listIndexes().into(new ArrayList<>());
+            List<String> missing = new ArrayList<>();
+            List<String> conflicting = new ArrayList<>();
+            List<Document> matched = new ArrayList<>();
+
+            for (CatalogIndex index : declared) {
+                Document present = existing.stream()
+                        .filter(info -> index.isText() ? isTextIndex(info) : sameKeys(info.get("key", Document.class), index.keys()))
+                        .findFirst()
+                        .orElse(null);
+                if (present != null) {
+                    matched.add(present);
+                    if (index.isText() && !sameWeights(present.get("weights", Document.class), index.weights())) {
+                        // A collection holds at most one text index, so different fields or weights cannot coexist
+                        conflicting.add(present.getString("name") + " (declared " + index.name() + ", weights=" + index.weights() + ")");
+                    } else if (present.getBoolean("unique", false) != index.unique()) {
+                        conflicting.add(present.getString("name") + " (declared " + index.name() + ", unique=" + index.unique() + ")");
+                    }
+                } else if (create && build(collection, index)) {
+                    logger.info("Created index {} on {}", index.name(), collectionName);
+                } else {
+                    missing.add(index.name());
+                }
+            }
+
+            List<String> undeclared = existing.stream()
+                    .filter(info -> !matched.contains(info) && !"_id_".equals(info.getString("name")))
+                    .map(info -> info.getString("name"))
+                    .toList();
+
+            Drift drift = new Drift(collectionName, missing, undeclared, conflicting);
+            if (!drift.isEmpty()) {
+                logger.warn("Index drift on {}: missing={}, undeclared={}, conflicting={}",
+                        collectionName, missing, undeclared, conflicting);
+                drifts.add(drift);
+            }
+        });
+        return drifts;
+    }
+
+    private boolean build(MongoCollection<Document> collection, CatalogIndex index) {
+        try {
+            IndexOptions options = new IndexOptions().name(index.name()).unique(index.unique());
+            if (index.isText()) {
+                options.weights(index.weights());
+            }
+            collection.createIndex(index.keys(), options);
+            return true;
+        } catch (MongoException e) {
+            logger.error("Could not create index {} on {}: {}", index.name(), collection.getNamespace(), e.getMessage());
+            return false;
+        }
+    }
+
+    // Key order matters; numeric directions may come back as int, long or double
+    private static boolean sameKeys(Document actual, Document declared) {
+        if (actual == null || actual.size() != declared.size()) {
+            return false;
+        }
+        List<String> actualFields = new ArrayList<>(actual.keySet());
+        List<String> declaredFields = new ArrayList<>(declared.keySet());
+        for (int i = 0; i < declaredFields.size(); i++) {
+            String field = declaredFields.get(i);
+            if (!field.equals(actualFields.get(i)) || !sameDirection(actual.get(field), declared.get(field))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The server stores a text index under the _fts/_ftsx key pattern and keeps the fields in its weights
+    private static boolean isTextIndex(Document info) {
+        Document key = info.get("key", Document.class);
+        return key != null && "text".equals(key.get("_fts"));
+    }
+
+    private static boolean sameWeights(Document actual, Document declared) {
+        if (actual == null || !actual.keySet().equals(declared.keySet())) {
+            return false;
+        }
+        return declared.keySet().stream().allMatch(field -> sameDirection(actual.get(field), declared.get(field)));
+    }
+
+    private static boolean sameDirection(Object actual, Object declared) {
+        if (actual instanceof Number && declared instanceof Number) {
+            return ((Number) actual).intValue() == ((Number) declared).intValue();
+        }
+        return declared.equals(actual);
+    }
+
+    private static CatalogIndex index(Class<?> entityClass, String name, Object... fieldsAndDirections) {
+        return new CatalogIndex(entityClass, name, keys(fieldsAndDirections), false, null);
+    }
+
+    private static CatalogIndex unique(Class<?> entityClass, String name, Object... fieldsAndDirections) {
+        return new CatalogIndex(entityClass, name, keys(fieldsAndDirections), true, null);
+    }
+
+    private static CatalogIndex text(Class<?> entityClass, String name, Object... fieldsAndWeights) {
+        Document keys = new Document();
+        Document weights = new Document();
+        for (int i = 0; i < fieldsAndWeights.length; i += 2) {
+            keys.append((String) fieldsAndWeights[i], "text");
+            weights.append((String) fieldsAndWeights[i], fieldsAndWeights[i + 1]);
+        }
+        return new CatalogIndex(entityClass, name, keys, false, weights);
+    }
+
+    private static Document keys(Object... fieldsAndDirections) {
+        Document keys = new Document();
+        for (int i = 0; i < fieldsAndDirections.length; i += 2) {
+            keys.append((String) fieldsAndDirections[i], fieldsAndDirections[i + 1]);
+        }
+        return keys;
+    }
+}
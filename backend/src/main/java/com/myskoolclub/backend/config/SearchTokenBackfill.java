@@ -0,0 +1,85 @@
+package com.myskoolclub.backend.config;
+
+import com.myskoolclub.backend.model.Checkout;
+import com.myskoolclub.backend.model.Club;
+import com.myskoolclub.backend.model.Invoice;
+import com.myskoolclub.backend.model.Member;
+import com.myskoolclub.backend.model.School;
+import com.myskoolclub.backend.service.SearchTokens;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Writes search tokens onto documents stored before they existed, in batches off the startup thread.
+ * Only documents still missing the token field are read, so an interrupted run resumes on the next start.
+ */
+@Component
+@Order(2)
+public class SearchTokenBackfill implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchTokenBackfill.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final List<Class<?>> SEARCHABLE = List.of(
+            Club.class, Member.class, Checkout.class, Invoice.class, School.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
+
+    @Override
+    public void run(String... args) {
+        taskExecutor.execute(() -> {
+            try {
+                SEARCHABLE.forEach(this::backfill);
+            } catch (RuntimeException e) {
+                logger.error("Search token backfill failed: {}", e.getMessage());
+            }
+        });
+    }
+
+    public <T> long backfill(Class<T> entityClass) {
+        Query batch = Query.query(Criteria.where(SearchTokens.FIELD).exists(false))
+                .with(Sort.by("_id"))
+                .limit(BATCH_SIZE);
+        long updated = 0;
+        List<T> documents;
+        while (!(documents = mongoTemplate.find(batch, entityClass)).isEmpty()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, entityClass);
+            for (T document : documents) {
+                Map<String, Object> changed = SearchTokens.refresh(document);
+                // Always write the main field, even when empty, so the document leaves the backfill filter
+                Update update = new Update().set(SearchTokens.FIELD, changed.getOrDefault(SearchTokens.FIELD, List.of()));
+                changed.forEach(update::set);
+                Object id = mongoTemplate.getConverter().getMappingContext()
+                        .getRequiredPersistentEntity(entityClass).getIdentifierAccessor(document).getIdentifier();
+                bulk.updateOne(Query.query(Criteria.where("_id").is(id)), update);
+            }
+            bulk.execute();
+            updated += documents.size();
+        }
+        if (updated > 0) {
+            logger.info("Backfilled search tokens on {} {} documents", updated, entityClass.getSimpleName());
+        }
+        return updated;
+    }
+}
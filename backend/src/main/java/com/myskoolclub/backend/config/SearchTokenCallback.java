@@ -0,0 +1,19 @@
+package com.myskoolclub.backend.config;
+
+import com.myskoolclub.backend.service.SearchTokens;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recomputes the search token fields of every saved or inserted entity just before it is written,
+ * so whole-document writes can never store tokens that disagree with the text they were built from.
+ */
+@Component
+public class SearchTokenCallback implements BeforeConvertCallback<Object> {
+
+    @Override
+    public Object onBeforeConvert(Object entity, String collection) {
+        SearchTokens.refresh(entity);
+        return entity;
+    }
+}
@@ -0,0 +1,66 @@
+package com.myskoolclub.backend.controller;
+
+import com.myskoolclub.backend.security.MemberCapabilities;
+import com.myskoolclub.backend.security.SchoolSecurityHelper;
+import com.myskoolclub.backend.service.CacheInvalidationBus;
+import com.myskoolclub.backend.service.ReferenceDataCache;
+import com.myskoolclub.backend.service.SingleFlight;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Operational endpoints for APP_ADMIN
+ */
+@RestController
+@RequestMapping("/api/admin")
+@CrossOrigin(origins = "*")
+public class AdminController {
+
+    @Autowired
+    private SchoolSecurityHelper securityHelper;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    // Hit ratio and size of the reference data caches, the state of cross-instance invalidation and read coalescing
+    @GetMapping("/caches")
+    public ResponseEntity<Map<String, Object>> cacheStats() {
+        Map<String, Object> response = new HashMap<>();
+
+        MemberCapabilities capabilities = securityHelper.getCurrentCapabilities();
+        if (!capabilities.isAuthenticated()) {
+            response.put("success", false);
+            response.put("message", "Authentication required.");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+        }
+        if (!capabilities.isAppAdmin()) {
+            response.put("success", false);
+            response.put("message", "Access denied. Only App Admins can view cache statistics.");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("caches", referenceDataCache.getStats());
+        stats.put("invalidationBus", invalidationBus.getStats());
+        stats.put("singleFlight", singleFlight.getStats());
+        stats.put("singleFlightInFlight", singleFlight.getInFlightCount());
+        stats.put("timestamp", LocalDateTime.now());
+
+        response.put("success", true);
+        response.put("message", "Cache statistics retrieved successfully");
+        response.put("data", stats);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -3,11 +3,12 @@ package com.myskoolclub.backend.controller;
 import com.myskoolclub.backend.model.Announcement;
 import com.myskoolclub.backend.model.Member;
 import com.myskoolclub.backend.service.AnnouncementService;
-import com.myskoolclub.backend.service.MemberService;
-import com.myskoolclub.backend.security.JwtTokenUtil;
+import com.myskoolclub.backend.service.ResourceVersions;
+import com.myskoolclub.backend.security.CurrentMemberResolver;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -24,10 +25,10 @@ public class AnnouncementController {
     private AnnouncementService announcementService;
     
     @Autowired
-    private MemberService memberService;
+    private CurrentMemberResolver currentMemberResolver;
     
     @Autowired
-    private JwtTokenUtil jwtTokenUtil;
+    private ResourceVersions resourceVersions;
     
     /**
      * Get current member from JWT token
@@ -37,15 +38,12 @@ public class AnnouncementController {
             throw new RuntimeException("Authorization token required");
         }
         
-        String token = authHeader.substring(7);
-        String email = jwtTokenUtil.getUsernameFromToken(token);
-        
-        Optional<Member> memberOpt = memberService.findByEmail(email);
-        if (memberOpt.isEmpty()) {
+        Member member = currentMemberResolver.getCurrentMember();
+        if (member == null) {
             throw new RuntimeException("Member not found");
         }
         
-        return memberOpt.get();
+        return member;
     }
     
     /**
@@ -192,13 +190,23 @@ public class AnnouncementController {
     public ResponseEntity<Map<String, Object>> getAnnouncements(
             @RequestHeader("Authorization") String authHeader,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest webRequest) {
         
         Map<String, Object> response = new HashMap<>();
         
         try {
             Member currentMember = getCurrentMember(authHeader);
             
+            // Answer If-None-Match from the school's announcement version before querying
+            String schoolId = currentMember.getSchoolId();
+            String eTag = EntityTags.of(resourceVersions.tag(ResourceVersions.Resource.ANNOUNCEMENTS, schoolId),
+                    schoolId, page, size);
+            if (webRequest.checkNotModified(eTag)) {
+                return null;
+            }
+            long changedAt = resourceVersions.lastModified(ResourceVersions.Resource.ANNOUNCEMENTS, schoolId);
+            
             List<Announcement> allAnnouncements = announcementService.getAnnouncementsBySchool(
                 currentMember.getSchoolId()
             );
@@ -222,7 +230,11 @@ public class AnnouncementController {
             response.put("page", page);
             response.put("size", size);
             response.put("totalPages", totalPages);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok()
+                    .cacheControl(EntityTags.REVALIDATE)
+                    .lastModified(EntityTags.lastModified(changedAt,
+                            paginatedAnnouncements.stream().map(Announcement::getUpdatedAt)))
+                    .body(response);
             
         } catch (RuntimeException e) {
             response.put("success", false);
@@ -9,6 +9,8 @@ import com.myskoolclub.backend.service.UserService;
 import com.myskoolclub.backend.service.UserClubRoleService;
 import java.security.MessageDigest;
 import java.nio.charset.StandardCharsets;
+import com.myskoolclub.backend.security.ClubRoleClaims;
+import com.myskoolclub.backend.security.CurrentMemberResolver;
 import com.myskoolclub.backend.security.JwtTokenUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -41,6 +43,12 @@ public class AuthController {
     
     @Autowired
     private UserService userService;
+    
+    @Autowired
+    private CurrentMemberResolver currentMemberResolver;
+    
+    @Autowired
+    private ClubRoleClaims clubRoleClaims;
 
     @PostMapping("/login")
     public ResponseEntity<Map<String, Object>> login(@RequestBody Map<String, String> loginRequest) {
@@ -83,8 +91,8 @@ public class AuthController {
                     return ResponseEntity.badRequest().body(response);
                 }
                 
-                // Login successful for Member - generate JWT token
-                String token = jwtTokenUtil.generateToken(member.getEmail());
+                // Login successful for Member - generate JWT token carrying a club role snapshot
+                String token = jwtTokenUtil.generateToken(member.getEmail(), clubRoleClaims.forMember(member));
                 
                 response.put("success", true);
                 response.put("message", "Login successful!");
@@ -148,7 +156,10 @@ public class AuthController {
             
             if (jwtTokenUtil.validateToken(token)) {
                 String username = jwtTokenUtil.getUsernameFromToken(token);
-                String newToken = jwtTokenUtil.generateToken(username);
+                Optional<Member> memberOpt = memberService.findByEmail(username);
+                String newToken = memberOpt.isPresent()
+                    ? jwtTokenUtil.generateToken(username, clubRoleClaims.forMember(memberOpt.get()))
+                    : jwtTokenUtil.generateToken(username);
                 
                 Map<String, Object> response = new HashMap<>();
                 response.put("token", newToken);
@@ -200,7 +211,7 @@ public class AuthController {
             }
             
             // Get club roles for the member
-            List<UserClubRole> clubRoles = userClubRoleService.getMemberClubRolesByEmail(currentMember.getEmail());
+            List<UserClubRole> clubRoles = userClubRoleService.getMemberClubRoles(currentMember);
             
             response.put("success", true);
             response.put("data", clubRoles);
@@ -388,21 +399,7 @@ public class AuthController {
      * Helper method to get current authenticated member
      */
     private Member getCurrentMember(HttpServletRequest request) {
-        try {
-            String authHeader = request.getHeader("Authorization");
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                String token = authHeader.substring(7);
-                String email = jwtTokenUtil.getUsernameFromToken(token);
-                
-                if (email != null && jwtTokenUtil.validateToken(token, email)) {
-                    Optional<Member> memberOpt = memberService.findByEmail(email);
-                    return memberOpt.orElse(null);
-                }
-            }
-        } catch (Exception e) {
-            // Error extracting token
-        }
-        return null;
+        return currentMemberResolver.getCurrentMember();
     }
 
     /**
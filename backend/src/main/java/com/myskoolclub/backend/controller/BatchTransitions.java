@@ -0,0 +1,56 @@
+package com.myskoolclub.backend.controller;
+
+import com.myskoolclub.backend.service.StateTransitionExecutor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request and response shapes of the batch approve/reject endpoints
+ */
+final class BatchTransitions {
+
+    private BatchTransitions() {
+    }
+
+    /**
+     * Read the "ids" list from a batch request body
+     */
+    static List<String> ids(Map<String, Object> requestBody) {
+        Object ids = requestBody.get("ids");
+        if (!(ids instanceof List<?> list) || list.isEmpty()) {
+            throw new IllegalArgumentException("ids must be a non-empty list");
+        }
+        return list.stream().map(String::valueOf).toList();
+    }
+
+    /**
+     * Per-id outcomes of a batch transition plus a summary count, e.g. "3 of 4 invoices approved."
+     */
+    static Map<String, Object> response(Map<String, StateTransitionExecutor.Outcome> outcomes, String entities, String verb) {
+        List<Map<String, Object>> results = new ArrayList<>();
+        long applied = 0;
+        for (Map.Entry<String, StateTransitionExecutor.Outcome> entry : outcomes.entrySet()) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("id", entry.getKey());
+            result.put("outcome", entry.getValue());
+            results.add(result);
+            if (entry.getValue() == StateTransitionExecutor.Outcome.APPLIED) {
+                applied++;
+            }
+        }
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("results", results);
+        data.put("processed", outcomes.size());
+        data.put("applied", applied);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", data);
+        response.put("message", applied + " of " + outcomes.size() + " " + entities + " " + verb + ".");
+        return response;
+    }
+}
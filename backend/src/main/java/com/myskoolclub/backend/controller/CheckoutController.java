@@ -4,9 +4,11 @@ import com.myskoolclub.backend.model.Checkout;
 import com.myskoolclub.backend.model.Member;
 import com.myskoolclub.backend.model.UserClubRole;
 import com.myskoolclub.backend.service.CheckoutService;
-import com.myskoolclub.backend.service.MemberService;
-import com.myskoolclub.backend.service.UserClubRoleService;
+import com.myskoolclub.backend.service.CursorSlice;
+import com.myskoolclub.backend.service.StateTransitionExecutor;
+import com.myskoolclub.backend.service.StatsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -21,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * REST Controller for Checkout operations
@@ -34,13 +37,13 @@ public class CheckoutController {
     private CheckoutService checkoutService;
     
     @Autowired
-    private MemberService memberService;
+    private StatsService statsService;
     
     @Autowired
-    private UserClubRoleService userClubRoleService;
-    
+    private com.myskoolclub.backend.security.CurrentMemberResolver currentMemberResolver;
+
     @Autowired
-    private com.myskoolclub.backend.security.JwtTokenUtil jwtTokenUtil;
+    private com.myskoolclub.backend.security.SchoolSecurityHelper securityHelper;
     
     /**
      * Get all checkouts with pagination
@@ -53,7 +56,9 @@ public class CheckoutController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "checkoutNumber") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDirection) {
+            @RequestParam(defaultValue = "asc") String sortDirection,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean cursor) {
         
         Map<String, Object> response = new HashMap<>();
         
@@ -64,6 +69,11 @@ public class CheckoutController {
                 return accessCheck;
             }
             
+            // Keyset pagination is opt-in and skips the total count
+            if (cursor || after != null) {
+                return getCheckoutsAfter(clubId, status, search, sortBy, sortDirection, after, size);
+            }
+            
             // Create sort object
             Sort sort = sortDirection.equalsIgnoreCase("desc") 
                 ? Sort.by(sortBy).descending() 
@@ -81,7 +91,7 @@ public class CheckoutController {
             // For non-APP_ADMIN users, filter by their club membership
             if (!isAppAdmin) {
                 // Get user's club IDs
-                List<UserClubRole> clubRoles = userClubRoleService.getMemberClubRolesByEmail(currentMember.getEmail());
+                List<UserClubRole> clubRoles = currentMemberResolver.getCurrentClubRoles();
                 if (clubRoles == null || clubRoles.isEmpty()) {
                     // User has no club roles, return empty result
                     checkoutsPage = Page.empty(pageable);
@@ -134,6 +144,12 @@ public class CheckoutController {
             response.put("message", "Checkouts retrieved successfully");
             
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            response.put("message", "Validation failed");
+            
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
         } catch (Exception e) {
             response.put("success", false);
             response.put("error", e.getMessage());
@@ -143,6 +159,50 @@ public class CheckoutController {
         }
     }
     
+    /**
+     * Keyset paginated checkout listing, restricted to the member's clubs unless APP_ADMIN
+     */
+    private ResponseEntity<Map<String, Object>> getCheckoutsAfter(String clubId, String status, String search,
+                                                                  String sortBy, String sortDirection, String after, int size) {
+        Map<String, Object> response = new HashMap<>();
+        
+        Member currentMember = getCurrentMember();
+        String effectiveClubId = clubId;
+        
+        if (!"APP_ADMIN".equals(currentMember.getRole())) {
+            List<UserClubRole> clubRoles = currentMemberResolver.getCurrentClubRoles();
+            if (clubRoles == null || clubRoles.isEmpty()) {
+                // User has no club roles, return empty result
+                response.put("success", true);
+                response.put("message", "No checkouts found");
+                response.put("data", java.util.Collections.emptyList());
+                response.put("count", 0);
+                response.put("size", size);
+                response.put("hasNext", false);
+                response.put("nextCursor", null);
+                return ResponseEntity.ok(response);
+            }
+            
+            // Default to the user's first club unless they have access to the requested one
+            effectiveClubId = clubRoles.get(0).getClubId();
+            if (clubId != null && clubRoles.stream().anyMatch(role -> role.getClubId().equals(clubId.trim()))) {
+                effectiveClubId = clubId.trim();
+            }
+        }
+        
+        CursorSlice<Checkout> checkoutSlice = checkoutService.getCheckoutsAfter(effectiveClubId, status, search, sortBy, sortDirection, after, size);
+        
+        response.put("success", true);
+        response.put("data", checkoutSlice.getContent());
+        response.put("count", checkoutSlice.getNumberOfElements());
+        response.put("size", checkoutSlice.getSize());
+        response.put("hasNext", checkoutSlice.hasNext());
+        response.put("nextCursor", checkoutSlice.getNextCursor());
+        response.put("message", "Checkouts retrieved successfully");
+        
+        return ResponseEntity.ok(response);
+    }
+    
     /**
      * Get checkout by ID
      */
@@ -243,7 +303,8 @@ public class CheckoutController {
      * Update an existing checkout
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> updateCheckout(@PathVariable String id, @RequestBody Checkout checkout) {
+    public ResponseEntity<Map<String, Object>> updateCheckout(@PathVariable String id, @RequestBody Checkout checkout,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
         try {
             // Get current member for tracking
             Member currentMember = getCurrentMember();
@@ -252,14 +313,14 @@ public class CheckoutController {
                 checkout.setUpdatedByName(currentMember.getFirstName() + " " + currentMember.getLastName());
             }
             
-            Optional<Checkout> updatedCheckout = checkoutService.updateCheckout(id, checkout);
+            Optional<Checkout> updatedCheckout = checkoutService.updateCheckout(id, checkout, EntityTags.parseIfMatch(ifMatch));
             
             Map<String, Object> response = new HashMap<>();
             if (updatedCheckout.isPresent()) {
                 response.put("success", true);
                 response.put("data", updatedCheckout.get());
                 response.put("message", "Checkout updated successfully");
-                return ResponseEntity.ok(response);
+                return ResponseEntity.ok().eTag(EntityTags.of(updatedCheckout.get().getVersion())).body(response);
             } else {
                 response.put("success", false);
                 response.put("message", "Checkout not found");
@@ -272,6 +333,13 @@ public class CheckoutController {
             response.put("message", "Validation failed");
             
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (OptimisticLockingFailureException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            response.put("message", "Checkout was changed by someone else; reload and try again");
+            
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(response);
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
             response.put("success", false);
@@ -340,6 +408,7 @@ public class CheckoutController {
      */
     @GetMapping("/advanced-search")
     public ResponseEntity<Map<String, Object>> advancedSearchCheckouts(
+            @RequestParam(required = false) String keyword,
             @RequestParam(required = false) String clubId,
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String borrowerName,
@@ -348,7 +417,11 @@ public class CheckoutController {
             @RequestParam(required = false) String dueDateFrom,
             @RequestParam(required = false) String dueDateTo,
             @RequestParam(required = false) String minValue,
-            @RequestParam(required = false) String maxValue) {
+            @RequestParam(required = false) String maxValue,
+            @RequestParam(required = false, defaultValue = "checkoutDate") String sortBy,
+            @RequestParam(required = false, defaultValue = "desc") String sortDirection,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size) {
         
         try {
             LocalDate checkoutFrom = (checkoutDateFrom != null && !checkoutDateFrom.isEmpty()) ? LocalDate.parse(checkoutDateFrom) : null;
@@ -359,14 +432,21 @@ public class CheckoutController {
             BigDecimal min = (minValue != null && !minValue.isEmpty()) ? new BigDecimal(minValue) : null;
             BigDecimal max = (maxValue != null && !maxValue.isEmpty()) ? new BigDecimal(maxValue) : null;
             
-            List<Checkout> checkouts = checkoutService.advancedSearchCheckouts(
-                clubId, status, borrowerName, checkoutFrom, checkoutTo, dueFrom, dueTo, min, max
+            Page<Checkout> checkoutPage = checkoutService.advancedSearchCheckouts(
+                keyword, clubId, status, borrowerName, checkoutFrom, checkoutTo, dueFrom, dueTo, min, max,
+                sortBy, sortDirection, PageRequest.of(page, size)
             );
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("data", checkouts);
-            response.put("count", checkouts.size());
+            response.put("data", checkoutPage.getContent());
+            response.put("count", checkoutPage.getNumberOfElements());
+            response.put("currentPage", checkoutPage.getNumber());
+            response.put("totalPages", checkoutPage.getTotalPages());
+            response.put("totalElements", checkoutPage.getTotalElements());
+            response.put("size", checkoutPage.getSize());
+            response.put("hasNext", checkoutPage.hasNext());
+            response.put("hasPrevious", checkoutPage.hasPrevious());
             response.put("message", "Advanced search completed successfully");
             
             return ResponseEntity.ok(response);
@@ -515,14 +595,28 @@ public class CheckoutController {
      * Get checkout statistics
      */
     @GetMapping("/stats")
-    public ResponseEntity<Map<String, Object>> getCheckoutStats() {
+    public ResponseEntity<Map<String, Object>> getCheckoutStats(
+            @RequestParam(required = false) String schoolId,
+            @RequestParam(required = false) String clubId) {
         try {
-            Map<String, Object> stats = new HashMap<>();
-            stats.put("totalCheckouts", checkoutService.getTotalCheckoutCount());
-            stats.put("activeCheckouts", checkoutService.getCountByStatus("ACTIVE"));
-            stats.put("returnedCheckouts", checkoutService.getCountByStatus("RETURNED"));
-            stats.put("overdueCheckouts", checkoutService.getOverdueCheckoutCount());
-            stats.put("cancelledCheckouts", checkoutService.getCountByStatus("CANCELLED"));
+            if (securityHelper.getCurrentMember() == null) {
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", false);
+                response.put("message", "Authentication required");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+            }
+
+            String scopedSchoolId;
+            try {
+                scopedSchoolId = securityHelper.validateFinancialStatsScope(schoolId, clubId);
+            } catch (SecurityException e) {
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", false);
+                response.put("message", e.getMessage());
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
+            }
+
+            Map<String, Object> stats = statsService.getCheckoutStats(scopedSchoolId, clubId);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -569,45 +663,7 @@ public class CheckoutController {
      * Helper method to get current member from JWT token
      */
     private Member getCurrentMember() {
-        String currentUserEmail = getCurrentUserEmailFromToken();
-        if (currentUserEmail == null) {
-            return null;
-        }
-        
-        Optional<Member> currentMemberOpt = memberService.findByEmail(currentUserEmail);
-        return currentMemberOpt.orElse(null);
-    }
-    
-    /**
-     * Helper method to extract current user email from JWT token
-     */
-    private String getCurrentUserEmailFromToken() {
-        try {
-            org.springframework.web.context.request.ServletRequestAttributes requestAttributes = 
-                (org.springframework.web.context.request.ServletRequestAttributes) 
-                org.springframework.web.context.request.RequestContextHolder.currentRequestAttributes();
-            
-            jakarta.servlet.http.HttpServletRequest request = requestAttributes.getRequest();
-            String authHeader = request.getHeader("Authorization");
-            
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                String token = authHeader.substring(7);
-                
-                try {
-                    boolean isValid = jwtTokenUtil.validateToken(token);
-                    
-                    if (isValid) {
-                        String username = jwtTokenUtil.getUsernameFromToken(token);
-                        return username;
-                    }
-                } catch (Exception tokenException) {
-                    // Token validation failed
-                }
-            }
-        } catch (Exception e) {
-            // Error extracting token
-        }
-        return null;
+        return currentMemberResolver.getCurrentMember();
     }
     
     /**
@@ -629,7 +685,7 @@ public class CheckoutController {
         }
         
         // Check if user has any club roles
-        List<UserClubRole> clubRoles = userClubRoleService.getMemberClubRolesByEmail(currentMember.getEmail());
+        List<UserClubRole> clubRoles = currentMemberResolver.getCurrentClubRoles();
         if (clubRoles == null || clubRoles.isEmpty()) {
             response.put("success", false);
             response.put("message", "Access denied. You must be a member of at least one club to access checkouts.");
@@ -639,6 +695,40 @@ public class CheckoutController {
         return null; // No error, access is allowed
     }
     
+    /**
+     * Club ids the member may approve or return checkouts for; null for APP_ADMIN, who may act on any club
+     */
+    private List<String> adminClubScope(Member member) {
+        if ("APP_ADMIN".equals(member.getRole())) {
+            return null;
+        }
+        return currentMemberResolver.getCurrentClubRoles().stream()
+                .filter(role -> "CLUB_ADMIN".equals(role.getClubRole()))
+                .map(UserClubRole::getClubId)
+                .toList();
+    }
+    
+    /**
+     * Explain why a conditional transition matched nothing; only runs on the failure path
+     */
+    private ResponseEntity<Map<String, Object>> transitionFailure(String id, List<String> adminClubIds,
+            String accessDeniedMessage, Function<Checkout, String> stateMessage) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        
+        Optional<Checkout> current = checkoutService.findById(id);
+        if (current.isEmpty()) {
+            response.put("message", "Checkout not found.");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        if (adminClubIds != null && !adminClubIds.contains(current.get().getClubId())) {
+            response.put("message", accessDeniedMessage);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
+        }
+        response.put("message", stateMessage.apply(current.get()));
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+    
     // Approve checkout
     @PostMapping("/{id}/approve")
     public ResponseEntity<Map<String, Object>> approveCheckout(@PathVariable String id) {
@@ -652,55 +742,16 @@ public class CheckoutController {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
             }
             
-            // Get the checkout
-            Optional<Checkout> checkoutOpt = checkoutService.findById(id);
-            if (!checkoutOpt.isPresent()) {
-                response.put("success", false);
-                response.put("message", "Checkout not found.");
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
-            }
-            
-            Checkout checkout = checkoutOpt.get();
-            
-            // Check if user can approve this checkout (APP_ADMIN or CLUB_ADMIN for this club)
-            boolean canApprove = false;
-            if ("APP_ADMIN".equals(currentMember.getRole())) {
-                canApprove = true;
-            } else {
-                // Check if user has CLUB_ADMIN role for this club
-                List<UserClubRole> clubRoles = userClubRoleService.getMemberClubRolesByEmail(currentMember.getEmail());
-                for (UserClubRole role : clubRoles) {
-                    if (role.getClubId().equals(checkout.getClubId()) && "CLUB_ADMIN".equals(role.getClubRole())) {
-                        canApprove = true;
-                        break;
-                    }
-                }
+            // Approve in one conditional update; only APP_ADMIN or CLUB_ADMIN of the checkout's club can match
+            List<String> adminClubIds = adminClubScope(currentMember);
+            Optional<Checkout> approved = checkoutService.approveCheckout(id, adminClubIds,
+                    currentMember.getId(), currentMember.getFirstName() + " " + currentMember.getLastName());
+            if (approved.isEmpty()) {
+                return transitionFailure(id, adminClubIds,
+                        "Access denied. Only App Admins or Club Admins can approve checkouts for this club.",
+                        checkout -> "Checkout is not pending approval.");
             }
-            
-            if (!canApprove) {
-                response.put("success", false);
-                response.put("message", "Access denied. Only App Admins or Club Admins can approve checkouts for this club.");
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
-            }
-            
-            // Check if checkout is in appropriate status for approval
-            if (!"PENDING".equals(checkout.getApprovalStatus())) {
-                response.put("success", false);
-                response.put("message", "Checkout is not pending approval.");
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
-            }
-            
-            // Approve the checkout
-            checkout.setApprovalStatus("APPROVED");
-            checkout.setApprovedBy(currentMember.getId());
-            checkout.setApprovedByName(currentMember.getFirstName() + " " + currentMember.getLastName());
-            checkout.setApprovedAt(java.time.LocalDateTime.now());
-            checkout.setStatus("APPROVED");
-            checkout.setUpdatedAt(java.time.LocalDateTime.now());
-            checkout.setUpdatedBy(currentMember.getId());
-            checkout.setUpdatedByName(currentMember.getFirstName() + " " + currentMember.getLastName());
-            
-            Checkout savedCheckout = checkoutService.save(checkout);
+            Checkout savedCheckout = approved.get();
             
             response.put("success", true);
             response.put("message", "Checkout approved successfully.");
@@ -727,72 +778,115 @@ public class CheckoutController {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
             }
             
-            // Get the checkout
-            Optional<Checkout> checkoutOpt = checkoutService.findById(id);
-            if (!checkoutOpt.isPresent()) {
+            String rejectionReason = requestBody.get("rejectionReason");
+            if (rejectionReason == null || rejectionReason.trim().isEmpty()) {
                 response.put("success", false);
-                response.put("message", "Checkout not found.");
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+                response.put("message", "Rejection reason is required.");
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
             }
             
-            Checkout checkout = checkoutOpt.get();
+            // Reject in one conditional update; only APP_ADMIN or CLUB_ADMIN of the checkout's club can match
+            List<String> adminClubIds = adminClubScope(currentMember);
+            Optional<Checkout> rejected = checkoutService.rejectCheckout(id, adminClubIds,
+                    currentMember.getId(), currentMember.getFirstName() + " " + currentMember.getLastName(), rejectionReason);
+            if (rejected.isEmpty()) {
+                return transitionFailure(id, adminClubIds,
+                        "Access denied. Only App Admins or Club Admins can reject checkouts for this club.",
+                        checkout -> "Checkout is not pending approval.");
+            }
+            Checkout savedCheckout = rejected.get();
             
-            // Check if user can reject this checkout (APP_ADMIN or CLUB_ADMIN for this club)
-            boolean canReject = false;
-            if ("APP_ADMIN".equals(currentMember.getRole())) {
-                canReject = true;
-            } else {
-                // Check if user has CLUB_ADMIN role for this club
-                List<UserClubRole> clubRoles = userClubRoleService.getMemberClubRolesByEmail(currentMember.getEmail());
-                for (UserClubRole role : clubRoles) {
-                    if (role.getClubId().equals(checkout.getClubId()) && "CLUB_ADMIN".equals(role.getClubRole())) {
-                        canReject = true;
-                        break;
-                    }
-                }
+            response.put("success", true);
+            response.put("message", "Checkout rejected successfully.");
+            response.put("data", savedCheckout);
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "Error rejecting checkout: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+    
+    /**
+     * Approve many pending checkouts in one bulk write; body {"ids": [...]}
+     */
+    @PostMapping("/approve-batch")
+    public ResponseEntity<Map<String, Object>> approveCheckoutsBatch(@RequestBody Map<String, Object> requestBody) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            Member currentMember = getCurrentMember();
+            if (currentMember == null) {
+                response.put("success", false);
+                response.put("message", "Authentication required.");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
             }
             
-            if (!canReject) {
+            // Authorize once: the bulk update only matches checkouts of clubs the member administers
+            List<String> adminClubIds = adminClubScope(currentMember);
+            if (adminClubIds != null && adminClubIds.isEmpty()) {
                 response.put("success", false);
-                response.put("message", "Access denied. Only App Admins or Club Admins can reject checkouts for this club.");
+                response.put("message", "Access denied. You are not an admin of any clubs.");
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
             }
             
-            // Check if checkout is in appropriate status for rejection
-            if (!"PENDING".equals(checkout.getApprovalStatus())) {
+            Map<String, StateTransitionExecutor.Outcome> outcomes = checkoutService.approveCheckouts(BatchTransitions.ids(requestBody), adminClubIds,
+                    currentMember.getId(), currentMember.getFirstName() + " " + currentMember.getLastName());
+            return ResponseEntity.ok(BatchTransitions.response(outcomes, "checkouts", "approved"));
+            
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "Error approving checkouts: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+    
+    /**
+     * Reject many pending checkouts with one reason in one bulk write; body {"ids": [...], "rejectionReason": "..."}
+     */
+    @PostMapping("/reject-batch")
+    public ResponseEntity<Map<String, Object>> rejectCheckoutsBatch(@RequestBody Map<String, Object> requestBody) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            Member currentMember = getCurrentMember();
+            if (currentMember == null) {
                 response.put("success", false);
-                response.put("message", "Checkout is not pending approval.");
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+                response.put("message", "Authentication required.");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
             }
             
-            String rejectionReason = requestBody.get("rejectionReason");
-            if (rejectionReason == null || rejectionReason.trim().isEmpty()) {
+            Object rejectionReason = requestBody.get("rejectionReason");
+            if (rejectionReason == null || rejectionReason.toString().trim().isEmpty()) {
                 response.put("success", false);
                 response.put("message", "Rejection reason is required.");
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
             }
             
-            // Reject the checkout
-            checkout.setApprovalStatus("REJECTED");
-            checkout.setApprovedBy(currentMember.getId());
-            checkout.setApprovedByName(currentMember.getFirstName() + " " + currentMember.getLastName());
-            checkout.setApprovedAt(java.time.LocalDateTime.now());
-            checkout.setRejectionReason(rejectionReason);
-            checkout.setStatus("REJECTED");
-            checkout.setUpdatedAt(java.time.LocalDateTime.now());
-            checkout.setUpdatedBy(currentMember.getId());
-            checkout.setUpdatedByName(currentMember.getFirstName() + " " + currentMember.getLastName());
-            
-            Checkout savedCheckout = checkoutService.save(checkout);
+            // Authorize once: the bulk update only matches checkouts of clubs the member administers
+            List<String> adminClubIds = adminClubScope(currentMember);
+            if (adminClubIds != null && adminClubIds.isEmpty()) {
+                response.put("success", false);
+                response.put("message", "Access denied. You are not an admin of any clubs.");
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
+            }
             
-            response.put("success", true);
-            response.put("message", "Checkout rejected successfully.");
-            response.put("data", savedCheckout);
-            return ResponseEntity.ok(response);
+            Map<String, StateTransitionExecutor.Outcome> outcomes = checkoutService.rejectCheckouts(BatchTransitions.ids(requestBody), adminClubIds,
+                    currentMember.getId(), currentMember.getFirstName() + " " + currentMember.getLastName(), rejectionReason.toString());
+            return ResponseEntity.ok(BatchTransitions.response(outcomes, "checkouts", "rejected"));
             
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
         } catch (Exception e) {
             response.put("success", false);
-            response.put("message", "Error rejecting checkout: " + e.getMessage());
+            response.put("message", "Error rejecting checkouts: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
@@ -813,7 +907,7 @@ public class CheckoutController {
             }
             
             // Get clubs where user is admin
-            List<UserClubRole> clubRoles = userClubRoleService.getMemberClubRolesByEmail(currentMember.getEmail());
+            List<UserClubRole> clubRoles = currentMemberResolver.getCurrentClubRoles();
             List<String> adminClubIds = new java.util.ArrayList<>();
             
             for (UserClubRole role : clubRoles) {
@@ -835,35 +929,19 @@ public class CheckoutController {
                 return ResponseEntity.ok(response);
             }
             
-            // Get pending checkouts
-            List<Checkout> allPendingCheckouts;
-            if ("APP_ADMIN".equals(currentMember.getRole())) {
-                // App admins can see all pending checkouts
-                allPendingCheckouts = checkoutService.findByApprovalStatus("PENDING");
-            } else {
-                // Club admins can only see pending checkouts for their clubs
-                allPendingCheckouts = checkoutService.findByClubIdInAndApprovalStatus(adminClubIds, "PENDING");
-            }
-            
-            // Apply pagination
-            int totalElements = allPendingCheckouts.size();
-            int totalPages = (int) Math.ceil((double) totalElements / size);
-            int startIndex = page * size;
-            int endIndex = Math.min(startIndex + size, totalElements);
-            
-            List<Checkout> paginatedCheckouts = new java.util.ArrayList<>();
-            if (startIndex < totalElements) {
-                paginatedCheckouts = allPendingCheckouts.subList(startIndex, endIndex);
-            }
+            // Get pending checkouts; app admins see every club, club admins only their own clubs
+            Page<Checkout> pendingPage = checkoutService.getPendingApprovalCheckouts(
+                "APP_ADMIN".equals(currentMember.getRole()) ? null : adminClubIds, page, size
+            );
             
             response.put("success", true);
-            response.put("data", paginatedCheckouts);
-            response.put("currentPage", page);
-            response.put("totalPages", totalPages);
-            response.put("totalElements", totalElements);
-            response.put("size", size);
-            response.put("hasNext", page < totalPages - 1);
-            response.put("hasPrevious", page > 0);
+            response.put("data", pendingPage.getContent());
+            response.put("currentPage", pendingPage.getNumber());
+            response.put("totalPages", pendingPage.getTotalPages());
+            response.put("totalElements", pendingPage.getTotalElements());
+            response.put("size", pendingPage.getSize());
+            response.put("hasNext", pendingPage.hasNext());
+            response.put("hasPrevious", pendingPage.hasPrevious());
             return ResponseEntity.ok(response);
             
         } catch (Exception e) {
@@ -889,7 +967,7 @@ public class CheckoutController {
             }
             
             // Get clubs where user is admin
-            List<UserClubRole> clubRoles = userClubRoleService.getMemberClubRolesByEmail(currentMember.getEmail());
+            List<UserClubRole> clubRoles = currentMemberResolver.getCurrentClubRoles();
             List<String> adminClubIds = new java.util.ArrayList<>();
             
             for (UserClubRole role : clubRoles) {
@@ -911,35 +989,19 @@ public class CheckoutController {
                 return ResponseEntity.ok(response);
             }
             
-            // Get APPROVED checkouts (pending return)
-            List<Checkout> allPendingReturns;
-            if ("APP_ADMIN".equals(currentMember.getRole())) {
-                // App admins can see all APPROVED checkouts
-                allPendingReturns = checkoutService.findByStatus("APPROVED");
-            } else {
-                // Club admins can only see APPROVED checkouts for their clubs
-                allPendingReturns = checkoutService.findByClubIdInAndStatus(adminClubIds, "APPROVED");
-            }
-            
-            // Apply pagination
-            int totalElements = allPendingReturns.size();
-            int totalPages = (int) Math.ceil((double) totalElements / size);
-            int startIndex = page * size;
-            int endIndex = Math.min(startIndex + size, totalElements);
-            
-            List<Checkout> paginatedReturns = new java.util.ArrayList<>();
-            if (startIndex < totalElements) {
-                paginatedReturns = allPendingReturns.subList(startIndex, endIndex);
-            }
+            // Get APPROVED checkouts (pending return); app admins see every club, club admins only their own clubs
+            Page<Checkout> returnsPage = checkoutService.getPendingReturnCheckouts(
+                "APP_ADMIN".equals(currentMember.getRole()) ? null : adminClubIds, page, size
+            );
             
             response.put("success", true);
-            response.put("data", paginatedReturns);
-            response.put("currentPage", page);
-            response.put("totalPages", totalPages);
-            response.put("totalElements", totalElements);
-            response.put("size", size);
-            response.put("hasNext", page < totalPages - 1);
-            response.put("hasPrevious", page > 0);
+            response.put("data", returnsPage.getContent());
+            response.put("currentPage", returnsPage.getNumber());
+            response.put("totalPages", returnsPage.getTotalPages());
+            response.put("totalElements", returnsPage.getTotalElements());
+            response.put("size", returnsPage.getSize());
+            response.put("hasNext", returnsPage.hasNext());
+            response.put("hasPrevious", returnsPage.hasPrevious());
             return ResponseEntity.ok(response);
             
         } catch (Exception e) {
@@ -962,53 +1024,16 @@ public class CheckoutController {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
             }
             
-            // Get checkout
-            Optional<Checkout> checkoutOpt = checkoutService.findById(id);
-            if (!checkoutOpt.isPresent()) {
-                response.put("success", false);
-                response.put("message", "Checkout not found.");
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            // Only APPROVED checkouts of clubs the member administers can be marked as returned
+            List<String> adminClubIds = adminClubScope(currentMember);
+            Optional<Checkout> returned = checkoutService.markCheckoutReturned(id, adminClubIds,
+                    currentMember.getId(), currentMember.getFullName());
+            if (returned.isEmpty()) {
+                return transitionFailure(id, adminClubIds,
+                        "Only club admins can mark checkouts as returned.",
+                        checkout -> "Only APPROVED checkouts can be marked as returned. Current status: " + checkout.getStatus());
             }
-            
-            Checkout checkout = checkoutOpt.get();
-            
-            // Check if user has admin role for this club
-            List<UserClubRole> clubRoles = userClubRoleService.getMemberClubRolesByEmail(currentMember.getEmail());
-            boolean isClubAdmin = false;
-            
-            if ("APP_ADMIN".equals(currentMember.getRole())) {
-                isClubAdmin = true;
-            } else {
-                for (UserClubRole role : clubRoles) {
-                    if ("CLUB_ADMIN".equals(role.getClubRole()) && 
-                        role.getClubId().equals(checkout.getClubId())) {
-                        isClubAdmin = true;
-                        break;
-                    }
-                }
-            }
-            
-            if (!isClubAdmin) {
-                response.put("success", false);
-                response.put("message", "Only club admins can mark checkouts as returned.");
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
-            }
-            
-            // Check if checkout is in APPROVED status
-            if (!"APPROVED".equals(checkout.getStatus())) {
-                response.put("success", false);
-                response.put("message", "Only APPROVED checkouts can be marked as returned. Current status: " + checkout.getStatus());
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
-            }
-            
-            // Update status to RETURNED
-            checkout.setStatus("RETURNED");
-            checkout.setReturnDate(LocalDate.now());
-            checkout.setUpdatedAt(java.time.LocalDateTime.now());
-            checkout.setUpdatedBy(currentMember.getId());
-            checkout.setUpdatedByName(currentMember.getFullName());
-            
-            Checkout updatedCheckout = checkoutService.save(checkout);
+            Checkout updatedCheckout = returned.get();
             
             response.put("success", true);
             response.put("data", updatedCheckout);
@@ -4,7 +4,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.myskoolclub.backend.model.Club;
 import com.myskoolclub.backend.model.Member;
 import com.myskoolclub.backend.service.ClubService;
+import com.myskoolclub.backend.service.CursorSlice;
 import com.myskoolclub.backend.service.MemberService;
+import com.myskoolclub.backend.service.ResourceVersions;
+import com.myskoolclub.backend.service.StatsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -13,6 +16,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.List;
@@ -30,11 +34,17 @@ public class ClubController {
     @Autowired
     private MemberService memberService;
     
+    @Autowired
+    private StatsService statsService;
+    
     @Autowired
     private com.myskoolclub.backend.service.UserClubRoleService userClubRoleService;
     
     @Autowired
-    private com.myskoolclub.backend.security.JwtTokenUtil jwtTokenUtil;
+    private com.myskoolclub.backend.security.CurrentMemberResolver currentMemberResolver;
+    
+    @Autowired
+    private ResourceVersions resourceVersions;
     
     // Create club
     @PostMapping
@@ -172,7 +182,10 @@ public class ClubController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "name") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDirection) {
+            @RequestParam(defaultValue = "asc") String sortDirection,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean cursor,
+            WebRequest webRequest) {
         
         Map<String, Object> response = new HashMap<>();
         
@@ -191,6 +204,43 @@ public class ClubController {
                 // SCHOOL_ADMIN can only see clubs from their own school
                 effectiveSchoolId = currentMember.getSchoolId();
             }
+            
+            // Answer If-None-Match from the club version counter before running any query; the
+            // caller's role and school are part of the tag since they decide which clubs are listed
+            String versionScope = effectiveSchoolId != null && !effectiveSchoolId.trim().isEmpty() ? effectiveSchoolId : null;
+            String eTag = EntityTags.of(resourceVersions.tag(ResourceVersions.Resource.CLUBS, versionScope),
+                    currentMember.getRole(), currentMember.getSchoolId(), effectiveSchoolId, category, search,
+                    activeOnly, page, size, sortBy, sortDirection, after, cursor);
+            if (webRequest.checkNotModified(eTag)) {
+                return null;
+            }
+            long changedAt = resourceVersions.lastModified(ResourceVersions.Resource.CLUBS, versionScope);
+            
+            // Keyset pagination is opt-in and skips the total count
+            if (cursor || after != null) {
+                if ((effectiveSchoolId == null || effectiveSchoolId.trim().isEmpty()) && !"APP_ADMIN".equals(currentMember.getRole())) {
+                    // Only APP_ADMIN can see all clubs when no school filter is specified
+                    effectiveSchoolId = currentMember.getSchoolId();
+                }
+                
+                CursorSlice<Club> clubSlice = clubService.getClubsAfter(
+                    effectiveSchoolId, category, search, activeOnly, sortBy, sortDirection, after, size
+                );
+                
+                response.put("success", true);
+                response.put("message", "Clubs retrieved successfully");
+                response.put("data", clubSlice.getContent());
+                response.put("count", clubSlice.getNumberOfElements());
+                response.put("size", clubSlice.getSize());
+                response.put("hasNext", clubSlice.hasNext());
+                response.put("nextCursor", clubSlice.getNextCursor());
+                
+                return ResponseEntity.ok()
+                        .cacheControl(EntityTags.REVALIDATE)
+                        .lastModified(EntityTags.lastModified(changedAt, clubSlice.getContent().stream().map(Club::getUpdatedAt)))
+                        .body(response);
+            }
+            
             // Create sort object
             Sort sort = Sort.by(sortDirection.equalsIgnoreCase("desc") ? 
                                Sort.Direction.DESC : Sort.Direction.ASC, sortBy);
@@ -236,7 +286,15 @@ public class ClubController {
             response.put("hasNext", clubPage.hasNext());
             response.put("hasPrevious", clubPage.hasPrevious());
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok()
+                    .cacheControl(EntityTags.REVALIDATE)
+                    .lastModified(EntityTags.lastModified(changedAt, clubPage.getContent().stream().map(Club::getUpdatedAt)))
+                    .body(response);
+            
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
             
         } catch (Exception e) {
             response.put("success", false);
@@ -296,17 +354,27 @@ public class ClubController {
     
     // Get club by ID
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getClubById(@PathVariable String id) {
+    public ResponseEntity<Map<String, Object>> getClubById(@PathVariable String id, WebRequest webRequest) {
         Map<String, Object> response = new HashMap<>();
         
         try {
+            // The club's school is unknown until it is read, so the tag follows the whole collection
+            String eTag = EntityTags.of(resourceVersions.tag(ResourceVersions.Resource.CLUBS, null), id);
+            if (webRequest.checkNotModified(eTag)) {
+                return null;
+            }
+            long changedAt = resourceVersions.lastModified(ResourceVersions.Resource.CLUBS, null);
+            
             Optional<Club> clubOpt = clubService.getClubById(id);
             
             if (clubOpt.isPresent()) {
                 response.put("success", true);
                 response.put("message", "Club retrieved successfully");
                 response.put("data", clubOpt.get());
-                return ResponseEntity.ok(response);
+                return ResponseEntity.ok()
+                        .cacheControl(EntityTags.REVALIDATE)
+                        .lastModified(EntityTags.lastModified(changedAt, clubOpt.stream().map(Club::getUpdatedAt)))
+                        .body(response);
             } else {
                 response.put("success", false);
                 response.put("message", "Club not found");
@@ -450,18 +518,12 @@ public class ClubController {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
             }
             
-            // Remove all user-club roles for this club before deleting
-            try {
-                userClubRoleService.removeAllMembersFromClub(id);
-            } catch (Exception e) {
-                // Log error but continue with club deletion
-                System.err.println("Warning: Failed to remove all members from club before deletion: " + e.getMessage());
-            }
-            
-            clubService.deleteClub(id);
+            // Roles, checkouts and invoices of the club are removed with it
+            Map<String, Long> affected = clubService.deleteClub(id);
             
             response.put("success", true);
             response.put("message", "Club deleted successfully");
+            response.put("data", affected);
             
             return ResponseEntity.ok(response);
             
@@ -704,15 +766,7 @@ public class ClubController {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            Map<String, Object> stats = new HashMap<>();
-            
-            if (schoolId != null && !schoolId.trim().isEmpty()) {
-                stats.put("totalClubs", clubService.getClubCountBySchool(schoolId));
-                stats.put("activeClubs", clubService.getActiveClubCountBySchool(schoolId));
-            } else {
-                stats.put("totalClubs", clubService.getClubCount());
-                stats.put("activeClubs", clubService.getActiveClubs().size());
-            }
+            Map<String, Object> stats = statsService.getClubStats(schoolId);
             
             response.put("success", true);
             response.put("message", "Statistics retrieved successfully");
@@ -814,32 +868,21 @@ public class ClubController {
                 }
             }
             
-            // Create pageable
-            Pageable pageable = PageRequest.of(page, size, Sort.by("firstName", "lastName"));
-            
-            // Get school members with search functionality
-            Page<Member> membersPage;
-            if (search != null && !search.trim().isEmpty()) {
-                // Search by name or email
-                membersPage = memberService.findBySchoolIdAndSearchTerm(targetSchoolId, search.trim(), pageable);
-            } else {
-                membersPage = memberService.findBySchoolIdAndActiveTrue(targetSchoolId, pageable);
-            }
+            // Only members who can be club admins (active SCHOOL_USER or SCHOOL_ADMIN), ordered by name
+            Page<Member> membersPage = memberService.findClubAdminCandidates(
+                targetSchoolId, search, PageRequest.of(page, size)
+            );
             
-            // Filter to only include members who can be club admins (SCHOOL_USER or SCHOOL_ADMIN)
             List<Map<String, Object>> memberList = new java.util.ArrayList<>();
             for (Member member : membersPage.getContent()) {
-                if (member.isActive() && 
-                    ("SCHOOL_USER".equals(member.getRole()) || "SCHOOL_ADMIN".equals(member.getRole()))) {
-                    Map<String, Object> memberInfo = new HashMap<>();
-                    memberInfo.put("id", member.getId());
-                    memberInfo.put("email", member.getEmail());
-                    memberInfo.put("firstName", member.getFirstName());
-                    memberInfo.put("lastName", member.getLastName());
-                    memberInfo.put("role", member.getRole());
-                    memberInfo.put("displayName", member.getFirstName() + " " + member.getLastName() + " (" + member.getEmail() + ")");
-                    memberList.add(memberInfo);
-                }
+                Map<String, Object> memberInfo = new HashMap<>();
+                memberInfo.put("id", member.getId());
+                memberInfo.put("email", member.getEmail());
+                memberInfo.put("firstName", member.getFirstName());
+                memberInfo.put("lastName", member.getLastName());
+                memberInfo.put("role", member.getRole());
+                memberInfo.put("displayName", member.getFirstName() + " " + member.getLastName() + " (" + member.getEmail() + ")");
+                memberList.add(memberInfo);
             }
             
             response.put("success", true);
@@ -862,45 +905,7 @@ public class ClubController {
      * Helper method to get current authenticated member
      */
     private Member getCurrentMember() {
-        String currentUserEmail = getCurrentUserEmailFromToken();
-        if (currentUserEmail == null) {
-            return null;
-        }
-        
-        Optional<Member> currentMemberOpt = memberService.findByEmail(currentUserEmail);
-        return currentMemberOpt.orElse(null);
-    }
-    
-    /**
-     * Helper method to extract current user email from JWT token
-     */
-    private String getCurrentUserEmailFromToken() {
-        try {
-            org.springframework.web.context.request.ServletRequestAttributes requestAttributes = 
-                (org.springframework.web.context.request.ServletRequestAttributes) 
-                org.springframework.web.context.request.RequestContextHolder.currentRequestAttributes();
-            
-            jakarta.servlet.http.HttpServletRequest request = requestAttributes.getRequest();
-            String authHeader = request.getHeader("Authorization");
-            
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                String token = authHeader.substring(7);
-                
-                try {
-                    boolean isValid = jwtTokenUtil.validateToken(token);
-                    
-                    if (isValid) {
-                        String username = jwtTokenUtil.getUsernameFromToken(token);
-                        return username;
-                    }
-                } catch (Exception tokenException) {
-                    // Token validation failed
-                }
-            }
-        } catch (Exception e) {
-            // Error extracting token
-        }
-        return null;
+        return currentMemberResolver.getCurrentMember();
     }
     
     /**
@@ -919,7 +924,7 @@ public class ClubController {
         }
         
         // Check if user has CLUB_ADMIN role for this specific club
-        return userClubRoleService.isClubAdmin(currentMember.getEmail(), club.getId());
+        return isCurrentClubAdmin(club.getId());
     }
     
     private boolean canEditClub(Club club, Member currentMember) {
@@ -928,7 +933,12 @@ public class ClubController {
         }
         
         // Only CLUB_ADMIN (from user_club_roles table) can edit club details
-        return userClubRoleService.isClubAdmin(currentMember.getEmail(), club.getId());
+        return isCurrentClubAdmin(club.getId());
+    }
+    
+    private boolean isCurrentClubAdmin(String clubId) {
+        return currentMemberResolver.getCurrentClubRoles().stream()
+            .anyMatch(role -> role.getClubId().equals(clubId) && "CLUB_ADMIN".equals(role.getClubRole()));
     }
     
     private boolean canDeleteClub(Club club, Member currentMember) {
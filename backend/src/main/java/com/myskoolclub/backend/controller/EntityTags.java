@@ -0,0 +1,67 @@
+package com.myskoolclub.backend.controller;
+
+import org.springframework.http.CacheControl;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Maps document versions to and from HTTP entity tags for conditional requests
+ */
+final class EntityTags {
+
+    /**
+     * Lets browsers keep a response but revalidate it on every use. Without it Spring Security sends no-store.
+     */
+    static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    /**
+     * Like REVALIDATE for responses that are the same for every caller, which shared caches may keep too
+     */
+    static final CacheControl PUBLIC_REVALIDATE = CacheControl.noCache().cachePublic();
+
+    private EntityTags() {
+    }
+
+    static String of(Long version) {
+        return "\"" + (version != null ? version : 0L) + "\"";
+    }
+
+    /**
+     * Strong tag of a representation, built from a resource version and every request input that shapes the body
+     */
+    static String of(String version, Object... inputs) {
+        return "\"" + version + "-" + Integer.toHexString(Arrays.hashCode(inputs)) + "\"";
+    }
+
+    /**
+     * Last-Modified in epoch millis: the later of when the resource last changed and the newest updatedAt shown
+     */
+    static long lastModified(long changedAt, Stream<LocalDateTime> updatedAt) {
+        return updatedAt.filter(Objects::nonNull)
+                .map(time -> time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                .reduce(changedAt, Math::max);
+    }
+
+    /**
+     * Parse an If-Match header into the expected version; null when absent or "*" (any version)
+     */
+    static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().isEmpty() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        tag = tag.replace("\"", "");
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid If-Match header: " + ifMatch);
+        }
+    }
+}
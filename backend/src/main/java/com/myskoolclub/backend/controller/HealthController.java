@@ -54,4 +54,4 @@ public class HealthController {
         
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+}
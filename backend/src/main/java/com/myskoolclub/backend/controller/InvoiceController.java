@@ -3,10 +3,12 @@ package com.myskoolclub.backend.controller;
 import com.myskoolclub.backend.model.Invoice;
 import com.myskoolclub.backend.model.Member;
 import com.myskoolclub.backend.model.UserClubRole;
+import com.myskoolclub.backend.service.CursorSlice;
 import com.myskoolclub.backend.service.InvoiceService;
-import com.myskoolclub.backend.service.MemberService;
-import com.myskoolclub.backend.service.UserClubRoleService;
+import com.myskoolclub.backend.service.StateTransitionExecutor;
+import com.myskoolclub.backend.service.StatsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -32,13 +34,13 @@ public class InvoiceController {
     private InvoiceService invoiceService;
     
     @Autowired
-    private MemberService memberService;
+    private StatsService statsService;
     
     @Autowired
-    private UserClubRoleService userClubRoleService;
-    
+    private com.myskoolclub.backend.security.CurrentMemberResolver currentMemberResolver;
+
     @Autowired
-    private com.myskoolclub.backend.security.JwtTokenUtil jwtTokenUtil;
+    private com.myskoolclub.backend.security.SchoolSecurityHelper securityHelper;
     
     // Create invoice
     @PostMapping
@@ -61,7 +63,7 @@ public class InvoiceController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
             }
             
-            List<UserClubRole> clubRoles = userClubRoleService.getMemberClubRolesByEmail(currentMember.getEmail());
+            List<UserClubRole> clubRoles = currentMemberResolver.getCurrentClubRoles();
             boolean hasAccess = clubRoles.stream()
                 .anyMatch(role -> role.getClubId().equals(invoice.getClubId()) && 
                                  (role.getClubRole().equals("CLUB_ADMIN") || role.getClubRole().equals("CLUB_USER")));
@@ -106,7 +108,9 @@ public class InvoiceController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "invoiceNumber") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDirection) {
+            @RequestParam(defaultValue = "asc") String sortDirection,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean cursor) {
         
         Map<String, Object> response = new HashMap<>();
         
@@ -116,6 +120,11 @@ public class InvoiceController {
             if (accessCheck != null) {
                 return accessCheck;
             }
+            
+            // Keyset pagination is opt-in and skips the total count
+            if (cursor || after != null) {
+                return getInvoicesAfter(clubId, status, search, sortBy, sortDirection, after, size);
+            }
             // Create sort object
             Sort sort = sortDirection.equalsIgnoreCase("desc") 
                 ? Sort.by(sortBy).descending() 
@@ -133,7 +142,7 @@ public class InvoiceController {
             // For non-APP_ADMIN users, filter by their club membership
             if (!isAppAdmin) {
                 // Get user's club IDs
-                List<UserClubRole> clubRoles = userClubRoleService.getMemberClubRolesByEmail(currentMember.getEmail());
+                List<UserClubRole> clubRoles = currentMemberResolver.getCurrentClubRoles();
                 if (clubRoles == null || clubRoles.isEmpty()) {
                     // User has no club roles, return empty result
                     invoicesPage = Page.empty(pageable);
@@ -192,6 +201,11 @@ public class InvoiceController {
             
             return ResponseEntity.ok(response);
             
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            
         } catch (Exception e) {
             response.put("success", false);
             response.put("message", "An error occurred while retrieving invoices");
@@ -200,6 +214,48 @@ public class InvoiceController {
         }
     }
     
+    // Keyset paginated invoice listing, restricted to the member's clubs unless APP_ADMIN
+    private ResponseEntity<Map<String, Object>> getInvoicesAfter(String clubId, String status, String search,
+                                                                 String sortBy, String sortDirection, String after, int size) {
+        Map<String, Object> response = new HashMap<>();
+        
+        Member currentMember = getCurrentMember();
+        String effectiveClubId = clubId;
+        
+        if (!"APP_ADMIN".equals(currentMember.getRole())) {
+            List<UserClubRole> clubRoles = currentMemberResolver.getCurrentClubRoles();
+            if (clubRoles == null || clubRoles.isEmpty()) {
+                // User has no club roles, return empty result
+                response.put("success", true);
+                response.put("message", "No invoices found");
+                response.put("data", java.util.Collections.emptyList());
+                response.put("count", 0);
+                response.put("size", size);
+                response.put("hasNext", false);
+                response.put("nextCursor", null);
+                return ResponseEntity.ok(response);
+            }
+            
+            // Default to the user's first club unless they have access to the requested one
+            effectiveClubId = clubRoles.get(0).getClubId();
+            if (clubId != null && clubRoles.stream().anyMatch(role -> role.getClubId().equals(clubId.trim()))) {
+                effectiveClubId = clubId.trim();
+            }
+        }
+        
+        CursorSlice<Invoice> invoiceSlice = invoiceService.getInvoicesAfter(effectiveClubId, status, search, sortBy, sortDirection, after, size);
+        
+        response.put("success", true);
+        response.put("message", "Invoices retrieved successfully");
+        response.put("data", invoiceSlice.getContent());
+        response.put("count", invoiceSlice.getNumberOfElements());
+        response.put("size", invoiceSlice.getSize());
+        response.put("hasNext", invoiceSlice.hasNext());
+        response.put("nextCursor", invoiceSlice.getNextCursor());
+        
+        return ResponseEntity.ok(response);
+    }
+    
     // Advanced search invoices
     @GetMapping("/advanced-search")
     public ResponseEntity<Map<String, Object>> advancedSearchInvoices(
@@ -213,7 +269,9 @@ public class InvoiceController {
             @RequestParam(required = false) BigDecimal minAmount,
             @RequestParam(required = false) BigDecimal maxAmount,
             @RequestParam(required = false, defaultValue = "invoiceNumber") String sortBy,
-            @RequestParam(required = false, defaultValue = "asc") String sortDirection) {
+            @RequestParam(required = false, defaultValue = "asc") String sortDirection,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size) {
         
         // Check authorization - APP_ADMIN or club members can access
         ResponseEntity<Map<String, Object>> accessCheck = checkInvoiceAccess();
@@ -233,7 +291,7 @@ public class InvoiceController {
             
             // For non-APP_ADMIN users, filter by their club membership
             if (!isAppAdmin) {
-                List<UserClubRole> clubRoles = userClubRoleService.getMemberClubRolesByEmail(currentMember.getEmail());
+                List<UserClubRole> clubRoles = currentMemberResolver.getCurrentClubRoles();
                 if (clubRoles == null || clubRoles.isEmpty()) {
                     // User has no club roles, return empty result
                     response.put("success", true);
@@ -260,15 +318,22 @@ public class InvoiceController {
                 effectiveClubId = clubId;
             }
             
-            List<Invoice> invoices = invoiceService.advancedSearchInvoices(
+            Page<Invoice> invoicePage = invoiceService.advancedSearchInvoices(
                 search, effectiveClubId, status, issueDateFrom, issueDateTo, 
-                dueDateFrom, dueDateTo, minAmount, maxAmount, sortBy, sortDirection
+                dueDateFrom, dueDateTo, minAmount, maxAmount, sortBy, sortDirection,
+                PageRequest.of(page, size)
             );
             
             response.put("success", true);
             response.put("message", "Invoices retrieved successfully");
-            response.put("data", invoices);
-            response.put("count", invoices.size());
+            response.put("data", invoicePage.getContent());
+            response.put("count", invoicePage.getNumberOfElements());
+            response.put("currentPage", invoicePage.getNumber());
+            response.put("totalPages", invoicePage.getTotalPages());
+            response.put("totalElements", invoicePage.getTotalElements());
+            response.put("size", invoicePage.getSize());
+            response.put("hasNext", invoicePage.hasNext());
+            response.put("hasPrevious", invoicePage.hasPrevious());
             
             return ResponseEntity.ok(response);
             
@@ -359,7 +424,8 @@ public class InvoiceController {
     
     // Update invoice
     @PutMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> updateInvoice(@PathVariable String id, @RequestBody Invoice invoice) {
+    public ResponseEntity<Map<String, Object>> updateInvoice(@PathVariable String id, @RequestBody Invoice invoice,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
         Map<String, Object> response = new HashMap<>();
         
         try {
@@ -370,19 +436,25 @@ public class InvoiceController {
                 invoice.setUpdatedByName(currentMember.getFirstName() + " " + currentMember.getLastName());
             }
             
-            Invoice updatedInvoice = invoiceService.updateInvoice(id, invoice);
+            Invoice updatedInvoice = invoiceService.updateInvoice(id, invoice, EntityTags.parseIfMatch(ifMatch));
             
             response.put("success", true);
             response.put("message", "Invoice updated successfully");
             response.put("data", updatedInvoice);
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(EntityTags.of(updatedInvoice.getVersion())).body(response);
             
         } catch (IllegalArgumentException e) {
             response.put("success", false);
             response.put("message", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
             
+        } catch (OptimisticLockingFailureException e) {
+            response.put("success", false);
+            response.put("message", "Invoice was changed by someone else; reload and try again");
+            response.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(response);
+            
         } catch (Exception e) {
             response.put("success", false);
             response.put("message", "An error occurred while updating the invoice");
@@ -419,17 +491,28 @@ public class InvoiceController {
     
     // Get invoice statistics
     @GetMapping("/stats")
-    public ResponseEntity<Map<String, Object>> getInvoiceStats() {
+    public ResponseEntity<Map<String, Object>> getInvoiceStats(
+            @RequestParam(required = false) String schoolId,
+            @RequestParam(required = false) String clubId) {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            Map<String, Object> stats = new HashMap<>();
-            stats.put("totalInvoices", invoiceService.getInvoiceCount());
-            stats.put("draftInvoices", invoiceService.getInvoiceCountByStatus("DRAFT"));
-            stats.put("sentInvoices", invoiceService.getInvoiceCountByStatus("SENT"));
-            stats.put("paidInvoices", invoiceService.getInvoiceCountByStatus("PAID"));
-            stats.put("overdueInvoices", invoiceService.getInvoiceCountByStatus("OVERDUE"));
-            stats.put("cancelledInvoices", invoiceService.getInvoiceCountByStatus("CANCELLED"));
+            if (securityHelper.getCurrentMember() == null) {
+                response.put("success", false);
+                response.put("message", "Authentication required");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+            }
+
+            String scopedSchoolId;
+            try {
+                scopedSchoolId = securityHelper.validateFinancialStatsScope(schoolId, clubId);
+            } catch (SecurityException e) {
+                response.put("success", false);
+                response.put("message", e.getMessage());
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
+            }
+
+            Map<String, Object> stats = statsService.getInvoiceStats(scopedSchoolId, clubId);
             
             response.put("success", true);
             response.put("message", "Invoice statistics retrieved successfully");
@@ -449,45 +532,36 @@ public class InvoiceController {
      * Helper method to get current member from JWT token
      */
     private Member getCurrentMember() {
-        String currentUserEmail = getCurrentUserEmailFromToken();
-        if (currentUserEmail == null) {
+        return currentMemberResolver.getCurrentMember();
+    }
+    
+    // Club ids the member may approve invoices for; null for APP_ADMIN, who may act on any club
+    private List<String> adminClubScope(Member member) {
+        if ("APP_ADMIN".equals(member.getRole())) {
             return null;
         }
-        
-        Optional<Member> currentMemberOpt = memberService.findByEmail(currentUserEmail);
-        return currentMemberOpt.orElse(null);
+        return currentMemberResolver.getCurrentClubRoles().stream()
+                .filter(role -> "CLUB_ADMIN".equals(role.getClubRole()))
+                .map(UserClubRole::getClubId)
+                .toList();
     }
     
-    /**
-     * Helper method to extract current user email from JWT token
-     */
-    private String getCurrentUserEmailFromToken() {
-        try {
-            org.springframework.web.context.request.ServletRequestAttributes requestAttributes = 
-                (org.springframework.web.context.request.ServletRequestAttributes) 
-                org.springframework.web.context.request.RequestContextHolder.currentRequestAttributes();
-            
-            jakarta.servlet.http.HttpServletRequest request = requestAttributes.getRequest();
-            String authHeader = request.getHeader("Authorization");
-            
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                String token = authHeader.substring(7);
-                
-                try {
-                    boolean isValid = jwtTokenUtil.validateToken(token);
-                    
-                    if (isValid) {
-                        String username = jwtTokenUtil.getUsernameFromToken(token);
-                        return username;
-                    }
-                } catch (Exception tokenException) {
-                    // Token validation failed
-                }
-            }
-        } catch (Exception e) {
-            // Error extracting token
+    // Explain why a conditional approve/reject matched nothing; only runs on the failure path
+    private ResponseEntity<Map<String, Object>> transitionFailure(String id, List<String> adminClubIds, String accessDeniedMessage) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        
+        Optional<Invoice> current = invoiceService.findById(id);
+        if (current.isEmpty()) {
+            response.put("message", "Invoice not found.");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        if (adminClubIds != null && !adminClubIds.contains(current.get().getClubId())) {
+            response.put("message", accessDeniedMessage);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
         }
-        return null;
+        response.put("message", "Invoice is not pending approval.");
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
     
     // Approve invoice
@@ -503,54 +577,15 @@ public class InvoiceController {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
             }
             
-            // Get the invoice
-            Optional<Invoice> invoiceOpt = invoiceService.findById(id);
-            if (!invoiceOpt.isPresent()) {
-                response.put("success", false);
-                response.put("message", "Invoice not found.");
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
-            }
-            
-            Invoice invoice = invoiceOpt.get();
-            
-            // Check if user can approve this invoice (APP_ADMIN or CLUB_ADMIN for this club)
-            boolean canApprove = false;
-            if ("APP_ADMIN".equals(currentMember.getRole())) {
-                canApprove = true;
-            } else {
-                // Check if user has CLUB_ADMIN role for this club
-                List<UserClubRole> clubRoles = userClubRoleService.getMemberClubRolesByEmail(currentMember.getEmail());
-                for (UserClubRole role : clubRoles) {
-                    if (role.getClubId().equals(invoice.getClubId()) && "CLUB_ADMIN".equals(role.getClubRole())) {
-                        canApprove = true;
-                        break;
-                    }
-                }
+            // Approve in one conditional update; only APP_ADMIN or CLUB_ADMIN of the invoice's club can match
+            List<String> adminClubIds = adminClubScope(currentMember);
+            Optional<Invoice> approved = invoiceService.approveInvoice(id, adminClubIds,
+                    currentMember.getId(), currentMember.getFirstName() + " " + currentMember.getLastName());
+            if (approved.isEmpty()) {
+                return transitionFailure(id, adminClubIds,
+                        "Access denied. Only App Admins or Club Admins can approve invoices for this club.");
             }
-            
-            if (!canApprove) {
-                response.put("success", false);
-                response.put("message", "Access denied. Only App Admins or Club Admins can approve invoices for this club.");
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
-            }
-            
-            // Check if invoice is in appropriate status for approval
-            if (!"PENDING".equals(invoice.getApprovalStatus())) {
-                response.put("success", false);
-                response.put("message", "Invoice is not pending approval.");
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
-            }
-            
-            // Approve the invoice
-            invoice.setApprovalStatus("APPROVED");
-            invoice.setApprovedBy(currentMember.getId());
-            invoice.setApprovedByName(currentMember.getFirstName() + " " + currentMember.getLastName());
-            invoice.setApprovedAt(java.time.LocalDateTime.now());
-            invoice.setStatus("APPROVED");
-            invoice.setUpdatedAt(java.time.LocalDateTime.now());
-            invoice.setUpdatedBy(currentMember.getId());
-            
-            Invoice savedInvoice = invoiceService.save(invoice);
+            Invoice savedInvoice = approved.get();
             
             response.put("success", true);
             response.put("message", "Invoice approved successfully.");
@@ -577,71 +612,110 @@ public class InvoiceController {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
             }
             
-            // Get the invoice
-            Optional<Invoice> invoiceOpt = invoiceService.findById(id);
-            if (!invoiceOpt.isPresent()) {
+            String rejectionReason = requestBody.get("rejectionReason");
+            if (rejectionReason == null || rejectionReason.trim().isEmpty()) {
                 response.put("success", false);
-                response.put("message", "Invoice not found.");
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+                response.put("message", "Rejection reason is required.");
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
             }
             
-            Invoice invoice = invoiceOpt.get();
+            // Reject in one conditional update; only APP_ADMIN or CLUB_ADMIN of the invoice's club can match
+            List<String> adminClubIds = adminClubScope(currentMember);
+            Optional<Invoice> rejected = invoiceService.rejectInvoice(id, adminClubIds,
+                    currentMember.getId(), currentMember.getFirstName() + " " + currentMember.getLastName(), rejectionReason);
+            if (rejected.isEmpty()) {
+                return transitionFailure(id, adminClubIds,
+                        "Access denied. Only App Admins or Club Admins can reject invoices for this club.");
+            }
+            Invoice savedInvoice = rejected.get();
             
-            // Check if user can reject this invoice (APP_ADMIN or CLUB_ADMIN for this club)
-            boolean canReject = false;
-            if ("APP_ADMIN".equals(currentMember.getRole())) {
-                canReject = true;
-            } else {
-                // Check if user has CLUB_ADMIN role for this club
-                List<UserClubRole> clubRoles = userClubRoleService.getMemberClubRolesByEmail(currentMember.getEmail());
-                for (UserClubRole role : clubRoles) {
-                    if (role.getClubId().equals(invoice.getClubId()) && "CLUB_ADMIN".equals(role.getClubRole())) {
-                        canReject = true;
-                        break;
-                    }
-                }
+            response.put("success", true);
+            response.put("message", "Invoice rejected successfully.");
+            response.put("data", savedInvoice);
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "Error rejecting invoice: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+    
+    // Approve many pending invoices in one bulk write; body {"ids": [...]}
+    @PostMapping("/approve-batch")
+    public ResponseEntity<Map<String, Object>> approveInvoicesBatch(@RequestBody Map<String, Object> requestBody) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            Member currentMember = getCurrentMember();
+            if (currentMember == null) {
+                response.put("success", false);
+                response.put("message", "Authentication required.");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
             }
             
-            if (!canReject) {
+            // Authorize once: the bulk update only matches invoices of clubs the member administers
+            List<String> adminClubIds = adminClubScope(currentMember);
+            if (adminClubIds != null && adminClubIds.isEmpty()) {
                 response.put("success", false);
-                response.put("message", "Access denied. Only App Admins or Club Admins can reject invoices for this club.");
+                response.put("message", "Access denied. You are not an admin of any clubs.");
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
             }
             
-            // Check if invoice is in appropriate status for rejection
-            if (!"PENDING".equals(invoice.getApprovalStatus())) {
+            Map<String, StateTransitionExecutor.Outcome> outcomes = invoiceService.approveInvoices(BatchTransitions.ids(requestBody), adminClubIds,
+                    currentMember.getId(), currentMember.getFirstName() + " " + currentMember.getLastName());
+            return ResponseEntity.ok(BatchTransitions.response(outcomes, "invoices", "approved"));
+            
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "Error approving invoices: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+    
+    // Reject many pending invoices with one reason in one bulk write; body {"ids": [...], "rejectionReason": "..."}
+    @PostMapping("/reject-batch")
+    public ResponseEntity<Map<String, Object>> rejectInvoicesBatch(@RequestBody Map<String, Object> requestBody) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            Member currentMember = getCurrentMember();
+            if (currentMember == null) {
                 response.put("success", false);
-                response.put("message", "Invoice is not pending approval.");
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+                response.put("message", "Authentication required.");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
             }
             
-            String rejectionReason = requestBody.get("rejectionReason");
-            if (rejectionReason == null || rejectionReason.trim().isEmpty()) {
+            Object rejectionReason = requestBody.get("rejectionReason");
+            if (rejectionReason == null || rejectionReason.toString().trim().isEmpty()) {
                 response.put("success", false);
                 response.put("message", "Rejection reason is required.");
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
             }
             
-            // Reject the invoice
-            invoice.setApprovalStatus("REJECTED");
-            invoice.setApprovedBy(currentMember.getId());
-            invoice.setApprovedByName(currentMember.getFirstName() + " " + currentMember.getLastName());
-            invoice.setApprovedAt(java.time.LocalDateTime.now());
-            invoice.setRejectionReason(rejectionReason);
-            invoice.setStatus("REJECTED");
-            invoice.setUpdatedAt(java.time.LocalDateTime.now());
-            invoice.setUpdatedBy(currentMember.getId());
-            
-            Invoice savedInvoice = invoiceService.save(invoice);
+            // Authorize once: the bulk update only matches invoices of clubs the member administers
+            List<String> adminClubIds = adminClubScope(currentMember);
+            if (adminClubIds != null && adminClubIds.isEmpty()) {
+                response.put("success", false);
+                response.put("message", "Access denied. You are not an admin of any clubs.");
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
+            }
             
-            response.put("success", true);
-            response.put("message", "Invoice rejected successfully.");
-            response.put("data", savedInvoice);
-            return ResponseEntity.ok(response);
+            Map<String, StateTransitionExecutor.Outcome> outcomes = invoiceService.rejectInvoices(BatchTransitions.ids(requestBody), adminClubIds,
+                    currentMember.getId(), currentMember.getFirstName() + " " + currentMember.getLastName(), rejectionReason.toString());
+            return ResponseEntity.ok(BatchTransitions.response(outcomes, "invoices", "rejected"));
             
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
         } catch (Exception e) {
             response.put("success", false);
-            response.put("message", "Error rejecting invoice: " + e.getMessage());
+            response.put("message", "Error rejecting invoices: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
@@ -658,31 +732,24 @@ public class InvoiceController {
                 return accessCheck; // Return the error response
             }
             
-            // Get the invoice
-            Optional<Invoice> invoiceOpt = invoiceService.findById(id);
-            if (!invoiceOpt.isPresent()) {
-                response.put("success", false);
-                response.put("message", "Invoice not found.");
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
-            }
-            
-            Invoice invoice = invoiceOpt.get();
-            
-            // Invoices are already created in PENDING status, so this mainly just confirms the status
-            // If invoice is already PENDING, consider it already submitted
-            if ("PENDING".equals(invoice.getApprovalStatus())) {
+            // Move the invoice back to PENDING in one conditional update
+            Optional<Invoice> submitted = invoiceService.submitInvoiceForApproval(id);
+            if (submitted.isEmpty()) {
+                // Nothing matched: either the invoice does not exist or it is already PENDING
+                Optional<Invoice> invoiceOpt = invoiceService.findById(id);
+                if (!invoiceOpt.isPresent()) {
+                    response.put("success", false);
+                    response.put("message", "Invoice not found.");
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+                }
+                
+                // Invoices are already created in PENDING status, so consider it already submitted
                 response.put("success", true);
                 response.put("message", "Invoice is already pending approval.");
-                response.put("data", invoice);
+                response.put("data", invoiceOpt.get());
                 return ResponseEntity.ok(response);
             }
-            
-            // Submit for approval - set to PENDING
-            invoice.setStatus("PENDING");
-            invoice.setApprovalStatus("PENDING");
-            invoice.setUpdatedAt(java.time.LocalDateTime.now());
-            
-            Invoice savedInvoice = invoiceService.save(invoice);
+            Invoice savedInvoice = submitted.get();
             
             response.put("success", true);
             response.put("message", "Invoice submitted for approval successfully.");
@@ -714,17 +781,14 @@ public class InvoiceController {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
             }
             
-            Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
-            Pageable pageable = PageRequest.of(page, size, sort);
-            
             Page<Invoice> invoicesPage;
             
             if ("APP_ADMIN".equals(currentMember.getRole())) {
                 // APP_ADMIN can see all pending invoices
-                invoicesPage = invoiceService.getInvoicesByApprovalStatus("PENDING", pageable);
+                invoicesPage = invoiceService.getPendingApprovalInvoices(null, sortBy, sortDirection, page, size);
             } else {
                 // Get clubs where user is CLUB_ADMIN
-                List<UserClubRole> clubRoles = userClubRoleService.getMemberClubRolesByEmail(currentMember.getEmail());
+                List<UserClubRole> clubRoles = currentMemberResolver.getCurrentClubRoles();
                 List<String> adminClubIds = clubRoles.stream()
                     .filter(role -> "CLUB_ADMIN".equals(role.getClubRole()))
                     .map(UserClubRole::getClubId)
@@ -738,7 +802,7 @@ public class InvoiceController {
                 }
                 
                 // Get pending invoices for clubs where user is admin
-                invoicesPage = invoiceService.getInvoicesByApprovalStatusAndClubIds("PENDING", adminClubIds, pageable);
+                invoicesPage = invoiceService.getPendingApprovalInvoices(adminClubIds, sortBy, sortDirection, page, size);
             }
             
             response.put("success", true);
@@ -780,7 +844,7 @@ public class InvoiceController {
         
         // Check if user has any club roles
         try {
-            List<UserClubRole> clubRoles = userClubRoleService.getMemberClubRolesByEmail(currentMember.getEmail());
+            List<UserClubRole> clubRoles = currentMemberResolver.getCurrentClubRoles();
             if (clubRoles != null && !clubRoles.isEmpty()) {
                 return null; // No error, access is allowed for members with club roles
             }
@@ -1,8 +1,12 @@
 package com.myskoolclub.backend.controller;
 
 import com.myskoolclub.backend.model.Member;
+import com.myskoolclub.backend.service.CursorSlice;
 import com.myskoolclub.backend.service.MemberService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,6 +22,8 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
 public class MemberController {
 
+    private static final Sort MEMBER_SORT = Sort.by("lastName", "firstName", "id");
+
     @Autowired
     private MemberService memberService;
     
@@ -26,6 +32,9 @@ public class MemberController {
     
     @Autowired
     private com.myskoolclub.backend.security.JwtTokenUtil jwtTokenUtil;
+    
+    @Autowired
+    private com.myskoolclub.backend.security.CurrentMemberResolver currentMemberResolver;
 
     /**
      * Create a new member (Member signup)
@@ -58,19 +67,21 @@ public class MemberController {
     @GetMapping
     public ResponseEntity<Map<String, Object>> getAllActiveMembers(
             @RequestParam(required = false, defaultValue = "0") int page,
-            @RequestParam(required = false, defaultValue = "20") int size) {
+            @RequestParam(required = false, defaultValue = "20") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false, defaultValue = "false") boolean cursor) {
         Map<String, Object> response = new HashMap<>();
         
         try {
             // Get current user from JWT token manually
-            String currentUserEmail = getCurrentUserEmailFromToken();
+            String currentUserEmail = currentMemberResolver.getCurrentUserEmail();
             if (currentUserEmail == null) {
                 response.put("success", false);
                 response.put("message", "Authentication required.");
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
             }
             
-            Optional<Member> currentMemberOpt = memberService.findByEmail(currentUserEmail);
+            Optional<Member> currentMemberOpt = Optional.ofNullable(currentMemberResolver.getCurrentMember());
             if (!currentMemberOpt.isPresent()) {
                 response.put("success", false);
                 response.put("message", "Current user not found.");
@@ -84,26 +95,38 @@ public class MemberController {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
             }
             
-            List<Member> members = memberService.getAllActiveMembers();
-            
-            // Filter members based on user role
+            // SCHOOL_ADMIN can only see members from their school with roles SCHOOL_USER or SCHOOL_ADMIN
+            String schoolId = null;
+            List<String> roles = null;
             if ("SCHOOL_ADMIN".equals(currentMember.getRole())) {
-                // SCHOOL_ADMIN can only see members from their school with roles SCHOOL_USER or SCHOOL_ADMIN
-                members = members.stream()
-                    .filter(member -> currentMember.getSchoolId().equals(member.getSchoolId()) &&
-                                    ("SCHOOL_USER".equals(member.getRole()) || "SCHOOL_ADMIN".equals(member.getRole())))
-                    .collect(java.util.stream.Collectors.toList());
+                schoolId = currentMember.getSchoolId();
+                roles = List.of("SCHOOL_USER", "SCHOOL_ADMIN");
+                if (schoolId == null) {
+                    response.put("success", false);
+                    response.put("message", "School admin must be associated with a school.");
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+                }
             }
             
-            // Calculate pagination
-            int totalCount = members.size();
-            int totalPages = (int) Math.ceil((double) totalCount / size);
-            int startIndex = page * size;
-            int endIndex = Math.min(startIndex + size, totalCount);
+            // Keyset pagination is opt-in, ordered by last name and skips the total count
+            if (cursor || after != null) {
+                CursorSlice<Member> memberSlice = memberService.getActiveMembersAfter(
+                    schoolId, roles, "lastName", "asc", after, size
+                );
+                
+                response.put("success", true);
+                response.put("data", memberSlice.getContent());
+                response.put("count", memberSlice.getNumberOfElements());
+                response.put("size", size);
+                response.put("hasNext", memberSlice.hasNext());
+                response.put("nextCursor", memberSlice.getNextCursor());
+                return ResponseEntity.ok(response);
+            }
             
-            // Get paginated subset
-            List<Member> paginatedMembers = startIndex < totalCount ? 
-                members.subList(startIndex, endIndex) : new java.util.ArrayList<>();
+            Page<Member> memberPage = memberService.findMembers(schoolId, true, roles, null, PageRequest.of(page, size, MEMBER_SORT));
+            List<Member> paginatedMembers = memberPage.getContent();
+            int totalCount = (int) memberPage.getTotalElements();
+            int totalPages = memberPage.getTotalPages();
             
             response.put("success", true);
             response.put("data", paginatedMembers);
@@ -114,6 +137,11 @@ public class MemberController {
             response.put("totalPages", totalPages);
             return ResponseEntity.ok(response);
             
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            
         } catch (Exception e) {
             response.put("success", false);
             response.put("message", "An error occurred while fetching members");
@@ -139,34 +167,24 @@ public class MemberController {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
             }
             
-            List<Member> members = memberService.getAllMembers();
-            
-            // Filter members based on user role
+            // SCHOOL_ADMIN can only see members from their school with roles SCHOOL_USER or SCHOOL_ADMIN
             Member currentMember = securityHelper.getCurrentMember();
+            String schoolId = null;
+            List<String> roles = null;
             if (currentMember != null && "SCHOOL_ADMIN".equals(currentMember.getRole())) {
-                // SCHOOL_ADMIN can only see members from their school with roles SCHOOL_USER or SCHOOL_ADMIN
-                members = members.stream()
-                    .filter(member -> currentMember.getSchoolId().equals(member.getSchoolId()) &&
-                                    ("SCHOOL_USER".equals(member.getRole()) || "SCHOOL_ADMIN".equals(member.getRole())))
-                    .collect(java.util.stream.Collectors.toList());
-            }
-            
-            // Filter by isActive status if specified
-            if (isActive != null) {
-                members = members.stream()
-                    .filter(member -> member.isActive() == isActive)
-                    .collect(java.util.stream.Collectors.toList());
+                schoolId = currentMember.getSchoolId();
+                roles = List.of("SCHOOL_USER", "SCHOOL_ADMIN");
+                if (schoolId == null) {
+                    response.put("success", false);
+                    response.put("message", "School admin must be associated with a school.");
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+                }
             }
             
-            // Calculate pagination
-            int totalCount = members.size();
-            int totalPages = (int) Math.ceil((double) totalCount / size);
-            int startIndex = page * size;
-            int endIndex = Math.min(startIndex + size, totalCount);
-            
-            // Get paginated subset
-            List<Member> paginatedMembers = startIndex < totalCount ? 
-                members.subList(startIndex, endIndex) : new java.util.ArrayList<>();
+            Page<Member> memberPage = memberService.findMembers(schoolId, isActive, roles, null, PageRequest.of(page, size, MEMBER_SORT));
+            List<Member> paginatedMembers = memberPage.getContent();
+            int totalCount = (int) memberPage.getTotalElements();
+            int totalPages = memberPage.getTotalPages();
             
             response.put("success", true);
             response.put("data", paginatedMembers);
@@ -352,45 +370,31 @@ public class MemberController {
             
             Member currentMember = securityHelper.getCurrentMember();
             
-            // For SCHOOL_ADMIN users, override schoolId and memberType parameters
+            // SCHOOL_ADMIN users can only search SCHOOL_USER and SCHOOL_ADMIN members of their own school
+            List<String> roles = null;
             if (currentMember != null && "SCHOOL_ADMIN".equals(currentMember.getRole())) {
-                schoolId = currentMember.getSchoolId(); // Force to use their school
-                // Allow searching for both SCHOOL_USER and SCHOOL_ADMIN, but we'll filter later
-                if (memberType == null) {
-                    memberType = null; // Allow all member types, will filter in results
+                schoolId = currentMember.getSchoolId();
+                roles = List.of("SCHOOL_USER", "SCHOOL_ADMIN");
+                if (schoolId == null) {
+                    response.put("success", false);
+                    response.put("message", "School admin must be associated with a school.");
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
                 }
             }
             
-            List<Member> members = memberService.advancedSearchMembers(
+            Page<Member> memberPage = memberService.advancedSearchMembers(
                 search, schoolId, memberType, gradeLevel, department, 
-                gender, city, state, sortBy, sortDirection
+                gender, city, state, roles, sortBy, sortDirection, PageRequest.of(page, size)
             );
-            
-            // Additional filtering for SCHOOL_ADMIN users
-            if (currentMember != null && "SCHOOL_ADMIN".equals(currentMember.getRole())) {
-                members = members.stream()
-                    .filter(member -> currentMember.getSchoolId().equals(member.getSchoolId()) &&
-                                    ("SCHOOL_USER".equals(member.getRole()) || "SCHOOL_ADMIN".equals(member.getRole())))
-                    .collect(java.util.stream.Collectors.toList());
-            }
-            
-            // Calculate pagination
-            int totalCount = members.size();
-            int totalPages = (int) Math.ceil((double) totalCount / size);
-            int startIndex = page * size;
-            int endIndex = Math.min(startIndex + size, totalCount);
-            
-            // Get paginated subset
-            List<Member> paginatedMembers = startIndex < totalCount ? 
-                members.subList(startIndex, endIndex) : new java.util.ArrayList<>();
+            List<Member> paginatedMembers = memberPage.getContent();
             
             response.put("success", true);
             response.put("data", paginatedMembers);
             response.put("count", paginatedMembers.size());
-            response.put("totalCount", totalCount);
+            response.put("totalCount", memberPage.getTotalElements());
             response.put("page", page);
             response.put("size", size);
-            response.put("totalPages", totalPages);
+            response.put("totalPages", memberPage.getTotalPages());
             return ResponseEntity.ok(response);
             
         } catch (Exception e) {
@@ -506,9 +510,10 @@ public class MemberController {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
             }
             
-            memberService.deleteMember(id);
+            Map<String, Long> affected = memberService.deleteMember(id);
             response.put("success", true);
             response.put("message", "Member deleted successfully!");
+            response.put("data", affected);
             return ResponseEntity.ok(response);
             
         } catch (RuntimeException e) {
@@ -559,14 +564,8 @@ public class MemberController {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
             }
             
-            // Get all active members for the school
-            List<Member> members = memberService.getAllActiveMembers().stream()
-                .filter(member -> schoolId.equals(member.getSchoolId()))
-                .filter(member -> query.isEmpty() || 
-                        member.getEmail().toLowerCase().contains(query.toLowerCase()) ||
-                        (member.getFirstName() + " " + member.getLastName()).toLowerCase().contains(query.toLowerCase()))
-                .limit(10) // Limit results for performance
-                .collect(Collectors.toList());
+            // Get matching active members for the school, limited for type-ahead
+            List<Member> members = memberService.findMemberSuggestions(schoolId, query, null, 10);
             
             // Return simplified data for type-ahead
             List<Map<String, String>> results = members.stream()
@@ -643,7 +642,7 @@ public class MemberController {
                 org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
             
             // Test JWT token extraction
-            String emailFromToken = getCurrentUserEmailFromToken();
+            String emailFromToken = currentMemberResolver.getCurrentUserEmail();
             
             response.put("authExists", auth != null);
             response.put("isAuthenticated", auth != null ? auth.isAuthenticated() : false);
@@ -765,14 +764,14 @@ public class MemberController {
         
         try {
             // Only allow APP_ADMIN to update roles
-            String currentUserEmail = getCurrentUserEmailFromToken();
+            String currentUserEmail = currentMemberResolver.getCurrentUserEmail();
             if (currentUserEmail == null) {
                 response.put("success", false);
                 response.put("message", "Authentication required.");
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
             }
             
-            Optional<Member> currentMemberOpt = memberService.findByEmail(currentUserEmail);
+            Optional<Member> currentMemberOpt = Optional.ofNullable(currentMemberResolver.getCurrentMember());
             if (!currentMemberOpt.isPresent() || !"APP_ADMIN".equals(currentMemberOpt.get().getRole())) {
                 response.put("success", false);
                 response.put("message", "Only APP_ADMIN can update member roles.");
@@ -804,38 +803,6 @@ public class MemberController {
         }
     }
 
-    /**
-     * Helper method to extract current user email from JWT token
-     */
-    private String getCurrentUserEmailFromToken() {
-        try {
-            org.springframework.web.context.request.ServletRequestAttributes requestAttributes = 
-                (org.springframework.web.context.request.ServletRequestAttributes) 
-                org.springframework.web.context.request.RequestContextHolder.currentRequestAttributes();
-            
-            jakarta.servlet.http.HttpServletRequest request = requestAttributes.getRequest();
-            String authHeader = request.getHeader("Authorization");
-            
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                String token = authHeader.substring(7);
-                
-                try {
-                    boolean isValid = jwtTokenUtil.validateToken(token);
-                    
-                    if (isValid) {
-                        String username = jwtTokenUtil.getUsernameFromToken(token);
-                        return username;
-                    }
-                } catch (Exception tokenException) {
-                    // Token validation failed
-                }
-            }
-        } catch (Exception e) {
-            // Error extracting token
-        }
-        return null;
-    }
-    
     /**
      * Get member suggestions for club admin emails based on school
      */
@@ -848,14 +815,14 @@ public class MemberController {
         
         try {
             // Check authentication
-            String currentUserEmail = getCurrentUserEmailFromToken();
+            String currentUserEmail = currentMemberResolver.getCurrentUserEmail();
             if (currentUserEmail == null) {
                 response.put("success", false);
                 response.put("message", "Authentication required.");
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
             }
             
-            Optional<Member> currentMemberOpt = memberService.findByEmail(currentUserEmail);
+            Optional<Member> currentMemberOpt = Optional.ofNullable(currentMemberResolver.getCurrentMember());
             if (!currentMemberOpt.isPresent()) {
                 response.put("success", false);
                 response.put("message", "User not found.");
@@ -879,23 +846,11 @@ public class MemberController {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
             }
             
-            // Search for members in the specified school
-            List<Member> allMembers = memberService.advancedSearchMembers(
-                query, schoolId, null, null, null, 
-                null, null, null, "email", "asc"
+            // Search for active SCHOOL_USER and SCHOOL_ADMIN members in the specified school
+            List<Member> suggestedMembers = memberService.findMemberSuggestions(
+                schoolId, query, List.of("SCHOOL_USER", "SCHOOL_ADMIN"), 10
             );
             
-            // Filter to only include active SCHOOL_USER and SCHOOL_ADMIN members
-            List<Member> suggestedMembers = allMembers.stream()
-                .filter(member -> member.isActive() && 
-                               schoolId.equals(member.getSchoolId()) &&
-                               ("SCHOOL_USER".equals(member.getRole()) || "SCHOOL_ADMIN".equals(member.getRole())) &&
-                               (query.isEmpty() || 
-                                member.getEmail().toLowerCase().contains(query.toLowerCase()) ||
-                                (member.getFirstName() + " " + member.getLastName()).toLowerCase().contains(query.toLowerCase())))
-                .limit(10) // Limit to 10 suggestions
-                .collect(Collectors.toList());
-            
             // Create simplified response with just email, name, and role
             List<Map<String, String>> suggestions = suggestedMembers.stream()
                 .map(member -> {
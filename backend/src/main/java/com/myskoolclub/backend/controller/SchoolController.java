@@ -4,10 +4,13 @@ import com.myskoolclub.backend.model.School;
 import com.myskoolclub.backend.model.Member;
 import com.myskoolclub.backend.service.SchoolService;
 import com.myskoolclub.backend.service.MemberService;
+import com.myskoolclub.backend.service.ResourceVersions;
+import com.myskoolclub.backend.service.StatsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -30,7 +33,13 @@ public class SchoolController {
     private MemberService memberService;
     
     @Autowired
-    private com.myskoolclub.backend.security.JwtTokenUtil jwtTokenUtil;
+    private StatsService statsService;
+    
+    @Autowired
+    private com.myskoolclub.backend.security.CurrentMemberResolver currentMemberResolver;
+    
+    @Autowired
+    private ResourceVersions resourceVersions;
 
     // Create a new school
     @PostMapping
@@ -121,13 +130,20 @@ public class SchoolController {
 
     // Get all schools for public access (used during member signup)
     @GetMapping("/public")
-    public ResponseEntity<?> getAllSchoolsPublic() {
+    public ResponseEntity<?> getAllSchoolsPublic(WebRequest webRequest) {
         try {
-            List<School> allSchools = schoolService.getAllSchools();
+            // Answer If-None-Match from the school version counter before reading any school
+            String eTag = EntityTags.of(resourceVersions.tag(ResourceVersions.Resource.SCHOOLS, null));
+            if (webRequest.checkNotModified(eTag)) {
+                return null;
+            }
+            long changedAt = resourceVersions.lastModified(ResourceVersions.Resource.SCHOOLS, null);
+            
+            // Active schools only, served from the reference data cache
+            List<School> activeSchools = schoolService.getActiveSchools();
             
             // Return only basic school information for public access
-            List<Map<String, Object>> publicSchools = allSchools.stream()
-                .filter(school -> school.isActive()) // Only return active schools
+            List<Map<String, Object>> publicSchools = activeSchools.stream()
                 .map(school -> {
                     Map<String, Object> publicSchool = new HashMap<>();
                     publicSchool.put("id", school.getId());
@@ -140,7 +156,10 @@ public class SchoolController {
                 })
                 .collect(Collectors.toList());
                 
-            return ResponseEntity.ok(publicSchools);
+            return ResponseEntity.ok()
+                .cacheControl(EntityTags.PUBLIC_REVALIDATE)
+                .lastModified(EntityTags.lastModified(changedAt, activeSchools.stream().map(School::getUpdatedAt)))
+                .body(publicSchools);
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
             response.put("success", false);
@@ -540,10 +559,7 @@ public class SchoolController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
         }
         
-        Map<String, Long> stats = new HashMap<>();
-        stats.put("totalSchools", schoolService.getTotalSchoolCount());
-        stats.put("activeSchools", schoolService.getActiveSchoolCount());
-        return ResponseEntity.ok(stats);
+        return ResponseEntity.ok(statsService.getSchoolStats());
     }
     
     /**
@@ -594,17 +610,18 @@ public class SchoolController {
         }
         
         try {
-            boolean deleted = schoolService.deleteSchool(schoolId);
+            Map<String, Long> affected = schoolService.deleteSchool(schoolId);
             
             Map<String, Object> response = new HashMap<>();
-            if (deleted) {
-                response.put("success", true);
-                response.put("message", "School deleted successfully");
-            } else {
-                response.put("success", false);
-                response.put("message", "School not found");
-            }
+            response.put("success", true);
+            response.put("message", "School deleted successfully");
+            response.put("data", affected);
             
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
@@ -649,17 +666,18 @@ public class SchoolController {
         }
         
         try {
-            boolean deactivated = schoolService.softDeleteSchool(schoolId);
+            Map<String, Long> affected = schoolService.softDeleteSchool(schoolId);
             
             Map<String, Object> response = new HashMap<>();
-            if (deactivated) {
-                response.put("success", true);
-                response.put("message", "School deactivated successfully");
-            } else {
-                response.put("success", false);
-                response.put("message", "School not found");
-            }
+            response.put("success", true);
+            response.put("message", "School deactivated successfully");
+            response.put("data", affected);
             
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
@@ -746,52 +764,14 @@ public class SchoolController {
      * Helper method to get current member object
      */
     private Member getCurrentMember() {
-        String currentUserEmail = getCurrentUserEmailFromToken();
-        if (currentUserEmail == null) {
-            return null;
-        }
-        
-        Optional<Member> currentMemberOpt = memberService.findByEmail(currentUserEmail);
-        return currentMemberOpt.orElse(null);
-    }
-    
-    /**
-     * Helper method to extract current user email from JWT token
-     */
-    private String getCurrentUserEmailFromToken() {
-        try {
-            org.springframework.web.context.request.ServletRequestAttributes requestAttributes = 
-                (org.springframework.web.context.request.ServletRequestAttributes) 
-                org.springframework.web.context.request.RequestContextHolder.currentRequestAttributes();
-            
-            jakarta.servlet.http.HttpServletRequest request = requestAttributes.getRequest();
-            String authHeader = request.getHeader("Authorization");
-            
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                String token = authHeader.substring(7);
-                
-                try {
-                    boolean isValid = jwtTokenUtil.validateToken(token);
-                    
-                    if (isValid) {
-                        String username = jwtTokenUtil.getUsernameFromToken(token);
-                        return username;
-                    }
-                } catch (Exception tokenException) {
-                    // Token validation failed
-                }
-            }
-        } catch (Exception e) {
-            // Error extracting token
-        }
-        return null;
+        return currentMemberResolver.getCurrentMember();
     }
     
     /**
      * Helper method to check if current user has school admin or app admin privileges
      */
     private ResponseEntity<?> checkSchoolAdminAccess() {
-        String currentUserEmail = getCurrentUserEmailFromToken();
+        String currentUserEmail = currentMemberResolver.getCurrentUserEmail();
         if (currentUserEmail == null) {
             Map<String, Object> response = new HashMap<>();
             response.put("success", false);
@@ -799,7 +779,7 @@ public class SchoolController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
         }
         
-        Optional<Member> currentMemberOpt = memberService.findByEmail(currentUserEmail);
+        Optional<Member> currentMemberOpt = Optional.ofNullable(currentMemberResolver.getCurrentMember());
         if (!currentMemberOpt.isPresent()) {
             Map<String, Object> response = new HashMap<>();
             response.put("success", false);
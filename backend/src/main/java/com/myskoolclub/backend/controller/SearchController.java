@@ -0,0 +1,166 @@
+package com.myskoolclub.backend.controller;
+
+import com.myskoolclub.backend.security.MemberCapabilities;
+import com.myskoolclub.backend.security.SchoolSecurityHelper;
+import com.myskoolclub.backend.service.GlobalSearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Global search across clubs, members, checkouts, invoices and announcements for APP_ADMIN and SCHOOL_ADMIN,
+ * answered from the in-process search index. SCHOOL_ADMIN only ever searches their own school.
+ */
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "*")
+public class SearchController {
+
+    @Autowired
+    private GlobalSearchIndex globalSearchIndex;
+
+    @Autowired
+    private SchoolSecurityHelper securityHelper;
+
+    // Search everything the current admin may see
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> search(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) String schoolId,
+            @RequestParam(required = false) String types,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            MemberCapabilities capabilities = securityHelper.getCurrentCapabilities();
+            ResponseEntity<Map<String, Object>> denied = checkAccess(capabilities, schoolId, response);
+            if (denied != null) {
+                return denied;
+            }
+
+            // APP_ADMIN searches every school unless one is named; SCHOOL_ADMIN always their own
+            List<String> schoolIds = capabilities.isAppAdmin()
+                    ? (schoolId == null || schoolId.isBlank() ? null : List.of(schoolId))
+                    : List.of(capabilities.getSchoolId());
+
+            long start = System.nanoTime();
+            Page<GlobalSearchIndex.Hit> results = globalSearchIndex.search(query, schoolIds, parseTypes(types),
+                    capabilities.isAppAdmin(), PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), 100)));
+            double tookMs = (System.nanoTime() - start) / 1_000_000.0;
+
+            response.put("success", true);
+            response.put("message", "Search completed successfully");
+            response.put("data", results.getContent());
+            response.put("currentPage", results.getNumber());
+            response.put("totalPages", results.getTotalPages());
+            response.put("totalElements", results.getTotalElements());
+            response.put("size", results.getSize());
+            response.put("hasNext", results.hasNext());
+            response.put("hasPrevious", results.hasPrevious());
+            response.put("tookMs", tookMs);
+
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "An error occurred while searching");
+            response.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    // Rebuild the search index from the database: one school, or every school for APP_ADMIN
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuild(@RequestParam(required = false) String schoolId) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            MemberCapabilities capabilities = securityHelper.getCurrentCapabilities();
+            ResponseEntity<Map<String, Object>> denied = checkAccess(capabilities, schoolId, response);
+            if (denied != null) {
+                return denied;
+            }
+
+            long documents;
+            if (capabilities.isAppAdmin() && (schoolId == null || schoolId.isBlank())) {
+                documents = globalSearchIndex.rebuildAll();
+            } else {
+                documents = globalSearchIndex.rebuild(capabilities.isAppAdmin() ? schoolId : capabilities.getSchoolId());
+            }
+
+            response.put("success", true);
+            response.put("message", "Search index rebuilt successfully");
+            response.put("data", Map.of("documents", documents));
+
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "An error occurred while rebuilding the search index");
+            response.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    // Null when the current member may use global search for the requested school
+    private ResponseEntity<Map<String, Object>> checkAccess(MemberCapabilities capabilities, String schoolId,
+                                                            Map<String, Object> response) {
+        if (!capabilities.isAuthenticated()) {
+            response.put("success", false);
+            response.put("message", "Authentication required.");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+        }
+
+        if (capabilities.isAppAdmin()) {
+            return null;
+        }
+
+        if (!capabilities.isSchoolAdmin() || capabilities.getSchoolId() == null) {
+            response.put("success", false);
+            response.put("message", "Access denied. Only App Admins and School Admins can use global search.");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
+        }
+
+        if (schoolId != null && !schoolId.isBlank() && !capabilities.belongsToSchool(schoolId)) {
+            response.put("success", false);
+            response.put("message", "Access denied. School Admins can only search their own school.");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
+        }
+
+        return null;
+    }
+
+    // Comma-separated entity types such as "club,member"; none means all
+    private static List<GlobalSearchIndex.Type> parseTypes(String types) {
+        List<GlobalSearchIndex.Type> parsed = new ArrayList<>();
+        if (types == null || types.isBlank()) {
+            return parsed;
+        }
+        for (String type : types.split(",")) {
+            if (!type.isBlank()) {
+                try {
+                    parsed.add(GlobalSearchIndex.Type.valueOf(type.trim().toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unknown search type: " + type.trim());
+                }
+            }
+        }
+        return parsed;
+    }
+}
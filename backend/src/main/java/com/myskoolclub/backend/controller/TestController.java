@@ -3,6 +3,7 @@ package com.myskoolclub.backend.controller;
 import com.myskoolclub.backend.model.Member;
 import com.myskoolclub.backend.model.School;
 import com.myskoolclub.backend.repository.*;
+import com.myskoolclub.backend.service.StatsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
@@ -39,6 +40,9 @@ public class TestController {
     @Autowired
     private InvoiceRepository invoiceRepository;
 
+    @Autowired
+    private StatsService statsService;
+
     @Value("${spring.profiles.active:default}")
     private String activeProfile;
 
@@ -136,14 +140,7 @@ public class TestController {
         Map<String, Object> response = new HashMap<>();
 
         try {
-            Map<String, Long> counts = new HashMap<>();
-            
-            counts.put("members", memberRepository.count());
-            counts.put("schools", schoolRepository.count());
-            counts.put("clubs", clubRepository.count());
-            counts.put("userClubRoles", userClubRoleRepository.count());
-            counts.put("checkouts", checkoutRepository.count());
-            counts.put("invoices", invoiceRepository.count());
+            Map<String, Long> counts = statsService.getCollectionCounts();
 
             long totalRecords = counts.values().stream().mapToLong(Long::longValue).sum();
 
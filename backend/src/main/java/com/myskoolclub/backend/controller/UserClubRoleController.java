@@ -20,7 +20,7 @@ public class UserClubRoleController {
     private UserClubRoleService userClubRoleService;
     
     @Autowired
-    private com.myskoolclub.backend.security.JwtTokenUtil jwtTokenUtil;
+    private com.myskoolclub.backend.security.CurrentMemberResolver currentMemberResolver;
     
     /**
      * Add a member to a club with a specific role
@@ -29,7 +29,7 @@ public class UserClubRoleController {
     public ResponseEntity<?> addMemberToClub(@RequestBody Map<String, String> request) {
         try {
             // Check authentication
-            String currentUserEmail = getCurrentUserEmailFromToken();
+            String currentUserEmail = currentMemberResolver.getCurrentUserEmail();
             if (currentUserEmail == null) {
                 Map<String, Object> response = new HashMap<>();
                 response.put("success", false);
@@ -87,7 +87,7 @@ public class UserClubRoleController {
                                                  @RequestBody Map<String, String> request) {
         try {
             // Check authentication
-            String currentUserEmail = getCurrentUserEmailFromToken();
+            String currentUserEmail = currentMemberResolver.getCurrentUserEmail();
             if (currentUserEmail == null) {
                 Map<String, Object> response = new HashMap<>();
                 response.put("success", false);
@@ -140,7 +140,7 @@ public class UserClubRoleController {
     public ResponseEntity<?> removeMemberFromClub(@PathVariable String memberId, @PathVariable String clubId) {
         try {
             // Check authentication
-            String currentUserEmail = getCurrentUserEmailFromToken();
+            String currentUserEmail = currentMemberResolver.getCurrentUserEmail();
             if (currentUserEmail == null) {
                 Map<String, Object> response = new HashMap<>();
                 response.put("success", false);
@@ -176,7 +176,7 @@ public class UserClubRoleController {
     public ResponseEntity<?> getMemberClubs(@PathVariable String memberId) {
         try {
             // Check authentication
-            String currentUserEmail = getCurrentUserEmailFromToken();
+            String currentUserEmail = currentMemberResolver.getCurrentUserEmail();
             if (currentUserEmail == null) {
                 Map<String, Object> response = new HashMap<>();
                 response.put("success", false);
@@ -211,7 +211,7 @@ public class UserClubRoleController {
             @RequestParam(required = false, defaultValue = "20") int size) {
         try {
             // Check authentication
-            String currentUserEmail = getCurrentUserEmailFromToken();
+            String currentUserEmail = currentMemberResolver.getCurrentUserEmail();
             if (currentUserEmail == null) {
                 Map<String, Object> response = new HashMap<>();
                 response.put("success", false);
@@ -257,7 +257,7 @@ public class UserClubRoleController {
     public ResponseEntity<?> getMemberAdminClubs(@PathVariable String memberId) {
         try {
             // Check authentication
-            String currentUserEmail = getCurrentUserEmailFromToken();
+            String currentUserEmail = currentMemberResolver.getCurrentUserEmail();
             if (currentUserEmail == null) {
                 Map<String, Object> response = new HashMap<>();
                 response.put("success", false);
@@ -289,7 +289,7 @@ public class UserClubRoleController {
     public ResponseEntity<?> getClubAdmins(@PathVariable String clubId) {
         try {
             // Check authentication
-            String currentUserEmail = getCurrentUserEmailFromToken();
+            String currentUserEmail = currentMemberResolver.getCurrentUserEmail();
             if (currentUserEmail == null) {
                 Map<String, Object> response = new HashMap<>();
                 response.put("success", false);
@@ -321,7 +321,7 @@ public class UserClubRoleController {
     public ResponseEntity<?> addMemberToClubByEmail(@RequestBody Map<String, String> request) {
         try {
             // Check authentication
-            String currentUserEmail = getCurrentUserEmailFromToken();
+            String currentUserEmail = currentMemberResolver.getCurrentUserEmail();
             if (currentUserEmail == null) {
                 Map<String, Object> response = new HashMap<>();
                 response.put("success", false);
@@ -382,7 +382,7 @@ public class UserClubRoleController {
     public ResponseEntity<?> removeMemberFromClubByEmail(@PathVariable String clubId, @PathVariable String email) {
         try {
             // Check authentication
-            String currentUserEmail = getCurrentUserEmailFromToken();
+            String currentUserEmail = currentMemberResolver.getCurrentUserEmail();
             if (currentUserEmail == null) {
                 Map<String, Object> response = new HashMap<>();
                 response.put("success", false);
@@ -423,7 +423,7 @@ public class UserClubRoleController {
     public ResponseEntity<?> updateUserClubRole(@PathVariable String roleId, @RequestBody Map<String, String> request) {
         try {
             // Check authentication
-            String currentUserEmail = getCurrentUserEmailFromToken();
+            String currentUserEmail = currentMemberResolver.getCurrentUserEmail();
             if (currentUserEmail == null) {
                 Map<String, Object> response = new HashMap<>();
                 response.put("success", false);
@@ -469,36 +469,4 @@ public class UserClubRoleController {
             return ResponseEntity.internalServerError().body(response);
         }
     }
-    
-    /**
-     * Helper method to extract current user email from JWT token
-     */
-    private String getCurrentUserEmailFromToken() {
-        try {
-            org.springframework.web.context.request.ServletRequestAttributes requestAttributes = 
-                (org.springframework.web.context.request.ServletRequestAttributes) 
-                org.springframework.web.context.request.RequestContextHolder.currentRequestAttributes();
-            
-            jakarta.servlet.http.HttpServletRequest request = requestAttributes.getRequest();
-            String authHeader = request.getHeader("Authorization");
-            
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                String token = authHeader.substring(7);
-                
-                try {
-                    boolean isValid = jwtTokenUtil.validateToken(token);
-                    
-                    if (isValid) {
-                        String username = jwtTokenUtil.getUsernameFromToken(token);
-                        return username;
-                    }
-                } catch (Exception tokenException) {
-                    // Token validation failed
-                }
-            }
-        } catch (Exception e) {
-            // Error extracting token
-        }
-        return null;
-    }
 }
\ No newline at end of file
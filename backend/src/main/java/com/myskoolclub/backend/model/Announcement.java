@@ -2,7 +2,6 @@ package com.myskoolclub.backend.model;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
-import org.springframework.data.mongodb.core.index.Indexed;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.time.LocalDateTime;
@@ -13,7 +12,6 @@ public class Announcement {
     @Id
     private String id;
     
-    @Indexed
     private String schoolId; // Reference to School
     
     private String title;
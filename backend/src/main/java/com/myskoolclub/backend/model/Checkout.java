@@ -1,8 +1,9 @@
 package com.myskoolclub.backend.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
-import org.springframework.data.mongodb.core.index.Indexed;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -19,19 +20,15 @@ public class Checkout {
     @Id
     private String id;
     
-    @Indexed(unique = true)
     private String checkoutNumber;
     
-    @Indexed
     private String clubId;
     private String clubName;
     
-    @Indexed
     private LocalDate checkoutDate;
     private LocalDate dueDate;
     private LocalDate returnDate;
     
-    @Indexed
     private String status; // ACTIVE, RETURNED, OVERDUE, CANCELLED, PENDING, APPROVED, REJECTED
     
     // Approval fields
@@ -61,6 +58,16 @@ public class Checkout {
     private String updatedBy;
     private String updatedByName;
     
+    // Optimistic locking; exposed to clients as the ETag for If-Match updates
+    @Version
+    private Long version;
+    
+    // Lowercase, accent-folded words maintained on write for indexed prefix search
+    @JsonIgnore
+    private List<String> searchTokens = new ArrayList<>();
+    @JsonIgnore
+    private List<String> clubNameTokens = new ArrayList<>();
+    
     // Default constructor
     public Checkout() {
         this.status = "PENDING";
@@ -341,6 +348,30 @@ public class Checkout {
         this.updatedByName = updatedByName;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public List<String> getSearchTokens() {
+        return searchTokens;
+    }
+    
+    public void setSearchTokens(List<String> searchTokens) {
+        this.searchTokens = searchTokens;
+    }
+    
+    public List<String> getClubNameTokens() {
+        return clubNameTokens;
+    }
+    
+    public void setClubNameTokens(List<String> clubNameTokens) {
+        this.clubNameTokens = clubNameTokens;
+    }
+    
     @Override
     public String toString() {
         return "Checkout{" +
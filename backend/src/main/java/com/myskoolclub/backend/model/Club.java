@@ -2,7 +2,7 @@ package com.myskoolclub.backend.model;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
-import org.springframework.data.mongodb.core.index.Indexed;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -13,10 +13,8 @@ public class Club {
     @Id
     private String id;
     
-    @Indexed
     private String name;
     
-    @Indexed
     private String schoolId;
     
     private String schoolName;
@@ -41,6 +39,12 @@ public class Club {
     private LocalDateTime updatedAt;
     private boolean active = true;
     
+    // Lowercase, accent-folded words maintained on write for indexed prefix search
+    @JsonIgnore
+    private List<String> searchTokens = new ArrayList<>();
+    @JsonIgnore
+    private List<String> schoolNameTokens = new ArrayList<>();
+    
     // Constructors
     public Club() {
         this.createdAt = LocalDateTime.now();
@@ -201,6 +205,22 @@ public class Club {
         this.updatedAt = LocalDateTime.now();
     }
     
+    public List<String> getSearchTokens() {
+        return searchTokens;
+    }
+    
+    public void setSearchTokens(List<String> searchTokens) {
+        this.searchTokens = searchTokens;
+    }
+    
+    public List<String> getSchoolNameTokens() {
+        return schoolNameTokens;
+    }
+    
+    public void setSchoolNameTokens(List<String> schoolNameTokens) {
+        this.schoolNameTokens = schoolNameTokens;
+    }
+    
     // Utility methods
     public void addTag(String tag) {
         if (tag != null && !tag.trim().isEmpty() && !this.tags.contains(tag.trim())) {
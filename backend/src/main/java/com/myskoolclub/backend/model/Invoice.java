@@ -1,8 +1,9 @@
 package com.myskoolclub.backend.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
-import org.springframework.data.mongodb.core.index.Indexed;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -15,17 +16,14 @@ public class Invoice {
     @Id
     private String id;
     
-    @Indexed(unique = true)
     private String invoiceNumber;
     
-    @Indexed
     private String clubId;
     private String clubName; // Denormalized for easier queries and display
     
     private LocalDate issueDate;
     private LocalDate dueDate;
     
-    @Indexed
     private String status; // DRAFT, PENDING_APPROVAL, APPROVED, REJECTED, SENT, PAID, OVERDUE, CANCELLED
     
     // Approval fields
@@ -55,6 +53,16 @@ public class Invoice {
     private String updatedBy;
     private String updatedByName;
     
+    // Optimistic locking; exposed to clients as the ETag for If-Match updates
+    @Version
+    private Long version;
+    
+    // Lowercase, accent-folded words maintained on write for indexed prefix search
+    @JsonIgnore
+    private List<String> searchTokens = new ArrayList<>();
+    @JsonIgnore
+    private List<String> clubNameTokens = new ArrayList<>();
+    
     // Constructors
     public Invoice() {}
     
@@ -253,6 +261,30 @@ public class Invoice {
         this.updatedByName = updatedByName;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public List<String> getSearchTokens() {
+        return searchTokens;
+    }
+    
+    public void setSearchTokens(List<String> searchTokens) {
+        this.searchTokens = searchTokens;
+    }
+    
+    public List<String> getClubNameTokens() {
+        return clubNameTokens;
+    }
+    
+    public void setClubNameTokens(List<String> clubNameTokens) {
+        this.clubNameTokens = clubNameTokens;
+    }
+    
     // Approval getters and setters
     public boolean isApprovalRequired() {
         return approvalRequired;
@@ -2,11 +2,13 @@ package com.myskoolclub.backend.model;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
-import org.springframework.data.mongodb.core.index.Indexed;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.time.LocalDateTime;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 @Document(collection = "members")
 public class Member {
@@ -18,7 +20,6 @@ public class Member {
     private String firstName;
     private String lastName;
     
-    @Indexed(unique = true)
     private String email;
     
     private String memberType; // "student" or "teacher" - Mandatory field
@@ -53,6 +54,16 @@ public class Member {
     
     @JsonProperty("isActive")
     private boolean isActive;
+    
+    // Incremented whenever the member's club roles change; tokens carrying an older value are stale
+    @JsonIgnore
+    private long clubRoleVersion;
+
+    // Lowercase, accent-folded words maintained on write for indexed prefix search
+    @JsonIgnore
+    private List<String> searchTokens = new ArrayList<>();
+    @JsonIgnore
+    private List<String> schoolNameTokens = new ArrayList<>();
 
     // Constructors
     public Member() {
@@ -317,6 +328,30 @@ public class Member {
         isActive = active;
     }
 
+    public long getClubRoleVersion() {
+        return clubRoleVersion;
+    }
+
+    public void setClubRoleVersion(long clubRoleVersion) {
+        this.clubRoleVersion = clubRoleVersion;
+    }
+
+    public List<String> getSearchTokens() {
+        return searchTokens;
+    }
+
+    public void setSearchTokens(List<String> searchTokens) {
+        this.searchTokens = searchTokens;
+    }
+
+    public List<String> getSchoolNameTokens() {
+        return schoolNameTokens;
+    }
+
+    public void setSchoolNameTokens(List<String> schoolNameTokens) {
+        this.schoolNameTokens = schoolNameTokens;
+    }
+
     // Utility methods
     public String getFullName() {
         StringBuilder fullName = new StringBuilder(firstName);
@@ -2,7 +2,7 @@ package com.myskoolclub.backend.model;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
-import org.springframework.data.mongodb.core.index.Indexed;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -14,7 +14,6 @@ public class School {
     @Id
     private String id;
     
-    @Indexed(unique = true)
     private String name; // Mandatory field
     
     // Optional fields
@@ -39,6 +38,10 @@ public class School {
     private LocalDateTime updatedAt;
     private boolean isActive;
 
+    // Lowercase, accent-folded words maintained on write for indexed prefix search
+    @JsonIgnore
+    private List<String> searchTokens = new ArrayList<>();
+
     // Constructors
     public School() {
         this.createdAt = LocalDateTime.now();
@@ -205,6 +208,14 @@ public class School {
         isActive = active;
     }
 
+    public List<String> getSearchTokens() {
+        return searchTokens;
+    }
+
+    public void setSearchTokens(List<String> searchTokens) {
+        this.searchTokens = searchTokens;
+    }
+
     public List<String> getAdminEmails() {
         return adminEmails;
     }
@@ -2,7 +2,6 @@ package com.myskoolclub.backend.model;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
-import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,10 +16,8 @@ public class User implements UserDetails {
     @Id
     private String id;
 
-    @Indexed(unique = true)
     private String username;
 
-    @Indexed(unique = true)
     private String email;
 
     private String password;
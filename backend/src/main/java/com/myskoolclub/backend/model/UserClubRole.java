@@ -2,29 +2,22 @@ package com.myskoolclub.backend.model;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
-import org.springframework.data.mongodb.core.index.Indexed;
-import org.springframework.data.mongodb.core.index.CompoundIndex;
 
 import java.time.LocalDateTime;
 
 @Document(collection = "user_club_roles")
-@CompoundIndex(def = "{'memberId': 1, 'clubId': 1}", unique = true)
 public class UserClubRole {
     
     @Id
     private String id;
     
-    @Indexed
     private String memberId;
     
-    @Indexed
     private String clubId;
     
-    @Indexed
     private String schoolId; // For efficient querying by school
     
     // Role can be CLUB_ADMIN or CLUB_USER
-    @Indexed
     private String clubRole;
     
     // Additional metadata
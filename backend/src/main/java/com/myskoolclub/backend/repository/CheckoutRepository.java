@@ -30,40 +30,15 @@ public interface CheckoutRepository extends MongoRepository<Checkout, String> {
     List<Checkout> findByStatus(String status);
     List<Checkout> findByStatusOrderByCheckoutDateDesc(String status);
     
-    // Find by approval status
-    List<Checkout> findByApprovalStatus(String approvalStatus);
-    List<Checkout> findByClubIdInAndApprovalStatus(List<String> clubIds, String approvalStatus);
-    
-    // Find by status for multiple clubs
-    List<Checkout> findByClubIdInAndStatus(List<String> clubIds, String status);
+    // Approval and return queues, served by the (approvalStatus, clubId, createdAt) and (status, clubId, createdAt) indexes
+    Page<Checkout> findByApprovalStatus(String approvalStatus, Pageable pageable);
+    Page<Checkout> findByApprovalStatusAndClubIdIn(String approvalStatus, List<String> clubIds, Pageable pageable);
+    Page<Checkout> findByStatusAndClubIdIn(String status, List<String> clubIds, Pageable pageable);
     
     // Paginated queries
     Page<Checkout> findByClubId(String clubId, Pageable pageable);
     Page<Checkout> findByStatus(String status, Pageable pageable);
     
-    @Query("{'$or': [" +
-           "{'checkoutNumber': {$regex: ?0, $options: 'i'}}, " +
-           "{'clubName': {$regex: ?0, $options: 'i'}}, " +
-           "{'borrowerName': {$regex: ?0, $options: 'i'}}, " +
-           "{'borrowerEmail': {$regex: ?0, $options: 'i'}}, " +
-           "{'checkoutItems.itemName': {$regex: ?0, $options: 'i'}}, " +
-           "{'checkoutItems.itemType': {$regex: ?0, $options: 'i'}}, " +
-           "{'notes': {$regex: ?0, $options: 'i'}}" +
-           "]}")
-    Page<Checkout> searchByKeyword(String keyword, Pageable pageable);
-    
-    @Query("{'$and': [" +
-           "{'clubId': ?0}, " +
-           "{'$or': [" +
-           "{'checkoutNumber': {$regex: ?1, $options: 'i'}}, " +
-           "{'borrowerName': {$regex: ?1, $options: 'i'}}, " +
-           "{'borrowerEmail': {$regex: ?1, $options: 'i'}}, " +
-           "{'checkoutItems.itemName': {$regex: ?1, $options: 'i'}}, " +
-           "{'notes': {$regex: ?1, $options: 'i'}}" +
-           "]}" +
-           "]}")
-    Page<Checkout> searchByClubAndKeyword(String clubId, String keyword, Pageable pageable);
-    
     // Find by borrower
     List<Checkout> findByBorrowerName(String borrowerName);
     List<Checkout> findByBorrowerEmail(String borrowerEmail);
@@ -83,37 +58,6 @@ public interface CheckoutRepository extends MongoRepository<Checkout, String> {
     List<Checkout> findByTotalEstimatedValueGreaterThan(BigDecimal minValue);
     List<Checkout> findByTotalEstimatedValueLessThan(BigDecimal maxValue);
     
-    // Complex search queries
-    @Query("{'$or': [" +
-           "{'checkoutNumber': {$regex: ?0, $options: 'i'}}, " +
-           "{'clubName': {$regex: ?0, $options: 'i'}}, " +
-           "{'borrowerName': {$regex: ?0, $options: 'i'}}, " +
-           "{'borrowerEmail': {$regex: ?0, $options: 'i'}}, " +
-           "{'checkoutItems.itemName': {$regex: ?0, $options: 'i'}}, " +
-           "{'checkoutItems.itemType': {$regex: ?0, $options: 'i'}}, " +
-           "{'notes': {$regex: ?0, $options: 'i'}}" +
-           "]}")
-    List<Checkout> searchByKeyword(String keyword);
-    
-    // Advanced search with multiple filters
-    @Query("{'$and': [" +
-           "{'clubId': {$regex: ?0, $options: 'i'}}, " +
-           "{'status': {$regex: ?1, $options: 'i'}}, " +
-           "{'borrowerName': {$regex: ?2, $options: 'i'}}, " +
-           "{'checkoutDate': {$gte: ?3}}, " +
-           "{'checkoutDate': {$lte: ?4}}, " +
-           "{'dueDate': {$gte: ?5}}, " +
-           "{'dueDate': {$lte: ?6}}, " +
-           "{'totalEstimatedValue': {$gte: ?7}}, " +
-           "{'totalEstimatedValue': {$lte: ?8}}" +
-           "]}")
-    List<Checkout> findByAdvancedFilters(
-        String clubId, String status, String borrowerName,
-        LocalDate checkoutDateFrom, LocalDate checkoutDateTo,
-        LocalDate dueDateFrom, LocalDate dueDateTo,
-        BigDecimal minValue, BigDecimal maxValue
-    );
-    
     // Count queries
     long countByStatus(String status);
     long countByClubId(String clubId);
@@ -129,14 +73,6 @@ public interface CheckoutRepository extends MongoRepository<Checkout, String> {
     @Query("{'status': 'RETURNED'}")
     List<Checkout> findReturnedCheckouts();
     
-    // Find checkouts with specific item types
-    @Query("{'checkoutItems.itemType': {$regex: ?0, $options: 'i'}}")
-    List<Checkout> findByItemType(String itemType);
-    
-    // Find checkouts with specific item names
-    @Query("{'checkoutItems.itemName': {$regex: ?0, $options: 'i'}}")
-    List<Checkout> findByItemName(String itemName);
-    
     // Recent checkouts
     List<Checkout> findTop10ByOrderByCreatedAtDesc();
     List<Checkout> findTop20ByOrderByCheckoutDateDesc();
@@ -32,44 +32,13 @@ public interface ClubRepository extends MongoRepository<Club, String> {
     List<Club> findByAdvisorEmailIgnoreCase(String advisorEmail);
     List<Club> findByAdvisorNameContainingIgnoreCase(String advisorName);
     
-    // Search queries
-    @Query("{ 'name': { $regex: ?0, $options: 'i' } }")
-    List<Club> findByNameRegex(String namePattern);
-    
-    @Query("{ 'schoolId': ?0, 'name': { $regex: ?1, $options: 'i' } }")
-    List<Club> findBySchoolIdAndNameRegex(String schoolId, String namePattern);
-    
-    @Query("{ 'description': { $regex: ?0, $options: 'i' } }")
-    List<Club> findByDescriptionRegex(String descriptionPattern);
-    
+    // Tag queries
     @Query("{ 'tags': { $in: ?0 } }")
     List<Club> findByTagsIn(List<String> tags);
     
     @Query("{ 'schoolId': ?0, 'tags': { $in: ?1 } }")
     List<Club> findBySchoolIdAndTagsIn(String schoolId, List<String> tags);
     
-    // Advanced search
-    @Query("{ " +
-           "$and: [" +
-           "  { 'schoolId': ?0 }," +
-           "  { $or: [" +
-           "    { 'name': { $regex: ?1, $options: 'i' } }," +
-           "    { 'description': { $regex: ?1, $options: 'i' } }," +
-           "    { 'category': { $regex: ?1, $options: 'i' } }," +
-           "    { 'advisorName': { $regex: ?1, $options: 'i' } }" +
-           "  ] }" +
-           "] }")
-    List<Club> searchClubsBySchoolAndKeyword(String schoolId, String keyword);
-    
-    @Query("{ $or: [" +
-           "  { 'name': { $regex: ?0, $options: 'i' } }," +
-           "  { 'description': { $regex: ?0, $options: 'i' } }," +
-           "  { 'category': { $regex: ?0, $options: 'i' } }," +
-           "  { 'advisorName': { $regex: ?0, $options: 'i' } }," +
-           "  { 'schoolName': { $regex: ?0, $options: 'i' } }" +
-           "] }")
-    List<Club> searchClubsByKeyword(String keyword);
-    
     // Count queries
     long countBySchoolId(String schoolId);
     long countBySchoolIdAndActive(String schoolId, boolean active);
@@ -94,23 +63,4 @@ public interface ClubRepository extends MongoRepository<Club, String> {
     Page<Club> findBySchoolIdAndActive(String schoolId, boolean active, Pageable pageable);
     Page<Club> findByCategory(String category, Pageable pageable);
     Page<Club> findByCategoryAndSchoolId(String category, String schoolId, Pageable pageable);
-    
-    // Paginated search queries
-    @Query("{ $or: [ " +
-           "{ 'name': { $regex: ?0, $options: 'i' } }, " +
-           "{ 'description': { $regex: ?0, $options: 'i' } }, " +
-           "{ 'category': { $regex: ?0, $options: 'i' } }, " +
-           "{ 'advisorName': { $regex: ?0, $options: 'i' } }, " +
-           "{ 'tags': { $regex: ?0, $options: 'i' } } " +
-           "] }")
-    Page<Club> searchClubsByKeyword(String keyword, Pageable pageable);
-    
-    @Query("{ 'schoolId': ?0, $or: [ " +
-           "{ 'name': { $regex: ?1, $options: 'i' } }, " +
-           "{ 'description': { $regex: ?1, $options: 'i' } }, " +
-           "{ 'category': { $regex: ?1, $options: 'i' } }, " +
-           "{ 'advisorName': { $regex: ?1, $options: 'i' } }, " +
-           "{ 'tags': { $regex: ?1, $options: 'i' } } " +
-           "] }")
-    Page<Club> searchClubsBySchoolAndKeyword(String schoolId, String keyword, Pageable pageable);
 }
\ No newline at end of file
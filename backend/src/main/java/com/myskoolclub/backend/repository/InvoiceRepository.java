@@ -39,39 +39,6 @@ public interface InvoiceRepository extends MongoRepository<Invoice, String> {
     @Query("{ 'dueDate': { $lt: ?0 }, 'status': { $in: ['SENT', 'OVERDUE'] } }")
     List<Invoice> findOverdueInvoices(LocalDate currentDate);
     
-    // Search functionality
-    @Query("{ $or: [ " +
-           "{ 'invoiceNumber': { $regex: ?0, $options: 'i' } }, " +
-           "{ 'clubName': { $regex: ?0, $options: 'i' } }, " +
-           "{ 'billToName': { $regex: ?0, $options: 'i' } }, " +
-           "{ 'notes': { $regex: ?0, $options: 'i' } } " +
-           "] }")
-    List<Invoice> searchInvoicesByKeyword(String keyword);
-    
-    @Query("{ $or: [ " +
-           "{ 'invoiceNumber': { $regex: ?0, $options: 'i' } }, " +
-           "{ 'clubName': { $regex: ?0, $options: 'i' } }, " +
-           "{ 'billToName': { $regex: ?0, $options: 'i' } }, " +
-           "{ 'notes': { $regex: ?0, $options: 'i' } } " +
-           "] }")
-    Page<Invoice> searchInvoicesByKeyword(String keyword, Pageable pageable);
-    
-    @Query("{ 'clubId': ?0, $or: [ " +
-           "{ 'invoiceNumber': { $regex: ?1, $options: 'i' } }, " +
-           "{ 'clubName': { $regex: ?1, $options: 'i' } }, " +
-           "{ 'billToName': { $regex: ?1, $options: 'i' } }, " +
-           "{ 'notes': { $regex: ?1, $options: 'i' } } " +
-           "] }")
-    List<Invoice> searchInvoicesByClubAndKeyword(String clubId, String keyword);
-    
-    @Query("{ 'clubId': ?0, $or: [ " +
-           "{ 'invoiceNumber': { $regex: ?1, $options: 'i' } }, " +
-           "{ 'clubName': { $regex: ?1, $options: 'i' } }, " +
-           "{ 'billToName': { $regex: ?1, $options: 'i' } }, " +
-           "{ 'notes': { $regex: ?1, $options: 'i' } } " +
-           "] }")
-    Page<Invoice> searchInvoicesByClubAndKeyword(String clubId, String keyword, Pageable pageable);
-    
     // Count queries
     long countByClubId(String clubId);
     long countByStatus(String status);
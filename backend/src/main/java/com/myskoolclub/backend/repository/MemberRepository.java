@@ -4,7 +4,6 @@ import com.myskoolclub.backend.model.Member;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
-import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -42,29 +41,6 @@ public interface MemberRepository extends MongoRepository<Member, String> {
     // Find active members
     List<Member> findByIsActive(boolean isActive);
     
-    // Search functionality
-    @Query("{ $or: [ " +
-           "{ 'firstName': { $regex: ?0, $options: 'i' } }, " +
-           "{ 'lastName': { $regex: ?0, $options: 'i' } }, " +
-           "{ 'email': { $regex: ?0, $options: 'i' } }, " +
-           "{ 'studentId': { $regex: ?0, $options: 'i' } }, " +
-           "{ 'memberType': { $regex: ?0, $options: 'i' } } " +
-           "] }")
-    List<Member> searchMembers(String searchTerm);
-    
-    // Search active members only
-    @Query("{ $and: [ " +
-           "{ 'isActive': true }, " +
-           "{ $or: [ " +
-           "{ 'firstName': { $regex: ?0, $options: 'i' } }, " +
-           "{ 'lastName': { $regex: ?0, $options: 'i' } }, " +
-           "{ 'email': { $regex: ?0, $options: 'i' } }, " +
-           "{ 'studentId': { $regex: ?0, $options: 'i' } }, " +
-           "{ 'memberType': { $regex: ?0, $options: 'i' } } " +
-           "] } " +
-           "] }")
-    List<Member> searchActiveMembers(String searchTerm);
-    
     // Count members by school
     long countBySchoolId(String schoolId);
     long countBySchoolIdAndIsActive(String schoolId, boolean isActive);
@@ -79,16 +55,4 @@ public interface MemberRepository extends MongoRepository<Member, String> {
     
     // Pageable methods
     Page<Member> findBySchoolIdAndIsActive(String schoolId, boolean isActive, Pageable pageable);
-    
-    // Search with pagination for school members
-    @Query("{ $and: [ " +
-           "{ 'schoolId': ?0 }, " +
-           "{ 'isActive': true }, " +
-           "{ $or: [ " +
-           "{ 'firstName': { $regex: ?1, $options: 'i' } }, " +
-           "{ 'lastName': { $regex: ?1, $options: 'i' } }, " +
-           "{ 'email': { $regex: ?1, $options: 'i' } } " +
-           "] } " +
-           "] }")
-    Page<Member> findBySchoolIdAndSearchTerm(String schoolId, String searchTerm, Pageable pageable);
 }
\ No newline at end of file
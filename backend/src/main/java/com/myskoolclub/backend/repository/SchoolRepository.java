@@ -2,7 +2,6 @@ package com.myskoolclub.backend.repository;
 
 import com.myskoolclub.backend.model.School;
 import org.springframework.data.mongodb.repository.MongoRepository;
-import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,10 +16,6 @@ public interface SchoolRepository extends MongoRepository<School, String> {
     // Find active schools
     List<School> findByIsActive(boolean isActive);
     
-    // Find schools by partial name match (case-insensitive)
-    @Query("{'name': {'$regex': ?0, '$options': 'i'}}")
-    List<School> findByNameContainingIgnoreCase(String name);
-    
     // Find schools by city
     List<School> findByCity(String city);
     
@@ -0,0 +1,80 @@
+package com.myskoolclub.backend.security;
+
+import com.myskoolclub.backend.model.Member;
+import com.myskoolclub.backend.model.UserClubRole;
+import com.myskoolclub.backend.service.UserClubRoleService;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes a member's club roles into token claims and decodes them back.
+ * Each snapshot carries the member's club role version; once UserClubRoleService bumps
+ * that version the snapshot is ignored and callers fall back to a live lookup.
+ */
+@Component
+public class ClubRoleClaims {
+
+    public static final String CLUB_ROLES_CLAIM = "clubRoles";
+    public static final String CLUB_ROLE_VERSION_CLAIM = "crv";
+
+    @Autowired
+    private UserClubRoleService userClubRoleService;
+
+    /**
+     * Build the club role claims for a freshly loaded member
+     */
+    public Map<String, Object> forMember(Member member) {
+        Map<String, Object> claims = new HashMap<>();
+        if (member == null) {
+            return claims;
+        }
+
+        // Read the version before the roles so a concurrent change can only make the snapshot look stale
+        long version = member.getClubRoleVersion();
+        List<String> snapshot = new ArrayList<>();
+        for (UserClubRole role : userClubRoleService.getMemberClubRolesByEmail(member.getEmail())) {
+            snapshot.add(role.getClubId() + ":" + role.getClubRole());
+        }
+
+        claims.put(CLUB_ROLES_CLAIM, snapshot);
+        claims.put(CLUB_ROLE_VERSION_CLAIM, version);
+        return claims;
+    }
+
+    /**
+     * Decode the club roles from token claims, or return null if the snapshot is missing or stale
+     */
+    public List<UserClubRole> fromClaims(Claims claims, Member member) {
+        if (claims == null || member == null) {
+            return null;
+        }
+
+        Object version = claims.get(CLUB_ROLE_VERSION_CLAIM);
+        Object snapshot = claims.get(CLUB_ROLES_CLAIM);
+        if (!(version instanceof Number) || !(snapshot instanceof List)) {
+            return null;
+        }
+        if (((Number) version).longValue() != member.getClubRoleVersion()) {
+            return null;
+        }
+
+        List<UserClubRole> roles = new ArrayList<>();
+        for (Object entry : (List<?>) snapshot) {
+            String value = String.valueOf(entry);
+            int separator = value.lastIndexOf(':');
+            if (separator <= 0) {
+                return null;
+            }
+            UserClubRole role = new UserClubRole(member.getId(), value.substring(0, separator), null, value.substring(separator + 1));
+            role.setMemberEmail(member.getEmail());
+            roles.add(role);
+        }
+        return roles;
+    }
+}
@@ -0,0 +1,187 @@
+package com.myskoolclub.backend.security;
+
+import com.myskoolclub.backend.model.Member;
+import com.myskoolclub.backend.model.UserClubRole;
+import com.myskoolclub.backend.service.MemberService;
+import com.myskoolclub.backend.service.UserClubRoleService;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Resolves the authenticated member once per request.
+ * The email comes from the security context populated by JwtAuthenticationFilter (falling back to the
+ * bearer token), and the member is looked up through MemberPrincipalCache before hitting Mongo.
+ */
+@Component
+public class CurrentMemberResolver {
+
+    private static final String EMAIL_ATTRIBUTE = CurrentMemberResolver.class.getName() + ".EMAIL";
+    private static final String MEMBER_ATTRIBUTE = CurrentMemberResolver.class.getName() + ".MEMBER";
+    private static final String CLUB_ROLES_ATTRIBUTE = CurrentMemberResolver.class.getName() + ".CLUB_ROLES";
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private MemberPrincipalCache memberPrincipalCache;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Autowired
+    private UserClubRoleService userClubRoleService;
+
+    @Autowired
+    private ClubRoleClaims clubRoleClaims;
+
+    /**
+     * Get the email of the authenticated user, or null if the request is not authenticated
+     */
+    public String getCurrentUserEmail() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            Object resolved = attributes.getAttribute(EMAIL_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (resolved != null) {
+                return ((Optional<?>) resolved).map(Object::toString).orElse(null);
+            }
+        }
+
+        String email = resolveEmail(attributes);
+        if (attributes != null) {
+            attributes.setAttribute(EMAIL_ATTRIBUTE, Optional.ofNullable(email), RequestAttributes.SCOPE_REQUEST);
+        }
+        return email;
+    }
+
+    /**
+     * Get the authenticated member, or null if the request is not authenticated or the member no longer exists
+     */
+    @SuppressWarnings("unchecked")
+    public Member getCurrentMember() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            Object resolved = attributes.getAttribute(MEMBER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (resolved != null) {
+                return ((Optional<Member>) resolved).orElse(null);
+            }
+        }
+
+        Member member = loadMember(getCurrentUserEmail());
+        if (attributes != null) {
+            attributes.setAttribute(MEMBER_ATTRIBUTE, Optional.ofNullable(member), RequestAttributes.SCOPE_REQUEST);
+        }
+        return member;
+    }
+
+    /**
+     * Get the active club roles of the authenticated member.
+     * Uses the snapshot embedded in the token when its role version is current, otherwise queries user_club_roles.
+     */
+    @SuppressWarnings("unchecked")
+    public List<UserClubRole> getCurrentClubRoles() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            Object resolved = attributes.getAttribute(CLUB_ROLES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (resolved != null) {
+                return (List<UserClubRole>) resolved;
+            }
+        }
+
+        Member member = getCurrentMember();
+        if (member == null) {
+            return List.of();
+        }
+
+        List<UserClubRole> clubRoles = clubRoleClaims.fromClaims(getTokenClaims(attributes), member);
+        if (clubRoles == null) {
+            // Snapshot missing or stale, fall back to a live lookup
+            clubRoles = userClubRoleService.getMemberClubRoles(member);
+        }
+        if (attributes != null) {
+            attributes.setAttribute(CLUB_ROLES_ATTRIBUTE, clubRoles, RequestAttributes.SCOPE_REQUEST);
+        }
+        return clubRoles;
+    }
+
+    private Claims getTokenClaims(RequestAttributes attributes) {
+        String token = getBearerToken(attributes);
+        if (token == null) {
+            return null;
+        }
+        try {
+            return jwtTokenUtil.getClaimFromToken(token, claims -> claims);
+        } catch (Exception e) {
+            // Token validation failed
+            return null;
+        }
+    }
+
+    private String getBearerToken(RequestAttributes attributes) {
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return null;
+        }
+        HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+        return null;
+    }
+
+    private Member loadMember(String email) {
+        if (email == null) {
+            return null;
+        }
+
+        Member cached = memberPrincipalCache.get(email);
+        if (cached != null) {
+            return cached;
+        }
+
+        try {
+            long epoch = memberPrincipalCache.epoch();
+            Optional<Member> memberOpt = memberService.findByEmail(email);
+            memberOpt.ifPresent(member -> memberPrincipalCache.put(member, epoch));
+            return memberOpt.orElse(null);
+        } catch (Exception e) {
+            // Error loading member
+            return null;
+        }
+    }
+
+    private String resolveEmail(RequestAttributes attributes) {
+        // JwtAuthenticationFilter only authenticates the request once the token has been validated
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()) {
+            Object principal = authentication.getPrincipal();
+            if (principal instanceof Member) {
+                return ((Member) principal).getEmail();
+            }
+            if (principal instanceof String && !"anonymousUser".equals(principal)) {
+                return (String) principal;
+            }
+        }
+
+        String token = getBearerToken(attributes);
+        if (token != null) {
+            try {
+                if (jwtTokenUtil.validateToken(token)) {
+                    return jwtTokenUtil.getUsernameFromToken(token);
+                }
+            } catch (Exception e) {
+                // Token validation failed
+            }
+        }
+        return null;
+    }
+}
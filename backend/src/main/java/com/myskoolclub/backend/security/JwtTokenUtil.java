@@ -7,22 +7,35 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 @Component
 public class JwtTokenUtil {
 
+    // Upper bound on verified tokens kept in memory
+    private static final int MAX_CACHED_TOKENS = 10_000;
+
     // Use a fixed secret key from configuration for JWT signing
     private final SecretKey secretKey;
     
+    // Parsers are immutable and thread-safe, so build it once
+    private final JwtParser jwtParser;
+    
+    // Verified claims keyed by token digest; entries expire with the token itself
+    private final Map<String, Claims> verifiedClaims = new ConcurrentHashMap<>();
+    
     public JwtTokenUtil(@Value("${jwt.secret:myskoolclub-super-secret-key-for-jwt-tokens-minimum-512-bits-required-for-hs512-algorithm}") String secret) {
         // Ensure the secret is long enough for HS512 (minimum 512 bits = 64 bytes)
         byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
         this.secretKey = Keys.hmacShaKeyFor(keyBytes);
+        this.jwtParser = Jwts.parser().verifyWith(secretKey).build();
     }
     
     // Token validity duration (24 hours)
@@ -44,19 +57,53 @@ public class JwtTokenUtil {
         return claimsResolver.apply(claims);
     }
 
-    // Retrieve all claims from token
+    // Retrieve all claims from token, verifying the signature only on first use
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("JWT token is empty");
+        }
+
+        String digest = digest(token);
+        Claims cached = verifiedClaims.get(digest);
+        if (cached != null) {
+            if (!isExpired(cached)) {
+                return cached;
+            }
+            verifiedClaims.remove(digest);
+        }
+
+        // Verifies the signature; throws ExpiredJwtException, SignatureException etc. on failure
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+        if (claims.getExpiration() != null) {
+            if (verifiedClaims.size() >= MAX_CACHED_TOKENS) {
+                evictExpiredClaims();
+            }
+            if (verifiedClaims.size() < MAX_CACHED_TOKENS) {
+                verifiedClaims.put(digest, claims);
+            }
+        }
+        return claims;
+    }
+
+    // Check if claims are expired
+    private boolean isExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.before(new Date());
     }
 
-    // Check if token is expired
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+    private void evictExpiredClaims() {
+        verifiedClaims.values().removeIf(this::isExpired);
+    }
+
+    // SHA-256 of the token so the cache never holds usable bearer tokens
+    private String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = messageDigest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     // Generate token for user
@@ -84,8 +131,8 @@ public class JwtTokenUtil {
     // Validate token
     public Boolean validateToken(String token, String username) {
         try {
-            final String tokenUsername = getUsernameFromToken(token);
-            return (tokenUsername.equals(username) && !isTokenExpired(token));
+            final Claims claims = getAllClaimsFromToken(token);
+            return (claims.getSubject().equals(username) && !isExpired(claims));
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
@@ -94,8 +141,7 @@ public class JwtTokenUtil {
     // Validate token without username check (for general validation)
     public Boolean validateToken(String token) {
         try {
-            getAllClaimsFromToken(token);
-            return !isTokenExpired(token);
+            return !isExpired(getAllClaimsFromToken(token));
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
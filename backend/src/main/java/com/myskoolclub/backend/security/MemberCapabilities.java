@@ -0,0 +1,119 @@
+package com.myskoolclub.backend.security;
+
+import com.myskoolclub.backend.model.Member;
+import com.myskoolclub.backend.model.UserClubRole;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Immutable view of what the current member is allowed to do, computed once per request.
+ * Role checks are bit tests and club admin checks are a binary search over sorted club IDs,
+ * which are only compiled by the first club check.
+ */
+public final class MemberCapabilities {
+
+    public static final int APP_ADMIN = 1;
+    public static final int SCHOOL_ADMIN = 1 << 1;
+    public static final int SCHOOL_USER = 1 << 2;
+
+    public static final MemberCapabilities ANONYMOUS = new MemberCapabilities(false, 0, null, List::of);
+
+    private final boolean authenticated;
+    private final int roleMask;
+    private final String schoolId;
+
+    private final Supplier<List<UserClubRole>> clubRoles;
+
+    // Compiling the club IDs twice under a race gives the same array, so no lock is needed
+    private volatile String[] adminClubIds;
+
+    private MemberCapabilities(boolean authenticated, int roleMask, String schoolId,
+                               Supplier<List<UserClubRole>> clubRoles) {
+        this.authenticated = authenticated;
+        this.roleMask = roleMask;
+        this.schoolId = schoolId;
+        this.clubRoles = clubRoles;
+    }
+
+    /**
+     * Compile the capabilities of a member from their role and active club roles
+     */
+    public static MemberCapabilities of(Member member, List<UserClubRole> clubRoles) {
+        return lazy(member, () -> clubRoles);
+    }
+
+    /**
+     * Like of, but the club roles are only fetched by the first club check, so role-only checks never look them up
+     */
+    public static MemberCapabilities lazy(Member member, Supplier<List<UserClubRole>> clubRoles) {
+        if (member == null) {
+            return ANONYMOUS;
+        }
+        return new MemberCapabilities(true, roleBit(member.getRole()), member.getSchoolId(), clubRoles);
+    }
+
+    /**
+     * Map a role name to its bit, or 0 for unknown roles
+     */
+    public static int roleBit(String role) {
+        if ("APP_ADMIN".equals(role)) {
+            return APP_ADMIN;
+        }
+        if ("SCHOOL_ADMIN".equals(role)) {
+            return SCHOOL_ADMIN;
+        }
+        if ("SCHOOL_USER".equals(role)) {
+            return SCHOOL_USER;
+        }
+        return 0;
+    }
+
+    public boolean isAuthenticated() {
+        return authenticated;
+    }
+
+    public boolean hasAnyRole(int roles) {
+        return (roleMask & roles) != 0;
+    }
+
+    public boolean isAppAdmin() {
+        return (roleMask & APP_ADMIN) != 0;
+    }
+
+    public boolean isSchoolAdmin() {
+        return (roleMask & SCHOOL_ADMIN) != 0;
+    }
+
+    public String getSchoolId() {
+        return schoolId;
+    }
+
+    public boolean belongsToSchool(String otherSchoolId) {
+        return schoolId != null && schoolId.equals(otherSchoolId);
+    }
+
+    public boolean isClubAdmin(String clubId) {
+        return clubId != null && Arrays.binarySearch(adminClubIds(), clubId) >= 0;
+    }
+
+    public int getRoleMask() {
+        return roleMask;
+    }
+
+    private String[] adminClubIds() {
+        String[] ids = adminClubIds;
+        if (ids == null) {
+            List<UserClubRole> roles = clubRoles.get();
+            ids = roles == null ? new String[0] : roles.stream()
+                    .filter(role -> "CLUB_ADMIN".equals(role.getClubRole()) && role.getClubId() != null)
+                    .map(UserClubRole::getClubId)
+                    .distinct()
+                    .sorted()
+                    .toArray(String[]::new);
+            adminClubIds = ids;
+        }
+        return ids;
+    }
+}
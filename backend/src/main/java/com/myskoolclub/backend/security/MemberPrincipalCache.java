@@ -0,0 +1,111 @@
+package com.myskoolclub.backend.security;
+
+import com.myskoolclub.backend.model.Member;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, TTL-evicting cache of authenticated members keyed by email.
+ * Entries are evicted by MemberService whenever a member is updated, activated or deleted.
+ * Members are kept as stored documents and every get reads a new instance, so callers never share one.
+ * Every eviction moves an epoch; a member loaded before an eviction is not cached, so a load racing
+ * with a role change cannot put the old member back.
+ */
+@Component
+public class MemberPrincipalCache {
+
+    private final MongoConverter converter;
+    private final long ttlMillis;
+    private final int maxSize;
+    private final Map<String, CachedMember> entries;
+    private long epoch;
+
+    public MemberPrincipalCache(MongoConverter converter,
+                                @Value("${app.security.member-cache.ttl-seconds:60}") long ttlSeconds,
+                                @Value("${app.security.member-cache.max-size:1000}") int maxSize) {
+        this.converter = converter;
+        this.ttlMillis = ttlSeconds * 1000L;
+        this.maxSize = maxSize;
+        // Access-ordered so the least recently used member is dropped first when full
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedMember> eldest) {
+                return size() > MemberPrincipalCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Get a cached member, or null if absent or expired
+     */
+    public synchronized Member get(String email) {
+        if (email == null) {
+            return null;
+        }
+        CachedMember cached = entries.get(email);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiresAt < System.currentTimeMillis()) {
+            entries.remove(email);
+            return null;
+        }
+        return converter.read(Member.class, cached.member);
+    }
+
+    /**
+     * Current epoch, to be read before loading a member that will be put
+     */
+    public synchronized long epoch() {
+        return epoch;
+    }
+
+    /**
+     * Cache a member under its email, unless anything was evicted since the given epoch was read
+     */
+    public synchronized void put(Member member, long loadedAtEpoch) {
+        if (member == null || member.getEmail() == null || ttlMillis <= 0 || maxSize <= 0 || loadedAtEpoch != epoch) {
+            return;
+        }
+        Document snapshot = new Document();
+        converter.write(member, snapshot);
+        entries.put(member.getEmail(), new CachedMember(snapshot, System.currentTimeMillis() + ttlMillis));
+    }
+
+    /**
+     * Remove a member from the cache
+     */
+    public synchronized void evict(String email) {
+        if (email != null) {
+            entries.remove(email);
+            epoch++;
+        }
+    }
+
+    /**
+     * Remove all cached members
+     */
+    public synchronized void clear() {
+        entries.clear();
+        epoch++;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static final class CachedMember {
+        private final Document member;
+        private final long expiresAt;
+
+        private CachedMember(Document member, long expiresAt) {
+            this.member = member;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,100 +1,88 @@
 package com.myskoolclub.backend.security;
 
+import com.myskoolclub.backend.model.Club;
 import com.myskoolclub.backend.model.Member;
-import com.myskoolclub.backend.service.MemberService;
+import com.myskoolclub.backend.service.ClubService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 @Component
 public class SchoolSecurityHelper {
 
+    private static final String CAPABILITIES_ATTRIBUTE = SchoolSecurityHelper.class.getName() + ".CAPABILITIES";
+
+    @Autowired
+    private CurrentMemberResolver currentMemberResolver;
+
     @Autowired
-    private MemberService memberService;
+    private ClubService clubService;
 
     /**
-     * Check if the current user can access resources for a specific school
+     * Get the capabilities of the current user, compiled once per request
      */
-    public boolean canAccessSchool(String schoolId) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return false;
+    public MemberCapabilities getCurrentCapabilities() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            Object resolved = attributes.getAttribute(CAPABILITIES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (resolved != null) {
+                return (MemberCapabilities) resolved;
+            }
         }
 
-        Object principal = authentication.getPrincipal();
-        if (!(principal instanceof Member)) {
-            return false;
+        Member member = getCurrentMember();
+        MemberCapabilities capabilities = member == null
+                ? MemberCapabilities.ANONYMOUS
+                : MemberCapabilities.lazy(member, currentMemberResolver::getCurrentClubRoles);
+        if (attributes != null) {
+            attributes.setAttribute(CAPABILITIES_ATTRIBUTE, capabilities, RequestAttributes.SCOPE_REQUEST);
         }
+        return capabilities;
+    }
+
+    /**
+     * Check if the current user can access resources for a specific school
+     */
+    public boolean canAccessSchool(String schoolId) {
+        MemberCapabilities capabilities = getCurrentCapabilities();
 
-        Member member = (Member) principal;
-        
         // APP_ADMIN can access any school
-        if ("APP_ADMIN".equals(member.getRole())) {
+        if (capabilities.isAppAdmin()) {
             return true;
         }
-        
+
         // SCHOOL_ADMIN can only access their assigned school
-        if ("SCHOOL_ADMIN".equals(member.getRole())) {
-            return schoolId != null && schoolId.equals(member.getSchoolId());
-        }
-        
-        return false;
+        return capabilities.isSchoolAdmin() && capabilities.belongsToSchool(schoolId);
     }
 
     /**
      * Get the current authenticated member (includes APP_ADMIN)
      */
     public Member getCurrentMember() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return null;
-        }
-
-        Object principal = authentication.getPrincipal();
-        
-        // If principal is already a Member object, return it
-        if (principal instanceof Member) {
-            Member member = (Member) principal;
-            return member;
-        }
-        
-        // If principal is a String (username/email), load the member from database
-        if (principal instanceof String) {
-            String email = (String) principal;
-            try {
-                java.util.Optional<Member> memberOpt = memberService.findByEmail(email);
-                if (memberOpt.isPresent()) {
-                    Member member = memberOpt.get();
-                    return member;
-                }
-            } catch (Exception e) {
-                // Error loading member
-            }
-        }
-        
-        return null;
+        return currentMemberResolver.getCurrentMember();
     }
 
     /**
      * Check if current user is APP_ADMIN
      */
     public boolean isAppAdmin() {
-        Member member = getCurrentMember();
-        return member != null && "APP_ADMIN".equals(member.getRole());
+        return getCurrentCapabilities().isAppAdmin();
     }
 
     /**
      * Check if current user is SCHOOL_ADMIN for a specific school
      */
     public boolean isSchoolAdmin(String schoolId) {
-        Member member = getCurrentMember();
-        return member != null && 
-               "SCHOOL_ADMIN".equals(member.getRole()) && 
-               schoolId != null && 
-               schoolId.equals(member.getSchoolId());
+        MemberCapabilities capabilities = getCurrentCapabilities();
+        return capabilities.isSchoolAdmin() && capabilities.belongsToSchool(schoolId);
+    }
+
+    /**
+     * Check if current user is CLUB_ADMIN for a specific club
+     */
+    public boolean isClubAdmin(String clubId) {
+        return getCurrentCapabilities().isClubAdmin(clubId);
     }
 
     /**
@@ -102,51 +90,34 @@ public class SchoolSecurityHelper {
      * Returns null if user is not SCHOOL_ADMIN
      */
     public String getCurrentUserSchoolId() {
-        Member member = getCurrentMember();
-        if (member != null && "SCHOOL_ADMIN".equals(member.getRole())) {
-            return member.getSchoolId();
-        }
-        return null;
+        MemberCapabilities capabilities = getCurrentCapabilities();
+        return capabilities.isSchoolAdmin() ? capabilities.getSchoolId() : null;
     }
 
     /**
      * Check if current user can create clubs
      */
     public boolean canCreateClub() {
-        Member member = getCurrentMember();
-        return member != null && 
-               ("APP_ADMIN".equals(member.getRole()) || "SCHOOL_ADMIN".equals(member.getRole()));
+        return getCurrentCapabilities().hasAnyRole(MemberCapabilities.APP_ADMIN | MemberCapabilities.SCHOOL_ADMIN);
     }
 
     /**
      * Check if current user can access financial features (invoices and checkouts)
      */
     public boolean canAccessFinancialFeatures() {
-        Member member = getCurrentMember();
-        return member != null && 
-               ("APP_ADMIN".equals(member.getRole()) || "SCHOOL_ADMIN".equals(member.getRole()));
+        return getCurrentCapabilities().hasAnyRole(MemberCapabilities.APP_ADMIN | MemberCapabilities.SCHOOL_ADMIN);
     }
 
     /**
      * Check if current user can modify a specific club
      */
     public boolean canModifyClub(String clubSchoolId) {
-        Member member = getCurrentMember();
-        if (member == null || clubSchoolId == null) {
+        if (clubSchoolId == null) {
             return false;
         }
-        
-        // APP_ADMIN can modify any club
-        if ("APP_ADMIN".equals(member.getRole())) {
-            return true;
-        }
-        
-        // SCHOOL_ADMIN can only modify clubs from their school
-        if ("SCHOOL_ADMIN".equals(member.getRole())) {
-            return canAccessSchool(clubSchoolId);
-        }
-        
-        return false;
+
+        // APP_ADMIN can modify any club, SCHOOL_ADMIN only clubs from their school
+        return canAccessSchool(clubSchoolId);
     }
 
     /**
@@ -154,60 +125,95 @@ public class SchoolSecurityHelper {
      * For SCHOOL_ADMIN users, this ensures they can only work with their assigned school
      */
     public String validateAndGetSchoolId(String requestedSchoolId) {
-        Member member = getCurrentMember();
-        if (member == null) {
+        MemberCapabilities capabilities = getCurrentCapabilities();
+        if (!capabilities.isAuthenticated()) {
             throw new SecurityException("Authentication required");
         }
-        
-        if ("APP_ADMIN".equals(member.getRole())) {
+
+        if (capabilities.isAppAdmin()) {
             return requestedSchoolId; // APP_ADMIN can use any school
         }
-        
-        if ("SCHOOL_ADMIN".equals(member.getRole())) {
-            String memberSchoolId = member.getSchoolId();
+
+        if (capabilities.isSchoolAdmin()) {
+            String memberSchoolId = capabilities.getSchoolId();
             if (memberSchoolId == null) {
                 throw new SecurityException("School admin user has no assigned school");
             }
-            
+
             // For SCHOOL_ADMIN, always use their assigned school regardless of request
             return memberSchoolId;
         }
-        
+
         throw new SecurityException("Insufficient permissions to perform this action");
     }
 
+    /**
+     * Validate the scope of invoice and checkout statistics for the current user.
+     * A club may be viewed by APP_ADMIN, the SCHOOL_ADMIN of its school and its CLUB_ADMIN; a school by APP_ADMIN
+     * and its SCHOOL_ADMIN. Without either, APP_ADMIN sees every school and SCHOOL_ADMIN their own.
+     * Returns the school to scope to, null for every school
+     */
+    public String validateFinancialStatsScope(String schoolId, String clubId) {
+        MemberCapabilities capabilities = getCurrentCapabilities();
+        if (!capabilities.isAuthenticated()) {
+            throw new SecurityException("Authentication required");
+        }
+
+        if (clubId != null && !clubId.trim().isEmpty()) {
+            String clubSchoolId = clubService.getClubById(clubId.trim()).map(Club::getSchoolId).orElse(null);
+            if (capabilities.isAppAdmin() || capabilities.isClubAdmin(clubId.trim())
+                    || (capabilities.isSchoolAdmin() && clubSchoolId != null && capabilities.belongsToSchool(clubSchoolId))) {
+                return clubSchoolId;
+            }
+            throw new SecurityException("Access denied. You can only view statistics of your school or the clubs you administer.");
+        }
+
+        if (schoolId != null && !schoolId.trim().isEmpty()) {
+            if (canAccessSchool(schoolId.trim())) {
+                return schoolId.trim();
+            }
+            throw new SecurityException("Access denied. You can only view statistics of your school.");
+        }
+
+        if (capabilities.isAppAdmin()) {
+            return null;
+        }
+        if (capabilities.isSchoolAdmin() && capabilities.getSchoolId() != null) {
+            return capabilities.getSchoolId();
+        }
+        throw new SecurityException("Access denied. Only App Admins, School Admins and Club Admins can view statistics.");
+    }
+
     /**
      * Check if current member can manage other members
      * APP_ADMIN can manage all members
      * SCHOOL_ADMIN can only manage SCHOOL_USER and SCHOOL_ADMIN members from their school
      */
     public boolean canManageMembers() {
-        Member member = getCurrentMember();
-        return member != null && 
-               ("APP_ADMIN".equals(member.getRole()) || "SCHOOL_ADMIN".equals(member.getRole()));
+        return getCurrentCapabilities().hasAnyRole(MemberCapabilities.APP_ADMIN | MemberCapabilities.SCHOOL_ADMIN);
     }
 
     /**
      * Check if current member can manage a specific member
      */
     public boolean canManageMember(Member targetMember) {
-        Member currentMember = getCurrentMember();
-        if (currentMember == null || targetMember == null) {
+        MemberCapabilities capabilities = getCurrentCapabilities();
+        if (targetMember == null) {
             return false;
         }
-        
+
         // APP_ADMIN can manage anyone
-        if ("APP_ADMIN".equals(currentMember.getRole())) {
+        if (capabilities.isAppAdmin()) {
             return true;
         }
-        
+
         // SCHOOL_ADMIN can only manage members from their school
-        if ("SCHOOL_ADMIN".equals(currentMember.getRole())) {
-            return currentMember.getSchoolId() != null &&
-                   currentMember.getSchoolId().equals(targetMember.getSchoolId()) &&
-                   ("SCHOOL_USER".equals(targetMember.getRole()) || "SCHOOL_ADMIN".equals(targetMember.getRole()));
+        if (capabilities.isSchoolAdmin()) {
+            int targetRole = MemberCapabilities.roleBit(targetMember.getRole());
+            return capabilities.belongsToSchool(targetMember.getSchoolId()) &&
+                   (targetRole & (MemberCapabilities.SCHOOL_USER | MemberCapabilities.SCHOOL_ADMIN)) != 0;
         }
-        
+
         return false;
     }
-}
\ No newline at end of file
+}
@@ -20,6 +20,18 @@ public class AnnouncementService {
     @Autowired
     private MemberRepository memberRepository;
     
+    @Autowired
+    private GlobalSearchIndex searchIndex;
+    
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+    
+    @Autowired
+    private SingleFlight singleFlight;
+    
+    @Autowired
+    private ResourceVersions resourceVersions;
+    
     /**
      * Create a new announcement (SCHOOL_ADMIN only)
      */
@@ -45,7 +57,10 @@ public class AnnouncementService {
         String creatorName = creator.getFirstName() + " " + creator.getLastName();
         
         Announcement announcement = new Announcement(schoolId, title, content, createdBy, creatorName);
-        return announcementRepository.save(announcement);
+        Announcement savedAnnouncement = announcementRepository.save(announcement);
+        searchIndex.index(savedAnnouncement);
+        invalidationBus.publish(CacheInvalidationBus.Entity.ANNOUNCEMENT, savedAnnouncement.getId(), savedAnnouncement.getSchoolId());
+        return savedAnnouncement;
     }
     
     /**
@@ -74,7 +89,10 @@ public class AnnouncementService {
         announcement.setContent(content);
         announcement.setUpdatedAt(LocalDateTime.now());
         
-        return announcementRepository.save(announcement);
+        Announcement savedAnnouncement = announcementRepository.save(announcement);
+        searchIndex.index(savedAnnouncement);
+        invalidationBus.publish(CacheInvalidationBus.Entity.ANNOUNCEMENT, savedAnnouncement.getId(), savedAnnouncement.getSchoolId());
+        return savedAnnouncement;
     }
     
     /**
@@ -101,14 +119,19 @@ public class AnnouncementService {
         
         announcement.setActive(false);
         announcement.setUpdatedAt(LocalDateTime.now());
-        announcementRepository.save(announcement);
+        Announcement savedAnnouncement = announcementRepository.save(announcement);
+        searchIndex.index(savedAnnouncement);
+        invalidationBus.publish(CacheInvalidationBus.Entity.ANNOUNCEMENT, savedAnnouncement.getId(), savedAnnouncement.getSchoolId());
     }
     
     /**
-     * Get all active announcements for a school (visible to all SCHOOL_USER and SCHOOL_ADMIN)
+     * Get all active announcements for a school (visible to all SCHOOL_USER and SCHOOL_ADMIN).
+     * Concurrent calls for the same school and announcement version share one query.
      */
     public List<Announcement> getAnnouncementsBySchool(String schoolId) {
-        return announcementRepository.findBySchoolIdAndActiveOrderByCreatedAtDesc(schoolId, true);
+        return singleFlight.execute("announcements.bySchool",
+                () -> announcementRepository.findBySchoolIdAndActiveOrderByCreatedAtDesc(schoolId, true),
+                schoolId, resourceVersions.tag(ResourceVersions.Resource.ANNOUNCEMENTS, schoolId));
     }
     
     /**
@@ -0,0 +1,384 @@
+package com.myskoolclub.backend.service;
+
+import com.mongodb.CursorType;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.CreateCollectionOptions;
+import com.myskoolclub.backend.model.Announcement;
+import com.myskoolclub.backend.model.Checkout;
+import com.myskoolclub.backend.model.Club;
+import com.myskoolclub.backend.model.Invoice;
+import com.myskoolclub.backend.model.Member;
+import com.myskoolclub.backend.model.School;
+import com.myskoolclub.backend.security.MemberPrincipalCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the in-process caches of every instance (member principals, member suggestions, club and school
+ * reference data and the global search index) in step with writes made by the other instances.
+ * Services publish an (entity, id, version) event to a capped collection next to their local eviction;
+ * each instance follows the collection with a tailable cursor and applies the events of other instances,
+ * evicting cached entries and reloading the entity into the indexes. A follower that loses its cursor
+ * resumes after the last event it saw, and clears everything if that event has already been overwritten.
+ */
+@Component
+public class CacheInvalidationBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    public static final String COLLECTION = "cache_invalidations";
+
+    private static final long RETRY_MILLIS = 1000;
+
+    public enum Entity { MEMBER, CLUB, SCHOOL, CHECKOUT, INVOICE, ANNOUNCEMENT }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MemberPrincipalCache memberPrincipalCache;
+
+    @Autowired
+    private MemberSuggestionIndex suggestionIndex;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private GlobalSearchIndex searchIndex;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Value("${app.cache-bus.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cache-bus.size-bytes:1048576}")
+    private long sizeBytes;
+
+    @Value("${app.cache-bus.max-events:10000}")
+    private long maxEvents;
+
+    // Identifies this instance's own events, which it has already applied locally
+    private final String origin = UUID.randomUUID().toString();
+
+    private final ExecutorService follower = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-invalidation-bus");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean running;
+    private volatile boolean following;
+    private volatile Object lastSeenId;
+    private volatile long lastSeenVersion;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong resyncs = new AtomicLong();
+
+    @PostConstruct
+    void start() {
+        if (enabled) {
+            running = true;
+            follower.execute(this::follow);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        follower.shutdownNow();
+        follower.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Tell the other instances that an entity changed. A null id stands for every entity of that kind;
+     * keys are extra cache keys the entity no longer has, such as a member's previous email. Inside a
+     * transaction the event is sent after commit, so no instance reloads the entity before the write is visible.
+     * The local resource versions move at the same point, also when the bus is disabled.
+     */
+    public void publish(Entity entity, String id, String schoolId, String... keys) {
+        Document event = new Document("entity", entity.name())
+                .append("id", id)
+                .append("schoolId", schoolId)
+                .append("keys", Arrays.stream(keys).filter(Objects::nonNull).toList())
+                .append("version", System.currentTimeMillis())
+                .append("origin", origin);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(event);
+                }
+            });
+        } else {
+            send(event);
+        }
+    }
+
+    public boolean isFollowing() {
+        return following;
+    }
+
+    /**
+     * Events published and applied since startup, resynchronisations after lost events, and how old the last seen event was
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("following", following);
+        stats.put("published", published.get());
+        stats.put("applied", applied.get());
+        stats.put("resyncs", resyncs.get());
+        stats.put("lastEventAgeMs", lastSeenVersion == 0 ? null : System.currentTimeMillis() - lastSeenVersion);
+        return stats;
+    }
+
+    private void send(Document event) {
+        versionsChanged(Entity.valueOf(event.getString("entity")), event.getString("id"), event.getString("schoolId"));
+        if (enabled) {
+            append(event);
+        }
+    }
+
+    // Written outside any session: capped collections cannot take part in a transaction
+    private void append(Document event) {
+        try {
+            events().insertOne(event);
+            published.incrementAndGet();
+        } catch (MongoException e) {
+            logger.warn("Could not publish cache invalidation for {} {}: {}", event.getString("entity"),
+                    event.getString("id"), e.getMessage());
+        }
+    }
+
+    private void follow() {
+        while (running) {
+            try {
+                ensureCollection();
+                if (lastSeenId == null) {
+                    // A new process has nothing cached yet, so it starts at the end of the collection
+                    lastSeenId = latestEventId();
+                }
+                tail();
+            } catch (RuntimeException e) {
+                if (running) {
+                    logger.warn("Cache invalidation cursor lost, reopening: {}", e.getMessage());
+                }
+            }
+            if (running) {
+                try {
+                    Thread.sleep(RETRY_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void tail() {
+        Object resumeAfter = lastSeenId;
+        boolean catchingUp = resumeAfter != null;
+        try (MongoCursor<Document> cursor = events().find()
+                .cursorType(CursorType.TailableAwait)
+                .maxAwaitTime(1, TimeUnit.SECONDS)
+                .noCursorTimeout(true)
+                .iterator()) {
+            following = true;
+            while (running) {
+                Document event = cursor.tryNext();
+                if (event == null) {
+                    if (catchingUp) {
+                        // The last seen event was overwritten before this instance got to the ones after it
+                        logger.warn("Cache invalidation events were missed, clearing all caches");
+                        clearAll();
+                        catchingUp = false;
+                    }
+                    if (cursor.getServerCursor() == null) {
+                        return;
+                    }
+                    continue;
+                }
+                if (catchingUp) {
+                    catchingUp = !resumeAfter.equals(event.get("_id"));
+                    continue;
+                }
+                handle(event);
+            }
+        } finally {
+            following = false;
+        }
+    }
+
+    private void handle(Document event) {
+        lastSeenId = event.get("_id");
+        Long version = event.getLong("version");
+        if (version != null) {
+            lastSeenVersion = version;
+        }
+        String entity = event.getString("entity");
+        if (entity == null || origin.equals(event.getString("origin"))) {
+            return;
+        }
+        try {
+            apply(Entity.valueOf(entity), event.getString("id"), event.getString("schoolId"),
+                    event.getList("keys", String.class, List.of()));
+            // After the caches, so a request that sees the new version never reads an evicted entry
+            versionsChanged(Entity.valueOf(entity), event.getString("id"), event.getString("schoolId"));
+            applied.incrementAndGet();
+        } catch (RuntimeException e) {
+            logger.warn("Could not apply cache invalidation for {} {}: {}", entity, event.getString("id"), e.getMessage());
+        }
+    }
+
+    private void apply(Entity entity, String id, String schoolId, List<String> keys) {
+        switch (entity) {
+            case MEMBER -> {
+                keys.forEach(memberPrincipalCache::evict);
+                if (id == null) {
+                    memberPrincipalCache.clear();
+                    return;
+                }
+                Member member = mongoTemplate.findById(id, Member.class);
+                if (member == null) {
+                    suggestionIndex.remove(id);
+                    searchIndex.remove(GlobalSearchIndex.Type.MEMBER, id);
+                } else {
+                    memberPrincipalCache.evict(member.getEmail());
+                    suggestionIndex.upsert(member);
+                    searchIndex.index(member);
+                }
+            }
+            case CLUB -> {
+                if (id == null) {
+                    referenceDataCache.evictAllClubs();
+                    return;
+                }
+                Club club = mongoTemplate.findById(id, Club.class);
+                if (club == null) {
+                    referenceDataCache.evictClub(id, schoolId);
+                    searchIndex.removeClub(id);
+                } else {
+                    referenceDataCache.evictClub(id, schoolId, club.getSchoolId());
+                    searchIndex.index(club);
+                }
+            }
+            case SCHOOL -> {
+                if (id == null) {
+                    referenceDataCache.clear();
+                    return;
+                }
+                School school = mongoTemplate.findById(id, School.class);
+                referenceDataCache.evictSchool(id);
+                if (school == null) {
+                    suggestionIndex.evict(id);
+                    searchIndex.dropSchool(id);
+                } else if (!school.isActive()) {
+                    // Deactivation cascaded to the school's clubs, club roles and announcements; members stay
+                    // active, their suggestions are only dropped here to be reloaded on the next lookup
+                    suggestionIndex.evict(id);
+                    searchIndex.rebuild(id);
+                }
+            }
+            case CHECKOUT -> reindex(Checkout.class, GlobalSearchIndex.Type.CHECKOUT, id);
+            case INVOICE -> reindex(Invoice.class, GlobalSearchIndex.Type.INVOICE, id);
+            case ANNOUNCEMENT -> reindex(Announcement.class, GlobalSearchIndex.Type.ANNOUNCEMENT, id);
+        }
+    }
+
+    private void versionsChanged(Entity entity, String id, String schoolId) {
+        switch (entity) {
+            case CLUB -> resourceVersions.changed(ResourceVersions.Resource.CLUBS, id == null ? null : schoolId);
+            case ANNOUNCEMENT -> resourceVersions.changed(ResourceVersions.Resource.ANNOUNCEMENTS, schoolId);
+            case SCHOOL -> {
+                // Deactivating or deleting a school cascades to its clubs and announcements
+                resourceVersions.changed(ResourceVersions.Resource.SCHOOLS, null);
+                resourceVersions.changed(ResourceVersions.Resource.CLUBS, id);
+                resourceVersions.changed(ResourceVersions.Resource.ANNOUNCEMENTS, id);
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void reindex(Class<?> entityClass, GlobalSearchIndex.Type type, String id) {
+        Object entity = id == null ? null : mongoTemplate.findById(id, entityClass);
+        if (entity == null) {
+            searchIndex.remove(type, id);
+        } else {
+            searchIndex.index(entity);
+        }
+    }
+
+    private void clearAll() {
+        resyncs.incrementAndGet();
+        memberPrincipalCache.clear();
+        suggestionIndex.clear();
+        referenceDataCache.clear();
+        searchIndex.rebuildAll();
+        resourceVersions.changedAll();
+    }
+
+    private Object latestEventId() {
+        Document latest = events().find().sort(new Document("$natural", -1)).limit(1).first();
+        return latest == null ? null : latest.get("_id");
+    }
+
+    /**
+     * Create the capped collection on first use. A tailable cursor on an empty collection is dead
+     * straight away, so the collection starts with one marker event that nothing applies.
+     */
+    private void ensureCollection() {
+        MongoDatabase database = database();
+        for (String name : database.listCollectionNames()) {
+            if (COLLECTION.equals(name)) {
+                return;
+            }
+        }
+        try {
+            database.createCollection(COLLECTION, new CreateCollectionOptions()
+                    .capped(true).sizeInBytes(sizeBytes).maxDocuments(maxEvents));
+            events().insertOne(new Document("version", System.currentTimeMillis()).append("origin", origin));
+        } catch (MongoCommandException e) {
+            // Another instance created it first
+            if (e.getErrorCode() != 48) {
+                throw e;
+            }
+        }
+    }
+
+    private MongoCollection<Document> events() {
+        return database().getCollection(COLLECTION);
+    }
+
+    // The factory's database is not bound to the current transaction's session, unlike MongoTemplate#getDb
+    private MongoDatabase database() {
+        return mongoTemplate.getMongoDatabaseFactory().getMongoDatabase();
+    }
+}
@@ -0,0 +1,273 @@
+package com.myskoolclub.backend.service;
+
+import com.myskoolclub.backend.model.Announcement;
+import com.myskoolclub.backend.model.Checkout;
+import com.myskoolclub.backend.model.Club;
+import com.myskoolclub.backend.model.Invoice;
+import com.myskoolclub.backend.model.Member;
+import com.myskoolclub.backend.model.School;
+import com.myskoolclub.backend.model.UserClubRole;
+import com.myskoolclub.backend.security.MemberPrincipalCache;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Applies club, school and member deletion/deactivation together with their dependent
+ * user_club_roles, checkouts, invoices and announcements as server-side deleteMany/updateMany operations.
+ * Runs inside a Mongo transaction when the deployment supports one (replica set or sharded cluster),
+ * otherwise the operations run in sequence. Every method returns the affected document count per collection.
+ */
+@Service
+public class CascadeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CascadeService.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MemberPrincipalCache memberPrincipalCache;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    private volatile TransactionTemplate transactionTemplate;
+    private volatile Boolean transactionsSupported;
+
+    /**
+     * Delete a club with its roles, checkouts and invoices
+     */
+    public Map<String, Long> deleteClub(String clubId) {
+        return inTransaction(() -> {
+            Query byId = Query.query(Criteria.where("_id").is(clubId));
+            if (!mongoTemplate.exists(byId, Club.class)) {
+                throw new IllegalArgumentException("Club not found with id: " + clubId);
+            }
+            Criteria byClub = Criteria.where("clubId").is(clubId);
+            Map<String, Long> affected = new LinkedHashMap<>();
+            affected.put("userClubRoles", deleteRoles(byClub));
+            affected.put("checkouts", mongoTemplate.remove(new Query(byClub), Checkout.class).getDeletedCount());
+            affected.put("invoices", mongoTemplate.remove(new Query(byClub), Invoice.class).getDeletedCount());
+            affected.put("clubs", mongoTemplate.remove(byId, Club.class).getDeletedCount());
+            return affected;
+        });
+    }
+
+    /**
+     * Deactivate a club and the roles held in it
+     */
+    public Map<String, Long> deactivateClub(String clubId) {
+        return inTransaction(() -> {
+            Map<String, Long> affected = new LinkedHashMap<>();
+            long clubs = mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(clubId)),
+                    deactivation("active"), Club.class).getMatchedCount();
+            if (clubs == 0) {
+                throw new IllegalArgumentException("Club not found with id: " + clubId);
+            }
+            affected.put("clubs", clubs);
+            affected.put("userClubRoles", deactivateRoles(Criteria.where("clubId").is(clubId)));
+            return affected;
+        });
+    }
+
+    /**
+     * Delete a school with its clubs, the clubs' roles, checkouts and invoices, and the school's announcements.
+     * Members keep their school reference and are left for an admin to reassign or remove.
+     */
+    public Map<String, Long> deleteSchool(String schoolId) {
+        return inTransaction(() -> {
+            Query byId = Query.query(Criteria.where("_id").is(schoolId));
+            if (!mongoTemplate.exists(byId, School.class)) {
+                throw new IllegalArgumentException("School not found");
+            }
+            List<String> clubIds = clubIdsOfSchool(schoolId);
+            Criteria byClubs = Criteria.where("clubId").in(clubIds);
+            Map<String, Long> affected = new LinkedHashMap<>();
+            affected.put("userClubRoles", deleteRoles(new Criteria().orOperator(
+                    Criteria.where("schoolId").is(schoolId), byClubs)));
+            affected.put("checkouts", mongoTemplate.remove(new Query(byClubs), Checkout.class).getDeletedCount());
+            affected.put("invoices", mongoTemplate.remove(new Query(byClubs), Invoice.class).getDeletedCount());
+            affected.put("announcements", mongoTemplate.remove(
+                    Query.query(Criteria.where("schoolId").is(schoolId)), Announcement.class).getDeletedCount());
+            affected.put("clubs", mongoTemplate.remove(
+                    Query.query(Criteria.where("schoolId").is(schoolId)), Club.class).getDeletedCount());
+            affected.put("schools", mongoTemplate.remove(byId, School.class).getDeletedCount());
+            return affected;
+        });
+    }
+
+    /**
+     * Deactivate a school together with its clubs, their roles and the school's announcements
+     */
+    public Map<String, Long> deactivateSchool(String schoolId) {
+        return inTransaction(() -> {
+            long schools = mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(schoolId)),
+                    deactivation("isActive"), School.class).getMatchedCount();
+            if (schools == 0) {
+                throw new IllegalArgumentException("School not found");
+            }
+            List<String> clubIds = clubIdsOfSchool(schoolId);
+            Map<String, Long> affected = new LinkedHashMap<>();
+            affected.put("schools", schools);
+            affected.put("clubs", mongoTemplate.updateMulti(
+                    Query.query(Criteria.where("schoolId").is(schoolId).and("active").is(true)),
+                    deactivation("active"), Club.class).getModifiedCount());
+            affected.put("userClubRoles", deactivateRoles(new Criteria().orOperator(
+                    Criteria.where("schoolId").is(schoolId), Criteria.where("clubId").in(clubIds))));
+            affected.put("announcements", mongoTemplate.updateMulti(
+                    Query.query(Criteria.where("schoolId").is(schoolId).and("active").is(true)),
+                    deactivation("active"), Announcement.class).getModifiedCount());
+            return affected;
+        });
+    }
+
+    /**
+     * Deactivate a member and every role they hold
+     */
+    public Map<String, Long> deactivateMember(String memberId) {
+        return inTransaction(() -> {
+            Member member = mongoTemplate.findById(memberId, Member.class);
+            if (member == null) {
+                throw new RuntimeException("Member not found with id: " + memberId);
+            }
+            Map<String, Long> affected = new LinkedHashMap<>();
+            affected.put("members", mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(memberId)),
+                    deactivation("isActive"), Member.class).getMatchedCount());
+            affected.put("userClubRoles", deactivateRoles(Criteria.where("memberId").is(memberId)));
+            afterCommit(() -> memberPrincipalCache.evict(member.getEmail()));
+            invalidationBus.publish(CacheInvalidationBus.Entity.MEMBER, memberId, member.getSchoolId(), member.getEmail());
+            return affected;
+        });
+    }
+
+    /**
+     * Permanently delete a member and every role they hold
+     */
+    public Map<String, Long> deleteMember(String memberId) {
+        return inTransaction(() -> {
+            Member member = mongoTemplate.findById(memberId, Member.class);
+            if (member == null) {
+                throw new RuntimeException("Member not found with id: " + memberId);
+            }
+            Map<String, Long> affected = new LinkedHashMap<>();
+            affected.put("userClubRoles", mongoTemplate.remove(
+                    Query.query(Criteria.where("memberId").is(memberId)), UserClubRole.class).getDeletedCount());
+            affected.put("members", mongoTemplate.remove(
+                    Query.query(Criteria.where("_id").is(memberId)), Member.class).getDeletedCount());
+            afterCommit(() -> memberPrincipalCache.evict(member.getEmail()));
+            invalidationBus.publish(CacheInvalidationBus.Entity.MEMBER, memberId, member.getSchoolId(), member.getEmail());
+            return affected;
+        });
+    }
+
+    /**
+     * Delete the matching roles and mark their members' tokens stale. Returns the number of roles removed.
+     */
+    public long deleteRoles(Criteria roles) {
+        List<String> memberIds = memberIdsOf(roles);
+        long deleted = mongoTemplate.remove(new Query(roles), UserClubRole.class).getDeletedCount();
+        bumpClubRoleVersions(memberIds);
+        return deleted;
+    }
+
+    /**
+     * Deactivate the matching active roles and mark their members' tokens stale. Returns the number of roles changed.
+     */
+    public long deactivateRoles(Criteria roles) {
+        Criteria activeRoles = new Criteria().andOperator(roles, Criteria.where("active").is(true));
+        List<String> memberIds = memberIdsOf(activeRoles);
+        long modified = mongoTemplate.updateMulti(new Query(activeRoles), deactivation("active"),
+                UserClubRole.class).getModifiedCount();
+        bumpClubRoleVersions(memberIds);
+        return modified;
+    }
+
+    private List<String> memberIdsOf(Criteria roles) {
+        return mongoTemplate.findDistinct(new Query(roles), "memberId", UserClubRole.class, String.class);
+    }
+
+    private List<String> clubIdsOfSchool(String schoolId) {
+        Query query = Query.query(Criteria.where("schoolId").is(schoolId));
+        query.fields().include("_id");
+        return mongoTemplate.find(query, Club.class).stream().map(Club::getId).toList();
+    }
+
+    // One multi-update instead of a findAndModify per member; cached principals are cleared wholesale
+    private void bumpClubRoleVersions(Collection<String> memberIds) {
+        if (memberIds.isEmpty()) {
+            return;
+        }
+        mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(memberIds)),
+                new Update().inc("clubRoleVersion", 1), Member.class);
+        afterCommit(memberPrincipalCache::clear);
+        invalidationBus.publish(CacheInvalidationBus.Entity.MEMBER, null, null);
+    }
+
+    // Evicting before the commit would let a concurrent load cache the old member again; the bus defers its own publish
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private Update deactivation(String activeField) {
+        return new Update().set(activeField, false).set("updatedAt", LocalDateTime.now());
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        TransactionTemplate template = transactionTemplate();
+        return template != null ? template.execute(status -> work.get()) : work.get();
+    }
+
+    /**
+     * Transactions need a replica set or mongos; a standalone server (typical in development) runs the cascade without one
+     */
+    private TransactionTemplate transactionTemplate() {
+        if (transactionsSupported == null) {
+            synchronized (this) {
+                if (transactionsSupported == null) {
+                    boolean supported;
+                    try {
+                        Document hello = mongoTemplate.executeCommand(new Document("hello", 1));
+                        supported = hello.containsKey("setName") || "isdbgrid".equals(hello.getString("msg"));
+                    } catch (DataAccessException e) {
+                        logger.warn("Could not determine Mongo topology, cascading without transactions: {}", e.getMessage());
+                        supported = false;
+                    }
+                    if (supported) {
+                        transactionTemplate = new TransactionTemplate(
+                                new MongoTransactionManager(mongoTemplate.getMongoDatabaseFactory()));
+                    }
+                    transactionsSupported = supported;
+                }
+            }
+        }
+        return transactionTemplate;
+    }
+}
@@ -1,17 +1,23 @@
 package com.myskoolclub.backend.service;
 
 import com.myskoolclub.backend.model.Checkout;
+import com.myskoolclub.backend.model.CheckoutItem;
 import com.myskoolclub.backend.repository.CheckoutRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -20,9 +26,38 @@ import java.util.Optional;
 @Service
 public class CheckoutService {
     
+    private static final Map<String, String> SORTABLE_FIELDS = Map.of(
+            "checkoutnumber", "checkoutNumber",
+            "clubname", "clubName",
+            "borrowername", "borrowerName",
+            "status", "status",
+            "checkoutdate", "checkoutDate",
+            "duedate", "dueDate",
+            "totalestimatedvalue", "totalEstimatedValue",
+            "createdat", "createdAt");
+    
+    private static final Sort QUEUE_SORT = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+    
+    private static final Criteria PENDING_APPROVAL = Criteria.where("approvalStatus").is("PENDING");
+    
     @Autowired
     private CheckoutRepository checkoutRepository;
     
+    @Autowired
+    private SearchQueryExecutor searchQueryExecutor;
+    
+    @Autowired
+    private DocumentNumberAllocator documentNumberAllocator;
+    
+    @Autowired
+    private StateTransitionExecutor stateTransitionExecutor;
+    
+    @Autowired
+    private GlobalSearchIndex searchIndex;
+    
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+    
     // CRUD Operations
     
     /**
@@ -60,7 +95,7 @@ public class CheckoutService {
         // Auto-generate checkout number if not provided
         if (checkout.getCheckoutNumber() == null || checkout.getCheckoutNumber().trim().isEmpty()) {
             String userName = checkout.getCreatedByName() != null ? checkout.getCreatedByName() : "UNKN";
-            checkout.setCheckoutNumber(generateCheckoutNumber(userName));
+            checkout.setCheckoutNumber(documentNumberAllocator.nextNumber("CHK", userName));
         }
         
         // Set timestamps
@@ -73,15 +108,22 @@ public class CheckoutService {
         // Validate checkout
         validateCheckout(checkout);
         
-        return checkoutRepository.save(checkout);
+        Checkout savedCheckout = checkoutRepository.save(checkout);
+        searchIndex.index(savedCheckout);
+        invalidationBus.publish(CacheInvalidationBus.Entity.CHECKOUT, savedCheckout.getId(), null);
+        return savedCheckout;
     }
     
     /**
-     * Update an existing checkout
+     * Update an existing checkout; a non-null expectedVersion must match the stored version (If-Match)
      */
-    public Optional<Checkout> updateCheckout(String id, Checkout updatedCheckout) {
+    public Optional<Checkout> updateCheckout(String id, Checkout updatedCheckout, Long expectedVersion) {
         return checkoutRepository.findById(id)
                 .map(existingCheckout -> {
+                    if (expectedVersion != null && !expectedVersion.equals(existingCheckout.getVersion())) {
+                        throw new OptimisticLockingFailureException("Checkout has been modified by another user");
+                    }
+                    
                     // Update fields
                     existingCheckout.setClubId(updatedCheckout.getClubId());
                     existingCheckout.setClubName(updatedCheckout.getClubName());
@@ -108,7 +150,10 @@ public class CheckoutService {
                     // Validate updated checkout
                     validateCheckout(existingCheckout);
                     
-                    return checkoutRepository.save(existingCheckout);
+                    Checkout savedCheckout = checkoutRepository.save(existingCheckout);
+                    searchIndex.index(savedCheckout);
+                    invalidationBus.publish(CacheInvalidationBus.Entity.CHECKOUT, savedCheckout.getId(), null);
+                    return savedCheckout;
                 });
     }
     
@@ -118,6 +163,8 @@ public class CheckoutService {
     public boolean deleteCheckout(String id) {
         if (checkoutRepository.existsById(id)) {
             checkoutRepository.deleteById(id);
+            searchIndex.remove(GlobalSearchIndex.Type.CHECKOUT, id);
+            invalidationBus.publish(CacheInvalidationBus.Entity.CHECKOUT, id, null);
             return true;
         }
         return false;
@@ -126,42 +173,53 @@ public class CheckoutService {
     // Search and Filter Operations
     
     /**
-     * Search checkouts by keyword
+     * Search checkouts by keyword, most relevant first; partial words fall back to prefix matching
      */
     public List<Checkout> searchCheckouts(String keyword) {
         if (keyword == null || keyword.trim().isEmpty()) {
             return getAllCheckouts();
         }
-        return checkoutRepository.searchByKeyword(keyword.trim());
+        return searchQueryExecutor.findText(keyword, null, keywordPrefixes(null, keyword), Checkout.class);
     }
     
     /**
      * Advanced search with multiple filters
      */
-    public List<Checkout> advancedSearchCheckouts(
-            String clubId, String status, String borrowerName,
+    public Page<Checkout> advancedSearchCheckouts(
+            String keyword, String clubId, String status, String borrowerName,
             LocalDate checkoutDateFrom, LocalDate checkoutDateTo,
             LocalDate dueDateFrom, LocalDate dueDateTo,
-            BigDecimal minValue, BigDecimal maxValue) {
+            BigDecimal minValue, BigDecimal maxValue,
+            String sortBy, String sortDirection, Pageable pageable) {
         
-        // Set default values for empty filters
-        String clubFilter = (clubId != null && !clubId.trim().isEmpty()) ? clubId : ".*";
-        String statusFilter = (status != null && !status.trim().isEmpty()) ? status : ".*";
-        String borrowerFilter = (borrowerName != null && !borrowerName.trim().isEmpty()) ? borrowerName : ".*";
+        Criteria criteria = SearchCriteriaBuilder.create()
+                .is("clubId", clubId)
+                .isUpperCase("status", status)
+                .between("checkoutDate", checkoutDateFrom, checkoutDateTo)
+                .between("dueDate", dueDateFrom, dueDateTo)
+                .decimalBetween("totalEstimatedValue", minValue, maxValue)
+                .contains("borrowerName", borrowerName)
+                .prefixAny(keyword, SearchTokens.FIELD, SearchTokens.CLUB_NAME_FIELD)
+                .build();
         
-        LocalDate checkoutFrom = (checkoutDateFrom != null) ? checkoutDateFrom : LocalDate.of(2000, 1, 1);
-        LocalDate checkoutTo = (checkoutDateTo != null) ? checkoutDateTo : LocalDate.of(2100, 12, 31);
-        LocalDate dueFrom = (dueDateFrom != null) ? dueDateFrom : LocalDate.of(2000, 1, 1);
-        LocalDate dueTo = (dueDateTo != null) ? dueDateTo : LocalDate.of(2100, 12, 31);
-        
-        BigDecimal minVal = (minValue != null) ? minValue : BigDecimal.ZERO;
-        BigDecimal maxVal = (maxValue != null) ? maxValue : new BigDecimal("999999999");
+        Sort sort = SearchCriteriaBuilder.sort(sortBy, sortDirection, SORTABLE_FIELDS, "checkoutDate");
+        return searchQueryExecutor.findPage(criteria,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort), Checkout.class);
+    }
+    
+    /**
+     * Keyset paginated listing; pass the previous slice's next cursor as after to continue
+     */
+    public CursorSlice<Checkout> getCheckoutsAfter(String clubId, String status, String keyword,
+                                                   String sortBy, String sortDirection, String after, int size) {
+        Criteria criteria = SearchCriteriaBuilder.create()
+                .is("clubId", clubId)
+                .isUpperCase("status", status)
+                .prefixAny(keyword, SearchTokens.FIELD, SearchTokens.CLUB_NAME_FIELD)
+                .build();
         
-        return checkoutRepository.findByAdvancedFilters(
-            clubFilter, statusFilter, borrowerFilter,
-            checkoutFrom, checkoutTo, dueFrom, dueTo,
-            minVal, maxVal
-        );
+        Sort sort = SearchCriteriaBuilder.sort(sortBy, sortDirection, SORTABLE_FIELDS, "checkoutNumber");
+        return searchQueryExecutor.findSlice(criteria, sort, after, size, Checkout.class);
     }
     
     /**
@@ -214,11 +272,22 @@ public class CheckoutService {
     }
     
     /**
-     * Get checkouts by item type
+     * Get checkouts with an item type in which every word of itemType starts a word. The search tokens narrow
+     * the candidates through their index; as they also hold names and notes, the item types are checked after.
      */
     public List<Checkout> getCheckoutsByItemType(String itemType) {
-        return checkoutRepository.findByItemType(itemType);
+        Criteria candidates = SearchTokens.prefixMatch(itemType, SearchTokens.FIELD);
+        if (candidates == null) {
+            return getAllCheckouts();
+        }
+        List<String> words = SearchTokens.of(itemType);
+        return searchQueryExecutor.findAll(candidates, Sort.unsorted(), Checkout.class).stream()
+                .filter(checkout -> checkout.getCheckoutItems() != null && checkout.getCheckoutItems().stream()
+                        .map(CheckoutItem::getItemType)
+                        .anyMatch(type -> startsWords(SearchTokens.of(type), words)))
+                .toList();
     }
+
     
     /**
      * Get recent checkouts
@@ -259,31 +328,6 @@ public class CheckoutService {
     
     // Utility Methods
     
-    /**
-     * Generate unique checkout number in format:
-     * CHK-<12 alpha identifier for date/time>-<1ST 4 CHARACTERS OF USER NAME>-<4 DIGIT RANDOM NUMBER>
-     * Example: CHK-202412251430-JOHN-5738
-     */
-    private String generateCheckoutNumber(String createdByName) {
-        // Format: CHK-YYYYMMDDHHmm-XXXX-NNNN
-        LocalDateTime now = LocalDateTime.now();
-        String dateTimePart = now.format(DateTimeFormatter.ofPattern("yyyyMMddHHmm"));
-        
-        // Get first 4 characters of user name (uppercase, remove spaces)
-        String userPart = createdByName.replaceAll("\\s+", "").toUpperCase();
-        if (userPart.length() > 4) {
-            userPart = userPart.substring(0, 4);
-        } else {
-            // Pad with 'X' if less than 4 characters
-            userPart = String.format("%-4s", userPart).replace(' ', 'X');
-        }
-        
-        // Generate 4-digit random number
-        int randomNum = (int)(Math.random() * 9000) + 1000; // Random number between 1000-9999
-        
-        return String.format("CHK-%s-%s-%04d", dateTimePart, userPart, randomNum);
-    }
-    
     /**
      * Validate checkout data
      */
@@ -351,6 +395,64 @@ public class CheckoutService {
                 });
     }
     
+    /**
+     * Approve a checkout that is still pending; empty when it is missing, outside clubIds (null means any club)
+     * or has already been decided
+     */
+    public Optional<Checkout> approveCheckout(String id, List<String> clubIds, String approverId, String approverName) {
+        return stateTransitionExecutor.apply(id, clubIds, PENDING_APPROVAL,
+                decisionUpdate("APPROVED", approverId, approverName), Checkout.class);
+    }
+    
+    /**
+     * Reject a checkout that is still pending; empty when it is missing, outside clubIds or has already been decided
+     */
+    public Optional<Checkout> rejectCheckout(String id, List<String> clubIds, String approverId, String approverName, String rejectionReason) {
+        return stateTransitionExecutor.apply(id, clubIds, PENDING_APPROVAL,
+                decisionUpdate("REJECTED", approverId, approverName).set("rejectionReason", rejectionReason), Checkout.class);
+    }
+    
+    /**
+     * Approve many pending checkouts in one bulk write, reporting the outcome per id
+     */
+    public Map<String, StateTransitionExecutor.Outcome> approveCheckouts(List<String> ids, List<String> clubIds,
+                                                                         String approverId, String approverName) {
+        return stateTransitionExecutor.applyBatch(ids, clubIds, PENDING_APPROVAL,
+                decisionUpdate("APPROVED", approverId, approverName), approverId, Checkout.class);
+    }
+    
+    /**
+     * Reject many pending checkouts with the same reason in one bulk write, reporting the outcome per id
+     */
+    public Map<String, StateTransitionExecutor.Outcome> rejectCheckouts(List<String> ids, List<String> clubIds,
+                                                                        String approverId, String approverName, String rejectionReason) {
+        return stateTransitionExecutor.applyBatch(ids, clubIds, PENDING_APPROVAL,
+                decisionUpdate("REJECTED", approverId, approverName).set("rejectionReason", rejectionReason), approverId, Checkout.class);
+    }
+    
+    private Update decisionUpdate(String decision, String approverId, String approverName) {
+        return new Update()
+                .set("approvalStatus", decision)
+                .set("status", decision)
+                .set("approvedBy", approverId)
+                .set("approvedByName", approverName)
+                .set("approvedAt", LocalDateTime.now())
+                .set("updatedBy", approverId)
+                .set("updatedByName", approverName);
+    }
+    
+    /**
+     * Mark an APPROVED checkout as returned; empty when it is missing, outside clubIds or not APPROVED
+     */
+    public Optional<Checkout> markCheckoutReturned(String id, List<String> clubIds, String memberId, String memberName) {
+        Update update = new Update()
+                .set("status", "RETURNED")
+                .set("returnDate", LocalDate.now())
+                .set("updatedBy", memberId)
+                .set("updatedByName", memberName);
+        return stateTransitionExecutor.apply(id, clubIds, Criteria.where("status").is("APPROVED"), update, Checkout.class);
+    }
+    
     /**
      * Mark checkout as overdue
      */
@@ -375,35 +477,30 @@ public class CheckoutService {
      * Save checkout
      */
     public Checkout save(Checkout checkout) {
-        return checkoutRepository.save(checkout);
+        Checkout savedCheckout = checkoutRepository.save(checkout);
+        searchIndex.index(savedCheckout);
+        invalidationBus.publish(CacheInvalidationBus.Entity.CHECKOUT, savedCheckout.getId(), null);
+        return savedCheckout;
     }
     
     /**
-     * Find checkouts by approval status
+     * Get the pending approval queue, newest first; null clubIds means every club
      */
-    public List<Checkout> findByApprovalStatus(String approvalStatus) {
-        return checkoutRepository.findByApprovalStatus(approvalStatus);
+    public Page<Checkout> getPendingApprovalCheckouts(List<String> clubIds, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, QUEUE_SORT);
+        return clubIds == null
+                ? checkoutRepository.findByApprovalStatus("PENDING", pageable)
+                : checkoutRepository.findByApprovalStatusAndClubIdIn("PENDING", clubIds, pageable);
     }
     
     /**
-     * Find checkouts by club IDs and approval status
+     * Get approved checkouts awaiting return, newest first; null clubIds means every club
      */
-    public List<Checkout> findByClubIdInAndApprovalStatus(List<String> clubIds, String approvalStatus) {
-        return checkoutRepository.findByClubIdInAndApprovalStatus(clubIds, approvalStatus);
-    }
-    
-    /**
-     * Find checkouts by club IDs and status
-     */
-    public List<Checkout> findByClubIdInAndStatus(List<String> clubIds, String status) {
-        return checkoutRepository.findByClubIdInAndStatus(clubIds, status);
-    }
-    
-    /**
-     * Find checkouts by status
-     */
-    public List<Checkout> findByStatus(String status) {
-        return checkoutRepository.findByStatusOrderByCheckoutDateDesc(status);
+    public Page<Checkout> getPendingReturnCheckouts(List<String> clubIds, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, QUEUE_SORT);
+        return clubIds == null
+                ? checkoutRepository.findByStatus("APPROVED", pageable)
+                : checkoutRepository.findByStatusAndClubIdIn("APPROVED", clubIds, pageable);
     }
     
     /**
@@ -421,16 +518,36 @@ public class CheckoutService {
     }
     
     /**
-     * Search checkouts by keyword with pagination
+     * Search checkouts by keyword with pagination, most relevant first
      */
     public Page<Checkout> searchCheckoutsByKeyword(String keyword, Pageable pageable) {
-        return checkoutRepository.searchByKeyword(keyword, pageable);
+        return searchQueryExecutor.findTextPage(keyword, null, keywordPrefixes(null, keyword),
+                pageable, Checkout.class);
     }
     
     /**
-     * Search checkouts by club and keyword with pagination
+     * Search checkouts by club and keyword with pagination, most relevant first
      */
     public Page<Checkout> searchCheckoutsByClubAndKeyword(String clubId, String keyword, Pageable pageable) {
-        return checkoutRepository.searchByClubAndKeyword(clubId, keyword, pageable);
+        return searchQueryExecutor.findTextPage(keyword, Criteria.where("clubId").is(clubId),
+                keywordPrefixes(clubId, keyword), pageable, Checkout.class);
+    }
+    
+    /**
+     * Word prefix criteria used when no whole word of the keyword matches the text index
+     */
+    private Criteria keywordPrefixes(String clubId, String keyword) {
+        SearchCriteriaBuilder builder = SearchCriteriaBuilder.create().is("clubId", clubId);
+        if (clubId == null) {
+            builder.prefixAny(keyword, SearchTokens.FIELD, SearchTokens.CLUB_NAME_FIELD);
+        } else {
+            builder.prefixAny(keyword, SearchTokens.FIELD);
+        }
+        return builder.build();
+    }
+    
+    // Every word starts one of the tokens
+    private static boolean startsWords(List<String> tokens, List<String> words) {
+        return words.stream().allMatch(word -> tokens.stream().anyMatch(token -> token.startsWith(word)));
     }
-}
\ No newline at end of file
+}
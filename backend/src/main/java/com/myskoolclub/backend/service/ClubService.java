@@ -4,20 +4,61 @@ import com.myskoolclub.backend.model.Club;
 import com.myskoolclub.backend.repository.ClubRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class ClubService {
     
+    private static final Map<String, String> SORTABLE_FIELDS = Map.of(
+            "name", "name",
+            "schoolname", "schoolName",
+            "category", "category",
+            "advisorname", "advisorName",
+            "createdat", "createdAt",
+            "meetingday", "meetingDay");
+    
     @Autowired
     private ClubRepository clubRepository;
     
+    @Autowired
+    private SearchQueryExecutor searchQueryExecutor;
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    private CascadeService cascadeService;
+    
+    @Autowired
+    private DenormalizedNamePropagator namePropagator;
+    
+    @Autowired
+    private GlobalSearchIndex searchIndex;
+    
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+    
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+    
+    @Autowired
+    private SingleFlight singleFlight;
+    
+    @Autowired
+    private ResourceVersions resourceVersions;
+    
     // Create operations
     public Club createClub(Club club) {
         validateClub(club);
@@ -33,7 +74,11 @@ public class ClubService {
         club.setUpdatedAt(LocalDateTime.now());
         club.setActive(true);
         
-        return clubRepository.save(club);
+        Club savedClub = clubRepository.save(club);
+        referenceDataCache.evictClub(savedClub.getId(), savedClub.getSchoolId());
+        invalidationBus.publish(CacheInvalidationBus.Entity.CLUB, savedClub.getId(), savedClub.getSchoolId());
+        searchIndex.index(savedClub);
+        return savedClub;
     }
     
     // Read operations
@@ -46,7 +91,7 @@ public class ClubService {
     }
     
     public Optional<Club> getClubById(String id) {
-        return clubRepository.findById(id);
+        return referenceDataCache.club(id, () -> clubRepository.findById(id));
     }
     
     public List<Club> getClubsBySchool(String schoolId) {
@@ -54,7 +99,7 @@ public class ClubService {
     }
     
     public List<Club> getActiveClubsBySchool(String schoolId) {
-        return clubRepository.findBySchoolIdAndActive(schoolId, true);
+        return referenceDataCache.activeClubs(schoolId, () -> clubRepository.findBySchoolIdAndActive(schoolId, true));
     }
     
     public List<Club> getClubsByCategory(String category) {
@@ -70,11 +115,13 @@ public class ClubService {
     }
     
     public List<Club> searchClubsByKeyword(String keyword) {
-        return clubRepository.searchClubsByKeyword(keyword);
+        return searchQueryExecutor.findAll(SearchCriteriaBuilder.create()
+                .prefixAny(keyword, SearchTokens.FIELD, SearchTokens.SCHOOL_NAME_FIELD)
+                .build(), Sort.unsorted(), Club.class);
     }
     
     public List<Club> searchClubsBySchoolAndKeyword(String schoolId, String keyword) {
-        return clubRepository.searchClubsBySchoolAndKeyword(schoolId, keyword);
+        return searchQueryExecutor.findAll(keywordInSchool(schoolId, keyword), Sort.unsorted(), Club.class);
     }
     
     public List<Club> getClubsByAdvisorEmail(String advisorEmail) {
@@ -98,12 +145,15 @@ public class ClubService {
         return clubRepository.findByActive(true, pageable);
     }
     
+    // Concurrent requests for the same page of a school's clubs share one query
     public Page<Club> getClubsBySchool(String schoolId, Pageable pageable) {
-        return clubRepository.findBySchoolId(schoolId, pageable);
+        return singleFlight.execute("clubs.bySchool", () -> clubRepository.findBySchoolId(schoolId, pageable),
+                schoolId, pageable, resourceVersions.tag(ResourceVersions.Resource.CLUBS, schoolId));
     }
     
     public Page<Club> getActiveClubsBySchool(String schoolId, Pageable pageable) {
-        return clubRepository.findBySchoolIdAndActive(schoolId, true, pageable);
+        return singleFlight.execute("clubs.activeBySchool", () -> clubRepository.findBySchoolIdAndActive(schoolId, true, pageable),
+                schoolId, pageable, resourceVersions.tag(ResourceVersions.Resource.CLUBS, schoolId));
     }
     
     public Page<Club> getClubsByCategory(String category, Pageable pageable) {
@@ -115,11 +165,21 @@ public class ClubService {
     }
     
     public Page<Club> searchClubsByKeyword(String keyword, Pageable pageable) {
-        return clubRepository.searchClubsByKeyword(keyword, pageable);
+        return searchQueryExecutor.findPage(SearchCriteriaBuilder.create()
+                .prefixAny(keyword, SearchTokens.FIELD)
+                .build(), pageable, Club.class);
     }
     
     public Page<Club> searchClubsBySchoolAndKeyword(String schoolId, String keyword, Pageable pageable) {
-        return clubRepository.searchClubsBySchoolAndKeyword(schoolId, keyword, pageable);
+        return searchQueryExecutor.findPage(keywordInSchool(schoolId, keyword), pageable, Club.class);
+    }
+    
+    // Keyword searches match word prefixes of name, category, advisor, tags and description
+    private Criteria keywordInSchool(String schoolId, String keyword) {
+        return SearchCriteriaBuilder.create()
+                .is("schoolId", schoolId)
+                .prefixAny(keyword, SearchTokens.FIELD)
+                .build();
     }
     
     // Update operations
@@ -132,33 +192,22 @@ public class ClubService {
         
         Club existingClub = existingClubOpt.get();
         
-        // Validate the updated club data
-        validateClub(updatedClub);
+        // Collect only the fields that actually change
+        PartialUpdate delta = PartialUpdate.using(mongoTemplate.getConverter())
+                .set("name", existingClub.getName(), updatedClub.getName())
+                .set("schoolId", existingClub.getSchoolId(), updatedClub.getSchoolId())
+                .set("schoolName", existingClub.getSchoolName(), updatedClub.getSchoolName())
+                .set("description", existingClub.getDescription(), updatedClub.getDescription())
+                .set("category", existingClub.getCategory(), updatedClub.getCategory())
+                .set("advisorName", existingClub.getAdvisorName(), updatedClub.getAdvisorName())
+                .set("advisorEmail", existingClub.getAdvisorEmail(), updatedClub.getAdvisorEmail())
+                .set("meetingLocation", existingClub.getMeetingLocation(), updatedClub.getMeetingLocation())
+                .set("meetingTime", existingClub.getMeetingTime(), updatedClub.getMeetingTime())
+                .set("meetingDay", existingClub.getMeetingDay(), updatedClub.getMeetingDay())
+                .set("maxMembers", existingClub.getMaxMembers(), updatedClub.getMaxMembers())
+                .set("tags", existingClub.getTags(), updatedClub.getTags());
         
-        // Check for duplicate name (excluding current club)
-        if (!existingClub.getName().equals(updatedClub.getName()) &&
-            clubRepository.existsByNameAndSchoolIdAndIdNot(updatedClub.getName(), 
-                                                          updatedClub.getSchoolId(), id)) {
-            throw new IllegalArgumentException("A club with the name '" + updatedClub.getName() + 
-                                             "' already exists in this school");
-        }
-        
-        // Update fields
-        existingClub.setName(updatedClub.getName());
-        existingClub.setSchoolId(updatedClub.getSchoolId());
-        existingClub.setSchoolName(updatedClub.getSchoolName());
-        existingClub.setDescription(updatedClub.getDescription());
-        existingClub.setCategory(updatedClub.getCategory());
-        existingClub.setAdvisorName(updatedClub.getAdvisorName());
-        existingClub.setAdvisorEmail(updatedClub.getAdvisorEmail());
-        existingClub.setMeetingLocation(updatedClub.getMeetingLocation());
-        existingClub.setMeetingTime(updatedClub.getMeetingTime());
-        existingClub.setMeetingDay(updatedClub.getMeetingDay());
-        existingClub.setMaxMembers(updatedClub.getMaxMembers());
-        existingClub.setTags(updatedClub.getTags());
-        existingClub.setUpdatedAt(LocalDateTime.now());
-        
-        return clubRepository.save(existingClub);
+        return applyClubDelta(id, existingClub, updatedClub, delta);
     }
     
     public Club updateClubPartial(String id, Club partialUpdate) {
@@ -170,72 +219,67 @@ public class ClubService {
         
         Club existingClub = existingClubOpt.get();
         
-        // Update only non-null fields
-        if (partialUpdate.getName() != null && !partialUpdate.getName().trim().isEmpty()) {
-            // Check for duplicate name
-            if (!existingClub.getName().equals(partialUpdate.getName()) &&
-                clubRepository.existsByNameAndSchoolIdAndIdNot(partialUpdate.getName(), 
-                                                              existingClub.getSchoolId(), id)) {
-                throw new IllegalArgumentException("A club with the name '" + partialUpdate.getName() + 
-                                                 "' already exists in this school");
-            }
-            existingClub.setName(partialUpdate.getName().trim());
+        // Only non-null fields are applied; a blank name is ignored
+        if (partialUpdate.getName() != null) {
+            partialUpdate.setName(partialUpdate.getName().trim().isEmpty() ? null : partialUpdate.getName().trim());
         }
-        
-        if (partialUpdate.getDescription() != null) {
-            existingClub.setDescription(partialUpdate.getDescription());
-        }
-        
-        if (partialUpdate.getCategory() != null) {
-            existingClub.setCategory(partialUpdate.getCategory());
-        }
-        
-        if (partialUpdate.getAdvisorName() != null) {
-            existingClub.setAdvisorName(partialUpdate.getAdvisorName());
-        }
-        
-        if (partialUpdate.getAdvisorEmail() != null) {
-            existingClub.setAdvisorEmail(partialUpdate.getAdvisorEmail());
+        PartialUpdate delta = PartialUpdate.using(mongoTemplate.getConverter())
+                .setIfPresent("name", existingClub.getName(), partialUpdate.getName())
+                .setIfPresent("description", existingClub.getDescription(), partialUpdate.getDescription())
+                .setIfPresent("category", existingClub.getCategory(), partialUpdate.getCategory())
+                .setIfPresent("advisorName", existingClub.getAdvisorName(), partialUpdate.getAdvisorName())
+                .setIfPresent("advisorEmail", existingClub.getAdvisorEmail(), partialUpdate.getAdvisorEmail())
+                .setIfPresent("meetingLocation", existingClub.getMeetingLocation(), partialUpdate.getMeetingLocation())
+                .setIfPresent("meetingTime", existingClub.getMeetingTime(), partialUpdate.getMeetingTime())
+                .setIfPresent("meetingDay", existingClub.getMeetingDay(), partialUpdate.getMeetingDay())
+                .setIfPresent("maxMembers", existingClub.getMaxMembers(), partialUpdate.getMaxMembers())
+                .setIfPresent("tags", existingClub.getTags(), partialUpdate.getTags());
+        
+        return applyClubDelta(id, existingClub, partialUpdate, delta);
+    }
+    
+    // Validate the changed fields only and $set them, instead of saving the whole club back
+    private Club applyClubDelta(String id, Club existingClub, Club changes, PartialUpdate delta) {
+        if (delta.isEmpty()) {
+            return existingClub;
         }
         
-        if (partialUpdate.getMeetingLocation() != null) {
-            existingClub.setMeetingLocation(partialUpdate.getMeetingLocation());
-        }
+        validateClubFields(changes, delta.getChangedFields());
         
-        if (partialUpdate.getMeetingTime() != null) {
-            existingClub.setMeetingTime(partialUpdate.getMeetingTime());
-        }
-        
-        if (partialUpdate.getMeetingDay() != null) {
-            existingClub.setMeetingDay(partialUpdate.getMeetingDay());
+        // Check for duplicate name (excluding current club) when the name or school changes
+        if (delta.isChanged("name") || delta.isChanged("schoolId")) {
+            String name = delta.isChanged("name") ? changes.getName() : existingClub.getName();
+            String schoolId = delta.isChanged("schoolId") ? changes.getSchoolId() : existingClub.getSchoolId();
+            if (clubRepository.existsByNameAndSchoolIdAndIdNot(name, schoolId, id)) {
+                throw new IllegalArgumentException("A club with the name '" + name + 
+                                                 "' already exists in this school");
+            }
         }
         
-        if (partialUpdate.getMaxMembers() != null) {
-            existingClub.setMaxMembers(partialUpdate.getMaxMembers());
+        Club savedClub = delta.apply(mongoTemplate, id, null, existingClub)
+                .orElseThrow(() -> new IllegalArgumentException("Club not found with id: " + id));
+        if (delta.isChanged("name")) {
+            namePropagator.clubRenamed(id, savedClub.getName());
         }
-        
-        if (partialUpdate.getTags() != null) {
-            existingClub.setTags(partialUpdate.getTags());
+        referenceDataCache.evictClub(id, existingClub.getSchoolId(), savedClub.getSchoolId());
+        invalidationBus.publish(CacheInvalidationBus.Entity.CLUB, id, existingClub.getSchoolId());
+        if (!Objects.equals(existingClub.getSchoolId(), savedClub.getSchoolId())) {
+            // A moved club changes the club lists of both schools
+            invalidationBus.publish(CacheInvalidationBus.Entity.CLUB, id, savedClub.getSchoolId());
         }
-        
-        existingClub.setUpdatedAt(LocalDateTime.now());
-        
-        return clubRepository.save(existingClub);
+        searchIndex.index(savedClub);
+        return savedClub;
     }
     
     // Activate/Deactivate operations
     public Club deactivateClub(String id) {
-        Optional<Club> clubOpt = clubRepository.findById(id);
-        
-        if (clubOpt.isEmpty()) {
-            throw new IllegalArgumentException("Club not found with id: " + id);
-        }
-        
-        Club club = clubOpt.get();
-        club.setActive(false);
-        club.setUpdatedAt(LocalDateTime.now());
-        
-        return clubRepository.save(club);
+        cascadeService.deactivateClub(id);
+        Club club = clubRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Club not found with id: " + id));
+        referenceDataCache.evictClub(id, club.getSchoolId());
+        invalidationBus.publish(CacheInvalidationBus.Entity.CLUB, id, club.getSchoolId());
+        searchIndex.index(club);
+        return club;
     }
     
     public Club activateClub(String id) {
@@ -249,16 +293,22 @@ public class ClubService {
         club.setActive(true);
         club.setUpdatedAt(LocalDateTime.now());
         
-        return clubRepository.save(club);
+        Club savedClub = clubRepository.save(club);
+        referenceDataCache.evictClub(id, savedClub.getSchoolId());
+        invalidationBus.publish(CacheInvalidationBus.Entity.CLUB, id, savedClub.getSchoolId());
+        searchIndex.index(savedClub);
+        return savedClub;
     }
     
     // Delete operations
-    public void deleteClub(String id) {
-        if (!clubRepository.existsById(id)) {
-            throw new IllegalArgumentException("Club not found with id: " + id);
-        }
-        
-        clubRepository.deleteById(id);
+    // Removes the club's roles, checkouts and invoices with it; returns the affected count per collection
+    public Map<String, Long> deleteClub(String id) {
+        String schoolId = clubRepository.findById(id).map(Club::getSchoolId).orElse(null);
+        Map<String, Long> affected = cascadeService.deleteClub(id);
+        referenceDataCache.evictClub(id, schoolId);
+        invalidationBus.publish(CacheInvalidationBus.Entity.CLUB, id, schoolId);
+        searchIndex.removeClub(id);
+        return affected;
     }
     
     public void softDeleteClub(String id) {
@@ -282,130 +332,46 @@ public class ClubService {
         return clubRepository.countByCategory(category);
     }
     
-    // Advanced search method
-    public List<Club> advancedSearchClubs(String search, String schoolId, String category, 
-                                          String meetingDay, String advisorName, String status,
-                                          String sortBy, String sortDirection) {
-        
-        List<Club> clubs = clubRepository.findAll();
-        
-        // Apply filters
-        clubs = clubs.stream()
-                .filter(club -> {
-                    // Search filter (name or description)
-                    if (search != null && !search.trim().isEmpty()) {
-                        String searchLower = search.toLowerCase();
-                        return club.getName().toLowerCase().contains(searchLower) ||
-                               (club.getDescription() != null && club.getDescription().toLowerCase().contains(searchLower));
-                    }
-                    return true;
-                })
-                .filter(club -> {
-                    // School filter
-                    if (schoolId != null && !schoolId.trim().isEmpty()) {
-                        return club.getSchoolId().equals(schoolId);
-                    }
-                    return true;
-                })
-                .filter(club -> {
-                    // Category filter
-                    if (category != null && !category.trim().isEmpty()) {
-                        return club.getCategory() != null && club.getCategory().equalsIgnoreCase(category);
-                    }
-                    return true;
-                })
-                .filter(club -> {
-                    // Meeting day filter
-                    if (meetingDay != null && !meetingDay.trim().isEmpty()) {
-                        return club.getMeetingDay() != null && club.getMeetingDay().equalsIgnoreCase(meetingDay);
-                    }
-                    return true;
-                })
-                .filter(club -> {
-                    // Advisor name filter
-                    if (advisorName != null && !advisorName.trim().isEmpty()) {
-                        return club.getAdvisorName() != null && 
-                               club.getAdvisorName().toLowerCase().contains(advisorName.toLowerCase());
-                    }
-                    return true;
-                })
-                .filter(club -> {
-                    // Status filter
-                    if (status != null && !status.trim().isEmpty()) {
-                        if (status.equalsIgnoreCase("active")) {
-                            return club.isActive();
-                        } else if (status.equalsIgnoreCase("inactive")) {
-                            return !club.isActive();
-                        }
-                    }
-                    return true;
-                })
-                .sorted((club1, club2) -> {
-                    // Sorting
-                    int comparison = 0;
-                    String field = sortBy != null ? sortBy : "name";
-                    
-                    switch (field.toLowerCase()) {
-                        case "name":
-                            comparison = club1.getName().compareToIgnoreCase(club2.getName());
-                            break;
-                        case "schoolname":
-                            String school1 = club1.getSchoolName() != null ? club1.getSchoolName() : "";
-                            String school2 = club2.getSchoolName() != null ? club2.getSchoolName() : "";
-                            comparison = school1.compareToIgnoreCase(school2);
-                            break;
-                        case "category":
-                            String cat1 = club1.getCategory() != null ? club1.getCategory() : "";
-                            String cat2 = club2.getCategory() != null ? club2.getCategory() : "";
-                            comparison = cat1.compareToIgnoreCase(cat2);
-                            break;
-                        case "advisorname":
-                            String advisor1 = club1.getAdvisorName() != null ? club1.getAdvisorName() : "";
-                            String advisor2 = club2.getAdvisorName() != null ? club2.getAdvisorName() : "";
-                            comparison = advisor1.compareToIgnoreCase(advisor2);
-                            break;
-                        case "createdat":
-                            if (club1.getCreatedAt() != null && club2.getCreatedAt() != null) {
-                                comparison = club1.getCreatedAt().compareTo(club2.getCreatedAt());
-                            }
-                            break;
-                        case "meetingday":
-                            String day1 = club1.getMeetingDay() != null ? club1.getMeetingDay() : "";
-                            String day2 = club2.getMeetingDay() != null ? club2.getMeetingDay() : "";
-                            comparison = day1.compareToIgnoreCase(day2);
-                            break;
-                        default:
-                            comparison = club1.getName().compareToIgnoreCase(club2.getName());
-                    }
-                    
-                    return "desc".equalsIgnoreCase(sortDirection) ? -comparison : comparison;
-                })
-                .collect(java.util.stream.Collectors.toList());
-        
-        return clubs;
-    }
-    
     // Paginated advanced search method
     public Page<Club> advancedSearchClubs(String search, String schoolId, String category, 
                                           String meetingDay, String advisorName, String status, 
                                           Pageable pageable) {
         
-        // For simplicity, we'll use the existing search and then apply pagination
-        // In a production environment, you'd want to implement this with proper MongoDB queries
-        List<Club> allClubs = advancedSearchClubs(search, schoolId, category, meetingDay, 
-                                                   advisorName, status, "name", "asc");
+        SearchCriteriaBuilder builder = SearchCriteriaBuilder.create()
+                .is("schoolId", schoolId)
+                .equalsIgnoreCase("category", category)
+                .equalsIgnoreCase("meetingDay", meetingDay)
+                .contains("advisorName", advisorName)
+                .prefixAny(search, SearchTokens.FIELD);
+        
+        // Status filter
+        if ("active".equalsIgnoreCase(status)) {
+            builder.is("active", true);
+        } else if ("inactive".equalsIgnoreCase(status)) {
+            builder.is("active", false);
+        }
         
-        // Manual pagination
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), allClubs.size());
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(null);
+        Sort sort = SearchCriteriaBuilder.sort(order != null ? order.getProperty() : null,
+                order != null && order.isDescending() ? "desc" : "asc", SORTABLE_FIELDS, "name");
         
-        List<Club> pageContent = start >= allClubs.size() ? 
-                                 new ArrayList<>() : 
-                                 allClubs.subList(start, end);
+        return searchQueryExecutor.findPage(builder.build(),
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort), Club.class);
+    }
+    
+    // Keyset paginated listing; pass the previous slice's next cursor as after to continue
+    public CursorSlice<Club> getClubsAfter(String schoolId, String category, String keyword, boolean activeOnly,
+                                           String sortBy, String sortDirection, String after, int size) {
+        SearchCriteriaBuilder builder = SearchCriteriaBuilder.create()
+                .is("schoolId", schoolId)
+                .is("category", category)
+                .prefixAny(keyword, SearchTokens.FIELD);
+        if (activeOnly) {
+            builder.is("active", true);
+        }
         
-        return new org.springframework.data.domain.PageImpl<>(
-            pageContent, pageable, allClubs.size()
-        );
+        Sort sort = SearchCriteriaBuilder.sort(sortBy, sortDirection, SORTABLE_FIELDS, "name");
+        return searchQueryExecutor.findSlice(builder.build(), sort, after, size, Club.class);
     }
     
     // Validation
@@ -414,29 +380,40 @@ public class ClubService {
             throw new IllegalArgumentException("Club cannot be null");
         }
         
-        if (club.getName() == null || club.getName().trim().isEmpty()) {
-            throw new IllegalArgumentException("Club name is required");
+        validateClubFields(club, null);
+    }
+    
+    // Validate the given fields of a club, or every field when fields is null
+    private void validateClubFields(Club club, Set<String> fields) {
+        if (fields == null || fields.contains("name")) {
+            if (club.getName() == null || club.getName().trim().isEmpty()) {
+                throw new IllegalArgumentException("Club name is required");
+            }
+            
+            if (club.getName().trim().length() > 100) {
+                throw new IllegalArgumentException("Club name cannot exceed 100 characters");
+            }
         }
         
-        if (club.getSchoolId() == null || club.getSchoolId().trim().isEmpty()) {
+        if ((fields == null || fields.contains("schoolId")) &&
+            (club.getSchoolId() == null || club.getSchoolId().trim().isEmpty())) {
             throw new IllegalArgumentException("School ID is required");
         }
         
-        if (club.getName().trim().length() > 100) {
-            throw new IllegalArgumentException("Club name cannot exceed 100 characters");
-        }
-        
-        if (club.getDescription() != null && club.getDescription().length() > 1000) {
+        if ((fields == null || fields.contains("description")) &&
+            club.getDescription() != null && club.getDescription().length() > 1000) {
             throw new IllegalArgumentException("Club description cannot exceed 1000 characters");
         }
         
-        if (club.getAdvisorEmail() != null && !club.getAdvisorEmail().trim().isEmpty()) {
+        if ((fields == null || fields.contains("advisorEmail")) &&
+            club.getAdvisorEmail() != null && !club.getAdvisorEmail().trim().isEmpty()) {
             if (!isValidEmail(club.getAdvisorEmail())) {
                 throw new IllegalArgumentException("Invalid advisor email format");
             }
         }
         
-        if (club.getMaxMembers() != null && club.getMaxMembers() < 1) {
+        if ((fields == null || fields.contains("maxMembers")) &&
+            club.getMaxMembers() != null && club.getMaxMembers() < 1) {
             throw new IllegalArgumentException("Maximum members must be at least 1");
         }
     }
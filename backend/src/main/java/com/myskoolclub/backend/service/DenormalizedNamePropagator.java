@@ -0,0 +1,188 @@
+package com.myskoolclub.backend.service;
+
+import com.myskoolclub.backend.model.Checkout;
+import com.myskoolclub.backend.model.Club;
+import com.myskoolclub.backend.model.Invoice;
+import com.myskoolclub.backend.model.Member;
+import com.myskoolclub.backend.model.UserClubRole;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copies renamed club, member and school names into the documents that store them for display
+ * (user_club_roles, checkouts, invoices, clubs and members) in the background.
+ * Renames of the same entity inside the coalescing window collapse into one, and each flush writes
+ * every due rename as one unordered bulk of updateMany operations per collection.
+ */
+@Component
+public class DenormalizedNamePropagator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DenormalizedNamePropagator.class);
+
+    private enum Source { CLUB, MEMBER, SCHOOL }
+
+    private record Key(Source source, String id) {
+    }
+
+    private record Pending(String name, long queuedAt) {
+    }
+
+    // tokensField, when set, holds the search tokens of the copied name and is rewritten with it
+    private record Target(Class<?> entityClass, String idField, String nameField, String tokensField) {
+        Target(Class<?> entityClass, String idField, String nameField) {
+            this(entityClass, idField, nameField, null);
+        }
+    }
+
+    private static final Map<Source, List<Target>> TARGETS = Map.of(
+            Source.CLUB, List.of(
+                    new Target(UserClubRole.class, "clubId", "clubName"),
+                    new Target(Checkout.class, "clubId", "clubName", SearchTokens.CLUB_NAME_FIELD),
+                    new Target(Invoice.class, "clubId", "clubName", SearchTokens.CLUB_NAME_FIELD)),
+            Source.MEMBER, List.of(
+                    new Target(UserClubRole.class, "memberId", "memberName")),
+            Source.SCHOOL, List.of(
+                    new Target(UserClubRole.class, "schoolId", "schoolName"),
+                    new Target(Club.class, "schoolId", "schoolName", SearchTokens.SCHOOL_NAME_FIELD),
+                    new Target(Member.class, "schoolId", "schoolName", SearchTokens.SCHOOL_NAME_FIELD)));
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @Value("${app.denormalization.coalesce-window-ms:500}")
+    private long windowMillis;
+
+    private final Map<Key, Pending> pending = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "name-propagator");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void start() {
+        flusher.scheduleWithFixedDelay(this::flushDue, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+    }
+
+    public void clubRenamed(String clubId, String name) {
+        enqueue(Source.CLUB, clubId, name);
+    }
+
+    public void memberRenamed(String memberId, String fullName) {
+        enqueue(Source.MEMBER, memberId, fullName);
+    }
+
+    public void schoolRenamed(String schoolId, String name) {
+        enqueue(Source.SCHOOL, schoolId, name);
+    }
+
+    /**
+     * Write every pending rename now, regardless of the coalescing window
+     */
+    public void flush() {
+        flush(Long.MAX_VALUE);
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private void enqueue(Source source, String id, String name) {
+        if (id == null || name == null) {
+            return;
+        }
+        // A later rename replaces the pending name but keeps the original place in the window
+        pending.merge(new Key(source, id), new Pending(name, System.currentTimeMillis()),
+                (queued, latest) -> new Pending(latest.name(), queued.queuedAt()));
+    }
+
+    private void flushDue() {
+        try {
+            flush(System.currentTimeMillis() - windowMillis);
+        } catch (RuntimeException e) {
+            // Keep the scheduled task alive for the next window
+            logger.error("Name propagation failed: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void flush(long queuedBefore) {
+        Map<Key, Pending> due = new LinkedHashMap<>();
+        for (Map.Entry<Key, Pending> entry : pending.entrySet()) {
+            if (entry.getValue().queuedAt() <= queuedBefore && pending.remove(entry.getKey(), entry.getValue())) {
+                due.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+
+        Map<Class<?>, BulkOperations> bulks = new LinkedHashMap<>();
+        for (Map.Entry<Key, Pending> entry : due.entrySet()) {
+            String name = entry.getValue().name();
+            for (Target target : TARGETS.get(entry.getKey().source())) {
+                // Skip documents that already carry the name so unchanged rows are not rewritten
+                Query query = Query.query(Criteria.where(target.idField()).is(entry.getKey().id())
+                        .and(target.nameField()).ne(name));
+                Update update = new Update().set(target.nameField(), name);
+                if (target.tokensField() != null) {
+                    update.set(target.tokensField(), SearchTokens.of(name));
+                }
+                bulks.computeIfAbsent(target.entityClass(),
+                                entityClass -> mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, entityClass))
+                        .updateMulti(query, update);
+            }
+        }
+
+        boolean failed = false;
+        for (Map.Entry<Class<?>, BulkOperations> bulk : bulks.entrySet()) {
+            try {
+                bulk.getValue().execute();
+                if (bulk.getKey() == Club.class) {
+                    // Cached clubs still carry the old school name
+                    referenceDataCache.evictAllClubs();
+                    invalidationBus.publish(CacheInvalidationBus.Entity.CLUB, null, null);
+                }
+            } catch (DataAccessException e) {
+                failed = true;
+                logger.warn("Could not propagate names to {}: {}", bulk.getKey().getSimpleName(), e.getMessage());
+            }
+        }
+        if (failed) {
+            // Retry on the next flush unless a newer rename of the same entity is already queued
+            due.forEach(pending::putIfAbsent);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.myskoolclub.backend.service;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Allocates invoice and checkout numbers from a per prefix, per day counter document.
+ * Each instance reserves a block of sequence values with one atomic findAndModify and hands them out from memory,
+ * so numbers never collide across threads or instances and most allocations need no round trip.
+ * Values left in a block when the day rolls over or the instance stops are skipped, never reused.
+ */
+@Component
+public class DocumentNumberAllocator {
+
+    private static final String COLLECTION = "document_sequences";
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter MINUTE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmm");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${app.numbering.block-size:100}")
+    private int blockSize;
+
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    /**
+     * Next number in the format PREFIX-YYYYMMDDHHmm-XXXX-NNNN, where XXXX is the first 4 characters of the creator's name
+     * and NNNN is the day's sequence for the prefix (widening past 4 digits when needed)
+     */
+    public String nextNumber(String prefix, String createdByName) {
+        LocalDateTime now = LocalDateTime.now();
+        long sequence = nextSequence(prefix, now.format(DAY_FORMAT));
+        return String.format("%s-%s-%s-%04d", prefix, now.format(MINUTE_FORMAT), userPart(createdByName), sequence);
+    }
+
+    private long nextSequence(String prefix, String day) {
+        Block block = blocks.computeIfAbsent(prefix, p -> new Block());
+        synchronized (block) {
+            if (!day.equals(block.day) || block.next > block.last) {
+                long last = reserve(prefix + "-" + day);
+                block.day = day;
+                block.next = last - blockSize + 1;
+                block.last = last;
+            }
+            return block.next++;
+        }
+    }
+
+    /**
+     * Atomically advance the counter by one block and return the last value of the reserved block
+     */
+    private long reserve(String key) {
+        if (blockSize < 1) {
+            throw new IllegalStateException("app.numbering.block-size must be at least 1");
+        }
+        Query query = new Query(Criteria.where("_id").is(key));
+        Update update = new Update().inc("value", blockSize);
+        Document counter = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), Document.class, COLLECTION);
+        if (counter == null) {
+            throw new IllegalStateException("Could not reserve sequence block for " + key);
+        }
+        return ((Number) counter.get("value")).longValue();
+    }
+
+    private static String userPart(String createdByName) {
+        // First 4 characters of user name (uppercase, no spaces), padded with 'X' if shorter
+        String userPart = createdByName != null ? createdByName.replaceAll("\\s+", "").toUpperCase() : "";
+        if (userPart.length() > 4) {
+            return userPart.substring(0, 4);
+        }
+        return String.format("%-4s", userPart).replace(' ', 'X');
+    }
+
+    private static final class Block {
+        private String day;
+        private long next = 1;
+        private long last = 0;
+    }
+}
@@ -0,0 +1,566 @@
+package com.myskoolclub.backend.service;
+
+import com.myskoolclub.backend.model.Announcement;
+import com.myskoolclub.backend.model.Checkout;
+import com.myskoolclub.backend.model.CheckoutItem;
+import com.myskoolclub.backend.model.Club;
+import com.myskoolclub.backend.model.Invoice;
+import com.myskoolclub.backend.model.LineItem;
+import com.myskoolclub.backend.model.Member;
+import com.myskoolclub.backend.model.School;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.MultiReader;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-process Lucene index behind the admin global search. Every school has its own in-memory index of its
+ * active clubs, members and announcements and of its clubs' checkouts and invoices. A school is built from
+ * Mongo at startup, on its first search or on demand, and is then kept current by the services calling
+ * index/remove after each write; changes are visible to the next search through near-real-time readers.
+ * Statuses are not indexed, so approvals, returns and other workflow transitions need no hook.
+ * Every word of a query must match a term exactly, by prefix or within one or two typos, and exact
+ * and title matches rank first.
+ */
+@Component
+public class GlobalSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(GlobalSearchIndex.class);
+
+    public enum Type { CLUB, MEMBER, CHECKOUT, INVOICE, ANNOUNCEMENT }
+
+    public record Hit(Type type, String id, String schoolId, String clubId, String clubName,
+                      String title, String subtitle, float score) {
+    }
+
+    // Deeper pages are refused rather than collecting ever longer top-N lists
+    public static final int MAX_RESULT_WINDOW = 1000;
+
+    private static final String UID = "uid";
+    private static final String TYPE = "type";
+    private static final String ID = "id";
+    private static final String SCHOOL_ID = "schoolId";
+    private static final String CLUB_ID = "clubId";
+    private static final String ROLE = "role";
+    private static final String TITLE = "title";
+    private static final String SUBTITLE = "subtitle";
+    private static final String TITLE_TERMS = "titleTerms";
+    private static final String TEXT = "text";
+
+    private static final int FUZZY_MIN_LENGTH = 4;
+    private static final Analyzer ANALYZER = new StandardAnalyzer();
+
+    private record ClubRef(String schoolId, String name) {
+    }
+
+    // What one entity contributes to the index; a null schoolId means it is not searchable
+    private record Entry(Type type, String id, String schoolId, String clubId, String role,
+                         String title, String subtitle, String text) {
+
+        String uid() {
+            return GlobalSearchIndex.uid(type, id);
+        }
+
+        Document toDocument() {
+            Document document = new Document();
+            document.add(new StringField(UID, uid(), Field.Store.NO));
+            document.add(new StringField(TYPE, type.name(), Field.Store.YES));
+            document.add(new StringField(ID, id, Field.Store.YES));
+            document.add(new StringField(SCHOOL_ID, schoolId, Field.Store.YES));
+            if (clubId != null) {
+                document.add(new StringField(CLUB_ID, clubId, Field.Store.YES));
+            }
+            if (role != null) {
+                document.add(new StringField(ROLE, role, Field.Store.NO));
+            }
+            if (title != null) {
+                document.add(new StoredField(TITLE, title));
+            }
+            if (subtitle != null) {
+                document.add(new StoredField(SUBTITLE, subtitle));
+            }
+            document.add(new TextField(TITLE_TERMS, SearchTokens.normalize(title), Field.Store.NO));
+            document.add(new TextField(TEXT, text, Field.Store.NO));
+            return document;
+        }
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final Map<String, Tenant> tenants = new ConcurrentHashMap<>();
+    // The school whose index holds each entity, so a move or removal only touches that index
+    private final Map<String, String> locations = new ConcurrentHashMap<>();
+    // School and name of every known club, active or not, for its checkouts and invoices
+    private final Map<String, ClubRef> clubs = new ConcurrentHashMap<>();
+
+    /**
+     * One page of the hits for every word of the query, best first. Searches the given schools, or every
+     * loaded school when schoolIds is null, optionally limited to some entity types. Members with the
+     * APP_ADMIN role are left out unless includeAppAdmins is set.
+     */
+    public Page<Hit> search(String query, Collection<String> schoolIds, Collection<Type> types,
+                            boolean includeAppAdmins, Pageable pageable) {
+        if (pageable.getOffset() + pageable.getPageSize() > MAX_RESULT_WINDOW) {
+            throw new IllegalArgumentException("Search results are limited to the first " + MAX_RESULT_WINDOW + " hits");
+        }
+        BooleanQuery matches = matchQuery(query);
+        if (matches == null) {
+            return Page.empty(pageable);
+        }
+        BooleanQuery.Builder filtered = new BooleanQuery.Builder().add(matches, Occur.MUST);
+        if (types != null && !types.isEmpty()) {
+            BooleanQuery.Builder anyType = new BooleanQuery.Builder();
+            types.forEach(type -> anyType.add(new TermQuery(new Term(TYPE, type.name())), Occur.SHOULD));
+            filtered.add(anyType.build(), Occur.FILTER);
+        }
+        if (!includeAppAdmins) {
+            filtered.add(new TermQuery(new Term(ROLE, "APP_ADMIN")), Occur.MUST_NOT);
+        }
+
+        List<SearcherManager> managers = new ArrayList<>();
+        List<IndexSearcher> searchers = new ArrayList<>();
+        try {
+            for (String schoolId : schoolIds == null ? new ArrayList<>(tenants.keySet()) : schoolIds) {
+                acquire(schoolId, schoolIds != null, managers, searchers);
+            }
+            if (searchers.isEmpty()) {
+                return Page.empty(pageable);
+            }
+            return searchers.size() == 1
+                    ? collect(searchers.get(0), filtered.build(), pageable)
+                    : collectAcross(searchers, filtered.build(), pageable);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            for (int i = 0; i < searchers.size(); i++) {
+                release(managers.get(i), searchers.get(i));
+            }
+        }
+    }
+
+    /**
+     * Add, replace or drop a saved club, member, checkout, invoice or announcement; other objects are ignored
+     */
+    public void index(Object entity) {
+        Entry entry = entryOf(entity);
+        if (entry == null) {
+            return;
+        }
+        String uid = entry.uid();
+        String previous = entry.schoolId() == null ? locations.remove(uid) : locations.put(uid, entry.schoolId());
+        if (previous != null && !previous.equals(entry.schoolId())) {
+            update(previous, false, tenant -> tenant.delete(new Term(UID, uid)));
+        }
+        if (entry.schoolId() != null) {
+            update(entry.schoolId(), true, tenant -> tenant.put(entry));
+        }
+    }
+
+    public void remove(Type type, String id) {
+        if (id == null) {
+            return;
+        }
+        String uid = uid(type, id);
+        String schoolId = locations.remove(uid);
+        if (schoolId != null) {
+            update(schoolId, false, tenant -> tenant.delete(new Term(UID, uid)));
+        }
+    }
+
+    /**
+     * Drop a deleted club together with its checkouts and invoices
+     */
+    public void removeClub(String clubId) {
+        ClubRef club = clubs.remove(clubId);
+        String uid = uid(Type.CLUB, clubId);
+        locations.remove(uid);
+        if (club != null && club.schoolId() != null) {
+            update(club.schoolId(), false, tenant -> {
+                tenant.delete(new Term(UID, uid));
+                tenant.delete(new Term(CLUB_ID, clubId));
+            });
+        }
+    }
+
+    public void dropSchool(String schoolId) {
+        Tenant tenant = tenants.remove(schoolId);
+        if (tenant != null) {
+            tenant.close();
+        }
+        locations.values().removeIf(schoolId::equals);
+        clubs.values().removeIf(club -> schoolId.equals(club.schoolId()));
+    }
+
+    /**
+     * Rebuild one school's index from Mongo and return its document count. Writes to the school wait
+     * for the rebuild, and searches keep using the previous index until it is swapped in.
+     */
+    public int rebuild(String schoolId) {
+        Tenant rebuilt = tenants.compute(schoolId, (id, previous) -> {
+            Tenant tenant = build(id);
+            if (previous != null) {
+                previous.close();
+            }
+            return tenant;
+        });
+        return rebuilt.size();
+    }
+
+    /**
+     * Rebuild every school and drop the indexes of schools that no longer exist; returns the document count
+     */
+    public long rebuildAll() {
+        Query ids = new Query();
+        ids.fields().include("_id");
+        Set<String> schoolIds = new HashSet<>();
+        long documents = 0;
+        for (School school : mongoTemplate.find(ids, School.class)) {
+            schoolIds.add(school.getId());
+            documents += rebuild(school.getId());
+        }
+        for (String schoolId : new ArrayList<>(tenants.keySet())) {
+            if (!schoolIds.contains(schoolId)) {
+                dropSchool(schoolId);
+            }
+        }
+        return documents;
+    }
+
+    public int getLoadedSchoolCount() {
+        return tenants.size();
+    }
+
+    // Applied inside the map's bin lock, so a change never lands in an index that a rebuild is replacing
+    private void update(String schoolId, boolean loadIfAbsent, Consumer<Tenant> change) {
+        try {
+            if (loadIfAbsent) {
+                tenants.compute(schoolId, (id, tenant) -> {
+                    if (tenant == null) {
+                        // The saved entity is read from Mongo along with the rest of the school
+                        return build(id);
+                    }
+                    change.accept(tenant);
+                    tenant.refresh();
+                    return tenant;
+                });
+            } else {
+                tenants.computeIfPresent(schoolId, (id, tenant) -> {
+                    change.accept(tenant);
+                    tenant.refresh();
+                    return tenant;
+                });
+            }
+        } catch (UncheckedIOException e) {
+            // The Mongo write already succeeded; the next rebuild of the school picks it up
+            logger.error("Search index update failed for school {}: {}", schoolId, e.getMessage());
+        }
+    }
+
+    private Tenant build(String schoolId) {
+        Tenant tenant = new Tenant();
+        List<String> clubIds = new ArrayList<>();
+        try (Stream<Club> stream = mongoTemplate.stream(Query.query(Criteria.where("schoolId").is(schoolId)), Club.class)) {
+            stream.forEach(club -> {
+                clubIds.add(club.getId());
+                add(tenant, entryOf(club));
+            });
+        }
+        addAll(tenant, Query.query(Criteria.where("schoolId").is(schoolId).and("isActive").is(true)), Member.class);
+        addAll(tenant, Query.query(Criteria.where("schoolId").is(schoolId).and("active").is(true)), Announcement.class);
+        addAll(tenant, Query.query(Criteria.where("clubId").in(clubIds)), Checkout.class);
+        addAll(tenant, Query.query(Criteria.where("clubId").in(clubIds)), Invoice.class);
+        tenant.refresh();
+        return tenant;
+    }
+
+    private <T> void addAll(Tenant tenant, Query query, Class<T> entityClass) {
+        try (Stream<T> stream = mongoTemplate.stream(query, entityClass)) {
+            stream.forEach(entity -> add(tenant, entryOf(entity)));
+        }
+    }
+
+    private void add(Tenant tenant, Entry entry) {
+        if (entry != null && entry.schoolId() != null) {
+            tenant.put(entry);
+            locations.put(entry.uid(), entry.schoolId());
+        }
+    }
+
+    private Entry entryOf(Object entity) {
+        if (entity instanceof Club club && club.getId() != null) {
+            clubs.put(club.getId(), new ClubRef(club.getSchoolId(), club.getName()));
+            return new Entry(Type.CLUB, club.getId(), club.isActive() ? club.getSchoolId() : null, null, null,
+                    club.getName(), club.getCategory(),
+                    text(club.getName(), club.getCategory(), club.getDescription(), club.getAdvisorName(),
+                            club.getAdvisorEmail(), club.getMeetingLocation(), club.getTags()));
+        }
+        if (entity instanceof Member member && member.getId() != null) {
+            String name = Stream.of(member.getFirstName(), member.getLastName())
+                    .filter(Objects::nonNull).collect(Collectors.joining(" "));
+            return new Entry(Type.MEMBER, member.getId(), member.isActive() ? member.getSchoolId() : null, null,
+                    member.getRole(), name, member.getEmail(),
+                    text(name, member.getEmail(), member.getStudentId(), member.getPhoneNumber(), member.getMemberType()));
+        }
+        if (entity instanceof Checkout checkout && checkout.getId() != null) {
+            List<String> items = new ArrayList<>();
+            if (checkout.getCheckoutItems() != null) {
+                for (CheckoutItem item : checkout.getCheckoutItems()) {
+                    items.add(item.getItemName());
+                    items.add(item.getItemType());
+                }
+            }
+            return new Entry(Type.CHECKOUT, checkout.getId(), schoolOfClub(checkout.getClubId()), checkout.getClubId(),
+                    null, checkout.getCheckoutNumber(), checkout.getBorrowerName(),
+                    text(checkout.getCheckoutNumber(), checkout.getBorrowerName(), checkout.getBorrowerEmail(),
+                            items, checkout.getNotes()));
+        }
+        if (entity instanceof Invoice invoice && invoice.getId() != null) {
+            List<String> lines = new ArrayList<>();
+            if (invoice.getLineItems() != null) {
+                for (LineItem line : invoice.getLineItems()) {
+                    lines.add(line.getDescription());
+                }
+            }
+            return new Entry(Type.INVOICE, invoice.getId(), schoolOfClub(invoice.getClubId()), invoice.getClubId(),
+                    null, invoice.getInvoiceNumber(), invoice.getBillToName(),
+                    text(invoice.getInvoiceNumber(), invoice.getBillToName(), invoice.getBillToEmail(),
+                            lines, invoice.getNotes()));
+        }
+        if (entity instanceof Announcement announcement && announcement.getId() != null) {
+            return new Entry(Type.ANNOUNCEMENT, announcement.getId(),
+                    announcement.isActive() ? announcement.getSchoolId() : null, null, null,
+                    announcement.getTitle(), announcement.getCreatedByName(),
+                    text(announcement.getTitle(), announcement.getContent(), announcement.getCreatedByName()));
+        }
+        return null;
+    }
+
+    private String schoolOfClub(String clubId) {
+        if (clubId == null) {
+            return null;
+        }
+        ClubRef club = clubs.get(clubId);
+        if (club == null) {
+            Query byId = Query.query(Criteria.where("_id").is(clubId));
+            byId.fields().include("schoolId", "name");
+            Club stored = mongoTemplate.findOne(byId, Club.class);
+            if (stored == null) {
+                return null;
+            }
+            club = new ClubRef(stored.getSchoolId(), stored.getName());
+            clubs.put(clubId, club);
+        }
+        return club.schoolId();
+    }
+
+    // Acquires the school's current searcher, retrying once if a rebuild closed the index in the meantime
+    private void acquire(String schoolId, boolean loadIfAbsent, List<SearcherManager> managers,
+                         List<IndexSearcher> searchers) throws IOException {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Tenant tenant = loadIfAbsent ? tenants.computeIfAbsent(schoolId, this::build) : tenants.get(schoolId);
+            if (tenant == null) {
+                return;
+            }
+            try {
+                searchers.add(tenant.searchers.acquire());
+                managers.add(tenant.searchers);
+                return;
+            } catch (AlreadyClosedException e) {
+                // Replaced by a rebuild; the next attempt reads the new index from the map
+            }
+        }
+    }
+
+    private static void release(SearcherManager manager, IndexSearcher searcher) {
+        try {
+            manager.release(searcher);
+        } catch (IOException e) {
+            logger.warn("Could not release search index reader: {}", e.getMessage());
+        }
+    }
+
+    private Page<Hit> collectAcross(List<IndexSearcher> searchers, BooleanQuery query, Pageable pageable) throws IOException {
+        IndexReader[] readers = new IndexReader[searchers.size()];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = searchers.get(i).getIndexReader();
+        }
+        // Takes its own reference on each school's reader and gives it back on close, leaving them open
+        try (MultiReader reader = new MultiReader(readers, false)) {
+            return collect(new IndexSearcher(reader), query, pageable);
+        }
+    }
+
+    private Page<Hit> collect(IndexSearcher searcher, BooleanQuery query, Pageable pageable) throws IOException {
+        int offset = (int) pageable.getOffset();
+        TopDocs top = searcher.search(query, offset + pageable.getPageSize());
+        long total = top.totalHits.relation == TotalHits.Relation.EQUAL_TO ? top.totalHits.value : searcher.count(query);
+        StoredFields storedFields = searcher.storedFields();
+        List<Hit> hits = new ArrayList<>();
+        for (int i = offset; i < top.scoreDocs.length; i++) {
+            ScoreDoc scoreDoc = top.scoreDocs[i];
+            Document document = storedFields.document(scoreDoc.doc);
+            String clubId = document.get(CLUB_ID);
+            ClubRef club = clubId == null ? null : clubs.get(clubId);
+            hits.add(new Hit(Type.valueOf(document.get(TYPE)), document.get(ID), document.get(SCHOOL_ID), clubId,
+                    club == null ? null : club.name(), document.get(TITLE), document.get(SUBTITLE), scoreDoc.score));
+        }
+        return new PageImpl<>(hits, pageable, total);
+    }
+
+    // Every word must match, preferring title words, then exact words, then prefixes, then typos
+    private static BooleanQuery matchQuery(String query) {
+        List<String> words = analyze(SearchTokens.normalize(query));
+        if (words.isEmpty()) {
+            return null;
+        }
+        BooleanQuery.Builder all = new BooleanQuery.Builder();
+        for (String word : words) {
+            BooleanQuery.Builder alternatives = new BooleanQuery.Builder()
+                    .add(new BoostQuery(new TermQuery(new Term(TITLE_TERMS, word)), 4f), Occur.SHOULD)
+                    .add(new BoostQuery(new TermQuery(new Term(TEXT, word)), 2f), Occur.SHOULD)
+                    .add(new PrefixQuery(new Term(TEXT, word)), Occur.SHOULD);
+            if (word.length() >= FUZZY_MIN_LENGTH) {
+                // One typo in short words and two from eight letters; the first letter must be right
+                int maxEdits = word.length() >= 8 ? 2 : 1;
+                alternatives.add(new BoostQuery(new FuzzyQuery(new Term(TEXT, word), maxEdits, 1), 0.5f), Occur.SHOULD);
+            }
+            all.add(alternatives.build(), Occur.MUST);
+        }
+        return all.build();
+    }
+
+    private static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = ANALYZER.tokenStream(TEXT, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    // Accent-folded text of the given strings or collections of strings
+    private static String text(Object... values) {
+        StringJoiner text = new StringJoiner(" ");
+        for (Object value : values) {
+            if (value instanceof Collection<?> collection) {
+                collection.forEach(element -> text.add(element instanceof String s ? SearchTokens.normalize(s) : ""));
+            } else if (value instanceof String s) {
+                text.add(SearchTokens.normalize(s));
+            }
+        }
+        return text.toString();
+    }
+
+    private static String uid(Type type, String id) {
+        return type.name() + ":" + id;
+    }
+
+    private static final class Tenant {
+
+        private final IndexWriter writer;
+        private final SearcherManager searchers;
+
+        Tenant() {
+            try {
+                writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(ANALYZER));
+                searchers = new SearcherManager(writer, null);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void put(Entry entry) {
+            try {
+                writer.updateDocument(new Term(UID, entry.uid()), entry.toDocument());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void delete(Term term) {
+            try {
+                writer.deleteDocuments(term);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        // Opens a reader that sees every change so far, without a commit
+        void refresh() {
+            try {
+                searchers.maybeRefreshBlocking();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        int size() {
+            return writer.getDocStats().numDocs;
+        }
+
+        void close() {
+            try {
+                searchers.close();
+                writer.close();
+            } catch (IOException e) {
+                logger.warn("Could not close search index: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -3,24 +3,59 @@ package com.myskoolclub.backend.service;
 import com.myskoolclub.backend.model.Invoice;
 import com.myskoolclub.backend.repository.InvoiceRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Service
 public class InvoiceService {
     
+    private static final Map<String, String> SORTABLE_FIELDS = Map.of(
+            "invoicenumber", "invoiceNumber",
+            "clubname", "clubName",
+            "status", "status",
+            "issuedate", "issueDate",
+            "duedate", "dueDate",
+            "totalamount", "totalAmount",
+            "createdat", "createdAt");
+    
+    private static final Criteria PENDING_APPROVAL = Criteria.where("approvalStatus").is("PENDING");
+    
     @Autowired
     private InvoiceRepository invoiceRepository;
     
+    @Autowired
+    private SearchQueryExecutor searchQueryExecutor;
+    
+    @Autowired
+    private DocumentNumberAllocator documentNumberAllocator;
+    
+    @Autowired
+    private StateTransitionExecutor stateTransitionExecutor;
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    private GlobalSearchIndex searchIndex;
+    
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+    
     // Create operations
     public Invoice createInvoice(Invoice invoice) {
         validateInvoice(invoice);
@@ -28,7 +63,7 @@ public class InvoiceService {
         // Generate invoice number if not provided
         if (invoice.getInvoiceNumber() == null || invoice.getInvoiceNumber().trim().isEmpty()) {
             String userName = invoice.getCreatedByName() != null ? invoice.getCreatedByName() : "USER";
-            invoice.setInvoiceNumber(generateInvoiceNumber(userName));
+            invoice.setInvoiceNumber(documentNumberAllocator.nextNumber("INV", userName));
         } else {
             // Check for duplicate invoice number
             if (invoiceRepository.existsByInvoiceNumber(invoice.getInvoiceNumber())) {
@@ -47,7 +82,10 @@ public class InvoiceService {
         // Calculate totals
         invoice.calculateTotals();
         
-        return invoiceRepository.save(invoice);
+        Invoice savedInvoice = invoiceRepository.save(invoice);
+        searchIndex.index(savedInvoice);
+        invalidationBus.publish(CacheInvalidationBus.Entity.INVOICE, savedInvoice.getId(), null);
+        return savedInvoice;
     }
     
     // Read operations
@@ -91,152 +129,74 @@ public class InvoiceService {
         return invoiceRepository.findOverdueInvoices(LocalDate.now());
     }
     
+    // Keyword searches rank $text matches by relevance and fall back to word prefixes for partial words
     public List<Invoice> searchInvoicesByKeyword(String keyword) {
-        return invoiceRepository.searchInvoicesByKeyword(keyword);
+        return searchQueryExecutor.findText(keyword, null, keywordPrefixes(null, keyword), Invoice.class);
     }
     
     public Page<Invoice> searchInvoicesByKeyword(String keyword, Pageable pageable) {
-        return invoiceRepository.searchInvoicesByKeyword(keyword, pageable);
+        return searchQueryExecutor.findTextPage(keyword, null, keywordPrefixes(null, keyword),
+                pageable, Invoice.class);
     }
     
     public List<Invoice> searchInvoicesByClubAndKeyword(String clubId, String keyword) {
-        return invoiceRepository.searchInvoicesByClubAndKeyword(clubId, keyword);
+        return searchQueryExecutor.findText(keyword, Criteria.where("clubId").is(clubId),
+                keywordPrefixes(clubId, keyword), Invoice.class);
     }
     
     public Page<Invoice> searchInvoicesByClubAndKeyword(String clubId, String keyword, Pageable pageable) {
-        return invoiceRepository.searchInvoicesByClubAndKeyword(clubId, keyword, pageable);
+        return searchQueryExecutor.findTextPage(keyword, Criteria.where("clubId").is(clubId),
+                keywordPrefixes(clubId, keyword), pageable, Invoice.class);
+    }
+    
+    // Prefix matches on the invoice number, bill-to name and notes, and on the club name unless the
+    // search is already limited to one club
+    private Criteria keywordPrefixes(String clubId, String keyword) {
+        SearchCriteriaBuilder builder = SearchCriteriaBuilder.create().is("clubId", clubId);
+        if (clubId == null) {
+            builder.prefixAny(keyword, SearchTokens.FIELD, SearchTokens.CLUB_NAME_FIELD);
+        } else {
+            builder.prefixAny(keyword, SearchTokens.FIELD);
+        }
+        return builder.build();
     }
     
     // Advanced search method
-    public List<Invoice> advancedSearchInvoices(String search, String clubId, String status, 
+    public Page<Invoice> advancedSearchInvoices(String search, String clubId, String status, 
                                                LocalDate issueDateFrom, LocalDate issueDateTo,
                                                LocalDate dueDateFrom, LocalDate dueDateTo,
                                                BigDecimal minAmount, BigDecimal maxAmount,
-                                               String sortBy, String sortDirection) {
+                                               String sortBy, String sortDirection, Pageable pageable) {
         
-        List<Invoice> invoices = invoiceRepository.findAll();
+        Criteria criteria = SearchCriteriaBuilder.create()
+                .is("clubId", clubId)
+                .isUpperCase("status", status)
+                .between("issueDate", issueDateFrom, issueDateTo)
+                .between("dueDate", dueDateFrom, dueDateTo)
+                .decimalBetween("totalAmount", minAmount, maxAmount)
+                .prefixAny(search, SearchTokens.FIELD, SearchTokens.CLUB_NAME_FIELD)
+                .build();
         
-        // Apply filters
-        invoices = invoices.stream()
-                .filter(invoice -> {
-                    // Search filter (invoice number, club name, bill to name, notes)
-                    if (search != null && !search.trim().isEmpty()) {
-                        String searchLower = search.toLowerCase();
-                        return (invoice.getInvoiceNumber() != null && invoice.getInvoiceNumber().toLowerCase().contains(searchLower)) ||
-                               (invoice.getClubName() != null && invoice.getClubName().toLowerCase().contains(searchLower)) ||
-                               (invoice.getBillToName() != null && invoice.getBillToName().toLowerCase().contains(searchLower)) ||
-                               (invoice.getNotes() != null && invoice.getNotes().toLowerCase().contains(searchLower));
-                    }
-                    return true;
-                })
-                .filter(invoice -> {
-                    // Club filter
-                    if (clubId != null && !clubId.trim().isEmpty()) {
-                        return invoice.getClubId().equals(clubId);
-                    }
-                    return true;
-                })
-                .filter(invoice -> {
-                    // Status filter
-                    if (status != null && !status.trim().isEmpty()) {
-                        return invoice.getStatus() != null && invoice.getStatus().equalsIgnoreCase(status);
-                    }
-                    return true;
-                })
-                .filter(invoice -> {
-                    // Issue date range filter
-                    if (issueDateFrom != null && invoice.getIssueDate() != null) {
-                        if (invoice.getIssueDate().isBefore(issueDateFrom)) {
-                            return false;
-                        }
-                    }
-                    if (issueDateTo != null && invoice.getIssueDate() != null) {
-                        if (invoice.getIssueDate().isAfter(issueDateTo)) {
-                            return false;
-                        }
-                    }
-                    return true;
-                })
-                .filter(invoice -> {
-                    // Due date range filter
-                    if (dueDateFrom != null && invoice.getDueDate() != null) {
-                        if (invoice.getDueDate().isBefore(dueDateFrom)) {
-                            return false;
-                        }
-                    }
-                    if (dueDateTo != null && invoice.getDueDate() != null) {
-                        if (invoice.getDueDate().isAfter(dueDateTo)) {
-                            return false;
-                        }
-                    }
-                    return true;
-                })
-                .filter(invoice -> {
-                    // Amount range filter
-                    if (minAmount != null && invoice.getTotalAmount() != null) {
-                        if (invoice.getTotalAmount().compareTo(minAmount) < 0) {
-                            return false;
-                        }
-                    }
-                    if (maxAmount != null && invoice.getTotalAmount() != null) {
-                        if (invoice.getTotalAmount().compareTo(maxAmount) > 0) {
-                            return false;
-                        }
-                    }
-                    return true;
-                })
-                .sorted((invoice1, invoice2) -> {
-                    // Sorting
-                    int comparison = 0;
-                    String field = sortBy != null ? sortBy : "invoiceNumber";
-                    
-                    switch (field.toLowerCase()) {
-                        case "invoicenumber":
-                            comparison = invoice1.getInvoiceNumber().compareToIgnoreCase(invoice2.getInvoiceNumber());
-                            break;
-                        case "clubname":
-                            String club1 = invoice1.getClubName() != null ? invoice1.getClubName() : "";
-                            String club2 = invoice2.getClubName() != null ? invoice2.getClubName() : "";
-                            comparison = club1.compareToIgnoreCase(club2);
-                            break;
-                        case "status":
-                            String status1 = invoice1.getStatus() != null ? invoice1.getStatus() : "";
-                            String status2 = invoice2.getStatus() != null ? invoice2.getStatus() : "";
-                            comparison = status1.compareToIgnoreCase(status2);
-                            break;
-                        case "issuedate":
-                            if (invoice1.getIssueDate() != null && invoice2.getIssueDate() != null) {
-                                comparison = invoice1.getIssueDate().compareTo(invoice2.getIssueDate());
-                            }
-                            break;
-                        case "duedate":
-                            if (invoice1.getDueDate() != null && invoice2.getDueDate() != null) {
-                                comparison = invoice1.getDueDate().compareTo(invoice2.getDueDate());
-                            }
-                            break;
-                        case "totalamount":
-                            if (invoice1.getTotalAmount() != null && invoice2.getTotalAmount() != null) {
-                                comparison = invoice1.getTotalAmount().compareTo(invoice2.getTotalAmount());
-                            }
-                            break;
-                        case "createdat":
-                            if (invoice1.getCreatedAt() != null && invoice2.getCreatedAt() != null) {
-                                comparison = invoice1.getCreatedAt().compareTo(invoice2.getCreatedAt());
-                            }
-                            break;
-                        default:
-                            comparison = invoice1.getInvoiceNumber().compareToIgnoreCase(invoice2.getInvoiceNumber());
-                    }
-                    
-                    return "desc".equalsIgnoreCase(sortDirection) ? -comparison : comparison;
-                })
-                .collect(Collectors.toList());
+        Sort sort = SearchCriteriaBuilder.sort(sortBy, sortDirection, SORTABLE_FIELDS, "invoiceNumber");
+        return searchQueryExecutor.findPage(criteria,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort), Invoice.class);
+    }
+    
+    // Keyset paginated listing; pass the previous slice's next cursor as after to continue
+    public CursorSlice<Invoice> getInvoicesAfter(String clubId, String status, String keyword,
+                                                 String sortBy, String sortDirection, String after, int size) {
+        Criteria criteria = SearchCriteriaBuilder.create()
+                .is("clubId", clubId)
+                .isUpperCase("status", status)
+                .prefixAny(keyword, SearchTokens.FIELD, SearchTokens.CLUB_NAME_FIELD)
+                .build();
         
-        return invoices;
+        Sort sort = SearchCriteriaBuilder.sort(sortBy, sortDirection, SORTABLE_FIELDS, "invoiceNumber");
+        return searchQueryExecutor.findSlice(criteria, sort, after, size, Invoice.class);
     }
     
     // Update operations
-    public Invoice updateInvoice(String id, Invoice updatedInvoice) {
+    public Invoice updateInvoice(String id, Invoice updatedInvoice, Long expectedVersion) {
         Optional<Invoice> existingInvoiceOpt = invoiceRepository.findById(id);
         
         if (existingInvoiceOpt.isEmpty()) {
@@ -245,44 +205,60 @@ public class InvoiceService {
         
         Invoice existingInvoice = existingInvoiceOpt.get();
         
+        // If-Match precondition; a concurrent write after this read is caught by the version guard on the update
+        if (expectedVersion != null && !expectedVersion.equals(existingInvoice.getVersion())) {
+            throw new OptimisticLockingFailureException("Invoice has been modified by another user");
+        }
+        
         // Prevent editing APPROVED or REJECTED invoices
         if ("APPROVED".equals(existingInvoice.getStatus()) || "REJECTED".equals(existingInvoice.getStatus())) {
             throw new IllegalArgumentException("Cannot edit an invoice that has been " + existingInvoice.getStatus().toLowerCase());
         }
         
-        // Check for duplicate invoice number if changed
-        if (!existingInvoice.getInvoiceNumber().equals(updatedInvoice.getInvoiceNumber())) {
-            if (invoiceRepository.existsByInvoiceNumber(updatedInvoice.getInvoiceNumber())) {
-                throw new IllegalArgumentException("An invoice with number '" + updatedInvoice.getInvoiceNumber() + "' already exists");
-            }
+        // Collect only the fields that actually change
+        PartialUpdate delta = PartialUpdate.using(mongoTemplate.getConverter())
+                .set("invoiceNumber", existingInvoice.getInvoiceNumber(), updatedInvoice.getInvoiceNumber())
+                .set("clubId", existingInvoice.getClubId(), updatedInvoice.getClubId())
+                .set("clubName", existingInvoice.getClubName(), updatedInvoice.getClubName())
+                .set("issueDate", existingInvoice.getIssueDate(), updatedInvoice.getIssueDate())
+                .set("dueDate", existingInvoice.getDueDate(), updatedInvoice.getDueDate())
+                .set("status", existingInvoice.getStatus(), updatedInvoice.getStatus())
+                .set("notes", existingInvoice.getNotes(), updatedInvoice.getNotes())
+                .set("billToName", existingInvoice.getBillToName(), updatedInvoice.getBillToName())
+                .set("billToEmail", existingInvoice.getBillToEmail(), updatedInvoice.getBillToEmail())
+                .set("billToAddress", existingInvoice.getBillToAddress(), updatedInvoice.getBillToAddress())
+                .set("lineItems", existingInvoice.getLineItems(), updatedInvoice.getLineItems());
+        
+        if (delta.isEmpty()) {
+            return existingInvoice;
         }
         
-        // Update fields
-        existingInvoice.setInvoiceNumber(updatedInvoice.getInvoiceNumber());
-        existingInvoice.setClubId(updatedInvoice.getClubId());
-        existingInvoice.setClubName(updatedInvoice.getClubName());
-        existingInvoice.setIssueDate(updatedInvoice.getIssueDate());
-        existingInvoice.setDueDate(updatedInvoice.getDueDate());
-        existingInvoice.setStatus(updatedInvoice.getStatus());
-        existingInvoice.setNotes(updatedInvoice.getNotes());
-        existingInvoice.setBillToName(updatedInvoice.getBillToName());
-        existingInvoice.setBillToEmail(updatedInvoice.getBillToEmail());
-        existingInvoice.setBillToAddress(updatedInvoice.getBillToAddress());
-        existingInvoice.setLineItems(updatedInvoice.getLineItems());
-        existingInvoice.setUpdatedAt(LocalDateTime.now());
+        // Validate the delta
+        validateInvoiceFields(updatedInvoice, delta.getChangedFields());
         
-        // Update tracking fields if provided
-        if (updatedInvoice.getUpdatedBy() != null) {
-            existingInvoice.setUpdatedBy(updatedInvoice.getUpdatedBy());
+        // Check for duplicate invoice number if changed
+        if (delta.isChanged("invoiceNumber") && invoiceRepository.existsByInvoiceNumber(updatedInvoice.getInvoiceNumber())) {
+            throw new IllegalArgumentException("An invoice with number '" + updatedInvoice.getInvoiceNumber() + "' already exists");
         }
-        if (updatedInvoice.getUpdatedByName() != null) {
-            existingInvoice.setUpdatedByName(updatedInvoice.getUpdatedByName());
+        
+        // Totals only move with the line items
+        if (delta.isChanged("lineItems")) {
+            Invoice totals = new Invoice();
+            totals.setLineItems(updatedInvoice.getLineItems());
+            delta.set("subtotal", existingInvoice.getSubtotal(), totals.getSubtotal())
+                 .set("taxAmount", existingInvoice.getTaxAmount(), totals.getTaxAmount())
+                 .set("totalAmount", existingInvoice.getTotalAmount(), totals.getTotalAmount());
         }
         
-        // Calculate totals
-        existingInvoice.calculateTotals();
+        // Update tracking fields if provided
+        delta.setIfPresent("updatedBy", existingInvoice.getUpdatedBy(), updatedInvoice.getUpdatedBy())
+             .setIfPresent("updatedByName", existingInvoice.getUpdatedByName(), updatedInvoice.getUpdatedByName());
         
-        return invoiceRepository.save(existingInvoice);
+        Invoice savedInvoice = delta.apply(mongoTemplate, id, existingInvoice.getVersion(), existingInvoice)
+                .orElseThrow(() -> new OptimisticLockingFailureException("Invoice has been modified by another user"));
+        searchIndex.index(savedInvoice);
+        invalidationBus.publish(CacheInvalidationBus.Entity.INVOICE, savedInvoice.getId(), null);
+        return savedInvoice;
     }
     
     // Delete operations
@@ -301,6 +277,8 @@ public class InvoiceService {
         }
         
         invoiceRepository.deleteById(id);
+        searchIndex.remove(GlobalSearchIndex.Type.INVOICE, id);
+        invalidationBus.publish(CacheInvalidationBus.Entity.INVOICE, id, null);
     }
     
     // Count operations
@@ -316,48 +294,31 @@ public class InvoiceService {
         return invoiceRepository.countByStatus(status);
     }
     
-    /**
-     * Generate invoice number with format: INV-YYYYMMDDHHmm-XXXX-NNNN
-     * INV: Prefix
-     * YYYYMMDDHHmm: Date and time (12 digits)
-     * XXXX: First 4 characters of creator's name (uppercase)
-     * NNNN: Random 4-digit number
-     * Example: INV-202412251430-JOHN-5738
-     */
-    private String generateInvoiceNumber(String createdByName) {
-        // Format: INV-YYYYMMDDHHmm-XXXX-NNNN
-        LocalDateTime now = LocalDateTime.now();
-        String dateTimePart = now.format(DateTimeFormatter.ofPattern("yyyyMMddHHmm"));
-        
-        // Get first 4 characters of user name (uppercase, remove spaces)
-        String userPart = createdByName.replaceAll("\\s+", "").toUpperCase();
-        if (userPart.length() > 4) {
-            userPart = userPart.substring(0, 4);
-        } else {
-            // Pad with 'X' if less than 4 characters
-            userPart = String.format("%-4s", userPart).replace(' ', 'X');
-        }
-        
-        // Generate 4-digit random number
-        int randomNum = (int)(Math.random() * 9000) + 1000; // Random number between 1000-9999
-        
-        return String.format("INV-%s-%s-%04d", dateTimePart, userPart, randomNum);
-    }
-    
     // Validation
     private void validateInvoice(Invoice invoice) {
         if (invoice == null) {
             throw new IllegalArgumentException("Invoice cannot be null");
         }
         
-        if (invoice.getClubId() == null || invoice.getClubId().trim().isEmpty()) {
+        validateInvoiceFields(invoice, null);
+    }
+    
+    // Validate the given fields of an invoice, or every field when fields is null
+    private void validateInvoiceFields(Invoice invoice, Set<String> fields) {
+        if ((fields == null || fields.contains("clubId")) &&
+            (invoice.getClubId() == null || invoice.getClubId().trim().isEmpty())) {
             throw new IllegalArgumentException("Club ID is required");
         }
         
-        if (invoice.getClubName() == null || invoice.getClubName().trim().isEmpty()) {
+        if ((fields == null || fields.contains("clubName")) &&
+            (invoice.getClubName() == null || invoice.getClubName().trim().isEmpty())) {
             throw new IllegalArgumentException("Club name is required");
         }
         
+        if (fields != null && !fields.contains("lineItems")) {
+            return;
+        }
+        
         if (invoice.getLineItems() == null || invoice.getLineItems().isEmpty()) {
             throw new IllegalArgumentException("At least one line item is required");
         }
@@ -387,14 +348,63 @@ public class InvoiceService {
     }
     
     public Invoice save(Invoice invoice) {
-        return invoiceRepository.save(invoice);
+        Invoice savedInvoice = invoiceRepository.save(invoice);
+        searchIndex.index(savedInvoice);
+        invalidationBus.publish(CacheInvalidationBus.Entity.INVOICE, savedInvoice.getId(), null);
+        return savedInvoice;
+    }
+    
+    // Approve a pending invoice in one conditional update; empty when missing, outside clubIds (null means any club) or already decided
+    public Optional<Invoice> approveInvoice(String id, List<String> clubIds, String approverId, String approverName) {
+        return stateTransitionExecutor.apply(id, clubIds, PENDING_APPROVAL,
+                decisionUpdate("APPROVED", approverId, approverName), Invoice.class);
+    }
+    
+    // Reject a pending invoice in one conditional update; empty when missing, outside clubIds or already decided
+    public Optional<Invoice> rejectInvoice(String id, List<String> clubIds, String approverId, String approverName, String rejectionReason) {
+        return stateTransitionExecutor.apply(id, clubIds, PENDING_APPROVAL,
+                decisionUpdate("REJECTED", approverId, approverName).set("rejectionReason", rejectionReason), Invoice.class);
+    }
+    
+    // Approve many pending invoices in one bulk write, reporting the outcome per id
+    public Map<String, StateTransitionExecutor.Outcome> approveInvoices(List<String> ids, List<String> clubIds,
+                                                                        String approverId, String approverName) {
+        return stateTransitionExecutor.applyBatch(ids, clubIds, PENDING_APPROVAL,
+                decisionUpdate("APPROVED", approverId, approverName), approverId, Invoice.class);
+    }
+    
+    // Reject many pending invoices with the same reason in one bulk write, reporting the outcome per id
+    public Map<String, StateTransitionExecutor.Outcome> rejectInvoices(List<String> ids, List<String> clubIds,
+                                                                       String approverId, String approverName, String rejectionReason) {
+        return stateTransitionExecutor.applyBatch(ids, clubIds, PENDING_APPROVAL,
+                decisionUpdate("REJECTED", approverId, approverName).set("rejectionReason", rejectionReason), approverId, Invoice.class);
+    }
+    
+    private Update decisionUpdate(String decision, String approverId, String approverName) {
+        return new Update()
+                .set("approvalStatus", decision)
+                .set("status", decision)
+                .set("approvedBy", approverId)
+                .set("approvedByName", approverName)
+                .set("approvedAt", LocalDateTime.now())
+                .set("updatedBy", approverId)
+                .set("updatedByName", approverName);
     }
     
-    public Page<Invoice> getInvoicesByApprovalStatus(String approvalStatus, Pageable pageable) {
-        return invoiceRepository.findByApprovalStatus(approvalStatus, pageable);
+    // Move an invoice back into the approval queue; empty when missing or already pending
+    public Optional<Invoice> submitInvoiceForApproval(String id) {
+        Update update = new Update()
+                .set("status", "PENDING")
+                .set("approvalStatus", "PENDING");
+        return stateTransitionExecutor.apply(id, null, Criteria.where("approvalStatus").ne("PENDING"), update, Invoice.class);
     }
     
-    public Page<Invoice> getInvoicesByApprovalStatusAndClubIds(String approvalStatus, List<String> clubIds, Pageable pageable) {
-        return invoiceRepository.findByApprovalStatusAndClubIdIn(approvalStatus, clubIds, pageable);
+    // Pending approval queue, served by the (approvalStatus, clubId, createdAt) index; null clubIds means every club
+    public Page<Invoice> getPendingApprovalInvoices(List<String> clubIds, String sortBy, String sortDirection, int page, int size) {
+        Sort sort = SearchCriteriaBuilder.sort(sortBy, sortDirection, SORTABLE_FIELDS, "createdAt");
+        Pageable pageable = PageRequest.of(page, size, sort);
+        return clubIds == null
+                ? invoiceRepository.findByApprovalStatus("PENDING", pageable)
+                : invoiceRepository.findByApprovalStatusAndClubIdIn("PENDING", clubIds, pageable);
     }
 }
\ No newline at end of file
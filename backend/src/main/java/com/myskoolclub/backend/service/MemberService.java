@@ -2,22 +2,71 @@ package com.myskoolclub.backend.service;
 
 import com.myskoolclub.backend.model.Member;
 import com.myskoolclub.backend.repository.MemberRepository;
+import com.myskoolclub.backend.security.MemberPrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class MemberService {
 
+    private static final Map<String, String> SORTABLE_FIELDS = Map.ofEntries(
+            Map.entry("firstname", "firstName"),
+            Map.entry("lastname", "lastName"),
+            Map.entry("email", "email"),
+            Map.entry("membertype", "memberType"),
+            Map.entry("schoolname", "schoolName"),
+            Map.entry("gradelevel", "gradeLevel"),
+            Map.entry("dateofbirth", "dateOfBirth"),
+            Map.entry("city", "city"),
+            Map.entry("state", "state"),
+            Map.entry("phonenumber", "phoneNumber"),
+            Map.entry("gender", "gender"));
+
     @Autowired
     private MemberRepository memberRepository;
 
+    @Autowired
+    private SearchQueryExecutor searchQueryExecutor;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CascadeService cascadeService;
+
+    @Autowired
+    private DenormalizedNamePropagator namePropagator;
+
+    @Autowired
+    private MemberPrincipalCache memberPrincipalCache;
+    
+    @Autowired
+    private MemberSuggestionIndex suggestionIndex;
+
+    @Autowired
+    private GlobalSearchIndex searchIndex;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
     /**
      * Create a new member
      */
@@ -40,7 +89,11 @@ public class MemberService {
             member.setRole("SCHOOL_USER");
         }
         
-        return memberRepository.save(member);
+        Member savedMember = memberRepository.save(member);
+        suggestionIndex.upsert(savedMember);
+        searchIndex.index(savedMember);
+        invalidationBus.publish(CacheInvalidationBus.Entity.MEMBER, savedMember.getId(), savedMember.getSchoolId());
+        return savedMember;
     }
 
     /**
@@ -110,70 +163,84 @@ public class MemberService {
         }
         
         Member existingMember = existingMemberOpt.get();
+        String previousEmail = existingMember.getEmail();
+        
+        // Collect only the fields that actually change
+        PartialUpdate delta = PartialUpdate.using(mongoTemplate.getConverter())
+                .set("firstName", existingMember.getFirstName(), updatedMember.getFirstName())
+                .set("lastName", existingMember.getLastName(), updatedMember.getLastName())
+                .set("email", existingMember.getEmail(), updatedMember.getEmail())
+                .set("memberType", existingMember.getMemberType(), updatedMember.getMemberType())
+                .set("role", existingMember.getRole(), updatedMember.getRole())
+                .set("middleName", existingMember.getMiddleName(), updatedMember.getMiddleName())
+                .set("phoneNumber", existingMember.getPhoneNumber(), updatedMember.getPhoneNumber())
+                .set("dateOfBirth", existingMember.getDateOfBirth(), updatedMember.getDateOfBirth())
+                .set("gender", existingMember.getGender(), updatedMember.getGender())
+                .set("address", existingMember.getAddress(), updatedMember.getAddress())
+                .set("city", existingMember.getCity(), updatedMember.getCity())
+                .set("state", existingMember.getState(), updatedMember.getState())
+                .set("zipCode", existingMember.getZipCode(), updatedMember.getZipCode())
+                .set("country", existingMember.getCountry(), updatedMember.getCountry())
+                .set("parentName", existingMember.getParentName(), updatedMember.getParentName())
+                .set("parentEmail", existingMember.getParentEmail(), updatedMember.getParentEmail())
+                .set("parentPhone", existingMember.getParentPhone(), updatedMember.getParentPhone())
+                .set("emergencyContactName", existingMember.getEmergencyContactName(), updatedMember.getEmergencyContactName())
+                .set("emergencyContactPhone", existingMember.getEmergencyContactPhone(), updatedMember.getEmergencyContactPhone())
+                .set("gradeLevel", existingMember.getGradeLevel(), updatedMember.getGradeLevel())
+                .set("schoolId", existingMember.getSchoolId(), updatedMember.getSchoolId())
+                .set("studentId", existingMember.getStudentId(), updatedMember.getStudentId())
+                .set("enrollmentDate", existingMember.getEnrollmentDate(), updatedMember.getEnrollmentDate());
+        
+        if (delta.isEmpty()) {
+            return existingMember;
+        }
         
-        // Validate mandatory fields
-        validateMandatoryFields(updatedMember);
+        // Validate only what changes; a role change re-checks the fields whose rules depend on it
+        Set<String> fieldsToValidate = new HashSet<>(delta.getChangedFields());
+        if (delta.isChanged("role")) {
+            fieldsToValidate.add("memberType");
+            fieldsToValidate.add("schoolId");
+        }
+        validateMemberFields(updatedMember, fieldsToValidate);
         
         // Check if email is being changed and if new email already exists
-        if (!existingMember.getEmail().equals(updatedMember.getEmail())) {
-            if (memberRepository.existsByEmail(updatedMember.getEmail())) {
-                throw new RuntimeException("A member with email '" + updatedMember.getEmail() + "' already exists");
-            }
+        if (delta.isChanged("email") && memberRepository.existsByEmail(updatedMember.getEmail())) {
+            throw new RuntimeException("A member with email '" + updatedMember.getEmail() + "' already exists");
         }
         
-        // Update fields
-        existingMember.setFirstName(updatedMember.getFirstName());
-        existingMember.setLastName(updatedMember.getLastName());
-        existingMember.setEmail(updatedMember.getEmail());
-        existingMember.setMemberType(updatedMember.getMemberType());
-        existingMember.setRole(updatedMember.getRole());
-        existingMember.setMiddleName(updatedMember.getMiddleName());
-        existingMember.setPhoneNumber(updatedMember.getPhoneNumber());
-        existingMember.setDateOfBirth(updatedMember.getDateOfBirth());
-        existingMember.setGender(updatedMember.getGender());
-        existingMember.setAddress(updatedMember.getAddress());
-        existingMember.setCity(updatedMember.getCity());
-        existingMember.setState(updatedMember.getState());
-        existingMember.setZipCode(updatedMember.getZipCode());
-        existingMember.setCountry(updatedMember.getCountry());
-        existingMember.setParentName(updatedMember.getParentName());
-        existingMember.setParentEmail(updatedMember.getParentEmail());
-        existingMember.setParentPhone(updatedMember.getParentPhone());
-        existingMember.setEmergencyContactName(updatedMember.getEmergencyContactName());
-        existingMember.setEmergencyContactPhone(updatedMember.getEmergencyContactPhone());
-        existingMember.setGradeLevel(updatedMember.getGradeLevel());
-        existingMember.setSchoolId(updatedMember.getSchoolId());
-        existingMember.setStudentId(updatedMember.getStudentId());
-        existingMember.setEnrollmentDate(updatedMember.getEnrollmentDate());
-        existingMember.setUpdatedAt(LocalDateTime.now());
+        Member savedMember = delta.apply(mongoTemplate, id, null, existingMember)
+                .orElseThrow(() -> new RuntimeException("Member not found with id: " + id));
         
-        return memberRepository.save(existingMember);
+        // Drop cached principals under both the old and new email
+        memberPrincipalCache.evict(previousEmail);
+        memberPrincipalCache.evict(savedMember.getEmail());
+        if (delta.isChanged("firstName") || delta.isChanged("lastName")) {
+            namePropagator.memberRenamed(id, savedMember.getFirstName() + " " + savedMember.getLastName());
+        }
+        suggestionIndex.upsert(savedMember);
+        searchIndex.index(savedMember);
+        invalidationBus.publish(CacheInvalidationBus.Entity.MEMBER, id, savedMember.getSchoolId(), previousEmail);
+        return savedMember;
     }
 
     /**
-     * Delete member (soft delete by setting isActive to false)
+     * Delete member (soft delete by setting isActive to false) and deactivate their club roles
      */
-    public void deleteMember(String id) {
-        Optional<Member> memberOpt = memberRepository.findById(id);
-        
-        if (memberOpt.isEmpty()) {
-            throw new RuntimeException("Member not found with id: " + id);
-        }
-        
-        Member member = memberOpt.get();
-        member.setActive(false);
-        member.setUpdatedAt(LocalDateTime.now());
-        memberRepository.save(member);
+    public Map<String, Long> deleteMember(String id) {
+        Map<String, Long> affected = cascadeService.deactivateMember(id);
+        suggestionIndex.remove(id);
+        searchIndex.remove(GlobalSearchIndex.Type.MEMBER, id);
+        return affected;
     }
 
     /**
-     * Permanently delete member
+     * Permanently delete member and their club roles
      */
-    public void permanentlyDeleteMember(String id) {
-        if (!memberRepository.existsById(id)) {
-            throw new RuntimeException("Member not found with id: " + id);
-        }
-        memberRepository.deleteById(id);
+    public Map<String, Long> permanentlyDeleteMember(String id) {
+        Map<String, Long> affected = cascadeService.deleteMember(id);
+        suggestionIndex.remove(id);
+        searchIndex.remove(GlobalSearchIndex.Type.MEMBER, id);
+        return affected;
     }
 
     /**
@@ -189,7 +256,30 @@ public class MemberService {
         Member member = memberOpt.get();
         member.setActive(true);
         member.setUpdatedAt(LocalDateTime.now());
-        return memberRepository.save(member);
+        Member savedMember = memberRepository.save(member);
+        memberPrincipalCache.evict(savedMember.getEmail());
+        suggestionIndex.upsert(savedMember);
+        searchIndex.index(savedMember);
+        invalidationBus.publish(CacheInvalidationBus.Entity.MEMBER, id, savedMember.getSchoolId());
+        return savedMember;
+    }
+
+    /**
+     * Increment the member's club role version so tokens issued before a role change are treated as stale
+     */
+    public void incrementClubRoleVersion(String memberId) {
+        if (memberId == null) {
+            return;
+        }
+        Member member = mongoTemplate.findAndModify(
+            Query.query(Criteria.where("_id").is(memberId)),
+            new Update().inc("clubRoleVersion", 1),
+            FindAndModifyOptions.options().returnNew(true),
+            Member.class);
+        if (member != null) {
+            memberPrincipalCache.evict(member.getEmail());
+            invalidationBus.publish(CacheInvalidationBus.Entity.MEMBER, memberId, member.getSchoolId());
+        }
     }
 
     /**
@@ -199,7 +289,10 @@ public class MemberService {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return getAllActiveMembers();
         }
-        return memberRepository.searchActiveMembers(searchTerm.trim());
+        return searchQueryExecutor.findAll(SearchCriteriaBuilder.create()
+                .is("isActive", true)
+                .prefixAny(searchTerm, SearchTokens.FIELD)
+                .build(), Sort.unsorted(), Member.class);
     }
 
     /**
@@ -233,160 +326,137 @@ public class MemberService {
     /**
      * Advanced search, filter, and sort members
      */
-    public List<Member> advancedSearchMembers(String search, String schoolId, String memberType, 
+    public Page<Member> advancedSearchMembers(String search, String schoolId, String memberType, 
                                             String gradeLevel, String department, String gender,
-                                            String city, String state, String sortBy, String sortDirection) {
-        
-        // Start with all active members
-        List<Member> members = memberRepository.findByIsActive(true);
-        
-        // Apply search filter
-        if (search != null && !search.trim().isEmpty()) {
-            String searchLower = search.toLowerCase().trim();
-            members = members.stream()
-                .filter(member -> 
-                    (member.getFirstName() != null && member.getFirstName().toLowerCase().contains(searchLower)) ||
-                    (member.getLastName() != null && member.getLastName().toLowerCase().contains(searchLower)) ||
-                    (member.getEmail() != null && member.getEmail().toLowerCase().contains(searchLower)) ||
-                    (member.getSchoolName() != null && member.getSchoolName().toLowerCase().contains(searchLower)) ||
-                    (member.getPhoneNumber() != null && member.getPhoneNumber().contains(searchLower)) ||
-                    (member.getStudentId() != null && member.getStudentId().toLowerCase().contains(searchLower))
-                ).toList();
-        }
-        
-        // Apply school filter
-        if (schoolId != null && !schoolId.trim().isEmpty()) {
-            members = members.stream()
-                .filter(member -> schoolId.equals(member.getSchoolId()))
-                .toList();
-        }
+                                            String city, String state, Collection<String> roles,
+                                            String sortBy, String sortDirection, Pageable pageable) {
         
-        // Apply member type filter
-        if (memberType != null && !memberType.trim().isEmpty()) {
-            members = members.stream()
-                .filter(member -> memberType.equalsIgnoreCase(member.getMemberType()))
-                .toList();
-        }
-        
-        // Apply grade level filter (for students)
-        if (gradeLevel != null && !gradeLevel.trim().isEmpty()) {
-            members = members.stream()
-                .filter(member -> gradeLevel.equals(member.getGradeLevel()))
-                .toList();
-        }
-        
-        // Apply department filter (for teachers) - Skip this filter as department field doesn't exist yet
+        // Department filter is skipped as the department field doesn't exist yet
         // TODO: Add department field to Member model if needed for teacher functionality
-        
-        // Apply gender filter
-        if (gender != null && !gender.trim().isEmpty()) {
-            members = members.stream()
-                .filter(member -> gender.equalsIgnoreCase(member.getGender()))
-                .toList();
-        }
-        
-        // Apply city filter
-        if (city != null && !city.trim().isEmpty()) {
-            String cityLower = city.toLowerCase().trim();
-            members = members.stream()
-                .filter(member -> member.getCity() != null && 
-                                member.getCity().toLowerCase().contains(cityLower))
-                .toList();
-        }
-        
-        // Apply state filter
-        if (state != null && !state.trim().isEmpty()) {
-            String stateLower = state.toLowerCase().trim();
-            members = members.stream()
-                .filter(member -> member.getState() != null && 
-                                member.getState().toLowerCase().contains(stateLower))
-                .toList();
-        }
-        
-        // Apply sorting
-        if (sortBy != null && !sortBy.trim().isEmpty()) {
-            boolean ascending = !"desc".equalsIgnoreCase(sortDirection);
-            
-            members = members.stream()
-                .sorted((m1, m2) -> {
-                    String value1 = getMemberFieldValue(m1, sortBy);
-                    String value2 = getMemberFieldValue(m2, sortBy);
-                    
-                    // Handle null values
-                    if (value1 == null && value2 == null) return 0;
-                    if (value1 == null) return ascending ? 1 : -1;
-                    if (value2 == null) return ascending ? -1 : 1;
-                    
-                    int comparison = value1.compareToIgnoreCase(value2);
-                    return ascending ? comparison : -comparison;
-                })
-                .toList();
+        Criteria criteria = SearchCriteriaBuilder.create()
+                .is("isActive", true)
+                .is("schoolId", schoolId)
+                .in("role", roles)
+                .equalsIgnoreCase("memberType", memberType)
+                .is("gradeLevel", gradeLevel)
+                .equalsIgnoreCase("gender", gender)
+                .contains("city", city)
+                .contains("state", state)
+                .prefixAny(search, SearchTokens.FIELD, SearchTokens.SCHOOL_NAME_FIELD)
+                .build();
+        
+        Sort sort = SearchCriteriaBuilder.sort(sortBy, sortDirection, SORTABLE_FIELDS, "lastName");
+        return searchQueryExecutor.findPage(criteria,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort), Member.class);
+    }
+
+    /**
+     * Page through members with the school, active and role filters applied by Mongo.
+     * Null filters are ignored; every word of search must start a word of the name, email, student id or phone.
+     */
+    public Page<Member> findMembers(String schoolId, Boolean isActive, Collection<String> roles,
+                                    String search, Pageable pageable) {
+        Criteria criteria = SearchCriteriaBuilder.create()
+                .is("schoolId", schoolId)
+                .is("isActive", isActive)
+                .in("role", roles)
+                .prefixAny(search, SearchTokens.FIELD)
+                .build();
+        
+        return searchQueryExecutor.findPage(criteria, pageable, Member.class);
+    }
+
+    /**
+     * Keyset paginated listing of active members; pass the previous slice's next cursor as after to continue
+     */
+    public CursorSlice<Member> getActiveMembersAfter(String schoolId, Collection<String> roles,
+                                                     String sortBy, String sortDirection, String after, int size) {
+        Criteria criteria = SearchCriteriaBuilder.create()
+                .is("isActive", true)
+                .is("schoolId", schoolId)
+                .in("role", roles)
+                .build();
+        
+        Sort sort = SearchCriteriaBuilder.sort(sortBy, sortDirection, SORTABLE_FIELDS, "lastName");
+        return searchQueryExecutor.findSlice(criteria, sort, after, size, Member.class);
+    }
+
+    /**
+     * Find active members of a school where every word of the query starts a word of their name or email,
+     * ordered by email. "jo sm" finds John Smith; "john@" finds john@school.org.
+     * Searches limited to school users and admins are answered from the in-memory suggestion index.
+     */
+    public List<Member> findMemberSuggestions(String schoolId, String query, Collection<String> roles, int limit) {
+        if (schoolId != null && roles != null && !roles.isEmpty() && MemberSuggestionIndex.ROLES.containsAll(roles)) {
+            return suggestionIndex.suggest(schoolId, query, roles, limit);
         }
-        
-        return members;
+        Criteria criteria = SearchCriteriaBuilder.create()
+                .is("isActive", true)
+                .is("schoolId", schoolId)
+                .in("role", roles)
+                .prefixAny(query, SearchTokens.FIELD)
+                .build();
+        
+        return searchQueryExecutor.find(criteria, Sort.by(Sort.Direction.ASC, "email"), limit, Member.class);
     }
-    
+
     /**
-     * Helper method to get field value for sorting
+     * Page through the active school users and admins of a school who could be made club admins,
+     * ordered by first and last name, from the in-memory suggestion index
      */
-    private String getMemberFieldValue(Member member, String fieldName) {
-        if (member == null || fieldName == null) return "";
-        
-        return switch (fieldName.toLowerCase()) {
-            case "firstname" -> member.getFirstName();
-            case "lastname" -> member.getLastName();
-            case "email" -> member.getEmail();
-            case "membertype" -> member.getMemberType();
-            case "schoolname" -> member.getSchoolName();
-            case "gradelevel" -> member.getGradeLevel();
-            case "department" -> ""; // Department field doesn't exist yet
-            case "dateofbirth" -> member.getDateOfBirth() != null ? member.getDateOfBirth().toString() : "";
-            case "city" -> member.getCity();
-            case "state" -> member.getState();
-            case "phonenumber" -> member.getPhoneNumber();
-            case "gender" -> member.getGender();
-            default -> member.getLastName(); // Default to lastName
-        };
+    public Page<Member> findClubAdminCandidates(String schoolId, String search, Pageable pageable) {
+        return suggestionIndex.page(schoolId, search, pageable);
     }
 
     /**
      * Validate mandatory fields
      */
     private void validateMandatoryFields(Member member) {
+        validateMemberFields(member, null);
+    }
+    
+    /**
+     * Validate the given fields of a member, or every mandatory field when fields is null
+     */
+    private void validateMemberFields(Member member, Set<String> fields) {
         List<String> errors = new ArrayList<>();
         
-        if (member.getFirstName() == null || member.getFirstName().trim().isEmpty()) {
+        if (checks(fields, "firstName") && (member.getFirstName() == null || member.getFirstName().trim().isEmpty())) {
             errors.add("First name is required");
         }
         
-        if (member.getLastName() == null || member.getLastName().trim().isEmpty()) {
+        if (checks(fields, "lastName") && (member.getLastName() == null || member.getLastName().trim().isEmpty())) {
             errors.add("Last name is required");
         }
         
-        if (member.getEmail() == null || member.getEmail().trim().isEmpty()) {
-            errors.add("Email is required");
-        } else if (!isValidEmail(member.getEmail())) {
-            errors.add("Invalid email format");
+        if (checks(fields, "email")) {
+            if (member.getEmail() == null || member.getEmail().trim().isEmpty()) {
+                errors.add("Email is required");
+            } else if (!isValidEmail(member.getEmail())) {
+                errors.add("Invalid email format");
+            }
         }
         
         // For APP_ADMIN, memberType can be "admin" and schoolId/schoolName are not required
         boolean isAppAdmin = "APP_ADMIN".equals(member.getRole());
         
-        if (member.getMemberType() == null || member.getMemberType().trim().isEmpty()) {
-            errors.add("Member type is required");
-        } else if (!isAppAdmin && !isValidMemberType(member.getMemberType())) {
-            errors.add("Invalid member type. Must be 'student' or 'teacher'");
+        if (checks(fields, "memberType")) {
+            if (member.getMemberType() == null || member.getMemberType().trim().isEmpty()) {
+                errors.add("Member type is required");
+            } else if (!isAppAdmin && !isValidMemberType(member.getMemberType())) {
+                errors.add("Invalid member type. Must be 'student' or 'teacher'");
+            }
         }
         
-        if (!isAppAdmin && (member.getSchoolId() == null || member.getSchoolId().trim().isEmpty())) {
+        if (checks(fields, "schoolId") && !isAppAdmin && (member.getSchoolId() == null || member.getSchoolId().trim().isEmpty())) {
             errors.add("School ID is required");
         }
         
-        if (!isAppAdmin && (member.getSchoolName() == null || member.getSchoolName().trim().isEmpty())) {
+        if (checks(fields, "schoolName") && !isAppAdmin && (member.getSchoolName() == null || member.getSchoolName().trim().isEmpty())) {
             errors.add("School name is required");
         }
         
-        if (member.getPasswordHash() == null || member.getPasswordHash().trim().isEmpty()) {
+        if (checks(fields, "passwordHash") && (member.getPasswordHash() == null || member.getPasswordHash().trim().isEmpty())) {
             errors.add("Password is required");
         }
         
@@ -395,6 +465,10 @@ public class MemberService {
         }
     }
     
+    private static boolean checks(Set<String> fields, String field) {
+        return fields == null || fields.contains(field);
+    }
+    
     private boolean isValidMemberType(String memberType) {
         return memberType != null && 
                (memberType.equalsIgnoreCase("student") || memberType.equalsIgnoreCase("teacher"));
@@ -411,18 +485,4 @@ public class MemberService {
                !email.startsWith("@") &&
                !email.endsWith("@");
     }
-    
-    /**
-     * Get members by school with pagination
-     */
-    public Page<Member> findBySchoolIdAndActiveTrue(String schoolId, Pageable pageable) {
-        return memberRepository.findBySchoolIdAndIsActive(schoolId, true, pageable);
-    }
-    
-    /**
-     * Search members by school and search term with pagination
-     */
-    public Page<Member> findBySchoolIdAndSearchTerm(String schoolId, String searchTerm, Pageable pageable) {
-        return memberRepository.findBySchoolIdAndSearchTerm(schoolId, searchTerm, pageable);
-    }
 }
\ No newline at end of file
@@ -0,0 +1,284 @@
+package com.myskoolclub.backend.service;
+
+import com.myskoolclub.backend.model.Member;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory type-ahead index of the active SCHOOL_USER and SCHOOL_ADMIN members of each school.
+ * A school is loaded with one query the first time it is searched and then kept current by MemberService
+ * writes. Schools idle for longer than the idle timeout, or beyond the most recently used max-schools,
+ * are dropped, and every school is reloaded after max-age to pick up writes made by other instances.
+ * Words are matched like SearchTokens.prefixMatch: every query word must start a token of the
+ * member's name or email, found as a range of the school's sorted token map.
+ */
+@Component
+public class MemberSuggestionIndex {
+
+    public static final Set<String> ROLES = Set.of("SCHOOL_USER", "SCHOOL_ADMIN");
+
+    private record Suggestion(String id, String firstName, String lastName, String email, String role,
+                              String memberType, List<String> tokens) {
+
+        static Suggestion of(Member member) {
+            return new Suggestion(member.getId(), member.getFirstName(), member.getLastName(), member.getEmail(),
+                    member.getRole(), member.getMemberType(),
+                    SearchTokens.of(member.getFirstName(), member.getLastName(), member.getEmail()));
+        }
+
+        boolean hasTokenStartingWith(String prefix) {
+            return tokens.stream().anyMatch(token -> token.startsWith(prefix));
+        }
+
+        Member toMember(String schoolId) {
+            Member member = new Member();
+            member.setId(id);
+            member.setFirstName(firstName);
+            member.setLastName(lastName);
+            member.setEmail(email);
+            member.setRole(role);
+            member.setMemberType(memberType);
+            member.setSchoolId(schoolId);
+            member.setActive(true);
+            return member;
+        }
+    }
+
+    private static final Comparator<String> NULLS_LAST = Comparator.nullsLast(Comparator.naturalOrder());
+    private static final Comparator<Suggestion> BY_EMAIL = Comparator.comparing(Suggestion::email, NULLS_LAST)
+            .thenComparing(Suggestion::id);
+    private static final Comparator<Suggestion> BY_NAME = Comparator.comparing(Suggestion::firstName, NULLS_LAST)
+            .thenComparing(Suggestion::lastName, NULLS_LAST)
+            .thenComparing(Suggestion::id);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${app.member-suggestions.max-schools:200}")
+    private int maxSchools;
+
+    @Value("${app.member-suggestions.idle-minutes:30}")
+    private long idleMinutes;
+
+    @Value("${app.member-suggestions.max-age-minutes:10}")
+    private long maxAgeMinutes;
+
+    private final Map<String, SchoolIndex> schools = new ConcurrentHashMap<>();
+
+    /**
+     * Up to limit members of the school with one of the given roles matching every word of the query, by email
+     */
+    public List<Member> suggest(String schoolId, String query, Collection<String> roles, int limit) {
+        List<Member> members = new ArrayList<>();
+        for (Suggestion suggestion : indexFor(schoolId).match(words(query), roles, BY_EMAIL, limit)) {
+            members.add(suggestion.toMember(schoolId));
+        }
+        return members;
+    }
+
+    /**
+     * One page of the school's matching members ordered by first and last name
+     */
+    public Page<Member> page(String schoolId, String query, Pageable pageable) {
+        List<Suggestion> matches = indexFor(schoolId).match(words(query), ROLES, BY_NAME, Integer.MAX_VALUE);
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        List<Member> content = new ArrayList<>();
+        for (Suggestion suggestion : matches.subList(from, to)) {
+            content.add(suggestion.toMember(schoolId));
+        }
+        return new PageImpl<>(content, pageable, matches.size());
+    }
+
+    /**
+     * Apply a saved member to the index of its school (and drop it from any other), if that school is loaded
+     */
+    public void upsert(Member member) {
+        if (member == null || member.getId() == null) {
+            return;
+        }
+        remove(member.getId());
+        if (member.isActive() && ROLES.contains(member.getRole()) && member.getSchoolId() != null) {
+            Suggestion suggestion = Suggestion.of(member);
+            schools.computeIfPresent(member.getSchoolId(), (schoolId, index) -> {
+                index.put(suggestion);
+                return index;
+            });
+        }
+    }
+
+    public void remove(String memberId) {
+        if (memberId != null) {
+            schools.values().forEach(index -> index.remove(memberId));
+        }
+    }
+
+    public void evict(String schoolId) {
+        schools.remove(schoolId);
+    }
+
+    public void clear() {
+        schools.clear();
+    }
+
+    public int getLoadedSchoolCount() {
+        return schools.size();
+    }
+
+    private SchoolIndex indexFor(String schoolId) {
+        long now = System.currentTimeMillis();
+        SchoolIndex index = schools.get(schoolId);
+        if (index != null && now - index.builtAt > TimeUnit.MINUTES.toMillis(maxAgeMinutes)) {
+            schools.remove(schoolId, index);
+            index = null;
+        }
+        if (index == null) {
+            index = schools.computeIfAbsent(schoolId, this::load);
+            evictCold(now);
+        }
+        index.lastAccess = now;
+        return index;
+    }
+
+    // Computed inside the map's bin lock, so writes to the same school wait until it is loaded
+    private SchoolIndex load(String schoolId) {
+        Query query = Query.query(Criteria.where("schoolId").is(schoolId).and("isActive").is(true).and("role").in(ROLES));
+        query.fields().include("firstName", "lastName", "email", "role", "memberType");
+        SchoolIndex index = new SchoolIndex();
+        for (Member member : mongoTemplate.find(query, Member.class)) {
+            index.put(Suggestion.of(member));
+        }
+        return index;
+    }
+
+    private void evictCold(long now) {
+        long idleMillis = TimeUnit.MINUTES.toMillis(idleMinutes);
+        schools.values().removeIf(index -> now - index.lastAccess > idleMillis);
+        while (schools.size() > maxSchools) {
+            schools.entrySet().stream()
+                    .min(Comparator.comparingLong(entry -> entry.getValue().lastAccess))
+                    .ifPresent(coldest -> schools.remove(coldest.getKey(), coldest.getValue()));
+        }
+    }
+
+    private static List<String> words(String query) {
+        String normalized = SearchTokens.normalize(query);
+        return normalized.isEmpty() ? List.of() : List.of(normalized.split("\\s+"));
+    }
+
+    private static final class SchoolIndex {
+
+        private final long builtAt = System.currentTimeMillis();
+        private volatile long lastAccess = builtAt;
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<String, Suggestion> members = new HashMap<>();
+        private final NavigableMap<String, Set<Suggestion>> tokens = new TreeMap<>();
+        private final NavigableSet<Suggestion> byEmail = new TreeSet<>(BY_EMAIL);
+
+        void put(Suggestion suggestion) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(suggestion.id());
+                members.put(suggestion.id(), suggestion);
+                byEmail.add(suggestion);
+                for (String token : suggestion.tokens()) {
+                    tokens.computeIfAbsent(token, key -> new HashSet<>()).add(suggestion);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(String memberId) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(memberId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void removeLocked(String memberId) {
+            Suggestion existing = members.remove(memberId);
+            if (existing == null) {
+                return;
+            }
+            byEmail.remove(existing);
+            for (String token : existing.tokens()) {
+                Set<Suggestion> holders = tokens.get(token);
+                if (holders != null && holders.remove(existing) && holders.isEmpty()) {
+                    tokens.remove(token);
+                }
+            }
+        }
+
+        List<Suggestion> match(List<String> words, Collection<String> roles, Comparator<Suggestion> order, int limit) {
+            lock.readLock().lock();
+            try {
+                if (words.isEmpty()) {
+                    // Already in email order, so a short suggestion list stops after limit members
+                    Collection<Suggestion> all = order == BY_EMAIL ? byEmail : sorted(members.values(), order);
+                    return take(all, roles, limit);
+                }
+                // Start from the longest word, whose token range holds the fewest members
+                String seed = words.stream().max(Comparator.comparingInt(String::length)).orElseThrow();
+                Set<Suggestion> candidates = new HashSet<>();
+                for (Set<Suggestion> holders : tokens.subMap(seed, true, seed + Character.MAX_VALUE, false).values()) {
+                    candidates.addAll(holders);
+                }
+                List<Suggestion> matches = new ArrayList<>();
+                for (Suggestion candidate : candidates) {
+                    if (words.stream().allMatch(candidate::hasTokenStartingWith)) {
+                        matches.add(candidate);
+                    }
+                }
+                return take(sorted(matches, order), roles, limit);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private static List<Suggestion> sorted(Collection<Suggestion> suggestions, Comparator<Suggestion> order) {
+            List<Suggestion> list = new ArrayList<>(suggestions);
+            list.sort(order);
+            return list;
+        }
+
+        private static List<Suggestion> take(Collection<Suggestion> ordered, Collection<String> roles, int limit) {
+            List<Suggestion> result = new ArrayList<>();
+            for (Suggestion suggestion : ordered) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                if (roles == null || roles.contains(suggestion.role())) {
+                    result.add(suggestion);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.myskoolclub.backend.service;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Collects only the fields whose new value differs from the stored one into a $set/$unset update,
+ * so callers validate and write the delta instead of rewriting the whole document.
+ * Values are compared in their stored form, which also makes embedded objects and lists comparable.
+ */
+public class PartialUpdate {
+
+    private final MongoConverter converter;
+    private final Update update = new Update();
+    private final Set<String> changedFields = new LinkedHashSet<>();
+
+    private PartialUpdate(MongoConverter converter) {
+        this.converter = converter;
+    }
+
+    public static PartialUpdate using(MongoConverter converter) {
+        return new PartialUpdate(converter);
+    }
+
+    /**
+     * Record the field when the new value differs from the current one; a null value unsets it
+     */
+    public PartialUpdate set(String field, Object current, Object value) {
+        if (!Objects.equals(stored(current), stored(value))) {
+            if (value == null) {
+                update.unset(field);
+            } else {
+                update.set(field, value);
+            }
+            changedFields.add(field);
+        }
+        return this;
+    }
+
+    /**
+     * Like set, but a null value means "leave unchanged" (PATCH semantics)
+     */
+    public PartialUpdate setIfPresent(String field, Object current, Object value) {
+        return value == null ? this : set(field, current, value);
+    }
+
+    public boolean isChanged(String field) {
+        return changedFields.contains(field);
+    }
+
+    public Set<String> getChangedFields() {
+        return Collections.unmodifiableSet(changedFields);
+    }
+
+    public boolean isEmpty() {
+        return changedFields.isEmpty();
+    }
+
+    /**
+     * Write the delta with findAndModify, stamping updatedAt, and return the new document.
+     * current is the document the delta was computed against; the search tokens of current with the delta
+     * applied are written by the same findAndModify, since a $set bypasses the save callbacks.
+     * A non-null expectedVersion is matched against the stored @Version and bumped, so the result is empty
+     * when the document was deleted or changed by someone else since it was read.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Optional<T> apply(MongoTemplate mongoTemplate, String id, Long expectedVersion, T current) {
+        Class<T> entityClass = (Class<T>) current.getClass();
+        SearchTokens.refresh(merged(current, entityClass)).forEach(update::set);
+
+        Criteria criteria = Criteria.where("_id").is(id);
+        if (expectedVersion != null) {
+            criteria = criteria.and("version").is(expectedVersion);
+            update.inc("version", 1);
+        }
+        update.set("updatedAt", LocalDateTime.now());
+        return Optional.ofNullable(mongoTemplate.findAndModify(new Query(criteria), update,
+                FindAndModifyOptions.options().returnNew(true), entityClass));
+    }
+
+    // The entity as it will be stored: current with the $set and $unset fields of the delta applied
+    private <T> T merged(T current, Class<T> entityClass) {
+        Document document = new Document();
+        converter.write(current, document);
+        Document updateObject = update.getUpdateObject();
+        Document sets = updateObject.get("$set", Document.class);
+        if (sets != null) {
+            sets.forEach((field, value) -> document.put(field, stored(value)));
+        }
+        Document unsets = updateObject.get("$unset", Document.class);
+        if (unsets != null) {
+            unsets.keySet().forEach(document::remove);
+        }
+        return converter.read(entityClass, document);
+    }
+
+    private Object stored(Object value) {
+        return value == null ? null : converter.convertToMongoType(value);
+    }
+}
@@ -0,0 +1,156 @@
+package com.myskoolclub.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.myskoolclub.backend.model.Club;
+import com.myskoolclub.backend.model.School;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Size-bounded, TTL-evicting Caffeine caches of the club and school reference data read on most requests:
+ * clubs by id, the active clubs of each school and the active schools. SchoolService, ClubService and the
+ * name propagator evict entries on every write that changes them; the TTL only bounds writes made by
+ * other instances. Values are held as stored documents and mapped on each read, so callers are free to
+ * modify what they get back.
+ */
+@Component
+public class ReferenceDataCache {
+
+    private static final String ACTIVE_SCHOOLS = "activeSchools";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final Cache<String, Document> clubsById;
+    private final Cache<String, List<Document>> activeClubsBySchool;
+    private final Cache<String, List<Document>> activeSchools;
+
+    public ReferenceDataCache(@Value("${app.reference-cache.ttl-minutes:10}") long ttlMinutes,
+                              @Value("${app.reference-cache.max-clubs:10000}") long maxClubs,
+                              @Value("${app.reference-cache.max-schools:1000}") long maxSchools) {
+        Duration ttl = Duration.ofMinutes(ttlMinutes);
+        this.clubsById = Caffeine.newBuilder().maximumSize(maxClubs).expireAfterWrite(ttl).recordStats().build();
+        this.activeClubsBySchool = Caffeine.newBuilder().maximumSize(maxSchools).expireAfterWrite(ttl).recordStats().build();
+        this.activeSchools = Caffeine.newBuilder().maximumSize(1).expireAfterWrite(ttl).recordStats().build();
+    }
+
+    // Loads run inside the cache's per-key lock, so an eviction racing a load removes what it loaded
+    public Optional<Club> club(String clubId, Supplier<Optional<Club>> loader) {
+        if (clubId == null) {
+            return loader.get();
+        }
+        Document document = clubsById.get(clubId, id -> loader.get().map(this::toDocument).orElse(null));
+        return Optional.ofNullable(document).map(cached -> fromDocument(Club.class, cached));
+    }
+
+    public List<Club> activeClubs(String schoolId, Supplier<List<Club>> loader) {
+        if (schoolId == null) {
+            return loader.get();
+        }
+        return fromDocuments(Club.class, activeClubsBySchool.get(schoolId, id -> toDocuments(loader.get())));
+    }
+
+    public List<School> activeSchools(Supplier<List<School>> loader) {
+        return fromDocuments(School.class, activeSchools.get(ACTIVE_SCHOOLS, key -> toDocuments(loader.get())));
+    }
+
+    /**
+     * Evict a club and the active-club lists of the schools it was or is in
+     */
+    public void evictClub(String clubId, String... schoolIds) {
+        if (clubId != null) {
+            clubsById.invalidate(clubId);
+        }
+        for (String schoolId : schoolIds) {
+            if (schoolId != null) {
+                activeClubsBySchool.invalidate(schoolId);
+            }
+        }
+    }
+
+    /**
+     * Evict the active school list after a school is created, edited or (re)activated
+     */
+    public void evictSchools() {
+        activeSchools.invalidateAll();
+    }
+
+    /**
+     * Evict a school together with its clubs after a cascade deactivated or deleted them
+     */
+    public void evictSchool(String schoolId) {
+        activeSchools.invalidateAll();
+        activeClubsBySchool.invalidate(schoolId);
+        clubsById.asMap().values().removeIf(club -> schoolId.equals(club.getString("schoolId")));
+    }
+
+    /**
+     * Evict every club, e.g. after school names were copied into them
+     */
+    public void evictAllClubs() {
+        clubsById.invalidateAll();
+        activeClubsBySchool.invalidateAll();
+    }
+
+    public void clear() {
+        evictAllClubs();
+        evictSchools();
+    }
+
+    /**
+     * Size, hit and miss counts, hit ratio and evictions of each cache since startup
+     */
+    public Map<String, Map<String, Object>> getStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        stats.put("clubsById", stats(clubsById));
+        stats.put("activeClubsBySchool", stats(activeClubsBySchool));
+        stats.put("activeSchools", stats(activeSchools));
+        return stats;
+    }
+
+    private static Map<String, Object> stats(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("size", cache.estimatedSize());
+        values.put("hits", stats.hitCount());
+        values.put("misses", stats.missCount());
+        values.put("hitRatio", stats.hitRate());
+        values.put("evictions", stats.evictionCount());
+        return values;
+    }
+
+    private Document toDocument(Object entity) {
+        Document document = new Document();
+        mongoTemplate.getConverter().write(entity, document);
+        return document;
+    }
+
+    private List<Document> toDocuments(List<?> entities) {
+        List<Document> documents = new ArrayList<>(entities.size());
+        entities.forEach(entity -> documents.add(toDocument(entity)));
+        return documents;
+    }
+
+    private <T> T fromDocument(Class<T> entityClass, Document document) {
+        return mongoTemplate.getConverter().read(entityClass, document);
+    }
+
+    private <T> List<T> fromDocuments(Class<T> entityClass, List<Document> documents) {
+        List<T> entities = new ArrayList<>(documents.size());
+        documents.forEach(document -> entities.add(fromDocument(entityClass, document)));
+        return entities;
+    }
+}
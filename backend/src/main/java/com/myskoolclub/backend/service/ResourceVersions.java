@@ -0,0 +1,80 @@
+package com.myskoolclub.backend.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory change counters of the club, school and announcement collections, for the whole collection and
+ * per school, used as entity tags by their GET endpoints so a conditional request is answered without a query.
+ * The cache invalidation bus moves them after every write made here and every event from another instance.
+ * Each tag carries this instance's start id, so tags issued by another instance or an earlier run never match.
+ */
+@Component
+public class ResourceVersions {
+
+    public enum Resource { CLUBS, SCHOOLS, ANNOUNCEMENTS }
+
+    // A null schoolId is the whole collection; GENERATION moves when every school changes at once
+    private record Key(Resource resource, String schoolId) {
+    }
+
+    private record Version(long counter, long changedAt) {
+        Version next() {
+            return new Version(counter + 1, System.currentTimeMillis());
+        }
+    }
+
+    private static final String GENERATION = "";
+
+    private final String instance = UUID.randomUUID().toString().substring(0, 8);
+    private final long startedAt = System.currentTimeMillis();
+
+    private final Map<Key, Version> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Version of one school's part of a collection, or of the whole collection when schoolId is null
+     */
+    public String tag(Resource resource, String schoolId) {
+        if (schoolId == null) {
+            return instance + "-" + version(resource, null).counter();
+        }
+        return instance + "-" + version(resource, GENERATION).counter() + "." + version(resource, schoolId).counter();
+    }
+
+    /**
+     * When the same scope last changed, in epoch millis; writes before this instance started count as its start
+     */
+    public long lastModified(Resource resource, String schoolId) {
+        long changedAt = version(resource, null).changedAt();
+        if (schoolId != null) {
+            changedAt = Math.max(version(resource, GENERATION).changedAt(), version(resource, schoolId).changedAt());
+        }
+        return Math.max(changedAt, startedAt);
+    }
+
+    /**
+     * Record a change to one school's part of a collection, or to every school when schoolId is null
+     */
+    public void changed(Resource resource, String schoolId) {
+        bump(resource, schoolId == null ? GENERATION : schoolId);
+        bump(resource, null);
+    }
+
+    public void changedAll() {
+        for (Resource resource : Resource.values()) {
+            changed(resource, null);
+        }
+    }
+
+    private void bump(Resource resource, String schoolId) {
+        versions.compute(new Key(resource, schoolId), (key, version) -> (version == null ? new Version(0, 0) : version).next());
+    }
+
+    // Reads never add entries, so request parameters cannot grow the map
+    private Version version(Resource resource, String schoolId) {
+        return versions.getOrDefault(new Key(resource, schoolId), new Version(0, 0));
+    }
+}
@@ -3,10 +3,13 @@ package com.myskoolclub.backend.service;
 import com.myskoolclub.backend.model.School;
 import com.myskoolclub.backend.repository.SchoolRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -15,6 +18,27 @@ public class SchoolService {
     @Autowired
     private SchoolRepository schoolRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CascadeService cascadeService;
+
+    @Autowired
+    private DenormalizedNamePropagator namePropagator;
+
+    @Autowired
+    private SearchQueryExecutor searchQueryExecutor;
+
+    @Autowired
+    private GlobalSearchIndex searchIndex;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
     // Create a new school
     public School createSchool(School school) {
         // Validate mandatory fields
@@ -32,7 +56,10 @@ public class SchoolService {
         school.setUpdatedAt(LocalDateTime.now());
         school.setActive(true);
         
-        return schoolRepository.save(school);
+        School savedSchool = schoolRepository.save(school);
+        referenceDataCache.evictSchools();
+        invalidationBus.publish(CacheInvalidationBus.Entity.SCHOOL, savedSchool.getId(), savedSchool.getId());
+        return savedSchool;
     }
 
     // Get school by ID
@@ -52,12 +79,14 @@ public class SchoolService {
 
     // Get active schools
     public List<School> getActiveSchools() {
-        return schoolRepository.findByIsActiveTrueOrderByName();
+        return referenceDataCache.activeSchools(schoolRepository::findByIsActiveTrueOrderByName);
     }
 
-    // Search schools by name
+    // Search schools by name; every word of the query must start a word of the school name
     public List<School> searchSchoolsByName(String name) {
-        return schoolRepository.findByNameContainingIgnoreCase(name);
+        return searchQueryExecutor.findAll(SearchCriteriaBuilder.create()
+                .prefixAny(name, SearchTokens.FIELD)
+                .build(), Sort.unsorted(), School.class);
     }
 
     // Get schools by city
@@ -81,23 +110,62 @@ public class SchoolService {
             throw new IllegalArgumentException("School ID is required for update");
         }
         
-        if (!schoolRepository.existsById(school.getId())) {
-            throw new IllegalArgumentException("School not found");
+        School existingSchool = schoolRepository.findById(school.getId())
+            .orElseThrow(() -> new IllegalArgumentException("School not found"));
+        
+        // Only the editable fields that actually change are written; active status and
+        // creation time have their own endpoints and are never overwritten from the request body
+        String name = school.getName() != null ? school.getName().trim() : null;
+        PartialUpdate delta = PartialUpdate.using(mongoTemplate.getConverter())
+            .set("name", existingSchool.getName(), name)
+            .set("description", existingSchool.getDescription(), school.getDescription())
+            .set("address", existingSchool.getAddress(), school.getAddress())
+            .set("city", existingSchool.getCity(), school.getCity())
+            .set("state", existingSchool.getState(), school.getState())
+            .set("zipCode", existingSchool.getZipCode(), school.getZipCode())
+            .set("country", existingSchool.getCountry(), school.getCountry())
+            .set("phoneNumber", existingSchool.getPhoneNumber(), school.getPhoneNumber())
+            .set("email", existingSchool.getEmail(), school.getEmail())
+            .set("website", existingSchool.getWebsite(), school.getWebsite())
+            .set("principalName", existingSchool.getPrincipalName(), school.getPrincipalName())
+            .set("principalEmail", existingSchool.getPrincipalEmail(), school.getPrincipalEmail())
+            .set("type", existingSchool.getType(), school.getType())
+            .set("establishedYear", existingSchool.getEstablishedYear(), school.getEstablishedYear())
+            .set("studentCapacity", existingSchool.getStudentCapacity(), school.getStudentCapacity())
+            .set("adminEmails", existingSchool.getAdminEmails(), school.getAdminEmails());
+        
+        if (delta.isEmpty()) {
+            return existingSchool;
         }
         
-        school.setUpdatedAt(LocalDateTime.now());
-        return schoolRepository.save(school);
+        // Validate the delta
+        if (delta.isChanged("name")) {
+            if (name == null || name.isEmpty()) {
+                throw new IllegalArgumentException("School name is required");
+            }
+            if (schoolRepository.existsByName(name)) {
+                throw new IllegalArgumentException("School with this name already exists");
+            }
+        }
+        
+        School savedSchool = delta.apply(mongoTemplate, school.getId(), null, existingSchool)
+            .orElseThrow(() -> new IllegalArgumentException("School not found"));
+        if (delta.isChanged("name")) {
+            namePropagator.schoolRenamed(savedSchool.getId(), savedSchool.getName());
+        }
+        referenceDataCache.evictSchools();
+        invalidationBus.publish(CacheInvalidationBus.Entity.SCHOOL, savedSchool.getId(), savedSchool.getId());
+        return savedSchool;
     }
 
     // Deactivate school
     public School deactivateSchool(String schoolId) {
-        School school = schoolRepository.findById(schoolId)
+        cascadeService.deactivateSchool(schoolId);
+        referenceDataCache.evictSchool(schoolId);
+        invalidationBus.publish(CacheInvalidationBus.Entity.SCHOOL, schoolId, schoolId);
+        searchIndex.rebuild(schoolId);
+        return schoolRepository.findById(schoolId)
             .orElseThrow(() -> new IllegalArgumentException("School not found"));
-        
-        school.setActive(false);
-        school.setUpdatedAt(LocalDateTime.now());
-        
-        return schoolRepository.save(school);
     }
 
     // Reactivate school
@@ -108,7 +176,10 @@ public class SchoolService {
         school.setActive(true);
         school.setUpdatedAt(LocalDateTime.now());
         
-        return schoolRepository.save(school);
+        School savedSchool = schoolRepository.save(school);
+        referenceDataCache.evictSchools();
+        invalidationBus.publish(CacheInvalidationBus.Entity.SCHOOL, schoolId, schoolId);
+        return savedSchool;
     }
 
     // Check if school exists
@@ -131,35 +202,22 @@ public class SchoolService {
         return schoolRepository.countByIsActive(true);
     }
 
-    // Delete school by ID
-    public boolean deleteSchool(String schoolId) {
-        try {
-            Optional<School> schoolOpt = schoolRepository.findById(schoolId);
-            if (schoolOpt.isPresent()) {
-                schoolRepository.deleteById(schoolId);
-                return true;
-            }
-            return false;
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to delete school: " + e.getMessage());
-        }
+    // Delete school by ID together with its clubs, roles, checkouts, invoices and announcements
+    public Map<String, Long> deleteSchool(String schoolId) {
+        Map<String, Long> affected = cascadeService.deleteSchool(schoolId);
+        referenceDataCache.evictSchool(schoolId);
+        invalidationBus.publish(CacheInvalidationBus.Entity.SCHOOL, schoolId, schoolId);
+        searchIndex.dropSchool(schoolId);
+        return affected;
     }
 
-    // Soft delete - mark school as inactive
-    public boolean softDeleteSchool(String schoolId) {
-        try {
-            Optional<School> schoolOpt = schoolRepository.findById(schoolId);
-            if (schoolOpt.isPresent()) {
-                School school = schoolOpt.get();
-                school.setActive(false);
-                school.setUpdatedAt(LocalDateTime.now());
-                schoolRepository.save(school);
-                return true;
-            }
-            return false;
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to deactivate school: " + e.getMessage());
-        }
+    // Soft delete - mark school, its clubs, roles and announcements as inactive
+    public Map<String, Long> softDeleteSchool(String schoolId) {
+        Map<String, Long> affected = cascadeService.deactivateSchool(schoolId);
+        referenceDataCache.evictSchool(schoolId);
+        invalidationBus.publish(CacheInvalidationBus.Entity.SCHOOL, schoolId, schoolId);
+        searchIndex.rebuild(schoolId);
+        return affected;
     }
 
     // Activate school - mark school as active
@@ -171,6 +229,8 @@ public class SchoolService {
                 school.setActive(true);
                 school.setUpdatedAt(LocalDateTime.now());
                 schoolRepository.save(school);
+                referenceDataCache.evictSchools();
+                invalidationBus.publish(CacheInvalidationBus.Entity.SCHOOL, schoolId, schoolId);
                 return true;
             }
             return false;
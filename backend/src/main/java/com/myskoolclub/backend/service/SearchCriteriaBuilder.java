@@ -0,0 +1,166 @@
+package com.myskoolclub.backend.service;
+
+import org.bson.types.Decimal128;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Fluent builder that turns advanced search parameters into a Mongo criteria.
+ * Blank values are ignored so callers can pass request parameters straight through.
+ */
+public class SearchCriteriaBuilder {
+
+    private final List<Criteria> criteria = new ArrayList<>();
+
+    public static SearchCriteriaBuilder create() {
+        return new SearchCriteriaBuilder();
+    }
+
+    /**
+     * Exact match, usable by the single field and compound indexes
+     */
+    public SearchCriteriaBuilder is(String field, Object value) {
+        if (!isBlank(value)) {
+            criteria.add(Criteria.where(field).is(value instanceof String ? ((String) value).trim() : value));
+        }
+        return this;
+    }
+
+    /**
+     * Exact match on a field whose values are stored upper case (statuses, roles)
+     */
+    public SearchCriteriaBuilder isUpperCase(String field, String value) {
+        if (!isBlank(value)) {
+            criteria.add(Criteria.where(field).is(value.trim().toUpperCase()));
+        }
+        return this;
+    }
+
+    /**
+     * Whole value match ignoring case, for free-form fields such as category or meeting day
+     */
+    public SearchCriteriaBuilder equalsIgnoreCase(String field, String value) {
+        if (!isBlank(value)) {
+            criteria.add(Criteria.where(field).regex(Pattern.compile("^" + Pattern.quote(value.trim()) + "$", Pattern.CASE_INSENSITIVE)));
+        }
+        return this;
+    }
+
+    public SearchCriteriaBuilder in(String field, Collection<?> values) {
+        if (values != null && !values.isEmpty()) {
+            criteria.add(Criteria.where(field).in(values));
+        }
+        return this;
+    }
+
+    /**
+     * Case-insensitive substring match; the value is quoted so user input is never treated as a pattern
+     */
+    public SearchCriteriaBuilder contains(String field, String value) {
+        if (!isBlank(value)) {
+            criteria.add(Criteria.where(field).regex(containsPattern(value)));
+        }
+        return this;
+    }
+
+    /**
+     * Case-insensitive substring match against any of the given fields
+     */
+    public SearchCriteriaBuilder containsAny(String value, String... fields) {
+        if (!isBlank(value)) {
+            Pattern pattern = containsPattern(value);
+            Criteria[] alternatives = new Criteria[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                alternatives[i] = Criteria.where(fields[i]).regex(pattern);
+            }
+            criteria.add(new Criteria().orOperator(alternatives));
+        }
+        return this;
+    }
+
+    /**
+     * Word prefix match against search token fields (see SearchTokens), answered from the token indexes
+     */
+    public SearchCriteriaBuilder prefixAny(String value, String... tokenFields) {
+        return and(SearchTokens.prefixMatch(value, tokenFields));
+    }
+
+    /**
+     * Inclusive range on a date or number field; either bound may be null
+     */
+    public SearchCriteriaBuilder between(String field, Object from, Object to) {
+        if (from != null || to != null) {
+            Criteria range = Criteria.where(field);
+            if (from != null) {
+                range.gte(from);
+            }
+            if (to != null) {
+                range.lte(to);
+            }
+            criteria.add(range);
+        }
+        return this;
+    }
+
+    /**
+     * Inclusive numeric range on a BigDecimal field, which is stored as Decimal128 and can use an index
+     */
+    public SearchCriteriaBuilder decimalBetween(String field, BigDecimal min, BigDecimal max) {
+        if (min != null || max != null) {
+            Criteria range = Criteria.where(field);
+            if (min != null) {
+                range.gte(new Decimal128(min));
+            }
+            if (max != null) {
+                range.lte(new Decimal128(max));
+            }
+            criteria.add(range);
+        }
+        return this;
+    }
+
+    public SearchCriteriaBuilder and(Criteria extra) {
+        if (extra != null) {
+            criteria.add(extra);
+        }
+        return this;
+    }
+
+    public Criteria build() {
+        if (criteria.isEmpty()) {
+            return new Criteria();
+        }
+        if (criteria.size() == 1) {
+            return criteria.get(0);
+        }
+        return new Criteria().andOperator(criteria.toArray(new Criteria[0]));
+    }
+
+    /**
+     * Resolve a client supplied sort field against a whitelist of sortable fields.
+     * The id is appended as a tie breaker so pages stay stable when sort values repeat.
+     */
+    public static Sort sort(String sortBy, String sortDirection, Map<String, String> sortableFields, String defaultField) {
+        String field = sortBy != null ? sortableFields.get(sortBy.trim().toLowerCase()) : null;
+        if (field == null) {
+            field = defaultField;
+        }
+        Sort.Direction direction = "desc".equalsIgnoreCase(sortDirection) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return Sort.by(direction, field).and(Sort.by(direction, "_id"));
+    }
+
+    private static Pattern containsPattern(String value) {
+        return Pattern.compile(Pattern.quote(value.trim()), Pattern.CASE_INSENSITIVE);
+    }
+
+    private static boolean isBlank(Object value) {
+        return value == null || (value instanceof String && ((String) value).trim().isEmpty());
+    }
+}
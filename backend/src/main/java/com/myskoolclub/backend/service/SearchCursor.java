@@ -0,0 +1,97 @@
+package com.myskoolclub.backend.service;
+
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Opaque keyset pagination token holding the primary sort field and direction
+ * together with the sort value and _id of the last document served.
+ */
+public final class SearchCursor {
+
+    private static final String FIELD = "f";
+    private static final String DIRECTION = "d";
+    private static final String VALUE = "v";
+    private static final String ID = "i";
+
+    private final String field;
+    private final Sort.Direction direction;
+    private final Object value;
+    private final Object id;
+
+    private SearchCursor(String field, Sort.Direction direction, Object value, Object id) {
+        this.field = field;
+        this.direction = direction;
+        this.value = value;
+        this.id = id;
+    }
+
+    /**
+     * Create a cursor positioned after a document, using Mongo representations of its sort value and _id
+     */
+    public static SearchCursor after(Sort.Order order, Object value, Object id) {
+        return new SearchCursor(order.getProperty(), order.getDirection(), value, id);
+    }
+
+    public static SearchCursor decode(String token) {
+        try {
+            String json = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            Document document = Document.parse(json);
+            String field = document.getString(FIELD);
+            Object id = document.get(ID);
+            Object value = document.get(VALUE);
+            if (field == null || id == null || !isScalar(id) || (value != null && !isScalar(value))) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new SearchCursor(field, Sort.Direction.fromString(document.getString(DIRECTION)), value, id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    // Token values end up in query criteria, so documents and arrays such as {"$ne": null} are never accepted
+    private static boolean isScalar(Object value) {
+        return value instanceof String || value instanceof Number || value instanceof Boolean
+                || value instanceof Date || value instanceof ObjectId || value instanceof Decimal128;
+    }
+
+    public String encode() {
+        Document document = new Document(FIELD, field)
+                .append(DIRECTION, direction.name())
+                .append(VALUE, value)
+                .append(ID, id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(document.toJson().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * A cursor can only continue a listing sorted the same way it was issued for
+     */
+    public boolean matches(Sort.Order order) {
+        return field.equals(order.getProperty()) && direction == order.getDirection();
+    }
+
+    /**
+     * Range criteria selecting the documents that sort after this cursor.
+     * Mongo sorts missing values first, so they come before everything ascending and after everything descending.
+     */
+    public Criteria toCriteria() {
+        boolean ascending = direction.isAscending();
+        Criteria sameValue = Criteria.where(field).is(value);
+        sameValue = ascending ? sameValue.and("_id").gt(id) : sameValue.and("_id").lt(id);
+
+        if (value == null) {
+            return ascending ? new Criteria().orOperator(Criteria.where(field).ne(null), sameValue) : sameValue;
+        }
+        if (ascending) {
+            return new Criteria().orOperator(Criteria.where(field).gt(value), sameValue);
+        }
+        return new Criteria().orOperator(Criteria.where(field).lt(value), sameValue, Criteria.where(field).is(null));
+    }
+}
@@ -0,0 +1,137 @@
+package com.myskoolclub.backend.service;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs criteria built by SearchCriteriaBuilder with skip/limit and count done by Mongo,
+ * so only the requested page is ever loaded into memory.
+ */
+@Component
+public class SearchQueryExecutor {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /**
+     * Fetch one page; the count query only runs when the page alone cannot determine the total
+     */
+    public <T> Page<T> findPage(Criteria criteria, Pageable pageable, Class<T> entityClass) {
+        Query query = new Query(criteria).with(pageable);
+        List<T> content = mongoTemplate.find(query, entityClass);
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> count(criteria, entityClass));
+    }
+
+    /**
+     * Fetch at most limit documents in the given order
+     */
+    public <T> List<T> find(Criteria criteria, Sort sort, int limit, Class<T> entityClass) {
+        Query query = new Query(criteria).with(sort).limit(limit);
+        return mongoTemplate.find(query, entityClass);
+    }
+
+    /**
+     * Fetch every matching document in the given order, for searches whose callers expect a full list
+     */
+    public <T> List<T> findAll(Criteria criteria, Sort sort, Class<T> entityClass) {
+        return mongoTemplate.find(new Query(criteria).with(sort), entityClass);
+    }
+
+    /**
+     * Fetch one page of $text matches within the optional scope, most relevant first. When no whole word
+     * of the text matches (or the text is blank) the page comes from the fallback criteria instead, which
+     * is how partial words are still found. The pageable's own sort is not applied to relevance results.
+     */
+    public <T> Page<T> findTextPage(String text, Criteria scope, Criteria fallback, Pageable pageable,
+                                    Class<T> entityClass) {
+        if (text != null && !text.trim().isEmpty()) {
+            Pageable byRelevance = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+            List<T> content = mongoTemplate.find(textQuery(text, scope).with(byRelevance), entityClass);
+            Page<T> matches = PageableExecutionUtils.getPage(content, byRelevance,
+                    () -> mongoTemplate.count(textQuery(text, scope), entityClass));
+            if (matches.getTotalElements() > 0) {
+                return matches;
+            }
+        }
+        return findPage(fallback, pageable, entityClass);
+    }
+
+    /**
+     * Every $text match within the optional scope, most relevant first, or every fallback match when none
+     */
+    public <T> List<T> findText(String text, Criteria scope, Criteria fallback, Class<T> entityClass) {
+        if (text != null && !text.trim().isEmpty()) {
+            List<T> matches = mongoTemplate.find(textQuery(text, scope), entityClass);
+            if (!matches.isEmpty()) {
+                return matches;
+            }
+        }
+        return mongoTemplate.find(new Query(fallback), entityClass);
+    }
+
+    /**
+     * Fetch the slice of documents that sort after the given cursor using a range query instead of skip.
+     * One extra document is read to detect whether another slice exists; no count query is issued.
+     */
+    public <T> CursorSlice<T> findSlice(Criteria criteria, Sort sort, String after, int size, Class<T> entityClass) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must not be less than one");
+        }
+        Sort.Order order = sort.iterator().next();
+        Criteria effective = criteria;
+        if (after != null && !after.trim().isEmpty()) {
+            SearchCursor cursor = SearchCursor.decode(after.trim());
+            if (!cursor.matches(order)) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort");
+            }
+            effective = new Criteria().andOperator(criteria, cursor.toCriteria());
+        }
+
+        Query query = new Query(effective).with(sort).limit(size + 1);
+        List<T> content = mongoTemplate.find(query, entityClass);
+        boolean hasNext = content.size() > size;
+        if (hasNext) {
+            content = new ArrayList<>(content.subList(0, size));
+        }
+
+        String nextCursor = hasNext ? cursorAfter(content.get(content.size() - 1), order) : null;
+        return new CursorSlice<>(content, PageRequest.of(0, size, sort), hasNext, nextCursor);
+    }
+
+    public <T> long count(Criteria criteria, Class<T> entityClass) {
+        return mongoTemplate.count(new Query(criteria), entityClass);
+    }
+
+    // Ties in relevance are broken by id so pages stay stable
+    private static Query textQuery(String text, Criteria scope) {
+        Query query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text.trim()))
+                .sortByScore()
+                .with(Sort.by("_id"));
+        if (scope != null) {
+            query.addCriteria(scope);
+        }
+        return query;
+    }
+
+    private String cursorAfter(Object entity, Sort.Order order) {
+        // Read the sort value back in its stored form so the range query compares like with like
+        Document document = new Document();
+        mongoTemplate.getConverter().write(entity, document);
+        return SearchCursor.after(order, document.get(order.getProperty()), document.get("_id")).encode();
+    }
+}
@@ -0,0 +1,188 @@
+package com.myskoolclub.backend.service;
+
+import com.myskoolclub.backend.model.Checkout;
+import com.myskoolclub.backend.model.CheckoutItem;
+import com.myskoolclub.backend.model.Club;
+import com.myskoolclub.backend.model.Invoice;
+import com.myskoolclub.backend.model.Member;
+import com.myskoolclub.backend.model.School;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Builds the lowercase, accent-folded word lists stored next to searchable text fields and the
+ * anchored prefix criteria that query them. A case-sensitive "^prefix" regex on these arrays is
+ * turned into a bounded index range, unlike a case-insensitive substring regex on the raw fields.
+ */
+public final class SearchTokens {
+
+    public static final String FIELD = "searchTokens";
+    public static final String CLUB_NAME_FIELD = "clubNameTokens";
+    public static final String SCHOOL_NAME_FIELD = "schoolNameTokens";
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SearchTokens() {
+    }
+
+    /**
+     * Lowercase the value and strip accents, so "Émile" and "emile" compare equal
+     */
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT).trim();
+    }
+
+    /**
+     * Tokens for the given strings or collections of strings. Every word becomes a token, and a value
+     * without spaces that contains punctuation (an email, a document number) is also kept whole.
+     */
+    public static List<String> of(Object... values) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (Object value : values) {
+            if (value instanceof Collection<?> collection) {
+                collection.forEach(element -> addTokens(element, tokens));
+            } else {
+                addTokens(value, tokens);
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    /**
+     * Criteria matching documents where every word of the query starts one of the tokens in any of the
+     * given fields, or null when the query has no words. Query words are escaped, never used as patterns.
+     */
+    public static Criteria prefixMatch(String query, String... tokenFields) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        List<Criteria> words = new ArrayList<>();
+        for (String word : WHITESPACE.split(normalized)) {
+            String prefix = "^" + escape(word);
+            if (tokenFields.length == 1) {
+                words.add(Criteria.where(tokenFields[0]).regex(prefix));
+            } else {
+                Criteria[] alternatives = new Criteria[tokenFields.length];
+                for (int i = 0; i < tokenFields.length; i++) {
+                    alternatives[i] = Criteria.where(tokenFields[i]).regex(prefix);
+                }
+                words.add(new Criteria().orOperator(alternatives));
+            }
+        }
+        return words.size() == 1 ? words.get(0) : new Criteria().andOperator(words.toArray(new Criteria[0]));
+    }
+
+    /**
+     * Recompute the token fields of a searchable entity from its current values and return the
+     * fields whose tokens changed. Entities without token fields are left alone.
+     */
+    public static Map<String, Object> refresh(Object entity) {
+        Map<String, Object> changed = new LinkedHashMap<>();
+        if (entity instanceof Club club) {
+            List<String> tokens = of(club.getName(), club.getCategory(), club.getAdvisorName(),
+                    club.getTags(), club.getDescription());
+            if (track(changed, FIELD, club.getSearchTokens(), tokens)) {
+                club.setSearchTokens(tokens);
+            }
+            if (track(changed, SCHOOL_NAME_FIELD, club.getSchoolNameTokens(), of(club.getSchoolName()))) {
+                club.setSchoolNameTokens(of(club.getSchoolName()));
+            }
+        } else if (entity instanceof Member member) {
+            List<String> tokens = of(member.getFirstName(), member.getLastName(), member.getEmail(),
+                    member.getStudentId(), member.getPhoneNumber());
+            if (track(changed, FIELD, member.getSearchTokens(), tokens)) {
+                member.setSearchTokens(tokens);
+            }
+            if (track(changed, SCHOOL_NAME_FIELD, member.getSchoolNameTokens(), of(member.getSchoolName()))) {
+                member.setSchoolNameTokens(of(member.getSchoolName()));
+            }
+        } else if (entity instanceof Checkout checkout) {
+            List<String> items = new ArrayList<>();
+            if (checkout.getCheckoutItems() != null) {
+                for (CheckoutItem item : checkout.getCheckoutItems()) {
+                    items.add(item.getItemName());
+                    items.add(item.getItemType());
+                }
+            }
+            List<String> tokens = of(checkout.getCheckoutNumber(), checkout.getBorrowerName(),
+                    checkout.getBorrowerEmail(), items, checkout.getNotes());
+            if (track(changed, FIELD, checkout.getSearchTokens(), tokens)) {
+                checkout.setSearchTokens(tokens);
+            }
+            if (track(changed, CLUB_NAME_FIELD, checkout.getClubNameTokens(), of(checkout.getClubName()))) {
+                checkout.setClubNameTokens(of(checkout.getClubName()));
+            }
+        } else if (entity instanceof Invoice invoice) {
+            List<String> tokens = of(invoice.getInvoiceNumber(), invoice.getBillToName(), invoice.getNotes());
+            if (track(changed, FIELD, invoice.getSearchTokens(), tokens)) {
+                invoice.setSearchTokens(tokens);
+            }
+            if (track(changed, CLUB_NAME_FIELD, invoice.getClubNameTokens(), of(invoice.getClubName()))) {
+                invoice.setClubNameTokens(of(invoice.getClubName()));
+            }
+        } else if (entity instanceof School school) {
+            List<String> tokens = of(school.getName());
+            if (track(changed, FIELD, school.getSearchTokens(), tokens)) {
+                school.setSearchTokens(tokens);
+            }
+        }
+        return changed;
+    }
+
+    private static boolean track(Map<String, Object> changed, String field, List<String> current, List<String> tokens) {
+        if (Objects.equals(current, tokens)) {
+            return false;
+        }
+        changed.put(field, tokens);
+        return true;
+    }
+
+    private static void addTokens(Object value, Set<String> tokens) {
+        if (!(value instanceof String)) {
+            return;
+        }
+        String normalized = normalize((String) value);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        for (String word : WORD_SEPARATOR.split(normalized)) {
+            if (!word.isEmpty()) {
+                tokens.add(word);
+            }
+        }
+        if (!WHITESPACE.matcher(normalized).find() && WORD_SEPARATOR.matcher(normalized).find()) {
+            tokens.add(normalized);
+        }
+    }
+
+    // Backslash escapes rather than \Q..\E so the server still recognises a simple prefix it can bound
+    private static String escape(String word) {
+        StringBuilder escaped = new StringBuilder(word.length());
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (!Character.isLetterOrDigit(c)) {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,104 @@
+package com.myskoolclub.backend.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent reads: while a query for a key is running, callers with the same key wait
+ * for its result instead of running it again. A flight is forgotten the moment its query returns, so nothing
+ * is served that was read before the caller arrived other than by the query already in progress; keys carry
+ * the tenant and, where one exists, the resource version, so reads started before a write are not joined
+ * after it. The callers of one flight share its result and must not modify it.
+ */
+@Component
+public class SingleFlight {
+
+    private record Key(String operation, List<Object> arguments) {
+    }
+
+    private static final class Counters {
+        final LongAdder calls = new LongAdder();
+        final LongAdder executions = new LongAdder();
+    }
+
+    private final Map<Key, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+
+    // Per operation rather than per key, so tenants and page numbers cannot grow the map
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Run the query, or wait for the identical one already running. Arguments are compared with equals.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, Supplier<T> query, Object... arguments) {
+        Key key = new Key(operation, Arrays.asList(arguments.clone()));
+        Counters operationCounters = counters.computeIfAbsent(operation, name -> new Counters());
+        operationCounters.calls.increment();
+
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = flights.putIfAbsent(key, flight);
+        if (running != null) {
+            return (T) join(running);
+        }
+
+        operationCounters.executions.increment();
+        T result;
+        try {
+            result = query.get();
+        } catch (RuntimeException | Error e) {
+            flights.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        // Removed before completing, so a caller arriving from now on starts a fresh read
+        flights.remove(key, flight);
+        flight.complete(result);
+        return result;
+    }
+
+    /**
+     * Calls, queries actually run and the share of calls that joined a running query, per operation since startup
+     */
+    public Map<String, Map<String, Object>> getStats() {
+        Map<String, Map<String, Object>> stats = new TreeMap<>();
+        counters.forEach((operation, operationCounters) -> {
+            long calls = operationCounters.calls.sum();
+            long executions = operationCounters.executions.sum();
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("calls", calls);
+            values.put("executions", executions);
+            values.put("coalesced", calls - executions);
+            values.put("coalescingRatio", calls == 0 ? 0.0 : (double) (calls - executions) / calls);
+            stats.put(operation, values);
+        });
+        return stats;
+    }
+
+    public int getInFlightCount() {
+        return flights.size();
+    }
+
+    private static Object join(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.myskoolclub.backend.service;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Applies workflow transitions (approve, reject, return...) as a single findAndModify guarded on the expected
+ * current state, so concurrent admins cannot overwrite each other and only the changed fields are written.
+ */
+@Component
+public class StateTransitionExecutor {
+
+    public static final int MAX_BATCH_SIZE = 500;
+
+    public enum Outcome { APPLIED, NOT_FOUND, FORBIDDEN, INVALID_STATE }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /**
+     * Apply the update when the document matches the expected state and, unless clubIds is null, belongs to one of
+     * the given clubs. Returns the updated document, or empty when nothing matched.
+     */
+    public <T> Optional<T> apply(String id, Collection<String> clubIds, Criteria expectedState, Update update, Class<T> entityClass) {
+        Query query = new Query(guard(id, clubIds, expectedState));
+        update.set("updatedAt", LocalDateTime.now()).inc("version", 1);
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), entityClass));
+    }
+
+    /**
+     * Apply the same guarded update to every id in one unordered bulk write, then classify each id with a single read.
+     * An id counts as applied when it carries this batch's updatedAt and updatedBy afterwards.
+     */
+    public Map<String, Outcome> applyBatch(Collection<String> ids, Collection<String> clubIds, Criteria expectedState,
+                                           Update update, String actorId, Class<?> entityClass) {
+        Set<String> uniqueIds = new LinkedHashSet<>(ids);
+        if (uniqueIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one id is required");
+        }
+        if (uniqueIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " ids can be processed at once");
+        }
+
+        // Mongo keeps millisecond precision, so truncate to compare the stored value exactly
+        LocalDateTime batchTime = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        update.set("updatedAt", batchTime).set("updatedBy", actorId).inc("version", 1);
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, entityClass);
+        for (String id : uniqueIds) {
+            bulk.updateOne(new Query(guard(id, clubIds, expectedState)), update);
+        }
+        bulk.execute();
+
+        List<Object> storedIds = uniqueIds.stream()
+                .map(id -> mongoTemplate.getConverter().convertId(id, ObjectId.class))
+                .toList();
+        Query readBack = new Query(Criteria.where("_id").in(storedIds));
+        readBack.fields().include("clubId", "updatedAt", "updatedBy");
+        Map<String, Document> current = new HashMap<>();
+        for (Document document : mongoTemplate.find(readBack, Document.class, mongoTemplate.getCollectionName(entityClass))) {
+            current.put(document.get("_id").toString(), document);
+        }
+
+        Date appliedAt = Date.from(batchTime.atZone(ZoneId.systemDefault()).toInstant());
+        Map<String, Outcome> outcomes = new LinkedHashMap<>();
+        for (String id : uniqueIds) {
+            Document document = current.get(id);
+            if (document == null) {
+                outcomes.put(id, Outcome.NOT_FOUND);
+            } else if (appliedAt.equals(document.get("updatedAt")) && actorId.equals(document.get("updatedBy"))) {
+                outcomes.put(id, Outcome.APPLIED);
+            } else if (clubIds != null && !clubIds.contains(document.getString("clubId"))) {
+                outcomes.put(id, Outcome.FORBIDDEN);
+            } else {
+                outcomes.put(id, Outcome.INVALID_STATE);
+            }
+        }
+        return outcomes;
+    }
+
+    private Criteria guard(String id, Collection<String> clubIds, Criteria expectedState) {
+        Criteria criteria = Criteria.where("_id").is(id);
+        if (clubIds != null) {
+            criteria = criteria.and("clubId").in(clubIds);
+        }
+        return new Criteria().andOperator(criteria, expectedState);
+    }
+}
@@ -0,0 +1,226 @@
+package com.myskoolclub.backend.service;
+
+import com.myskoolclub.backend.model.Checkout;
+import com.myskoolclub.backend.model.Club;
+import com.myskoolclub.backend.model.Invoice;
+import com.myskoolclub.backend.model.Member;
+import com.myskoolclub.backend.model.School;
+import com.myskoolclub.backend.model.UserClubRole;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.BooleanOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Dashboard statistics computed with one aggregation per collection instead of one count query per figure.
+ * Collection totals use the collection metadata count and independent collections are queried in parallel.
+ */
+@Service
+public class StatsService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
+
+    /**
+     * Checkout counts by status plus overdue (ACTIVE and past due), optionally scoped to a school or club
+     */
+    public Map<String, Object> getCheckoutStats(String schoolId, String clubId) {
+        Date today = Date.from(LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant());
+        ConditionalOperators.Cond overdue = ConditionalOperators
+                .when(BooleanOperators.And.and(
+                        ComparisonOperators.valueOf("status").equalToValue("ACTIVE"),
+                        ComparisonOperators.valueOf("dueDate").lessThanValue(today)))
+                .then(1)
+                .otherwise(0);
+
+        List<AggregationOperation> pipeline = new ArrayList<>();
+        Criteria scope = clubScope(schoolId, clubId);
+        if (scope != null) {
+            pipeline.add(Aggregation.match(scope));
+        }
+        pipeline.add(Aggregation.group("status").count().as("count").sum(overdue).as("overdue")
+                .sum("totalEstimatedValue").as("value"));
+
+        Map<String, Long> byStatus = new HashMap<>();
+        long total = 0;
+        long overdueCount = 0;
+        BigDecimal totalValue = BigDecimal.ZERO;
+        BigDecimal activeValue = BigDecimal.ZERO;
+        for (Document row : mongoTemplate.aggregate(Aggregation.newAggregation(pipeline), Checkout.class, Document.class)) {
+            long count = toLong(row.get("count"));
+            byStatus.put(row.getString("_id"), count);
+            total += count;
+            overdueCount += toLong(row.get("overdue"));
+            BigDecimal value = toDecimal(row.get("value"));
+            totalValue = totalValue.add(value);
+            if ("ACTIVE".equals(row.getString("_id"))) {
+                activeValue = activeValue.add(value);
+            }
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalCheckouts", total);
+        stats.put("activeCheckouts", byStatus.getOrDefault("ACTIVE", 0L));
+        stats.put("returnedCheckouts", byStatus.getOrDefault("RETURNED", 0L));
+        stats.put("overdueCheckouts", overdueCount);
+        stats.put("cancelledCheckouts", byStatus.getOrDefault("CANCELLED", 0L));
+        stats.put("totalEstimatedValue", totalValue);
+        stats.put("activeEstimatedValue", activeValue);
+        return stats;
+    }
+
+    /**
+     * Invoice counts and amount totals by status, optionally scoped to a school or club
+     */
+    public Map<String, Object> getInvoiceStats(String schoolId, String clubId) {
+        List<AggregationOperation> pipeline = new ArrayList<>();
+        Criteria scope = clubScope(schoolId, clubId);
+        if (scope != null) {
+            pipeline.add(Aggregation.match(scope));
+        }
+        pipeline.add(Aggregation.group("status").count().as("count").sum("totalAmount").as("amount"));
+
+        Map<String, Long> byStatus = new HashMap<>();
+        Map<String, BigDecimal> amountByStatus = new HashMap<>();
+        for (Document row : mongoTemplate.aggregate(Aggregation.newAggregation(pipeline), Invoice.class, Document.class)) {
+            byStatus.put(row.getString("_id"), toLong(row.get("count")));
+            amountByStatus.put(row.getString("_id"), toDecimal(row.get("amount")));
+        }
+        long total = byStatus.values().stream().mapToLong(Long::longValue).sum();
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalInvoices", total);
+        stats.put("draftInvoices", byStatus.getOrDefault("DRAFT", 0L));
+        stats.put("sentInvoices", byStatus.getOrDefault("SENT", 0L));
+        stats.put("paidInvoices", byStatus.getOrDefault("PAID", 0L));
+        stats.put("overdueInvoices", byStatus.getOrDefault("OVERDUE", 0L));
+        stats.put("cancelledInvoices", byStatus.getOrDefault("CANCELLED", 0L));
+        stats.put("totalAmount", amountByStatus.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add));
+        stats.put("paidAmount", amountByStatus.getOrDefault("PAID", BigDecimal.ZERO));
+        stats.put("outstandingAmount", amountByStatus.getOrDefault("SENT", BigDecimal.ZERO)
+                .add(amountByStatus.getOrDefault("OVERDUE", BigDecimal.ZERO)));
+        return stats;
+    }
+
+    /**
+     * Total and active club counts, optionally scoped to a school
+     */
+    public Map<String, Object> getClubStats(String schoolId) {
+        Criteria scope = hasText(schoolId) ? Criteria.where("schoolId").is(schoolId.trim()) : null;
+        Map<String, Long> byActive = countByField(Club.class, "active", scope);
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalClubs", byActive.values().stream().mapToLong(Long::longValue).sum());
+        stats.put("activeClubs", byActive.getOrDefault("true", 0L));
+        return stats;
+    }
+
+    /**
+     * Total and active school counts
+     */
+    public Map<String, Long> getSchoolStats() {
+        Map<String, Long> byActive = countByField(School.class, "isActive", null);
+
+        Map<String, Long> stats = new HashMap<>();
+        stats.put("totalSchools", byActive.values().stream().mapToLong(Long::longValue).sum());
+        stats.put("activeSchools", byActive.getOrDefault("true", 0L));
+        return stats;
+    }
+
+    /**
+     * Approximate document count of each collection from collection metadata, fetched in parallel
+     */
+    public Map<String, Long> getCollectionCounts() {
+        Map<String, Class<?>> collections = new LinkedHashMap<>();
+        collections.put("members", Member.class);
+        collections.put("schools", School.class);
+        collections.put("clubs", Club.class);
+        collections.put("userClubRoles", UserClubRole.class);
+        collections.put("checkouts", Checkout.class);
+        collections.put("invoices", Invoice.class);
+
+        Map<String, CompletableFuture<Long>> futures = new LinkedHashMap<>();
+        collections.forEach((name, entityClass) -> futures.put(name,
+                CompletableFuture.supplyAsync(() -> mongoTemplate.estimatedCount(entityClass), taskExecutor)));
+
+        Map<String, Long> counts = new HashMap<>();
+        futures.forEach((name, future) -> counts.put(name, future.join()));
+        return counts;
+    }
+
+    /**
+     * Count documents grouped by a single field in one aggregation, keyed by the field value as a string
+     */
+    private Map<String, Long> countByField(Class<?> entityClass, String field, Criteria scope) {
+        List<AggregationOperation> pipeline = new ArrayList<>();
+        if (scope != null) {
+            pipeline.add(Aggregation.match(scope));
+        }
+        pipeline.add(Aggregation.group(field).count().as("count"));
+
+        Map<String, Long> counts = new HashMap<>();
+        for (Document row : mongoTemplate.aggregate(Aggregation.newAggregation(pipeline), entityClass, Document.class)) {
+            counts.merge(String.valueOf(row.get("_id")), toLong(row.get("count")), Long::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Scope checkouts or invoices to a club, or to every club of a school
+     */
+    private Criteria clubScope(String schoolId, String clubId) {
+        if (hasText(clubId)) {
+            return Criteria.where("clubId").is(clubId.trim());
+        }
+        if (hasText(schoolId)) {
+            Query clubsOfSchool = new Query(Criteria.where("schoolId").is(schoolId.trim()));
+            clubsOfSchool.fields().include("_id");
+            List<String> clubIds = mongoTemplate.find(clubsOfSchool, Club.class).stream()
+                    .map(Club::getId)
+                    .toList();
+            return Criteria.where("clubId").in(clubIds);
+        }
+        return null;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+
+    // $sum yields Decimal128 over Decimal128 amounts, and an integer 0 when nothing matched
+    private static BigDecimal toDecimal(Object value) {
+        if (value instanceof Decimal128) {
+            return ((Decimal128) value).bigDecimalValue();
+        }
+        return value instanceof Number ? new BigDecimal(value.toString()) : BigDecimal.ZERO;
+    }
+}
@@ -5,6 +5,7 @@ import com.myskoolclub.backend.model.Member;
 import com.myskoolclub.backend.model.Club;
 import com.myskoolclub.backend.repository.UserClubRoleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -23,6 +24,12 @@ public class UserClubRoleService {
     @Autowired
     private ClubService clubService;
     
+    @Autowired
+    private CascadeService cascadeService;
+    
+    @Autowired
+    private SingleFlight singleFlight;
+    
     /**
      * Add a member to a club with a specific role.
      * If the member already exists in the club, their role will be updated to the new role.
@@ -51,7 +58,9 @@ public class UserClubRoleService {
             if (!role.getClubRole().equals(clubRole)) {
                 role.setClubRole(clubRole);
                 role.setUpdatedAt(LocalDateTime.now());
-                return userClubRoleRepository.save(role);
+                UserClubRole savedRole = userClubRoleRepository.save(role);
+                memberService.incrementClubRoleVersion(memberId);
+                return savedRole;
             }
             // If role is already the same, just return it
             return role;
@@ -64,7 +73,9 @@ public class UserClubRoleService {
         userClubRole.setClubName(club.getName());
         userClubRole.setSchoolName(club.getSchoolName());
         
-        return userClubRoleRepository.save(userClubRole);
+        UserClubRole savedRole = userClubRoleRepository.save(userClubRole);
+        memberService.incrementClubRoleVersion(memberId);
+        return savedRole;
     }
     
     /**
@@ -81,7 +92,9 @@ public class UserClubRoleService {
         role.setClubRole(newRole);
         role.setUpdatedAt(LocalDateTime.now());
         
-        return userClubRoleRepository.save(role);
+        UserClubRole savedRole = userClubRoleRepository.save(role);
+        memberService.incrementClubRoleVersion(memberId);
+        return savedRole;
     }
     
     /**
@@ -98,6 +111,7 @@ public class UserClubRoleService {
         role.setActive(false);
         role.setUpdatedAt(LocalDateTime.now());
         userClubRoleRepository.save(role);
+        memberService.incrementClubRoleVersion(memberId);
         
         return true;
     }
@@ -116,7 +130,9 @@ public class UserClubRoleService {
         role.setClubRole(newRole);
         role.setUpdatedAt(LocalDateTime.now());
         
-        return userClubRoleRepository.save(role);
+        UserClubRole savedRole = userClubRoleRepository.save(role);
+        memberService.incrementClubRoleVersion(role.getMemberId());
+        return savedRole;
     }
     
     /**
@@ -227,24 +243,27 @@ public class UserClubRoleService {
         return userClubRoleRepository.findByMemberEmailAndActiveTrue(memberEmail);
     }
     
+    /**
+     * Get a member's active club roles. Concurrent calls for the same member share one query unless a
+     * role change, which bumps the member's club role version, happened in between.
+     */
+    public List<UserClubRole> getMemberClubRoles(Member member) {
+        return singleFlight.execute("clubRoles.byMember", () -> getMemberClubRolesByEmail(member.getEmail()),
+                member.getEmail(), member.getClubRoleVersion());
+    }
+    
     /**
      * Remove all members from a club (when club is deleted)
      */
-    public void removeAllMembersFromClub(String clubId) {
-        List<UserClubRole> clubMembers = userClubRoleRepository.findByClubId(clubId);
-        userClubRoleRepository.deleteAll(clubMembers);
+    public long removeAllMembersFromClub(String clubId) {
+        return cascadeService.deleteRoles(Criteria.where("clubId").is(clubId));
     }
     
     /**
      * Remove member from all clubs (when member is deleted/deactivated)
      */
-    public void removeMemberFromAllClubs(String memberId) {
-        List<UserClubRole> memberRoles = userClubRoleRepository.findByMemberIdAndActiveTrue(memberId);
-        for (UserClubRole role : memberRoles) {
-            role.setActive(false);
-            role.setUpdatedAt(LocalDateTime.now());
-        }
-        userClubRoleRepository.saveAll(memberRoles);
+    public long removeMemberFromAllClubs(String memberId) {
+        return cascadeService.deactivateRoles(Criteria.where("memberId").is(memberId));
     }
     
     /**
@@ -0,0 +1,231 @@
+package com.myskoolclub.backend.config;
+
+import com.myskoolclub.backend.model.Announcement;
+import com.myskoolclub.backend.model.Checkout;
+import com.myskoolclub.backend.model.Club;
+import com.myskoolclub.backend.model.Invoice;
+import com.myskoolclub.backend.model.Member;
+import com.myskoolclub.backend.model.School;
+import com.myskoolclub.backend.model.User;
+import com.myskoolclub.backend.model.UserClubRole;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Explains the query shape of every repository method the services call and fails when a plan
+ * scans a whole collection or sorts in memory. Keyword searches are listed as the anchored prefix
+ * matches on search tokens they are sent as; the remaining single-field "contains" filters use
+ * unanchored, case-insensitive regexes that no B-tree index can bound, so they are not listed.
+ * $text shapes are listed without their relevance sort, which always runs on the matched documents.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class IndexCatalogQueryPlanTest {
+
+    private record Shape(String label, Class<?> entityClass, Document filter, Document sort) {
+    }
+
+    private static final Date NOW = new Date();
+    private static final List<String> CLUB_IDS = List.of("club-a", "club-b");
+    private static final Document QUEUE_SORT = new Document("createdAt", -1).append("_id", -1);
+
+    private static final List<Shape> SHAPES = List.of(
+            // checkouts
+            shape("findByCheckoutNumber", Checkout.class, doc("checkoutNumber", "CHK-1"), null),
+            shape("findByClubId", Checkout.class, doc("clubId", "club-a"), null),
+            shape("findByClubId(pageable)", Checkout.class, doc("clubId", "club-a"), doc("checkoutNumber", 1)),
+            shape("findByClubIdOrderByCheckoutDateDesc", Checkout.class, doc("clubId", "club-a"), doc("checkoutDate", -1)),
+            shape("findByStatus", Checkout.class, doc("status", "ACTIVE"), null),
+            shape("findByStatus(pageable)", Checkout.class, doc("status", "ACTIVE"), doc("checkoutNumber", 1)),
+            shape("findByStatus(approved queue)", Checkout.class, doc("status", "APPROVED"), QUEUE_SORT),
+            shape("findByStatusOrderByCheckoutDateDesc", Checkout.class, doc("status", "ACTIVE"), doc("checkoutDate", -1)),
+            shape("findByStatusAndClubIdIn", Checkout.class,
+                    doc("status", "APPROVED").append("clubId", doc("$in", CLUB_IDS)), QUEUE_SORT),
+            shape("findByApprovalStatus", Checkout.class, doc("approvalStatus", "PENDING"), QUEUE_SORT),
+            shape("findByApprovalStatusAndClubIdIn", Checkout.class,
+                    doc("approvalStatus", "PENDING").append("clubId", doc("$in", CLUB_IDS)), QUEUE_SORT),
+            shape("findOverdueCheckouts", Checkout.class,
+                    doc("dueDate", doc("$lt", NOW)).append("status", "ACTIVE"), null),
+            shape("findByCheckoutDateBetween", Checkout.class,
+                    doc("checkoutDate", doc("$gt", NOW).append("$lt", NOW)), null),
+            shape("findByTotalEstimatedValueBetween", Checkout.class, doc("totalEstimatedValue",
+                    doc("$gte", new Decimal128(BigDecimal.ONE)).append("$lte", new Decimal128(BigDecimal.TEN))), null),
+            shape("searchCheckoutsByKeyword", Checkout.class, anyPrefix("ball", "searchTokens", "clubNameTokens"), null),
+            shape("searchCheckoutsByClubAndKeyword", Checkout.class,
+                    doc("clubId", "club-a").append("searchTokens", prefix("ball")), null),
+            shape("searchCheckoutsByKeyword($text)", Checkout.class, text("basketball"), null),
+            shape("searchCheckoutsByClubAndKeyword($text)", Checkout.class,
+                    text("basketball").append("clubId", "club-a"), null),
+
+            // invoices
+            shape("findByInvoiceNumber", Invoice.class, doc("invoiceNumber", "INV-1"), null),
+            shape("findByClubId(pageable)", Invoice.class, doc("clubId", "club-a"), doc("invoiceNumber", 1)),
+            shape("findByClubIdOrderByCreatedAtDesc", Invoice.class, doc("clubId", "club-a"), doc("createdAt", -1)),
+            shape("findByStatus(pageable)", Invoice.class, doc("status", "SENT"), doc("invoiceNumber", 1)),
+            shape("findOverdueInvoices", Invoice.class,
+                    doc("dueDate", doc("$lt", NOW)).append("status", doc("$in", List.of("SENT", "OVERDUE"))), null),
+            shape("findByApprovalStatus", Invoice.class, doc("approvalStatus", "PENDING"), QUEUE_SORT),
+            shape("findByApprovalStatusAndClubIdIn", Invoice.class,
+                    doc("approvalStatus", "PENDING").append("clubId", doc("$in", CLUB_IDS)), QUEUE_SORT),
+            shape("findByApprovalStatusAndClubId", Invoice.class,
+                    doc("approvalStatus", "PENDING").append("clubId", "club-a"), null),
+            shape("findByIssueDateBetween", Invoice.class, doc("issueDate", doc("$gt", NOW).append("$lt", NOW)), null),
+            shape("findByTotalAmountBetween", Invoice.class, doc("totalAmount",
+                    doc("$gte", new Decimal128(BigDecimal.ONE)).append("$lte", new Decimal128(BigDecimal.TEN))), null),
+            shape("searchInvoicesByKeyword", Invoice.class, anyPrefix("dues", "searchTokens", "clubNameTokens"), null),
+            shape("searchInvoicesByClubAndKeyword", Invoice.class,
+                    doc("clubId", "club-a").append("searchTokens", prefix("dues")), null),
+            shape("searchInvoicesByKeyword($text)", Invoice.class, text("dues"), null),
+            shape("searchInvoicesByClubAndKeyword($text)", Invoice.class, text("dues").append("clubId", "club-a"), null),
+
+            // clubs
+            shape("findBySchoolId(pageable)", Club.class, doc("schoolId", "school-a"), doc("name", 1)),
+            shape("findBySchoolIdAndActive(pageable)", Club.class,
+                    doc("schoolId", "school-a").append("active", true), doc("name", 1)),
+            shape("existsByNameAndSchoolIdAndIdNot", Club.class,
+                    doc("name", "Chess").append("schoolId", "school-a").append("_id", doc("$ne", "club-a")), null),
+            shape("findByCategoryAndSchoolId(pageable)", Club.class,
+                    doc("category", "Sports").append("schoolId", "school-a"), doc("name", 1)),
+            shape("findByActive(pageable)", Club.class, doc("active", true), doc("name", 1)),
+            shape("findByCategory(pageable)", Club.class, doc("category", "Sports"), doc("name", 1)),
+            shape("findByMeetingDay", Club.class, doc("meetingDay", "Monday"), null),
+            shape("findByTagsIn", Club.class, doc("tags", doc("$in", List.of("music", "art"))), null),
+            shape("searchClubsByKeyword", Club.class, anyPrefix("chess", "searchTokens", "schoolNameTokens"), null),
+            shape("searchClubsBySchoolAndKeyword", Club.class,
+                    doc("schoolId", "school-a").append("searchTokens", prefix("chess")), null),
+
+            // members
+            shape("findByEmail", Member.class, doc("email", "a@b.c"), null),
+            shape("findBySchoolIdAndIsActive", Member.class, doc("schoolId", "school-a").append("isActive", true), null),
+            shape("findByIsActive", Member.class, doc("isActive", true), null),
+            shape("findByMemberTypeAndIsActive", Member.class, doc("memberType", "STUDENT").append("isActive", true), null),
+            shape("findByGradeLevelAndIsActive", Member.class, doc("gradeLevel", "9").append("isActive", true), null),
+            shape("searchMembers", Member.class, doc("isActive", true).append("searchTokens", prefix("jo")), null),
+            // suggestions also sort by email, but only over the few members the prefix range returns
+            shape("findMemberSuggestions", Member.class,
+                    doc("isActive", true).append("schoolId", "school-a").append("searchTokens", prefix("jo")), null),
+
+            // schools
+            shape("findByName", School.class, doc("name", "Central High"), null),
+            shape("findByIsActiveTrueOrderByName", School.class, doc("isActive", true), doc("name", 1)),
+            shape("findByCity", School.class, doc("city", "Springfield"), null),
+            shape("findByState", School.class, doc("state", "IL"), null),
+            shape("findByType", School.class, doc("type", "HIGH"), null),
+            shape("searchSchoolsByName", School.class, doc("searchTokens", prefix("cent")), null),
+
+            // user_club_roles
+            shape("findByMemberIdAndActiveTrue", UserClubRole.class, doc("memberId", "m").append("active", true), null),
+            shape("findByMemberIdAndClubIdAndActiveTrue", UserClubRole.class,
+                    doc("memberId", "m").append("clubId", "club-a").append("active", true), null),
+            shape("findByMemberIdAndSchoolIdAndActiveTrue", UserClubRole.class,
+                    doc("memberId", "m").append("schoolId", "school-a").append("active", true), null),
+            shape("findByMemberIdAndClubRoleAndActiveTrue", UserClubRole.class,
+                    doc("memberId", "m").append("clubRole", "CLUB_ADMIN").append("active", true), null),
+            shape("findByClubIdAndActiveTrue", UserClubRole.class, doc("clubId", "club-a").append("active", true), null),
+            shape("findByClubIdAndClubRoleAndActiveTrue", UserClubRole.class,
+                    doc("clubId", "club-a").append("clubRole", "CLUB_ADMIN").append("active", true), null),
+            shape("findByClubIdInAndActiveTrue", UserClubRole.class,
+                    doc("clubId", doc("$in", CLUB_IDS)).append("active", true), null),
+            shape("findBySchoolIdAndActiveTrue", UserClubRole.class, doc("schoolId", "school-a").append("active", true), null),
+            shape("findByMemberEmailAndActiveTrue", UserClubRole.class,
+                    doc("memberEmail", "a@b.c").append("active", true), null),
+
+            // announcements
+            shape("findBySchoolIdAndActiveOrderByCreatedAtDesc", Announcement.class,
+                    doc("schoolId", "school-a").append("active", true), doc("createdAt", -1)),
+
+            // users
+            shape("findByUsername", User.class, doc("username", "admin"), null),
+            shape("findByUsernameOrEmail", User.class,
+                    doc("$or", List.of(doc("username", "admin"), doc("email", "a@b.c"))), null),
+            shape("findByRole", User.class, doc("role", "ADMIN"), null),
+            shape("findBySchoolIdAndRoleAndActiveTrue", User.class,
+                    doc("schoolId", "school-a").append("role", "ADMIN").append("active", true), null),
+            shape("findByActiveTrue", User.class, doc("active", true), null));
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private IndexCatalog indexCatalog;
+
+    @BeforeEach
+    void buildIndexes() {
+        indexCatalog.ensureIndexes();
+    }
+
+    @Test
+    void testEveryDeclaredIndexExists() {
+        List<IndexCatalog.Drift> drifts = indexCatalog.verify();
+        assertTrue(drifts.stream().allMatch(drift -> drift.missing().isEmpty() && drift.conflicting().isEmpty()),
+                "Index drift: " + drifts);
+    }
+
+    @Test
+    void testNoQueryShapeScansCollectionOrSortsInMemory() {
+        List<String> violations = new ArrayList<>();
+        for (Shape shape : SHAPES) {
+            var find = mongoTemplate.getCollection(mongoTemplate.getCollectionName(shape.entityClass())).find(shape.filter());
+            if (shape.sort() != null) {
+                find = find.sort(shape.sort());
+            }
+            Document winningPlan = find.explain().get("queryPlanner", Document.class).get("winningPlan", Document.class);
+            List<String> stages = new ArrayList<>();
+            collectStages(winningPlan, stages);
+            if (stages.contains("COLLSCAN") || stages.contains("SORT")) {
+                violations.add(shape.entityClass().getSimpleName() + "." + shape.label() + " -> " + stages);
+            }
+        }
+        assertTrue(violations.isEmpty(), "Unindexed query shapes: " + violations);
+    }
+
+    // Classic and slot-based plans nest their stages under different keys, so walk the whole tree
+    private static void collectStages(Object node, List<String> stages) {
+        if (node instanceof Document document) {
+            Object stage = document.get("stage");
+            if (stage instanceof String) {
+                stages.add((String) stage);
+            }
+            document.values().forEach(value -> collectStages(value, stages));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectStages(value, stages));
+        }
+    }
+
+    private static Shape shape(String label, Class<?> entityClass, Document filter, Document sort) {
+        return new Shape(label, entityClass, filter, sort);
+    }
+
+    private static Document text(String search) {
+        return doc("$text", doc("$search", search));
+    }
+
+    private static Document prefix(String value) {
+        return doc("$regex", "^" + value);
+    }
+
+    private static Document anyPrefix(String value, String... fields) {
+        List<Document> alternatives = new ArrayList<>();
+        for (String field : fields) {
+            alternatives.add(doc(field, prefix(value)));
+        }
+        return doc("$or", alternatives);
+    }
+
+    private static Document doc(String key, Object value) {
+        return new Document(key, value);
+    }
+}
@@ -48,4 +48,21 @@ class JwtTokenUtilTest {
         assertNotNull(jwtTokenUtil.getExpirationDateFromToken(token));
         assertTrue(jwtTokenUtil.getExpirationDateFromToken(token).after(new java.util.Date()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCachedClaimsDoNotBypassSignatureCheck() {
+        String token = jwtTokenUtil.generateToken("testuser");
+        
+        // Verify once so the claims are cached
+        assertTrue(jwtTokenUtil.validateToken(token));
+        assertEquals("testuser", jwtTokenUtil.getUsernameFromToken(token));
+        
+        // A tampered signature must still be rejected
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        assertFalse(jwtTokenUtil.validateToken(tampered));
+        
+        // Tokens signed with another key must be rejected
+        JwtTokenUtil otherKey = new JwtTokenUtil("another-secret-key-for-jwt-tokens-minimum-512-bits-required-for-hs512-algorithm");
+        assertFalse(otherKey.validateToken(token));
+    }
+}
@@ -0,0 +1,67 @@
+package com.myskoolclub.backend.security;
+
+import com.myskoolclub.backend.model.Member;
+import com.myskoolclub.backend.model.UserClubRole;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemberCapabilitiesTest {
+
+    @Test
+    void testSchoolAdminCapabilities() {
+        Member member = new Member();
+        member.setRole("SCHOOL_ADMIN");
+        member.setSchoolId("school-1");
+
+        List<UserClubRole> clubRoles = List.of(
+            new UserClubRole("member-1", "club-b", "school-1", "CLUB_ADMIN"),
+            new UserClubRole("member-1", "club-c", "school-1", "CLUB_USER"),
+            new UserClubRole("member-1", "club-a", "school-1", "CLUB_ADMIN"));
+
+        MemberCapabilities capabilities = MemberCapabilities.of(member, clubRoles);
+
+        assertTrue(capabilities.isAuthenticated());
+        assertTrue(capabilities.isSchoolAdmin());
+        assertFalse(capabilities.isAppAdmin());
+        assertTrue(capabilities.belongsToSchool("school-1"));
+        assertFalse(capabilities.belongsToSchool("school-2"));
+        assertTrue(capabilities.isClubAdmin("club-a"));
+        assertTrue(capabilities.isClubAdmin("club-b"));
+        assertFalse(capabilities.isClubAdmin("club-c"));
+        assertFalse(capabilities.isClubAdmin(null));
+    }
+
+    @Test
+    void testClubRolesAreOnlyFetchedByClubChecks() {
+        Member member = new Member();
+        member.setRole("SCHOOL_ADMIN");
+        member.setSchoolId("school-1");
+
+        AtomicInteger lookups = new AtomicInteger();
+        MemberCapabilities capabilities = MemberCapabilities.lazy(member, () -> {
+            lookups.incrementAndGet();
+            return List.of(new UserClubRole("member-1", "club-a", "school-1", "CLUB_ADMIN"));
+        });
+
+        assertTrue(capabilities.hasAnyRole(MemberCapabilities.APP_ADMIN | MemberCapabilities.SCHOOL_ADMIN));
+        assertTrue(capabilities.belongsToSchool("school-1"));
+        assertEquals(0, lookups.get());
+
+        assertTrue(capabilities.isClubAdmin("club-a"));
+        assertFalse(capabilities.isClubAdmin("club-b"));
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    void testAnonymousCapabilities() {
+        MemberCapabilities capabilities = MemberCapabilities.of(null, null);
+
+        assertFalse(capabilities.isAuthenticated());
+        assertFalse(capabilities.hasAnyRole(MemberCapabilities.APP_ADMIN | MemberCapabilities.SCHOOL_ADMIN));
+        assertFalse(capabilities.isClubAdmin("club-a"));
+    }
+}
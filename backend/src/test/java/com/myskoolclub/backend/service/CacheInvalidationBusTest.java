@@ -0,0 +1,57 @@
+package com.myskoolclub.backend.service;
+
+import com.myskoolclub.backend.model.Club;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheInvalidationBusTest extends SchoolDataTestSupport {
+
+    @Autowired
+    private ClubService clubService;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @Test
+    void testEventsFromOtherInstancesEvictCachedClubs() throws InterruptedException {
+        assertTrue(waitFor(invalidationBus::isFollowing), "the bus never started following");
+
+        Club club = clubService.createClub(new Club("Debate", schoolId, "Bus High", "Weekly debates"));
+        assertEquals("Weekly debates", clubService.getClubById(club.getId()).orElseThrow().getDescription());
+
+        // Another instance writes the club; until its event arrives this instance serves the cached copy
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(club.getId())),
+                new Update().set("description", "Changed elsewhere"), Club.class);
+        assertEquals("Weekly debates", clubService.getClubById(club.getId()).orElseThrow().getDescription());
+
+        mongoTemplate.getCollection(CacheInvalidationBus.COLLECTION).insertOne(new Document("entity", "CLUB")
+                .append("id", club.getId())
+                .append("schoolId", schoolId)
+                .append("keys", List.of())
+                .append("version", System.currentTimeMillis())
+                .append("origin", "another-instance"));
+
+        assertTrue(waitFor(() -> "Changed elsewhere".equals(
+                clubService.getClubById(club.getId()).orElseThrow().getDescription())));
+    }
+
+    private static boolean waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(50);
+        }
+        return false;
+    }
+}
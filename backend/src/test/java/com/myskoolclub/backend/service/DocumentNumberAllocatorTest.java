@@ -0,0 +1,69 @@
+package com.myskoolclub.backend.service;
+
+import com.myskoolclub.backend.model.Invoice;
+import com.myskoolclub.backend.model.LineItem;
+import com.myskoolclub.backend.repository.InvoiceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DocumentNumberAllocatorTest {
+
+    private static final int INVOICE_COUNT = 10_000;
+    private static final int THREADS = 16;
+
+    private final String clubId = "allocator-test-" + UUID.randomUUID();
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @AfterEach
+    void cleanUp() {
+        invoiceRepository.deleteAll(invoiceRepository.findByClubId(clubId));
+    }
+
+    @Test
+    void testParallelInvoiceCreationNeverCollides() throws Exception {
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < INVOICE_COUNT; i++) {
+                futures.add(executor.submit(() -> {
+                    Invoice invoice = new Invoice(null, clubId, "Allocator Test Club");
+                    invoice.setCreatedByName("Load Tester");
+                    invoice.setLineItems(List.of(new LineItem("Dues", 1, BigDecimal.TEN)));
+                    numbers.add(invoiceService.createInvoice(invoice).getInvoiceNumber());
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(INVOICE_COUNT, numbers.size());
+        assertEquals(INVOICE_COUNT, invoiceRepository.findByClubId(clubId).size());
+        assertTrue(numbers.stream().allMatch(number -> number.matches("INV-\\d{12}-LOAD-\\d{4,}")));
+    }
+}
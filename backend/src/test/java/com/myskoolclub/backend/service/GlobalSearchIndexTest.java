@@ -0,0 +1,94 @@
+package com.myskoolclub.backend.service;
+
+import com.myskoolclub.backend.model.Club;
+import com.myskoolclub.backend.model.Member;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlobalSearchIndexTest extends SchoolDataTestSupport {
+
+    @Autowired
+    private GlobalSearchIndex searchIndex;
+
+    @Autowired
+    private ClubService clubService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private AnnouncementService announcementService;
+
+    @Test
+    void testAccentsTyposAndPrefixesMatch() {
+        Member admin = createAdmin();
+        Club club = createClub();
+        announcementService.createAnnouncement(schoolId, "Chess finals", "Finals are on Friday", admin.getId());
+
+        assertEquals(List.of(admin.getId()), ids(search("renee dubios", List.of(GlobalSearchIndex.Type.MEMBER))));
+        assertEquals(List.of(club.getId()), ids(search("chesss", List.of(GlobalSearchIndex.Type.CLUB))));
+        assertEquals(2, search("ches", null).getTotalElements());
+        assertEquals(GlobalSearchIndex.Type.ANNOUNCEMENT, search("friday", null).getContent().get(0).type());
+    }
+
+    @Test
+    void testOtherSchoolsAreNotSearched() {
+        createClub();
+        assertEquals(0, searchIndex.search("chess", List.of(otherSchoolId), null, true,
+                PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void testRenamedClubIsFoundUnderItsNewNameOnly() {
+        Club club = createClub();
+
+        Club renamed = new Club();
+        renamed.setName("Go Club");
+        clubService.updateClubPartial(club.getId(), renamed);
+        assertEquals(List.of(club.getId()), ids(search("go", List.of(GlobalSearchIndex.Type.CLUB))));
+        assertTrue(search("chess", List.of(GlobalSearchIndex.Type.CLUB)).isEmpty());
+    }
+
+    @Test
+    void testDeletedMemberIsNotFound() {
+        Member admin = createAdmin();
+        memberService.deleteMember(admin.getId());
+        assertTrue(search("dubois", List.of(GlobalSearchIndex.Type.MEMBER)).isEmpty());
+    }
+
+    @Test
+    void testRebuildGivesTheSameAnswersAsTheWriteHooks() {
+        Member admin = createAdmin();
+        Club club = createClub();
+        memberService.deleteMember(admin.getId());
+
+        searchIndex.rebuild(schoolId);
+        assertEquals(List.of(club.getId()), ids(search("chess", List.of(GlobalSearchIndex.Type.CLUB))));
+        assertTrue(search("dubois", List.of(GlobalSearchIndex.Type.MEMBER)).isEmpty());
+    }
+
+    private Member createAdmin() {
+        Member admin = memberService.createMember(new Member("Renée", "Dubois", "member." + UUID.randomUUID() + "@search.test",
+                "teacher", "SCHOOL_ADMIN", schoolId, "Search High", "hash"));
+        return memberService.activateMember(admin.getId());
+    }
+
+    private Club createClub() {
+        return clubService.createClub(new Club("Chess Club", schoolId, "Search High", "Weekly tournaments"));
+    }
+
+    private Page<GlobalSearchIndex.Hit> search(String query, List<GlobalSearchIndex.Type> types) {
+        return searchIndex.search(query, List.of(schoolId), types, false, PageRequest.of(0, 10));
+    }
+
+    private static List<String> ids(Page<GlobalSearchIndex.Hit> hits) {
+        return hits.getContent().stream().map(GlobalSearchIndex.Hit::id).toList();
+    }
+}
@@ -0,0 +1,154 @@
+package com.myskoolclub.backend.service;
+
+import com.myskoolclub.backend.config.IndexCatalog;
+import com.myskoolclub.backend.model.Member;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the old unanchored, case-insensitive regex member search with the token prefix search
+ * on 500k members. Seeding takes a while, so it only runs with -Dbenchmark=true.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MemberSearchBenchmarkTest {
+
+    private static final int MEMBER_COUNT = 500_000;
+    private static final int BATCH_SIZE = 10_000;
+    private static final int WARMUP_RUNS = 5;
+    private static final int MEASURED_RUNS = 25;
+    private static final String[] FIRST_NAMES = {
+            "Amélie", "Bruno", "Chloé", "Daniel", "Élodie", "Farid", "Grace", "Hugo", "Inès", "José",
+            "Kiran", "Léa", "Mateo", "Noémie", "Oscar", "Priya", "Quentin", "Rosa", "Søren", "Tomás"};
+
+    private final String schoolId = "search-benchmark-" + UUID.randomUUID();
+    private final Random random = new Random(42);
+    private final List<String> lastNames = new ArrayList<>();
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private IndexCatalog indexCatalog;
+
+    @BeforeEach
+    void seedMembers() {
+        indexCatalog.ensureIndexes();
+        List<Document> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            String firstName = FIRST_NAMES[i % FIRST_NAMES.length];
+            String lastName = randomLastName();
+            lastNames.add(lastName);
+            String email = firstName.toLowerCase() + "." + lastName.toLowerCase() + "." + i + "@" + schoolId + ".test";
+            String studentId = "S" + i;
+            batch.add(new Document("firstName", firstName)
+                    .append("lastName", lastName)
+                    .append("email", email)
+                    .append("studentId", studentId)
+                    .append("memberType", "student")
+                    .append("schoolId", schoolId)
+                    .append("schoolName", "Benchmark High")
+                    .append("isActive", true)
+                    .append(SearchTokens.FIELD, SearchTokens.of(firstName, lastName, email, studentId))
+                    .append(SearchTokens.SCHOOL_NAME_FIELD, SearchTokens.of("Benchmark High")));
+            if (batch.size() == BATCH_SIZE) {
+                mongoTemplate.getCollection(mongoTemplate.getCollectionName(Member.class)).insertMany(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        mongoTemplate.remove(Query.query(Criteria.where("schoolId").is(schoolId)), Member.class);
+    }
+
+    @Test
+    void testPrefixSearchIsFasterThanRegexSearch() {
+        String term = lastNames.get(MEMBER_COUNT / 2).substring(0, 5);
+
+        // The query searchActiveMembers used to send
+        Pattern contains = Pattern.compile(term, Pattern.CASE_INSENSITIVE);
+        Query regexQuery = Query.query(Criteria.where("isActive").is(true).orOperator(
+                Criteria.where("firstName").regex(contains),
+                Criteria.where("lastName").regex(contains),
+                Criteria.where("email").regex(contains),
+                Criteria.where("studentId").regex(contains),
+                Criteria.where("memberType").regex(contains)));
+
+        Set<String> regexIds = ids(mongoTemplate.find(regexQuery, Member.class));
+        Set<String> prefixIds = ids(memberService.searchMembers(term));
+        assertFalse(prefixIds.isEmpty(), "Prefix search found nothing for " + term);
+        assertTrue(regexIds.containsAll(prefixIds), "Prefix matches must also be substring matches");
+
+        long[] regexTimes = time(() -> mongoTemplate.find(regexQuery, Member.class));
+        long[] prefixTimes = time(() -> memberService.searchMembers(term));
+
+        String timings = String.format(
+                "over %d members, term '%s' (%d prefix / %d substring matches): regex median %.2f ms p95 %.2f ms, "
+                        + "prefix median %.2f ms p95 %.2f ms",
+                MEMBER_COUNT, term, prefixIds.size(), regexIds.size(),
+                millis(regexTimes, 50), millis(regexTimes, 95), millis(prefixTimes, 50), millis(prefixTimes, 95));
+        assertTrue(millis(prefixTimes, 50) < millis(regexTimes, 50),
+                "Prefix search should beat the collection scan regex search at the median " + timings);
+        assertTrue(millis(prefixTimes, 95) < millis(regexTimes, 95),
+                "Prefix search should beat the collection scan regex search at p95 " + timings);
+    }
+
+    private String randomLastName() {
+        char[] letters = new char[8];
+        letters[0] = (char) ('A' + random.nextInt(26));
+        for (int i = 1; i < letters.length; i++) {
+            letters[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(letters);
+    }
+
+    private static long[] time(Supplier<List<Member>> search) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            search.get();
+        }
+        long[] nanos = new long[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            search.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static double millis(long[] sortedNanos, int percentile) {
+        int index = Math.min(sortedNanos.length - 1, (int) Math.ceil(percentile / 100.0 * sortedNanos.length) - 1);
+        return sortedNanos[index] / 1_000_000.0;
+    }
+
+    private static Set<String> ids(List<Member> members) {
+        return members.stream().map(Member::getId).collect(Collectors.toSet());
+    }
+}
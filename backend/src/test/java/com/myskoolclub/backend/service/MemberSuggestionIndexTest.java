@@ -0,0 +1,86 @@
+package com.myskoolclub.backend.service;
+
+import com.myskoolclub.backend.model.Member;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemberSuggestionIndexTest extends SchoolDataTestSupport {
+
+    private static final List<String> ADMIN_ROLES = List.of("SCHOOL_USER", "SCHOOL_ADMIN");
+
+    @Autowired
+    private MemberService memberService;
+
+    @Test
+    void testAccentsAreFoldedAndStudentsAreNotSuggested() {
+        activeMember("Renée", "Dubois", "SCHOOL_USER");
+        activeMember("Ravi", "Das", "SCHOOL_ADMIN");
+        Member student = memberService.createMember(new Member("Rena", "Doyle", uniqueEmail(), "student",
+                "STUDENT", schoolId, "Suggestion High", "hash"));
+        memberService.activateMember(student.getId());
+
+        assertEquals(Set.of("Renée", "Ravi"), Set.copyOf(suggest("r d")));
+        assertEquals(List.of("Renée"), suggest("rene dub"));
+    }
+
+    @Test
+    void testWritesAfterTheSchoolIsLoadedAreApplied() {
+        Member renee = activeMember("Renée", "Dubois", "SCHOOL_USER");
+        assertEquals(List.of("Renée"), suggest("r"));
+
+        activeMember("Rémi", "Durand", "SCHOOL_USER");
+        Member renamed = memberService.getMemberById(renee.getId()).orElseThrow();
+        renamed.setFirstName("Irene");
+        memberService.updateMember(renee.getId(), renamed);
+
+        assertEquals(List.of("Irene"), suggest("ire"));
+        assertTrue(suggest("renee").isEmpty());
+        assertEquals(List.of("Rémi"), suggest("r"));
+    }
+
+    @Test
+    void testDeletedMembersAreNotSuggested() {
+        Member renee = activeMember("Renée", "Dubois", "SCHOOL_USER");
+        assertEquals(List.of("Renée"), suggest("renee"));
+
+        memberService.deleteMember(renee.getId());
+        assertTrue(suggest("renee").isEmpty());
+    }
+
+    @Test
+    void testClubAdminCandidatesArePaged() {
+        activeMember("Renée", "Dubois", "SCHOOL_USER");
+        activeMember("Ravi", "Das", "SCHOOL_ADMIN");
+
+        Page<Member> page = memberService.findClubAdminCandidates(schoolId, "", PageRequest.of(0, 1));
+        assertEquals(2, page.getTotalElements());
+        assertEquals(List.of("Ravi"), firstNames(page.getContent()));
+    }
+
+    private List<String> suggest(String query) {
+        return firstNames(memberService.findMemberSuggestions(schoolId, query, ADMIN_ROLES, 10));
+    }
+
+    private Member activeMember(String firstName, String lastName, String role) {
+        Member member = memberService.createMember(new Member(firstName, lastName, uniqueEmail(), "teacher",
+                role, schoolId, "Suggestion High", "hash"));
+        return memberService.activateMember(member.getId());
+    }
+
+    // Emails share no words with the names, so only name matches are asserted
+    private static String uniqueEmail() {
+        return "member." + UUID.randomUUID() + "@suggestion.test";
+    }
+
+    private static List<String> firstNames(List<Member> members) {
+        return members.stream().map(Member::getFirstName).toList();
+    }
+}
@@ -0,0 +1,81 @@
+package com.myskoolclub.backend.service;
+
+import com.myskoolclub.backend.model.Club;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReferenceDataCacheTest extends SchoolDataTestSupport {
+
+    @Autowired
+    private ClubService clubService;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Test
+    void testClubReadsAreServedFromTheCache() {
+        Club club = createClub();
+        assertEquals(List.of("Robotics"), names(clubService.getActiveClubsBySchool(schoolId)));
+        assertEquals("Build robots", clubService.getClubById(club.getId()).orElseThrow().getDescription());
+        long hits = hits("clubsById");
+
+        // A write that bypasses the service is not seen until the entry is evicted
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(club.getId())),
+                new Update().set("description", "Changed behind the cache"), Club.class);
+        assertEquals("Build robots", clubService.getClubById(club.getId()).orElseThrow().getDescription());
+        assertEquals(hits + 1, hits("clubsById"));
+    }
+
+    @Test
+    void testCallersGetTheirOwnCopy() {
+        Club club = createClub();
+        clubService.getClubById(club.getId()).orElseThrow().setName("Mutated");
+        assertEquals("Robotics", clubService.getClubById(club.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void testUpdatesThroughTheServiceEvictTheClub() {
+        Club club = createClub();
+        clubService.getClubById(club.getId());
+        clubService.getActiveClubsBySchool(schoolId);
+
+        Club renamed = new Club();
+        renamed.setName("Robotics Lab");
+        clubService.updateClubPartial(club.getId(), renamed);
+        assertEquals("Robotics Lab", clubService.getClubById(club.getId()).orElseThrow().getName());
+        assertEquals(List.of("Robotics Lab"), names(clubService.getActiveClubsBySchool(schoolId)));
+    }
+
+    @Test
+    void testDeactivationAndDeletionEvictTheClub() {
+        Club club = createClub();
+        clubService.getClubById(club.getId());
+        clubService.getActiveClubsBySchool(schoolId);
+
+        clubService.deactivateClub(club.getId());
+        assertFalse(clubService.getClubById(club.getId()).orElseThrow().isActive());
+        assertTrue(clubService.getActiveClubsBySchool(schoolId).isEmpty());
+
+        clubService.deleteClub(club.getId());
+        assertTrue(clubService.getClubById(club.getId()).isEmpty());
+    }
+
+    private Club createClub() {
+        return clubService.createClub(new Club("Robotics", schoolId, "Cache High", "Build robots"));
+    }
+
+    private long hits(String cache) {
+        return (long) referenceDataCache.getStats().get(cache).get("hits");
+    }
+
+    private static List<String> names(List<Club> clubs) {
+        return clubs.stream().map(Club::getName).toList();
+    }
+}
@@ -0,0 +1,56 @@
+package com.myskoolclub.backend.service;
+
+import com.myskoolclub.backend.model.Club;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceVersionsTest extends SchoolDataTestSupport {
+
+    @Autowired
+    private ClubService clubService;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Test
+    void testClubWritesMoveTheVersionsOfTheirSchoolOnly() {
+        String school = tag(schoolId);
+        String otherSchool = tag(otherSchoolId);
+        String allClubs = tag(null);
+
+        createClub();
+        assertNotEquals(school, tag(schoolId));
+        assertNotEquals(allClubs, tag(null));
+        assertEquals(otherSchool, tag(otherSchoolId));
+    }
+
+    @Test
+    void testMovingAClubMovesBothSchools() {
+        Club club = createClub();
+        String school = tag(schoolId);
+        String otherSchool = tag(otherSchoolId);
+
+        clubService.updateClub(club.getId(), new Club("Drama", otherSchoolId, "Version High", "Stage plays"));
+        assertNotEquals(school, tag(schoolId));
+        assertNotEquals(otherSchool, tag(otherSchoolId));
+    }
+
+    @Test
+    void testChangesToEverySchoolMoveEachSchool() {
+        // Such as propagated school names
+        String school = tag(schoolId);
+        resourceVersions.changed(ResourceVersions.Resource.CLUBS, null);
+        assertNotEquals(school, tag(schoolId));
+        assertTrue(resourceVersions.lastModified(ResourceVersions.Resource.CLUBS, schoolId) <= System.currentTimeMillis());
+    }
+
+    private Club createClub() {
+        return clubService.createClub(new Club("Drama", schoolId, "Version High", "Stage plays"));
+    }
+
+    private String tag(String schoolId) {
+        return resourceVersions.tag(ResourceVersions.Resource.CLUBS, schoolId);
+    }
+}
@@ -0,0 +1,51 @@
+package com.myskoolclub.backend.service;
+
+import com.myskoolclub.backend.model.Announcement;
+import com.myskoolclub.backend.model.Club;
+import com.myskoolclub.backend.model.Member;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+/**
+ * Gives each test two throwaway schools and afterwards removes their clubs, members and announcements
+ * together with everything the in-process caches and indexes hold for them.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+abstract class SchoolDataTestSupport {
+
+    protected final String schoolId = getClass().getSimpleName() + "-" + UUID.randomUUID();
+    protected final String otherSchoolId = "other-" + schoolId;
+
+    @Autowired
+    protected MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private MemberSuggestionIndex suggestionIndex;
+
+    @Autowired
+    private GlobalSearchIndex searchIndex;
+
+    @AfterEach
+    void removeSchoolData() {
+        Query bySchool = Query.query(Criteria.where("schoolId").in(schoolId, otherSchoolId));
+        mongoTemplate.remove(bySchool, Announcement.class);
+        mongoTemplate.remove(bySchool, Club.class);
+        mongoTemplate.remove(bySchool, Member.class);
+        for (String school : new String[] {schoolId, otherSchoolId}) {
+            referenceDataCache.evictSchool(school);
+            suggestionIndex.evict(school);
+            searchIndex.dropSchool(school);
+        }
+    }
+}
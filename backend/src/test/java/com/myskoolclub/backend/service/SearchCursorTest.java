@@ -0,0 +1,41 @@
+package com.myskoolclub.backend.service;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchCursorTest {
+
+    private static final Sort.Order ORDER = Sort.Order.asc("name");
+
+    @Test
+    void testIssuedCursorsDecode() {
+        ObjectId id = new ObjectId();
+        SearchCursor cursor = SearchCursor.decode(SearchCursor.after(ORDER, "Chess", id).encode());
+        assertTrue(cursor.matches(ORDER));
+        assertNotNull(cursor.toCriteria());
+
+        assertTrue(SearchCursor.decode(SearchCursor.after(ORDER, new Date(), id).encode()).matches(ORDER));
+        assertTrue(SearchCursor.decode(SearchCursor.after(ORDER, null, id).encode()).matches(ORDER));
+    }
+
+    @Test
+    void testOperatorsInTheTokenAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> SearchCursor.decode(token("{\"f\": \"name\", \"d\": \"ASC\", \"v\": {\"$ne\": null}, \"i\": \"1\"}")));
+        assertThrows(IllegalArgumentException.class,
+                () -> SearchCursor.decode(token("{\"f\": \"name\", \"d\": \"ASC\", \"v\": \"Chess\", \"i\": {\"$gt\": \"\"}}")));
+        assertThrows(IllegalArgumentException.class,
+                () -> SearchCursor.decode(token("{\"f\": \"name\", \"d\": \"ASC\", \"v\": [\"Chess\"], \"i\": \"1\"}")));
+    }
+
+    private static String token(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,72 @@
+package com.myskoolclub.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    @Test
+    void testConcurrentIdenticalCallsShareOneQuery() throws Exception {
+        int callers = 8;
+        AtomicInteger queries = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<List<String>>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("clubs", () -> {
+                    queries.incrementAndGet();
+                    // Hold the query open until every caller has arrived
+                    while (calls("clubs") < callers) {
+                        Thread.onSpinWait();
+                    }
+                    sleep(100);
+                    return List.of("Chess");
+                }, "school-1", 0)));
+            }
+            for (Future<List<String>> result : results) {
+                assertEquals(List.of("Chess"), result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, queries.get());
+        assertEquals(7L, singleFlight.getStats().get("clubs").get("coalesced"));
+        assertEquals(0, singleFlight.getInFlightCount());
+
+        // Finished flights are not reused, and other arguments are other flights
+        singleFlight.execute("clubs", queries::incrementAndGet, "school-1", 0);
+        singleFlight.execute("clubs", queries::incrementAndGet, "school-2", 0);
+        assertEquals(3, queries.get());
+    }
+
+    @Test
+    void testFailuresReachTheCallerAndAreNotKept() {
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("announcements", () -> {
+            throw new IllegalStateException("Mongo unavailable");
+        }, "school-1"));
+        assertEquals("ok", singleFlight.execute("announcements", () -> "ok", "school-1"));
+    }
+
+    private long calls(String operation) {
+        return (long) singleFlight.getStats().get(operation).get("calls");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}